@@ -4,14 +4,26 @@
  */
 package org.geoserver.cloud.config.catalog.backend.catalogservice;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
 import lombok.extern.slf4j.Slf4j;
 
 import org.geoserver.GeoServerConfigurationLock;
 import org.geoserver.catalog.plugin.ExtendedCatalogFacade;
+import org.geoserver.cloud.catalog.client.impl.CatalogChangeStreamSubscriber;
 import org.geoserver.cloud.catalog.client.impl.CatalogClientCatalogFacade;
 import org.geoserver.cloud.catalog.client.impl.CatalogClientConfiguration;
 import org.geoserver.cloud.catalog.client.impl.CatalogClientGeoServerFacade;
+import org.geoserver.cloud.catalog.client.impl.CatalogClientReplicaFacade;
+import org.geoserver.cloud.catalog.client.impl.CatalogClientReplicaUpdater;
 import org.geoserver.cloud.catalog.client.impl.CatalogClientResourceStore;
+import org.geoserver.cloud.catalog.client.reactivefeign.BlockingBridge;
+import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveCatalogClient;
+import org.geoserver.cloud.catalog.client.repository.CatalogClientRepository;
+import org.geoserver.cloud.catalog.client.repository.CatalogClientStoreRepository;
 import org.geoserver.cloud.config.catalog.backend.core.GeoServerBackendConfigurer;
 import org.geoserver.config.GeoServerFacade;
 import org.geoserver.config.GeoServerLoader;
@@ -20,7 +32,9 @@ import org.geoserver.platform.config.UpdateSequence;
 import org.geoserver.platform.resource.FileSystemResourceStore;
 import org.geoserver.platform.resource.ResourceStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
@@ -28,10 +42,12 @@ import org.springframework.context.annotation.Import;
 import org.springframework.core.env.Environment;
 
 import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Configuration(proxyBeanMethods = true)
 @EnableConfigurationProperties(CatalogClientProperties.class)
-@Import(CatalogClientConfiguration.class)
+@Import({CatalogClientConfiguration.class, CatalogClientHttpConfiguration.class})
 @Slf4j(topic = "org.geoserver.cloud.config.catalogclient")
 public class CatalogClientBackendConfigurer implements GeoServerBackendConfigurer {
 
@@ -41,6 +57,9 @@ public class CatalogClientBackendConfigurer implements GeoServerBackendConfigure
 
     private @Autowired CatalogClientProperties catalogClientConfig;
 
+    private @Autowired List<CatalogClientRepository<?>> catalogClientRepositories;
+    private @Autowired CatalogClientStoreRepository catalogClientStoreRepository;
+
     public CatalogClientBackendConfigurer() {
         log.info(
                 "Loading geoserver config backend with {}",
@@ -57,10 +76,91 @@ public class CatalogClientBackendConfigurer implements GeoServerBackendConfigure
         throw new UnsupportedOperationException("implement");
     }
 
+    /**
+     * Applies the coalescing, revalidation, and streaming settings to the catalog-service client
+     * repositories. Static, for the post processor to be registered before the repositories, which
+     * this configuration class depends on, are created.
+     */
+    @Bean
+    static CatalogClientRepositoryPostProcessor catalogClientRepositoryPostProcessor() {
+        return new CatalogClientRepositoryPostProcessor();
+    }
+
     public @Override @Bean ExtendedCatalogFacade catalogFacade() {
+        if (catalogClientConfig.getReplica().isEnabled()) {
+            log.info("Serving catalog reads from a local replica of the catalog-service catalog");
+            return catalogClientReplicaFacade();
+        }
         return catalogClientFacade;
     }
 
+    /**
+     * Local replica of the catalog-service catalog, if {@code
+     * geoserver.backend.catalog-service.replica.enabled=true}
+     */
+    @Bean
+    @ConditionalOnProperty(
+            name = "geoserver.backend.catalog-service.replica.enabled",
+            havingValue = "true")
+    public CatalogClientReplicaFacade catalogClientReplicaFacade() {
+        return new CatalogClientReplicaFacade(catalogClientFacade, catalogClientStoreRepository);
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+            name = "geoserver.backend.catalog-service.replica.enabled",
+            havingValue = "true")
+    public CatalogClientReplicaUpdater catalogClientReplicaUpdater(
+            CatalogClientReplicaFacade replica) {
+        return new CatalogClientReplicaUpdater(replica);
+    }
+
+    /**
+     * Queue depth, active calls, and queue wait time of the {@link BlockingBridge} shared by the
+     * catalog-service clients
+     */
+    public @Bean MeterBinder catalogClientBlockingBridgeMetrics(BlockingBridge bridge) {
+        final String prefix = "geoserver.catalog.client.blocking.bridge";
+        return registry -> {
+            Gauge.builder(prefix + ".queued", bridge, BlockingBridge::getQueueSize)
+                    .description("Calls waiting for a blocking bridge thread")
+                    .register(registry);
+            Gauge.builder(prefix + ".active", bridge, BlockingBridge::getActiveCount)
+                    .description("Calls running on a blocking bridge thread")
+                    .register(registry);
+            FunctionCounter.builder(prefix + ".calls", bridge, BlockingBridge::getBridgedCallCount)
+                    .description("Calls run on a blocking bridge thread")
+                    .register(registry);
+            FunctionTimer.builder(
+                            prefix + ".wait",
+                            bridge,
+                            BlockingBridge::getBridgedCallCount,
+                            b -> b.getTotalWaitTime().toNanos(),
+                            TimeUnit.NANOSECONDS)
+                    .description("Time calls waited for a blocking bridge thread")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Applies the catalog-service change stream to the local cache, if {@code
+     * geoserver.backend.catalog-service.change-stream.enabled=true}
+     */
+    @Bean
+    @ConditionalOnProperty(
+            name = "geoserver.backend.catalog-service.change-stream.enabled",
+            havingValue = "true")
+    public CatalogChangeStreamSubscriber catalogChangeStreamSubscriber(
+            ReactiveCatalogClient client, ApplicationEventPublisher publisher) {
+        CatalogClientProperties.ChangeStream changeStream = catalogClientConfig.getChangeStream();
+        return new CatalogChangeStreamSubscriber(
+                client,
+                catalogClientRepositories,
+                publisher,
+                changeStream.getMinBackoff(),
+                changeStream.getMaxBackoff());
+    }
+
     public @Override @Bean GeoServerFacade geoserverFacade() {
         return configClientFacade;
     }
@@ -84,7 +184,11 @@ public class CatalogClientBackendConfigurer implements GeoServerBackendConfigure
         "wmtsLoader"
     })
     public @Override @Bean GeoServerLoader geoServerLoaderImpl() {
-        return new CatalogClientGeoServerLoader(resourceLoader());
+        CatalogClientReplicaFacade replica =
+                catalogClientConfig.getReplica().isEnabled()
+                        ? catalogClientReplicaFacade()
+                        : null;
+        return new CatalogClientGeoServerLoader(resourceLoader(), replica);
     }
 
     public @Override @Bean GeoServerResourceLoader resourceLoader() {
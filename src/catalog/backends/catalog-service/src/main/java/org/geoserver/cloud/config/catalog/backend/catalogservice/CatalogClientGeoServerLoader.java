@@ -8,12 +8,14 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.cloud.catalog.client.impl.CatalogClientReplicaFacade;
 import org.geoserver.config.GeoServer;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.GeoServerLoader;
 import org.geoserver.config.util.XStreamPersister;
 import org.geoserver.platform.GeoServerResourceLoader;
 import org.opengis.filter.Filter;
+import org.springframework.lang.Nullable;
 
 import java.io.IOException;
 
@@ -21,8 +23,20 @@ import java.io.IOException;
 @Slf4j
 public class CatalogClientGeoServerLoader extends GeoServerLoader {
 
+    private final CatalogClientReplicaFacade replica;
+
     public CatalogClientGeoServerLoader(GeoServerResourceLoader resourceLoader) {
+        this(resourceLoader, null);
+    }
+
+    /**
+     * @param replica the local catalog replica to load, or {@code null} if catalog reads are served
+     *     by the catalog-service
+     */
+    public CatalogClientGeoServerLoader(
+            GeoServerResourceLoader resourceLoader, @Nullable CatalogClientReplicaFacade replica) {
         super(resourceLoader);
+        this.replica = replica;
     }
 
     protected @Override void initializeDefaultStyles(Catalog catalog) throws IOException {
@@ -36,6 +50,11 @@ public class CatalogClientGeoServerLoader extends GeoServerLoader {
     }
 
     protected @Override void loadCatalog(Catalog catalog, XStreamPersister xp) throws Exception {
+        if (replica != null) {
+            // an incomplete replica would serve wrong results, let startup fail instead
+            replica.replicate();
+            return;
+        }
         log.info("Checking catalog service health...");
         try {
             int count = catalog.count(WorkspaceInfo.class, Filter.INCLUDE);
@@ -0,0 +1,85 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.config.catalog.backend.catalogservice;
+
+import static org.geoserver.cloud.catalog.client.reactivefeign.ReactiveFeignConfigurationOverrides.CLIENT_HTTP_CONNECTOR;
+
+import io.netty.channel.ChannelOption;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configures the HTTP client connector shared by all the catalog-service clients, as per {@link
+ * CatalogClientProperties#getHttp()}
+ */
+@Configuration(proxyBeanMethods = true)
+@Slf4j(topic = "org.geoserver.cloud.config.catalogclient")
+public class CatalogClientHttpConfiguration {
+
+    private @Autowired CatalogClientProperties catalogClientConfig;
+
+    /**
+     * Connection pool shared by all the catalog-service clients, registers the {@code
+     * reactor.netty.connection.provider.*} Micrometer gauges (total, active, idle, and pending
+     * connections) tagged with {@code name=catalog-service} if {@code metrics} is enabled
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider catalogServiceConnectionProvider() {
+        CatalogClientProperties.Http http = catalogClientConfig.getHttp();
+        ConnectionProvider.Builder builder =
+                ConnectionProvider.builder("catalog-service")
+                        .maxConnections(http.getMaxConnections())
+                        .pendingAcquireMaxCount(http.getPendingAcquireMaxCount())
+                        .pendingAcquireTimeout(http.getPendingAcquireTimeout())
+                        .maxIdleTime(http.getMaxIdleTime())
+                        .metrics(http.isMetrics());
+        if (http.getMaxLifeTime() != null) {
+            builder.maxLifeTime(http.getMaxLifeTime());
+        }
+        return builder.build();
+    }
+
+    @Bean(name = CLIENT_HTTP_CONNECTOR)
+    public ClientHttpConnector catalogServiceClientHttpConnector() {
+        CatalogClientProperties.Http http = catalogClientConfig.getHttp();
+        log.info(
+                "catalog-service client protocols: {}, max connections: {}, compression: {}",
+                protocols(http),
+                http.getMaxConnections(),
+                http.isCompression());
+
+        HttpClient httpClient = httpClient(http, catalogServiceConnectionProvider());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    static HttpClient httpClient(
+            CatalogClientProperties.Http http, ConnectionProvider connectionProvider) {
+        return HttpClient.create(connectionProvider)
+                .protocol(protocols(http))
+                .compress(http.isCompression())
+                .keepAlive(true)
+                .option(
+                        ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                        (int) http.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.TCP_NODELAY, true);
+    }
+
+    private static HttpProtocol[] protocols(CatalogClientProperties.Http http) {
+        return http.isHttp2()
+                ? new HttpProtocol[] {HttpProtocol.H2C, HttpProtocol.HTTP11}
+                : new HttpProtocol[] {HttpProtocol.HTTP11};
+    }
+}
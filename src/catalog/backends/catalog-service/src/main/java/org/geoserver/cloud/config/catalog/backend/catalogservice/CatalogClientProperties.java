@@ -10,6 +10,7 @@ import lombok.Generated;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.io.File;
+import java.time.Duration;
 
 /**
  * Configuration properties bean to use the {@code catalog-service} micro-service client back-end
@@ -21,4 +22,125 @@ public @Data class CatalogClientProperties {
     private boolean enabled;
     private String url;
     private File cacheDirectory;
+
+    /**
+     * Preferred encoding for catalog-service responses. {@code SMILE} is negotiated through the
+     * {@code Accept} request header, and the server falls back to {@code JSON} if unsupported
+     */
+    private WireFormat wireFormat = WireFormat.JSON;
+
+    public static enum WireFormat {
+        JSON,
+        SMILE
+    }
+
+    private Coalescing coalescing = new Coalescing();
+
+    private Revalidation revalidation = new Revalidation();
+
+    private Streaming streaming = new Streaming();
+
+    private BlockingBridge blockingBridge = new BlockingBridge();
+
+    private Http http = new Http();
+
+    private ChangeStream changeStream = new ChangeStream();
+
+    private Replica replica = new Replica();
+
+    /**
+     * Full replica of the catalog kept in memory, loaded at startup and kept current from the
+     * remote catalog events, serving all catalog reads locally. Writes still go to the
+     * catalog-service.
+     */
+    public static @Data class Replica {
+        private boolean enabled = false;
+    }
+
+    /**
+     * Subscription to the catalog-service change stream, applying the changed objects to the
+     * local cache as they happen. Requires {@code geoserver.catalog-service.change-stream.enabled}
+     * on the catalog-service.
+     */
+    public static @Data class ChangeStream {
+        private boolean enabled = false;
+        /** Delay before the first attempt to reconnect after the stream is interrupted */
+        private Duration minBackoff = Duration.ofSeconds(1);
+        /** Maximum delay between reconnection attempts */
+        private Duration maxBackoff = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Coalescing of concurrent find-by-id requests into multi-get requests to the catalog service.
+     * Only helps when many threads look up objects by id at the same time: each call waits for the
+     * batch window to close, so a single thread resolving ids one at a time (e.g. the members of a
+     * layer group) gets no batching and pays the window delay on every call. Hence disabled by
+     * default.
+     */
+    public static @Data class Coalescing {
+        private boolean enabled = false;
+        /** How long to wait for more requests after the first one of a batch */
+        private Duration window = Duration.ofMillis(2);
+        /** Maximum number of ids per multi-get request */
+        private int maxBatchSize = 100;
+    }
+
+    /**
+     * Keeping copies of the objects fetched from the catalog service, to revalidate them with
+     * conditional ({@code If-None-Match}) requests instead of downloading them again if unchanged.
+     * Takes precedence over {@link Coalescing coalescing}.
+     */
+    public static @Data class Revalidation {
+        private boolean enabled = false;
+        /** Maximum number of object copies kept per catalog object type */
+        private int maxSize = 10_000;
+    }
+
+    /**
+     * HTTP connector and connection pool shared by the catalog-service clients. HTTP/2 over
+     * cleartext (h2c) multiplexes concurrent requests over the pooled connections, and requires
+     * the catalog-service to run with {@code server.http2.enabled=true}, falling back to
+     * HTTP/1.1 otherwise.
+     */
+    public static @Data class Http {
+        /** Negotiate HTTP/2 over cleartext (h2c), with HTTP/1.1 fallback */
+        private boolean http2 = false;
+        /** Request compressed responses */
+        private boolean compression = true;
+        /** Maximum number of pooled connections */
+        private int maxConnections = 500;
+        /** Maximum number of requests waiting for a pooled connection, {@code -1} for no limit */
+        private int pendingAcquireMaxCount = 1_000;
+        /** Maximum time to wait for a pooled connection */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+        /** Time after which idle connections are closed */
+        private Duration maxIdleTime = Duration.ofMinutes(5);
+        /** Maximum time connections are kept open, unlimited if not set */
+        private Duration maxLifeTime;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        /** Register the connection pool Micrometer metrics */
+        private boolean metrics = true;
+    }
+
+    /**
+     * Thread pool shared by the catalog-service clients to wait for responses when called from
+     * non-blocking threads
+     */
+    public static @Data class BlockingBridge {
+        /** Maximum number of concurrent calls, {@code 0} for {@code max(16, 4 * cores)} */
+        private int maxThreads = 0;
+        /** Use virtual threads, if supported by the runtime */
+        private boolean virtualThreads = false;
+    }
+
+    /** Streaming of query results from the catalog service */
+    public static @Data class Streaming {
+        /** Number of objects requested ahead of the consumer of a query result stream */
+        private int prefetch = 256;
+        /**
+         * Fetch unsorted query results in keyset paged calls of this many objects, {@code 0} to
+         * fetch them in a single call
+         */
+        private int pageSize = 0;
+    }
 }
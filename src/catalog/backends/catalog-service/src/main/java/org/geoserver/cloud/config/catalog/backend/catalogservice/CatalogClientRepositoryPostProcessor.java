@@ -0,0 +1,69 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.config.catalog.backend.catalogservice;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.cloud.catalog.client.repository.CatalogClientRepository;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Applies the coalescing, revalidation, and streaming settings of {@link CatalogClientProperties}
+ * to the {@link CatalogClientRepository} beans as they're created, before they're used by any
+ * other bean.
+ */
+@Slf4j(topic = "org.geoserver.cloud.config.catalogclient")
+class CatalogClientRepositoryPostProcessor implements BeanPostProcessor {
+
+    private @Autowired CatalogClientProperties catalogClientConfig;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName)
+            throws BeansException {
+        if (bean instanceof CatalogClientRepository) {
+            CatalogClientRepository<?> repository = (CatalogClientRepository<?>) bean;
+            configureCoalescing(repository, catalogClientConfig.getCoalescing());
+            configureRevalidation(repository, catalogClientConfig.getRevalidation());
+            configureStreaming(repository, catalogClientConfig.getStreaming());
+        }
+        return bean;
+    }
+
+    private void configureStreaming(
+            CatalogClientRepository<?> repo, CatalogClientProperties.Streaming streaming) {
+        log.debug(
+                "Streaming {} query results, prefetch: {}, page size: {}",
+                repo.getContentType().getSimpleName(),
+                streaming.getPrefetch(),
+                streaming.getPageSize());
+        repo.setPrefetch(streaming.getPrefetch());
+        repo.setQueryPageSize(streaming.getPageSize());
+    }
+
+    private void configureRevalidation(
+            CatalogClientRepository<?> repo, CatalogClientProperties.Revalidation revalidation) {
+        if (revalidation.isEnabled()) {
+            log.debug(
+                    "Revalidating {} objects with conditional requests, max size: {}",
+                    repo.getContentType().getSimpleName(),
+                    revalidation.getMaxSize());
+            repo.setRevalidationCacheSize(revalidation.getMaxSize());
+        }
+    }
+
+    private void configureCoalescing(
+            CatalogClientRepository<?> repo, CatalogClientProperties.Coalescing coalescing) {
+        if (coalescing.isEnabled()) {
+            log.debug(
+                    "Coalescing {} find-by-id calls, window: {}, max batch: {}",
+                    repo.getContentType().getSimpleName(),
+                    coalescing.getWindow(),
+                    coalescing.getMaxBatchSize());
+            repo.setCoalescing(coalescing.getWindow(), coalescing.getMaxBatchSize());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.config.catalog.backend.catalogservice;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.resolver.AddressResolverGroup;
+
+import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveCatalogApiClientConfiguration;
+import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveCatalogClient;
+import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveConfigClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactivefeign.spring.config.ReactiveFeignAutoConfiguration;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Test {@link CatalogClientHttpConfiguration} applies its connector, and hence the {@code
+ * catalogServiceConnectionProvider} connection pool, to the reactive-feign clients, which look it
+ * up from their own client contexts
+ */
+public class CatalogClientHttpConfigurationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private DisposableServer server;
+
+    private final List<HttpHeaders> requests = new CopyOnWriteArrayList<>();
+
+    private ApplicationContextRunner contextRunner;
+
+    public @BeforeEach void setUp() {
+        server =
+                HttpServer.create()
+                        .host("localhost")
+                        .port(0)
+                        .handle(
+                                (request, response) -> {
+                                    requests.add(request.requestHeaders().copy());
+                                    return response.status(HttpResponseStatus.NO_CONTENT).send();
+                                })
+                        .bindNow();
+
+        contextRunner =
+                new ApplicationContextRunner()
+                        .withAllowBeanDefinitionOverriding(true)
+                        .withPropertyValues(
+                                "reactive.feign.loadbalancer.enabled=false",
+                                "geoserver.backend.catalog-service.uri=http://localhost:"
+                                        + server.port())
+                        .withConfiguration(
+                                AutoConfigurations.of( //
+                                        ReactiveFeignAutoConfiguration.class, //
+                                        FeignAutoConfiguration.class, //
+                                        WebClientAutoConfiguration.class //
+                                        ))
+                        .withUserConfiguration(
+                                ReactiveCatalogApiClientConfiguration.class,
+                                CatalogClientHttpConfiguration.class,
+                                ConnectionProviderSpyConfiguration.class);
+    }
+
+    public @AfterEach void tearDown() {
+        server.disposeNow();
+    }
+
+    public @Test void testClientsUseTheSharedConnectionPool() {
+        contextRunner.run(
+                context -> {
+                    AcquireCountingConnectionProvider pool =
+                            context.getBean(
+                                    "catalogServiceConnectionProvider",
+                                    AcquireCountingConnectionProvider.class);
+
+                    ReactiveConfigClient configClient = context.getBean(ReactiveConfigClient.class);
+                    assertNull(configClient.getGlobal().block(TIMEOUT));
+                    assertEquals(1, requests.size());
+                    assertEquals(1, pool.acquired.get());
+
+                    ReactiveCatalogClient catalogClient =
+                            context.getBean(ReactiveCatalogClient.class);
+                    assertNull(catalogClient.canSortBy("layers", "name").block(TIMEOUT));
+                    assertEquals(2, requests.size());
+                    assertEquals(2, pool.acquired.get());
+                });
+    }
+
+    public @Test void testCompressionEnabledByDefault() {
+        contextRunner.run(
+                context -> {
+                    context.getBean(ReactiveConfigClient.class).getGlobal().block(TIMEOUT);
+                    assertEquals(1, requests.size());
+                    assertEquals("gzip", requests.get(0).get(HttpHeaderNames.ACCEPT_ENCODING));
+                });
+    }
+
+    public @Test void testCompressionDisabled() {
+        contextRunner
+                .withPropertyValues("geoserver.backend.catalog-service.http.compression=false")
+                .run(
+                        context -> {
+                            context.getBean(ReactiveConfigClient.class).getGlobal().block(TIMEOUT);
+                            assertEquals(1, requests.size());
+                            assertFalse(
+                                    requests.get(0).contains(HttpHeaderNames.ACCEPT_ENCODING));
+                        });
+    }
+
+    public @Test void testHttpClientProtocols() {
+        CatalogClientProperties.Http http = new CatalogClientProperties.Http();
+        ConnectionProvider provider = ConnectionProvider.newConnection();
+
+        assertArrayEquals(
+                new HttpProtocol[] {HttpProtocol.HTTP11},
+                CatalogClientHttpConfiguration.httpClient(http, provider)
+                        .configuration()
+                        .protocols());
+
+        http.setHttp2(true);
+        assertArrayEquals(
+                new HttpProtocol[] {HttpProtocol.H2C, HttpProtocol.HTTP11},
+                CatalogClientHttpConfiguration.httpClient(http, provider)
+                        .configuration()
+                        .protocols());
+    }
+
+    public @Test void testHttpClientCompression() {
+        CatalogClientProperties.Http http = new CatalogClientProperties.Http();
+        ConnectionProvider provider = ConnectionProvider.newConnection();
+
+        HttpClient httpClient = CatalogClientHttpConfiguration.httpClient(http, provider);
+        assertTrue(httpClient.configuration().isAcceptGzip());
+
+        http.setCompression(false);
+        httpClient = CatalogClientHttpConfiguration.httpClient(http, provider);
+        assertFalse(httpClient.configuration().isAcceptGzip());
+    }
+
+    /**
+     * Wraps the {@code catalogServiceConnectionProvider} bean to count the connections acquired
+     * from it
+     */
+    @Configuration
+    @EnableConfigurationProperties(CatalogClientProperties.class)
+    static class ConnectionProviderSpyConfiguration {
+
+        @Bean
+        static BeanPostProcessor catalogServiceConnectionProviderSpy() {
+            return new BeanPostProcessor() {
+                public @Override Object postProcessAfterInitialization(
+                        Object bean, String beanName) {
+                    if ("catalogServiceConnectionProvider".equals(beanName)) {
+                        return new AcquireCountingConnectionProvider((ConnectionProvider) bean);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    static class AcquireCountingConnectionProvider implements ConnectionProvider {
+
+        private final ConnectionProvider delegate;
+
+        final AtomicInteger acquired = new AtomicInteger();
+
+        AcquireCountingConnectionProvider(ConnectionProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<? extends Connection> acquire(
+                TransportConfig config,
+                ConnectionObserver connectionObserver,
+                Supplier<? extends SocketAddress> remoteAddress,
+                AddressResolverGroup<?> resolverGroup) {
+            acquired.incrementAndGet();
+            return delegate.acquire(config, connectionObserver, remoteAddress, resolverGroup);
+        }
+
+        @Override
+        public Mono<Void> disposeLater() {
+            return delegate.disposeLater();
+        }
+
+        @Override
+        public int maxConnections() {
+            return delegate.maxConnections();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.autoconfigure.catalog.backend.datadir;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import org.geoserver.cloud.autoconfigure.metrics.catalog.GeoSeverMetricsConfigProperties;
+import org.geoserver.cloud.config.catalog.backend.datadirectory.DataDirectoryGeoServerLoader;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports the time taken to load the data directory at startup as the {@literal
+ * geoserver.backend.datadir.load.time} time gauge, tagged with the load {@literal phase} ({@literal
+ * catalog}, {@literal config}, and each {@code ParallelCatalogLoader} phase if enabled), and the
+ * {@literal instance-id} if configured.
+ *
+ * @since 1.0
+ */
+@RequiredArgsConstructor
+class DataDirectoryLoaderMetrics implements MeterBinder {
+
+    private final @NonNull GeoSeverMetricsConfigProperties metricsConfig;
+    private final @NonNull DataDirectoryGeoServerLoader loader;
+
+    public @Override void bindTo(@NonNull MeterRegistry registry) {
+        if (!metricsConfig.isEnabled()) return;
+
+        final String instanceIdTag = metricsConfig.getInstanceId();
+        loader.getLoadTimes()
+                .keySet()
+                .forEach(
+                        phase -> {
+                            TimeGauge.Builder<DataDirectoryGeoServerLoader> builder =
+                                    TimeGauge.builder(
+                                                    "geoserver.backend.datadir.load.time",
+                                                    loader,
+                                                    TimeUnit.MILLISECONDS,
+                                                    l -> millis(l, phase))
+                                            .description("Data directory loading time")
+                                            .tag("phase", phase);
+                            if (null != instanceIdTag)
+                                builder = builder.tag("instance-id", instanceIdTag);
+                            builder.register(registry);
+                        });
+    }
+
+    private static double millis(DataDirectoryGeoServerLoader loader, String phase) {
+        Duration time = loader.getLoadTimes().get(phase);
+        return time == null ? 0 : time.toMillis();
+    }
+}
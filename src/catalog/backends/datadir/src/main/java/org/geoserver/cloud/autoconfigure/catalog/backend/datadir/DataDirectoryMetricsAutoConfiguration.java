@@ -0,0 +1,45 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.autoconfigure.catalog.backend.datadir;
+
+import org.geoserver.cloud.autoconfigure.metrics.catalog.ConditionalOnGeoServerMetricsEnabled;
+import org.geoserver.cloud.autoconfigure.metrics.catalog.GeoSeverMetricsConfigProperties;
+import org.geoserver.cloud.config.catalog.backend.datadirectory.DataDirectoryGeoServerLoader;
+import org.geoserver.config.GeoServerLoader;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for the data directory loading time metrics;
+ * depends on the {@literal geoserver.metrics.enabled=true} configuration property.
+ *
+ * @see DataDirectoryLoaderMetrics
+ * @since 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@AutoConfigureAfter({
+    MetricsAutoConfiguration.class,
+    CompositeMeterRegistryAutoConfiguration.class,
+    DataDirectoryAutoConfiguration.class
+})
+@ConditionalOnDataDirectoryEnabled
+@ConditionalOnGeoServerMetricsEnabled
+@EnableConfigurationProperties(GeoSeverMetricsConfigProperties.class)
+public class DataDirectoryMetricsAutoConfiguration {
+
+    @Bean
+    DataDirectoryLoaderMetrics dataDirectoryLoaderMetrics( //
+            GeoSeverMetricsConfigProperties metricsConfig, //
+            @Qualifier("geoServerLoaderImpl") GeoServerLoader loader) {
+
+        return new DataDirectoryLoaderMetrics(metricsConfig, (DataDirectoryGeoServerLoader) loader);
+    }
+}
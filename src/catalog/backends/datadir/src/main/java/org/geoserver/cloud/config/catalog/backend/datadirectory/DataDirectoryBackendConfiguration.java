@@ -83,7 +83,10 @@ public class DataDirectoryBackendConfiguration implements GeoServerBackendConfig
     }
 
     public @Override @Bean DefaultMemoryCatalogFacade catalogFacade() {
-        return new org.geoserver.catalog.plugin.DefaultMemoryCatalogFacade();
+        DefaultMemoryCatalogFacade facade =
+                new org.geoserver.catalog.plugin.DefaultMemoryCatalogFacade();
+        facade.setCopyOnWrite(dataDirectoryConfig.isCopyOnWrite());
+        return facade;
     }
 
     public @Override @Bean RepositoryGeoServerFacade geoserverFacade() {
@@ -103,8 +106,23 @@ public class DataDirectoryBackendConfiguration implements GeoServerBackendConfig
         GeoServerResourceLoader resourceLoader = resourceLoader();
         Catalog rawCatalog = rawCatalog();
         LockingGeoServer geoserver = geoServer(rawCatalog);
-        return new DataDirectoryGeoServerLoader(
-                updateSequence, resourceLoader, geoserver, rawCatalog);
+        DataDirectoryGeoServerLoader loader =
+                new DataDirectoryGeoServerLoader(
+                        updateSequence, resourceLoader, geoserver, rawCatalog);
+        DataDirectoryProperties.ParallelLoader parallelLoader =
+                dataDirectoryConfig.getParallelLoader();
+        if (parallelLoader.isEnabled()) {
+            loader.setParallelism(parallelLoader.getParallelism());
+        }
+        DataDirectoryProperties.Snapshot snapshot = dataDirectoryConfig.getSnapshot();
+        if (snapshot.isEnabled()) {
+            Path location = snapshot.getLocation();
+            if (location == null) {
+                location = dataDirectoryFile().resolve("catalog-snapshot.smile");
+            }
+            loader.setSnapshot(location);
+        }
+        return loader;
     }
 
     public @Override @Bean GeoServerResourceLoader resourceLoader() {
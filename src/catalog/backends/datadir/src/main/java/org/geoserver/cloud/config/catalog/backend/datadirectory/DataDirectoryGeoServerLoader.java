@@ -28,18 +28,32 @@ import org.geoserver.config.GeoServerResourcePersister;
 import org.geoserver.config.ServiceInfo;
 import org.geoserver.config.ServicePersister;
 import org.geoserver.config.util.XStreamPersister;
+import org.geoserver.config.util.XStreamPersisterFactory;
 import org.geoserver.config.util.XStreamServiceLoader;
+import org.geoserver.jackson.databind.snapshot.CatalogSnapshot;
+import org.geoserver.jackson.databind.snapshot.CatalogSnapshotCodec;
 import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.GeoServerResourceLoader;
 import org.geoserver.platform.config.UpdateSequence;
 import org.geoserver.platform.resource.Resource;
 import org.geoserver.platform.resource.Resources;
+import org.springframework.lang.Nullable;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 
@@ -51,10 +65,31 @@ import javax.annotation.PostConstruct;
 @Slf4j
 public class DataDirectoryGeoServerLoader extends DefaultGeoServerLoader {
 
+    /** Directories holding the catalog files, relative to the data directory */
+    private static final List<String> CATALOG_DIRECTORIES =
+            List.of("workspaces", "styles", "layergroups");
+
     private final UpdateSequence updateSequence;
     private final Catalog rawCatalog;
     private final LockingGeoServer geoserver;
 
+    /** Catalog loading threads, {@code 0} to use the upstream sequential catalog loader */
+    private int parallelism;
+
+    /** Binary catalog snapshot file, {@code null} if disabled */
+    private Path snapshot;
+
+    /** Update sequence of the snapshot the catalog was loaded from, if any */
+    private Long snapshotSequence;
+
+    /**
+     * {@link #catalogFingerprint(Path) Fingerprint} of the catalog files before loading the
+     * catalog, if the snapshot is enabled
+     */
+    private String fingerprint;
+
+    private final Map<String, Duration> loadTimes = new ConcurrentHashMap<>();
+
     public DataDirectoryGeoServerLoader( //
             @NonNull UpdateSequence updateSequence,
             @NonNull GeoServerResourceLoader resourceLoader,
@@ -68,6 +103,43 @@ public class DataDirectoryGeoServerLoader extends DefaultGeoServerLoader {
         this.rawCatalog = rawCatalog;
     }
 
+    /**
+     * @param parallelism number of threads to use to load the catalog, or {@code 0} to use the
+     *     upstream sequential loader
+     * @see ParallelCatalogLoader
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("parallelism shall be >= 0: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Enables loading the catalog from a binary snapshot, if it was taken at the current {@link
+     * UpdateSequence} value and the catalog files in the data directory didn't change since, and
+     * writing a new snapshot after loading the catalog from the data directory otherwise.
+     *
+     * <p>Changes to the catalog files are detected through their {@link #catalogFingerprint(Path)
+     * fingerprint}, which is based on the files count, sizes, and modification times. An edit
+     * preserving all of them goes unnoticed, delete the snapshot file, or disable the snapshot,
+     * when restoring a data directory backup, for example.
+     *
+     * @see CatalogSnapshotCodec
+     */
+    public void setSnapshot(Path snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return the time taken to load the catalog ({@code catalog}) and the configuration ({@code
+     *     config}), plus the time taken by each {@link ParallelCatalogLoader} phase if enabled, and
+     *     to read ({@code snapshot.read}) or write ({@code snapshot.write}) the catalog snapshot
+     */
+    public Map<String, Duration> getLoadTimes() {
+        return Collections.unmodifiableMap(loadTimes);
+    }
+
     public @PostConstruct void load() {
         final long initialSequence = updateSequence.currValue();
         postProcessBeforeInitialization(rawCatalog, "rawCatalog");
@@ -77,6 +149,8 @@ public class DataDirectoryGeoServerLoader extends DefaultGeoServerLoader {
             log.warn(
                     "updateSequence changed during startup. Initial value: %,d. Post load value: %,d",
                     initialSequence, finalSequence);
+        } else {
+            writeSnapshot(finalSequence);
         }
     }
 
@@ -118,6 +192,7 @@ public class DataDirectoryGeoServerLoader extends DefaultGeoServerLoader {
             lockingSupport.callInWriteLock(
                     Exception.class,
                     () -> {
+                        final long start = System.nanoTime();
                         Set<String> existing = preloadServiceNames(geoServer);
                         super.loadGeoServer(geoServer, xp);
                         replaceCatalogInfoPersisterWithFixedVersion(geoServer, xp);
@@ -125,6 +200,7 @@ public class DataDirectoryGeoServerLoader extends DefaultGeoServerLoader {
                         persistNewlyCreatedServices(geoServer, existing);
 
                         initializeEmptyConfig(geoServer);
+                        loadTimes.put("config", Duration.ofNanos(System.nanoTime() - start));
                         return null;
                     },
                     "loadGeoServer()");
@@ -196,7 +272,15 @@ public class DataDirectoryGeoServerLoader extends DefaultGeoServerLoader {
 
     @Override
     protected void loadCatalog(Catalog catalog, XStreamPersister xp) throws Exception {
-        super.loadCatalog(catalog, xp);
+        final long start = System.nanoTime();
+        if (loadFromSnapshot(catalog)) {
+            log.debug("Catalog loaded from snapshot {}", snapshot);
+        } else if (parallelism > 0 && catalog instanceof CatalogPlugin && !isLegacyCatalog()) {
+            loadCatalogInParallel((CatalogPlugin) catalog);
+        } else {
+            super.loadCatalog(catalog, xp);
+        }
+        loadTimes.put("catalog", Duration.ofNanos(System.nanoTime() - start));
 
         catalog.removeListeners(GeoServerConfigPersister.class);
         catalog.removeListeners(GeoServerResourcePersister.class);
@@ -206,6 +290,150 @@ public class DataDirectoryGeoServerLoader extends DefaultGeoServerLoader {
         catalog.addListener(new CatalogPluginGeoServerResourcePersister(catalog));
     }
 
+    private void loadCatalogInParallel(CatalogPlugin catalog) {
+        XStreamPersisterFactory xpf = GeoServerExtensions.bean(XStreamPersisterFactory.class);
+        if (xpf == null) {
+            xpf = new XStreamPersisterFactory();
+        }
+        catalog.setResourceLoader(resourceLoader);
+        ParallelCatalogLoader loader = new ParallelCatalogLoader(resourceLoader, xpf, parallelism);
+        loader.load(catalog);
+        loadTimes.putAll(loader.getPhaseTimes());
+    }
+
+    private boolean loadFromSnapshot(Catalog catalog) {
+        if (snapshot == null || !(catalog instanceof CatalogPlugin)) {
+            return false;
+        }
+        final long start = System.nanoTime();
+        fingerprint = catalogFingerprint();
+        if (!Files.exists(snapshot)) {
+            return false;
+        }
+        try {
+            CatalogSnapshotCodec codec = new CatalogSnapshotCodec();
+            final long currentSequence = updateSequence.currValue();
+            final CatalogSnapshot.Header header = codec.readHeader(snapshot);
+            final long snapshotSeq = header.getUpdateSequence();
+            if (snapshotSeq != currentSequence) {
+                log.info(
+                        "Catalog snapshot {} is outdated (update sequence {}, current {})",
+                        snapshot,
+                        snapshotSeq,
+                        currentSequence);
+                return false;
+            }
+            if (fingerprint == null || !fingerprint.equals(header.getFingerprint())) {
+                log.info(
+                        "Catalog snapshot {} is outdated, the data directory catalog files changed"
+                                + " (fingerprint {}, current {})",
+                        snapshot,
+                        header.getFingerprint(),
+                        fingerprint);
+                return false;
+            }
+            catalog.setResourceLoader(resourceLoader);
+            codec.read(snapshot).restore((CatalogPlugin) catalog);
+            snapshotSequence = snapshotSeq;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Error reading catalog snapshot {}, ignoring it", snapshot, e);
+            return false;
+        }
+        Duration time = Duration.ofNanos(System.nanoTime() - start);
+        loadTimes.put("snapshot.read", time);
+        log.info(
+                "Catalog loaded from snapshot {} at update sequence {} in {}ms",
+                snapshot,
+                snapshotSequence,
+                time.toMillis());
+        return true;
+    }
+
+    /**
+     * Writes a new catalog snapshot if enabled and the catalog wasn't loaded from an up to date
+     * snapshot. Called only if the update sequence didn't change while loading, and writes only if
+     * the catalog files didn't change either, so that the snapshot contents are known to match
+     * {@code sequence} and the {@link #catalogFingerprint(Path) fingerprint} taken before loading.
+     */
+    private void writeSnapshot(final long sequence) {
+        if (snapshot == null || Objects.equals(snapshotSequence, sequence)) {
+            return;
+        }
+        if (fingerprint == null) {
+            // the catalog wasn't loaded through loadFromSnapshot, or the fingerprint failed
+            return;
+        }
+        if (!fingerprint.equals(catalogFingerprint())) {
+            log.info(
+                    "Not writing catalog snapshot {}, the catalog files changed while loading",
+                    snapshot);
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            new CatalogSnapshotCodec().write(rawCatalog, sequence, fingerprint, snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Error writing catalog snapshot {}", snapshot, e);
+            return;
+        }
+        Duration time = Duration.ofNanos(System.nanoTime() - start);
+        loadTimes.put("snapshot.write", time);
+        log.info(
+                "Catalog snapshot {} written at update sequence {} in {}ms",
+                snapshot,
+                sequence,
+                time.toMillis());
+    }
+
+    private @Nullable String catalogFingerprint() {
+        Path dataDirectory = resourceLoader.getBaseDirectory().toPath();
+        try {
+            return catalogFingerprint(dataDirectory);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Error computing the catalog files fingerprint of {}", dataDirectory, e);
+            return null;
+        }
+    }
+
+    /**
+     * Computes a fingerprint of the catalog files (the {@code .xml} files under the {@code
+     * workspaces}, {@code styles}, and {@code layergroups} directories) out of their count, total
+     * size, and sum and maximum of their modification times, without reading them.
+     */
+    static String catalogFingerprint(Path dataDirectory) throws IOException {
+        long count = 0;
+        long size = 0;
+        long lastModifiedSum = 0;
+        long lastModifiedMax = 0;
+        for (String dir : CATALOG_DIRECTORIES) {
+            Path root = dataDirectory.resolve(dir);
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                Iterator<Path> it =
+                        files.filter(f -> f.getFileName().toString().endsWith(".xml")).iterator();
+                while (it.hasNext()) {
+                    BasicFileAttributes attributes =
+                            Files.readAttributes(it.next(), BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        long lastModified = attributes.lastModifiedTime().toMillis();
+                        count++;
+                        size += attributes.size();
+                        lastModifiedSum += lastModified;
+                        lastModifiedMax = Math.max(lastModifiedMax, lastModified);
+                    }
+                }
+            }
+        }
+        return String.format("%d-%d-%x-%x", count, size, lastModifiedSum, lastModifiedMax);
+    }
+
+    /** Legacy data directories have all the catalog in a single catalog.xml file */
+    private boolean isLegacyCatalog() {
+        return Resources.exists(resourceLoader.get("catalog.xml"));
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     protected void initializeEmptyConfig(final GeoServer geoServer) {
         // TODO: this needs to be pushed upstream
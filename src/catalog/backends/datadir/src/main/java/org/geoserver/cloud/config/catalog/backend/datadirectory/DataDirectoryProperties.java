@@ -24,4 +24,44 @@ public @Data class DataDirectoryProperties {
 
     private boolean enabled;
     private Path location;
+
+    /**
+     * Whether catalog updates install a new version of the modified object instead of patching it
+     * in place, so that readers never see a half-applied change.
+     *
+     * @see org.geoserver.catalog.plugin.DefaultMemoryCatalogFacade#setCopyOnWrite(boolean)
+     */
+    private boolean copyOnWrite = false;
+
+    /** Configuration of the concurrent catalog loader used at startup */
+    private ParallelLoader parallelLoader = new ParallelLoader();
+
+    /** Configuration of the binary catalog snapshot used to speed up startup */
+    private Snapshot snapshot = new Snapshot();
+
+    public static @Data class ParallelLoader {
+        /**
+         * Whether to load the catalog parsing its XML files concurrently instead of using the
+         * upstream sequential loader. Ignored for legacy data directories with a catalog.xml file.
+         */
+        private boolean enabled = false;
+
+        /** Maximum number of threads used to parse each type of catalog object */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    public static @Data class Snapshot {
+        /**
+         * Whether to load the catalog from a binary snapshot if it was taken at the data
+         * directory's current update sequence, and the catalog files didn't change since, and to
+         * write a new snapshot otherwise. Changes to the catalog files are detected by their
+         * count, sizes, and modification times. Disable the snapshot, or delete its file, if the
+         * data directory may be replaced by one matching in all three, like a backup restored
+         * with its modification times.
+         */
+        private boolean enabled = false;
+
+        /** Snapshot file, defaults to {@literal catalog-snapshot.smile} in the data directory */
+        private Path location;
+    }
 }
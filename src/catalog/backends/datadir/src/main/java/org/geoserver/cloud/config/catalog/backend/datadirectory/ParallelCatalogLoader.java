@@ -0,0 +1,397 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.config.catalog.backend.datadirectory;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.plugin.CatalogPlugin;
+import org.geoserver.catalog.plugin.DefaultMemoryCatalogFacade;
+import org.geoserver.catalog.plugin.resolving.CatalogPropertyResolver;
+import org.geoserver.catalog.plugin.resolving.CollectionPropertiesInitializer;
+import org.geoserver.catalog.plugin.resolving.ResolvingProxyResolver;
+import org.geoserver.config.DefaultGeoServerLoader;
+import org.geoserver.config.util.XStreamPersister;
+import org.geoserver.config.util.XStreamPersisterFactory;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.platform.resource.Resource.Type;
+import org.geoserver.platform.resource.Resources;
+import org.opengis.filter.Filter;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads the catalog from a data directory parsing the XML files concurrently, as an alternative to
+ * {@link DefaultGeoServerLoader}'s sequential loading.
+ *
+ * <p>Loading happens in phases, in dependency order: workspaces and namespaces, styles, stores,
+ * resources and layers, and layer groups. Each phase parses its files on a dedicated, bounded,
+ * {@link ForkJoinPool}, and then adds the parsed objects, sequentially, to a temporary catalog,
+ * which is finally synchronized to the target catalog's facade, so that, like with {@link
+ * DefaultGeoServerLoader}, no catalog events are published while loading.
+ *
+ * <p>Files that fail to parse, and objects that fail to be added, are logged and skipped.
+ */
+@Slf4j(topic = "org.geoserver.cloud.config.datadirectory")
+class ParallelCatalogLoader {
+
+    private static final String WORKSPACES = "workspaces";
+    private static final String STYLES = "styles";
+    private static final String LAYERGROUPS = "layergroups";
+
+    private static final List<String> STORE_FILES =
+            List.of("datastore.xml", "coveragestore.xml", "wmsstore.xml", "wmtsstore.xml");
+
+    private static final List<String> RESOURCE_FILES =
+            List.of("featuretype.xml", "coverage.xml", "wmslayer.xml", "wmtslayer.xml");
+
+    private final GeoServerResourceLoader resourceLoader;
+    private final XStreamPersisterFactory persisterFactory;
+    private final int parallelism;
+
+    private final Map<String, Duration> phaseTimes = new LinkedHashMap<>();
+
+    private ThreadLocal<XStreamPersister> persisters;
+    private Function<CatalogInfo, CatalogInfo> resolver;
+
+    ParallelCatalogLoader(
+            @NonNull GeoServerResourceLoader resourceLoader,
+            @NonNull XStreamPersisterFactory persisterFactory,
+            int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism shall be > 0: " + parallelism);
+        }
+        this.resourceLoader = resourceLoader;
+        this.persisterFactory = persisterFactory;
+        this.parallelism = parallelism;
+    }
+
+    /** @return the time taken by each loading phase, in execution order */
+    public Map<String, Duration> getPhaseTimes() {
+        return Collections.unmodifiableMap(phaseTimes);
+    }
+
+    public void load(@NonNull CatalogPlugin target) {
+        final CatalogPlugin catalog = new CatalogPlugin(new DefaultMemoryCatalogFacade());
+        catalog.setResourceLoader(resourceLoader);
+        catalog.setExtendedValidation(false);
+
+        persisters = ThreadLocal.withInitial(() -> newPersister(catalog));
+        resolver =
+                CollectionPropertiesInitializer.<CatalogInfo>instance()
+                        .andThen(CatalogPropertyResolver.of(target))
+                        .andThen(ResolvingProxyResolver.of(catalog));
+
+        log.info(
+                "Loading catalog from {} with parallelism {}",
+                resourceLoader.getBaseDirectory(),
+                parallelism);
+
+        final Resource workspacesDir = resourceLoader.get(WORKSPACES);
+        final List<Resource> workspaceDirs = directories(workspacesDir);
+
+        phase(
+                "workspaces",
+                () -> {
+                    List<Resource> wsFiles = files(workspaceDirs, "workspace.xml");
+                    List<Resource> nsFiles = files(workspaceDirs, "namespace.xml");
+                    int count = addAll(parse(wsFiles, WorkspaceInfo.class), catalog::add);
+                    count += addAll(parse(nsFiles, NamespaceInfo.class), catalog::add);
+                    return count;
+                });
+
+        phase(
+                "styles",
+                () -> {
+                    List<Resource> files = xmlFiles(resourceLoader.get(STYLES));
+                    files.addAll(xmlFiles(children(workspaceDirs, STYLES)));
+                    return addAll(parse(files, StyleInfo.class), catalog::add);
+                });
+
+        final List<Resource> storeDirs = inPool(() -> subdirectories(workspaceDirs));
+        final List<StoreInfo> stores = new ArrayList<>();
+        phase(
+                "stores",
+                () -> {
+                    List<Resource> files = inPool(() -> files(storeDirs, STORE_FILES));
+                    stores.addAll(parse(files, StoreInfo.class));
+                    return addAll(stores, catalog::add);
+                });
+
+        phase(
+                "resources",
+                () -> {
+                    List<Resource> resourceDirs = inPool(() -> subdirectories(storeDirs));
+                    List<Resource> files = inPool(() -> files(resourceDirs, RESOURCE_FILES));
+                    List<Resource> layerFiles = inPool(() -> files(resourceDirs, "layer.xml"));
+                    int count = addAll(parse(files, ResourceInfo.class), catalog::add);
+                    count += addAll(parse(layerFiles, LayerInfo.class), catalog::add);
+                    return count;
+                });
+
+        phase(
+                "layergroups",
+                () -> {
+                    List<Resource> files = xmlFiles(resourceLoader.get(LAYERGROUPS));
+                    files.addAll(xmlFiles(children(workspaceDirs, LAYERGROUPS)));
+                    return addLayerGroups(catalog, parse(files, LayerGroupInfo.class));
+                });
+
+        setDefaults(catalog, workspacesDir);
+        setDefaultDataStores(catalog, stores);
+
+        phase(
+                "sync",
+                () -> {
+                    catalog.getRawFacade().syncTo(target.getRawFacade());
+                    // syncTo sets the source catalog on the target facade, restore it
+                    target.getFacade().setCatalog(target);
+                    return Stream.of(
+                                    WorkspaceInfo.class,
+                                    NamespaceInfo.class,
+                                    StyleInfo.class,
+                                    StoreInfo.class,
+                                    ResourceInfo.class,
+                                    LayerInfo.class,
+                                    LayerGroupInfo.class)
+                            .mapToInt(type -> target.count(type, Filter.INCLUDE))
+                            .sum();
+                });
+
+        log.info(
+                "Catalog loaded in {}ms. Phase times: {}",
+                phaseTimes.values().stream().mapToLong(Duration::toMillis).sum(),
+                phaseTimes);
+    }
+
+    private void phase(String name, Callable<Integer> phase) {
+        final long start = System.nanoTime();
+        final int count;
+        try {
+            count = phase.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        Duration time = Duration.ofNanos(System.nanoTime() - start);
+        phaseTimes.put(name, time);
+        log.info("Catalog loading phase {}: {} objects in {}ms", name, count, time.toMillis());
+    }
+
+    /**
+     * Adds layer groups in dependency order, a layer group is added after the layer groups it
+     * contains, if any
+     */
+    private int addLayerGroups(CatalogPlugin catalog, List<LayerGroupInfo> groups) {
+        int count = 0;
+        List<LayerGroupInfo> pending = new ArrayList<>(groups);
+        while (!pending.isEmpty()) {
+            final Set<String> pendingIds =
+                    pending.stream().map(LayerGroupInfo::getId).collect(Collectors.toSet());
+            List<LayerGroupInfo> ready =
+                    pending.stream()
+                            .filter(lg -> nestedGroupIds(lg).noneMatch(pendingIds::contains))
+                            .collect(Collectors.toList());
+            if (ready.isEmpty()) {
+                // circular references, add them anyways and let validation complain
+                ready = pending;
+            }
+            count += addAll(ready, catalog::add);
+            pending.removeAll(ready);
+        }
+        return count;
+    }
+
+    private Stream<String> nestedGroupIds(LayerGroupInfo lg) {
+        List<PublishedInfo> layers = lg.getLayers();
+        if (layers == null) {
+            return Stream.empty();
+        }
+        return layers.stream()
+                .filter(LayerGroupInfo.class::isInstance)
+                .map(PublishedInfo::getId)
+                .filter(Objects::nonNull)
+                .filter(id -> !id.equals(lg.getId()));
+    }
+
+    private void setDefaults(CatalogPlugin catalog, Resource workspacesDir) {
+        Resource defaultWorkspaceFile = workspacesDir.get("default.xml");
+        if (Resources.exists(defaultWorkspaceFile)) {
+            WorkspaceInfo ws = depersist(defaultWorkspaceFile, WorkspaceInfo.class);
+            WorkspaceInfo defaultWorkspace = ws == null ? null : catalog.getWorkspace(ws.getId());
+            if (defaultWorkspace == null && ws != null) {
+                defaultWorkspace = catalog.getWorkspaceByName(ws.getName());
+            }
+            if (defaultWorkspace != null) {
+                catalog.setDefaultWorkspace(defaultWorkspace);
+                NamespaceInfo ns = catalog.getNamespaceByPrefix(defaultWorkspace.getName());
+                if (ns != null) {
+                    catalog.setDefaultNamespace(ns);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the default data store of each workspace to its first data store in data directory
+     * order, as {@link DefaultGeoServerLoader} does, instead of relying on the order the stores
+     * were added to the catalog
+     */
+    private void setDefaultDataStores(CatalogPlugin catalog, List<StoreInfo> stores) {
+        Map<String, DataStoreInfo> defaults = new LinkedHashMap<>();
+        for (StoreInfo store : stores) {
+            if (store instanceof DataStoreInfo && store.getWorkspace() != null) {
+                DataStoreInfo added = catalog.getDataStore(store.getId());
+                if (added != null) {
+                    defaults.putIfAbsent(added.getWorkspace().getId(), added);
+                }
+            }
+        }
+        for (DataStoreInfo store : defaults.values()) {
+            WorkspaceInfo workspace = store.getWorkspace();
+            DataStoreInfo current = catalog.getDefaultDataStore(workspace);
+            if (current == null || !store.getId().equals(current.getId())) {
+                catalog.setDefaultDataStore(workspace, store);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends CatalogInfo> int addAll(List<T> objects, Consumer<T> adder) {
+        int count = 0;
+        for (T info : objects) {
+            try {
+                adder.accept((T) resolver.apply(info));
+                count++;
+            } catch (RuntimeException e) {
+                log.error("Failed to add {} {}", info.getClass().getSimpleName(), info.getId(), e);
+            }
+        }
+        return count;
+    }
+
+    private <T> List<T> parse(List<Resource> files, Class<T> type) {
+        return inPool(
+                () ->
+                        files.parallelStream()
+                                .map(file -> depersist(file, type))
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toList()));
+    }
+
+    private <T> T depersist(Resource file, Class<T> type) {
+        try (InputStream in = file.in()) {
+            return persisters.get().load(in, type);
+        } catch (Exception e) {
+            log.error("Failed to load {} from {}", type.getSimpleName(), file.path(), e);
+            return null;
+        }
+    }
+
+    private XStreamPersister newPersister(CatalogPlugin catalog) {
+        XStreamPersister xp = persisterFactory.createXMLPersister();
+        xp.setCatalog(catalog);
+        return xp;
+    }
+
+    /** Runs the task on a new bounded {@link ForkJoinPool}, shut down after the task completes */
+    private <R> R inPool(Callable<R> task) {
+        final ClassLoader classLoader = getClass().getClassLoader();
+        ForkJoinWorkerThreadFactory threadFactory =
+                pool -> {
+                    ForkJoinWorkerThread thread =
+                            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("catalog-loader-" + thread.getPoolIndex());
+                    // the default factory uses the system class loader
+                    thread.setContextClassLoader(classLoader);
+                    return thread;
+                };
+        ForkJoinPool pool = new ForkJoinPool(parallelism, threadFactory, null, false);
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static List<Resource> directories(Resource parent) {
+        return parent.list().stream()
+                .filter(r -> r.getType() == Type.DIRECTORY)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Resource> subdirectories(List<Resource> parents) {
+        return parents.parallelStream()
+                .map(ParallelCatalogLoader::directories)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Resource> children(List<Resource> parents, String name) {
+        return parents.stream()
+                .map(dir -> dir.get(name))
+                .filter(r -> r.getType() == Type.DIRECTORY)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Resource> xmlFiles(Resource dir) {
+        return xmlFiles(List.of(dir));
+    }
+
+    private static List<Resource> xmlFiles(List<Resource> dirs) {
+        return dirs.stream()
+                .map(Resource::list)
+                .flatMap(List::stream)
+                .filter(r -> r.getType() == Type.RESOURCE && r.name().endsWith(".xml"))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Resource> files(List<Resource> dirs, String fileName) {
+        return files(dirs, List.of(fileName));
+    }
+
+    private static List<Resource> files(List<Resource> dirs, List<String> fileNames) {
+        return dirs.parallelStream()
+                .flatMap(dir -> fileNames.stream().map(dir::get))
+                .filter(Resources::exists)
+                .collect(Collectors.toList());
+    }
+}
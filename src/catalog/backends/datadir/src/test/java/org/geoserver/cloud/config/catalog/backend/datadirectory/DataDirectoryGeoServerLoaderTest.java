@@ -0,0 +1,73 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.config.catalog.backend.datadirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/** Test suite for {@link DataDirectoryGeoServerLoader#catalogFingerprint(Path)} */
+public class DataDirectoryGeoServerLoaderTest {
+
+    private @TempDir Path dataDirectory;
+
+    private Path workspace;
+
+    public @BeforeEach void setup() throws Exception {
+        workspace = Files.createDirectories(dataDirectory.resolve("workspaces/ws1"));
+        Files.writeString(workspace.resolve("workspace.xml"), "<workspace/>");
+        Files.createDirectories(dataDirectory.resolve("styles"));
+        Files.writeString(dataDirectory.resolve("styles/style.xml"), "<style/>");
+    }
+
+    public @Test void testFingerprintIsStable() throws Exception {
+        assertEquals(fingerprint(), fingerprint());
+    }
+
+    public @Test void testFingerprintIgnoresNonCatalogFiles() throws Exception {
+        final String initial = fingerprint();
+        Files.writeString(dataDirectory.resolve("global.xml"), "<global/>");
+        Files.writeString(dataDirectory.resolve("styles/style.sld"), "<sld/>");
+        assertEquals(initial, fingerprint());
+    }
+
+    public @Test void testFingerprintChangesOnEdit() throws Exception {
+        final String initial = fingerprint();
+        Path file = workspace.resolve("workspace.xml");
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        Files.writeString(file, "<workspace><name>ws1</name></workspace>");
+        Files.setLastModifiedTime(file, lastModified);
+        assertNotEquals(initial, fingerprint(), "size changed");
+
+        final String resized = fingerprint();
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified.toMillis() - 60_000));
+        assertNotEquals(resized, fingerprint(), "modification time changed");
+    }
+
+    public @Test void testFingerprintChangesOnAddAndRemove() throws Exception {
+        final String initial = fingerprint();
+        Path layerGroups = Files.createDirectories(dataDirectory.resolve("layergroups"));
+        Path layerGroup = layerGroups.resolve("lg.xml");
+        Files.writeString(layerGroup, "<layerGroup/>");
+        assertNotEquals(initial, fingerprint());
+
+        Files.delete(layerGroup);
+        assertEquals(initial, fingerprint());
+
+        Files.delete(dataDirectory.resolve("styles/style.xml"));
+        assertNotEquals(initial, fingerprint());
+    }
+
+    private String fingerprint() throws Exception {
+        return DataDirectoryGeoServerLoader.catalogFingerprint(dataDirectory);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.config.catalog.backend.datadirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.CatalogTestData;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.SLDHandler;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleHandler;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.plugin.CatalogPlugin;
+import org.geoserver.catalog.plugin.DefaultMemoryCatalogFacade;
+import org.geoserver.config.GeoServerConfigPersister;
+import org.geoserver.config.GeoServerResourcePersister;
+import org.geoserver.config.util.XStreamPersisterFactory;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opengis.filter.Filter;
+
+import java.io.File;
+import java.util.List;
+
+/** Test suite for {@link ParallelCatalogLoader} */
+public class ParallelCatalogLoaderTest {
+
+    private @TempDir File dataDirectory;
+
+    private GeoServerResourceLoader resourceLoader;
+    private XStreamPersisterFactory xpf = new XStreamPersisterFactory();
+    private CatalogPlugin source;
+
+    public static @BeforeAll void oneTimeSetup() {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+        if (null == GeoServerExtensions.bean("sldHandler"))
+            GeoServerExtensionsHelper.singleton("sldHandler", new SLDHandler(), StyleHandler.class);
+    }
+
+    public @BeforeEach void setup() {
+        resourceLoader = new GeoServerResourceLoader(dataDirectory);
+        source = new CatalogPlugin(new DefaultMemoryCatalogFacade());
+        source.setResourceLoader(resourceLoader);
+        source.addListener(new GeoServerConfigPersister(resourceLoader, xpf.createXMLPersister()));
+        source.addListener(new GeoServerResourcePersister(source));
+        CatalogTestData.empty(() -> source, () -> null)
+                .initConfig(false)
+                .initCatalog(true)
+                .initialize();
+    }
+
+    public @Test void testLoad() {
+        CatalogPlugin target = new CatalogPlugin(new DefaultMemoryCatalogFacade());
+        target.setResourceLoader(resourceLoader);
+
+        ParallelCatalogLoader loader = new ParallelCatalogLoader(resourceLoader, xpf, 4);
+        loader.load(target);
+
+        for (Class<? extends CatalogInfo> type :
+                List.of(
+                        WorkspaceInfo.class,
+                        NamespaceInfo.class,
+                        StyleInfo.class,
+                        StoreInfo.class,
+                        ResourceInfo.class,
+                        LayerInfo.class,
+                        LayerGroupInfo.class)) {
+            assertEquals(
+                    source.count(type, Filter.INCLUDE),
+                    target.count(type, Filter.INCLUDE),
+                    type.getSimpleName());
+        }
+        assertEquals(source.getDefaultWorkspace().getId(), target.getDefaultWorkspace().getId());
+        assertEquals(source.getDefaultNamespace().getId(), target.getDefaultNamespace().getId());
+        source.getWorkspaces()
+                .forEach(
+                        ws -> {
+                            DataStoreInfo expected = source.getDefaultDataStore(ws);
+                            DataStoreInfo actual = target.getDefaultDataStore(ws);
+                            assertEquals(
+                                    expected == null ? null : expected.getId(),
+                                    actual == null ? null : actual.getId(),
+                                    ws.getName());
+                        });
+
+        source.getLayers()
+                .forEach(
+                        l -> {
+                            LayerInfo loaded = target.getLayer(l.getId());
+                            assertNotNull(loaded, l.getId());
+                            assertEquals(l.getResource().getId(), loaded.getResource().getId());
+                        });
+        StoreInfo store = target.getStores(StoreInfo.class).get(0);
+        assertSame(target, store.getCatalog());
+
+        assertEquals(
+                List.of("workspaces", "styles", "stores", "resources", "layergroups", "sync"),
+                List.copyOf(loader.getPhaseTimes().keySet()));
+        assertTrue(loader.getPhaseTimes().values().stream().noneMatch(t -> t.isNegative()));
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.autoconfigure.catalog.cache;
+
+import org.geoserver.cloud.catalog.cache.CatalogLookupMemo;
+import org.geoserver.cloud.catalog.cache.CatalogLookupMemoFilter;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} registering the {@link
+ * CatalogLookupMemoFilter} for OWS requests to be dispatched through the request-scoped {@link
+ * CatalogLookupMemo}, if enabled through {@code geoserver.catalog.caching.request-memo.enabled}.
+ *
+ * @since 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@AutoConfigureAfter(BackendCacheAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(OncePerRequestFilter.class)
+@ConditionalOnBean(CatalogLookupMemo.class)
+public class CatalogLookupMemoFilterAutoConfiguration {
+
+    public @Bean FilterRegistrationBean<CatalogLookupMemoFilter> catalogLookupMemoFilterReg(
+            CatalogLookupMemo memo) {
+        FilterRegistrationBean<CatalogLookupMemoFilter> registration =
+                new FilterRegistrationBean<>(new CatalogLookupMemoFilter(memo));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
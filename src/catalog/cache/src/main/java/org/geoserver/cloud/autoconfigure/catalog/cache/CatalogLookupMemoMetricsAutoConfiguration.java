@@ -0,0 +1,42 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.autoconfigure.catalog.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.geoserver.cloud.catalog.cache.CatalogLookupMemo;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} exporting the number of catalog lookups
+ * performed while dispatching requests, and of those served by the request-scoped {@link
+ * CatalogLookupMemo}, if enabled and Micrometer is on the classpath.
+ *
+ * @since 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@AutoConfigureAfter(BackendCacheAutoConfiguration.class)
+@ConditionalOnClass(MeterBinder.class)
+@ConditionalOnBean(CatalogLookupMemo.class)
+public class CatalogLookupMemoMetricsAutoConfiguration {
+
+    public @Bean MeterBinder catalogLookupMemoMetrics(CatalogLookupMemo memo) {
+        final String prefix = "geoserver.catalog.caching.request.memo";
+        return registry -> {
+            FunctionCounter.builder(prefix + ".lookups", memo, CatalogLookupMemo::getLookupCount)
+                    .description("Catalog lookups performed while dispatching requests")
+                    .register(registry);
+            FunctionCounter.builder(prefix + ".saved", memo, CatalogLookupMemo::getSavedCount)
+                    .description("Catalog lookups served from the request memo")
+                    .register(registry);
+        };
+    }
+}
@@ -6,6 +6,8 @@ package org.geoserver.cloud.autoconfigure.catalog.cache;
 
 import org.geoserver.cloud.autoconfigure.catalog.event.ConditionalOnCatalogEvents;
 import org.geoserver.cloud.autoconfigure.catalog.event.LocalCatalogEventsAutoConfiguration;
+import org.geoserver.cloud.catalog.cache.BackendCacheConfigProperties;
+import org.geoserver.cloud.catalog.cache.BackendCacheConfigProperties.RemoteModifyPolicy;
 import org.geoserver.cloud.catalog.cache.CachingCatalogFacade;
 import org.geoserver.cloud.catalog.cache.CachingGeoServerFacade;
 import org.geoserver.cloud.catalog.cache.GeoServerBackendCacheConfiguration;
@@ -30,8 +32,12 @@ public class RemoteEventCacheAutoConfiguration {
 
     public @Bean RemoteEventCacheEvictor remoteEventCacheEvictor(
             CachingCatalogFacade cachingCatalogFacade,
-            CachingGeoServerFacade cachingGeoServerFacade) {
+            CachingGeoServerFacade cachingGeoServerFacade,
+            BackendCacheConfigProperties config) {
 
-        return new RemoteEventCacheEvictor(cachingCatalogFacade, cachingGeoServerFacade);
+        RemoteEventCacheEvictor evictor =
+                new RemoteEventCacheEvictor(cachingCatalogFacade, cachingGeoServerFacade);
+        evictor.setRefreshOnModify(config.getRemoteModifyPolicy() == RemoteModifyPolicy.REFRESH);
+        return evictor;
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the catalog and config backend caches, applied to the {@link
+ * CachingCatalogFacade#CACHE_NAME catalog} and {@link CachingGeoServerFacade#CACHE_NAME config}
+ * caches instead of {@code spring.cache.caffeine.spec}.
+ *
+ * <p>Cache statistics are recorded by default, for Spring Boot's actuator to publish the hit, miss,
+ * eviction, and load time metrics of each cache to Micrometer.
+ */
+@ConfigurationProperties(prefix = "geoserver.catalog.caching")
+public @Data class BackendCacheConfigProperties {
+
+    private boolean enabled;
+
+    private CacheSpec catalog = new CacheSpec();
+
+    private CacheSpec config = new CacheSpec();
+
+    private QueryCacheSpec queries = new QueryCacheSpec();
+
+    private NegativeCacheSpec misses = new NegativeCacheSpec();
+
+    private RequestMemoSpec requestMemo = new RequestMemoSpec();
+
+    /**
+     * Maximum number of threads reloading cached catalog objects in the background, for {@code
+     * refresh-after-write} and the {@code REFRESH} remote modify policy, {@code 0} for {@code
+     * max(2, cores)}
+     */
+    private int reloadThreads = 0;
+
+    /**
+     * What to do with a cached catalog object upon a remote modify event: evict it, for the next
+     * request to load it again, or keep serving it while it's reloaded in the background
+     */
+    private RemoteModifyPolicy remoteModifyPolicy = RemoteModifyPolicy.EVICT;
+
+    public static enum RemoteModifyPolicy {
+        EVICT,
+        REFRESH
+    }
+
+    public static @Data class CacheSpec {
+        /**
+         * Maximum total weight of the cached entries, as a rough estimate of their size in bytes
+         * (see {@link CacheEntryWeigher}), {@code 0} for no bound
+         */
+        private long maximumWeight = 0;
+        /** Expire entries this long after they were last read or written, if set */
+        private Duration expireAfterAccess;
+        /** Expire entries this long after they were written, if set */
+        private Duration expireAfterWrite;
+        /**
+         * Reload entries in the background when read this long after they were written, serving
+         * the cached value until reloaded. Only supported by the catalog cache, for the objects
+         * cached by id.
+         */
+        private Duration refreshAfterWrite;
+        /** Record hit, miss, eviction, and load time statistics */
+        private boolean recordStats = true;
+    }
+
+    /**
+     * Settings for the {@link CachingCatalogFacade#QUERY_CACHE_NAME query results} cache, which
+     * caches the ids of the objects returned by catalog queries and list calls, and resolves them
+     * through the catalog cache.
+     */
+    @EqualsAndHashCode(callSuper = true)
+    @ToString(callSuper = true)
+    public static @Data class QueryCacheSpec extends CacheSpec {
+        /** Whether to cache query results, disabled by default */
+        private boolean enabled = false;
+        /** Results with more objects than this are not cached */
+        private int maxResultSize = 1000;
+    }
+
+    /**
+     * Settings for the {@link CachingCatalogFacade#NEGATIVE_CACHE_NAME negative lookups} cache,
+     * which remembers the by-id and by-name lookups that found nothing. Bounded to about 1MB and
+     * five minutes by default, in case a change that'd make a lookup succeed is missed. Its hit
+     * ratio is the ratio of lookups for missing objects served without hitting the backend.
+     */
+    @EqualsAndHashCode(callSuper = true)
+    @ToString(callSuper = true)
+    public static @Data class NegativeCacheSpec extends CacheSpec {
+        /** Whether to remember lookup misses, disabled by default */
+        private boolean enabled = false;
+
+        public NegativeCacheSpec() {
+            setMaximumWeight(1_000_000);
+            setExpireAfterWrite(Duration.ofMinutes(5));
+        }
+    }
+
+    /**
+     * Settings for the {@link CatalogLookupMemo request-scoped memo} of catalog lookups, which
+     * remembers the by-id and by-name lookups performed while dispatching an OWS request.
+     */
+    public static @Data class RequestMemoSpec {
+        /** Whether to remember the lookups of each OWS request, disabled by default */
+        private boolean enabled = false;
+    }
+}
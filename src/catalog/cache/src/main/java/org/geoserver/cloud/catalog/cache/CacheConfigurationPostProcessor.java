@@ -18,14 +18,21 @@ class CacheConfigurationPostProcessor implements BeanPostProcessor {
 
     private @Autowired CachingCatalogFacade cachingCatalogFacade;
     private @Autowired CachingGeoServerFacade cachingGeoServerFacade;
+    private @Autowired(required = false) CatalogLookupMemo catalogLookupMemo;
 
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName)
             throws BeansException {
         if ("rawCatalog".equals(beanName)) {
             CatalogPlugin rawCatalog = (CatalogPlugin) bean;
-            rawCatalog.setFacade(cachingCatalogFacade);
-            log.info("Decorated CatalogFacade with CachingCatalogFacade");
+            if (catalogLookupMemo == null) {
+                rawCatalog.setFacade(cachingCatalogFacade);
+                log.info("Decorated CatalogFacade with CachingCatalogFacade");
+            } else {
+                rawCatalog.setFacade(
+                        new MemoizingCatalogFacade(cachingCatalogFacade, catalogLookupMemo));
+                log.info("Decorated CatalogFacade with CachingCatalogFacade and request memo");
+            }
         } else if ("geoServer".equals(beanName)) {
             GeoServerImpl gs = (GeoServerImpl) bean;
             gs.setFacade(cachingGeoServerFacade);
@@ -0,0 +1,101 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import org.geoserver.catalog.CoverageInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.Info;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.config.ServiceInfo;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Weighs cache entries by a rough estimate of their size in bytes, so that a {@link
+ * FeatureTypeInfo} with hundreds of attributes weighs accordingly more than a {@code
+ * WorkspaceInfo}.
+ *
+ * <p>The estimate only accounts for the properties that grow with the object's configuration
+ * (attributes, keywords, metadata entries, connection parameters, layer group members), on top of
+ * a fixed cost per object.
+ */
+class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    static final int KEY = 64;
+    static final int INFO = 512;
+    static final int REFERENCE = 16;
+    static final int ATTRIBUTE = 256;
+    static final int MAP_ENTRY = 128;
+    static final int KEYWORD = 64;
+
+    public @Override int weigh(Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, KEY + estimate(value));
+    }
+
+    static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) value).length();
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value)
+                    .stream()
+                    .mapToLong(v -> REFERENCE + estimate(v))
+                    .sum();
+        }
+        if (value instanceof Info) {
+            return INFO + estimateInfo((Info) value);
+        }
+        return REFERENCE;
+    }
+
+    private static long estimateInfo(Info info) {
+        long weight = 0;
+        if (info instanceof ResourceInfo) {
+            ResourceInfo resource = (ResourceInfo) info;
+            weight += size(resource.getMetadata()) * MAP_ENTRY;
+            weight += size(resource.getKeywords()) * KEYWORD;
+            if (info instanceof FeatureTypeInfo) {
+                weight += size(((FeatureTypeInfo) info).getAttributes()) * ATTRIBUTE;
+            } else if (info instanceof CoverageInfo) {
+                weight += size(((CoverageInfo) info).getDimensions()) * ATTRIBUTE;
+            }
+        } else if (info instanceof StoreInfo) {
+            StoreInfo store = (StoreInfo) info;
+            weight += size(store.getConnectionParameters()) * MAP_ENTRY;
+            weight += size(store.getMetadata()) * MAP_ENTRY;
+        } else if (info instanceof LayerInfo) {
+            LayerInfo layer = (LayerInfo) info;
+            weight += size(layer.getStyles()) * REFERENCE;
+            weight += size(layer.getMetadata()) * MAP_ENTRY;
+        } else if (info instanceof LayerGroupInfo) {
+            LayerGroupInfo group = (LayerGroupInfo) info;
+            weight += size(group.getLayers()) * REFERENCE;
+            weight += size(group.getStyles()) * REFERENCE;
+            weight += size(group.getMetadata()) * MAP_ENTRY;
+        } else if (info instanceof ServiceInfo) {
+            ServiceInfo service = (ServiceInfo) info;
+            weight += size(service.getMetadata()) * MAP_ENTRY;
+            weight += size(service.getKeywords()) * KEYWORD;
+        }
+        return weight;
+    }
+
+    private static int size(Collection<?> c) {
+        return c == null ? 0 : c.size();
+    }
+
+    private static int size(Map<?, ?> m) {
+        return m == null ? 0 : m.size();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import org.geoserver.catalog.plugin.ThreadFactories;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded thread pool reloading cached catalog objects in the background, since reloading them
+ * blocks on the backend and shall not run on the common {@code ForkJoinPool}.
+ *
+ * <p>Not an {@link Executor} itself, for Spring Boot not to take it as the application task
+ * executor.
+ */
+class CacheReloadExecutor implements DisposableBean {
+
+    static final int DEFAULT_MAX_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final String THREAD_NAME_PREFIX = "catalog-cache-reload-";
+
+    private final ThreadPoolExecutor executor;
+
+    /** @param maxThreads maximum number of concurrent reloads, additional ones wait in a queue */
+    CacheReloadExecutor(int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads shall be > 0: " + maxThreads);
+        }
+        this.executor =
+                new ThreadPoolExecutor(
+                        maxThreads,
+                        maxThreads,
+                        60,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        ThreadFactories.platformThreadFactory(THREAD_NAME_PREFIX));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    Executor executor() {
+        return executor;
+    }
+
+    public @Override void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -13,7 +13,9 @@ import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.impl.ClassMappings;
 import org.geoserver.catalog.plugin.ExtendedCatalogFacade;
+import org.geoserver.catalog.plugin.Patch;
 import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
 
 /** */
 public interface CachingCatalogFacade extends ExtendedCatalogFacade {
@@ -24,6 +26,15 @@ public interface CachingCatalogFacade extends ExtendedCatalogFacade {
      */
     String CACHE_NAME = "gs-catalog";
 
+    /**
+     * Name of the cache for query and list results, holding the {@link CatalogInfoKey keys} of the
+     * objects cached in {@link #CACHE_NAME}
+     */
+    String QUERY_CACHE_NAME = "gs-catalog-queries";
+
+    /** Name of the cache for the by-id and by-name lookups that found nothing */
+    String NEGATIVE_CACHE_NAME = "gs-catalog-misses";
+
     /** Key used to cache and evict {@link CatalogFacade#getDefaultNamespace() default namespace} */
     String DEFAULT_NAMESPACE_CACHE_KEY = "defaultNamespace";
 
@@ -47,6 +58,47 @@ public interface CachingCatalogFacade extends ExtendedCatalogFacade {
 
     boolean evict(@NonNull Object key);
 
+    /**
+     * Replaces the cached copy of the given object, evicting the entries derived from it (e.g.
+     * the layers of a resource), for example with the object state received from a remote change.
+     * A cached copy with a later modification date is kept.
+     *
+     * @param info the object as returned by the decorated facade
+     */
+    <C extends CatalogInfo> void put(@NonNull C info);
+
+    /**
+     * Reloads the cached copy of the given object in the background, serving the cached copy until
+     * reloaded, instead of evicting it; evicts the entries derived from it though (e.g. the layers
+     * of a resource)
+     *
+     * @param info a {@link CatalogInfo} object to refresh, can be a proxy as long as it provides a
+     *     proper {@link Info#getId() id}
+     * @return {@code false} if the object is not cached, {@code true} otherwise
+     */
+    boolean refresh(@NonNull CatalogInfo info);
+
+    /** Evicts all cached entries */
+    void evictAll();
+
+    /**
+     * Evicts the cached query results the given object may have entered or left
+     *
+     * @param info the added, modified, or removed object, can be a proxy as long as it provides a
+     *     proper {@link Info#getId() id}
+     * @param patch the changes to the object if modified, {@code null} if added or removed
+     */
+    void evictQueries(@NonNull CatalogInfo info, @Nullable Patch patch);
+
+    /**
+     * Evicts the remembered lookup misses the given object may now be found by
+     *
+     * @param info the added or modified object, can be a proxy as long as it provides a proper
+     *     {@link Info#getId() id}
+     * @param patch the changes to the object if modified, {@code null} if added
+     */
+    void evictMisses(@NonNull CatalogInfo info, @Nullable Patch patch);
+
     static Object generateDefaultDataStoreKey(WorkspaceInfo workspace) {
         return DEFAULT_DATASTORE_CACHE_KEY_PREFIX + workspace.getId();
     }
@@ -54,4 +106,13 @@ public interface CachingCatalogFacade extends ExtendedCatalogFacade {
     static CatalogInfoKey generateLayersByResourceKey(ResourceInfo resource) {
         return new CatalogInfoKey("layers@" + resource.getId(), ClassMappings.LAYER);
     }
+
+    /**
+     * Key under which the id of the namespace with the given URI is cached
+     *
+     * @see CatalogFacade#getNamespaceByURI(String)
+     */
+    static CatalogInfoKey generateNamespaceByURIKey(String uri) {
+        return new CatalogInfoKey("uri@" + uri, ClassMappings.NAMESPACE);
+    }
 }
@@ -5,21 +5,33 @@
 package org.geoserver.cloud.catalog.cache;
 
 import static org.geoserver.cloud.catalog.cache.CachingCatalogFacade.generateLayersByResourceKey;
+import static org.geoserver.cloud.catalog.cache.CachingCatalogFacade.generateNamespaceByURIKey;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
 
 import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
 
 import org.geoserver.catalog.CatalogInfo;
 import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.Info;
 import org.geoserver.catalog.LayerGroupInfo;
 import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.MapInfo;
 import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.PublishedInfo;
 import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.catalog.StoreInfo;
 import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.ProxyUtils;
+import org.geoserver.catalog.impl.ResolvingProxy;
 import org.geoserver.catalog.plugin.ExtendedCatalogFacade;
 import org.geoserver.catalog.plugin.Patch;
+import org.geoserver.catalog.plugin.Query;
 import org.geoserver.catalog.plugin.forwarding.ForwardingExtendedCatalogFacade;
+import org.geoserver.cloud.catalog.cache.CatalogQueryCache.QueryKey;
+import org.geoserver.cloud.catalog.cache.NegativeLookupCache.MissKey;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
 import org.springframework.cache.Cache.ValueWrapper;
@@ -29,27 +41,114 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.lang.Nullable;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /** */
 @CacheConfig(cacheNames = {CachingCatalogFacade.CACHE_NAME})
+@Slf4j(topic = "org.geoserver.cloud.catalog.caching")
 class CachingCatalogFacadeImpl extends ForwardingExtendedCatalogFacade
         implements CachingCatalogFacade {
+
+    /** Properties a modified object may be found by a new name after changing */
+    private static final Set<String> NAME_PROPERTIES = Set.of("name", "prefix", "URI", "uri");
+
+    /** Properties a modified object may be found in a new scope after changing */
+    private static final Set<String> SCOPE_PROPERTIES =
+            Set.of("workspace", "namespace", "store", "resource");
+
     private Cache idCache;
 
+    /** Reloads cached objects from the decorated facade, see {@link #refresh(CatalogInfo)} */
+    private final CatalogInfoCacheLoader reloader = new CatalogInfoCacheLoader(this::facade);
+
+    /** Runs the background reloads if non null, see {@link #setReloadExecutor(Executor)} */
+    private Executor reloadExecutor;
+
+    /** Last background reload of each object, for the reloads of an object to run in order */
+    private final ConcurrentMap<CatalogInfoKey, CompletableFuture<Void>> reloads =
+            new ConcurrentHashMap<>();
+
+    /** Caches query results if non null, see {@link #setQueryResultLimit(int)} */
+    private CatalogQueryCache queryCache;
+
+    private int queryResultLimit = -1;
+
+    /** Remembers lookup misses if non null, see {@link #setNegativeCacheEnabled(boolean)} */
+    private NegativeLookupCache negativeCache;
+
+    private boolean negativeCacheEnabled;
+
     public CachingCatalogFacadeImpl(ExtendedCatalogFacade facade) {
         super(facade);
     }
 
+    /**
+     * Enables caching query and list results of up to {@code maxResultSize} objects in the {@link
+     * CachingCatalogFacade#QUERY_CACHE_NAME} cache. Shall be called before {@link
+     * #setCacheManager}.
+     */
+    public void setQueryResultLimit(int maxResultSize) {
+        this.queryResultLimit = maxResultSize;
+    }
+
+    /**
+     * Enables remembering the by-id and by-name lookups that found nothing in the {@link
+     * CachingCatalogFacade#NEGATIVE_CACHE_NAME} cache. Shall be called before {@link
+     * #setCacheManager}.
+     */
+    public void setNegativeCacheEnabled(boolean enabled) {
+        this.negativeCacheEnabled = enabled;
+    }
+
+    /**
+     * Sets the executor {@link #refresh(CatalogInfo)} reloads objects on in the background, since
+     * reloading blocks on the decorated facade. Without one, refreshing evicts instead.
+     */
+    public void setReloadExecutor(@Nullable Executor executor) {
+        this.reloadExecutor = executor;
+    }
+
     public @Autowired void setCacheManager(CacheManager cacheManager) {
         idCache = cacheManager.getCache(CachingCatalogFacade.CACHE_NAME);
+        if (queryResultLimit >= 0) {
+            Cache cache = cacheManager.getCache(CachingCatalogFacade.QUERY_CACHE_NAME);
+            queryCache = cache == null ? null : new CatalogQueryCache(cache, queryResultLimit);
+        }
+        if (negativeCacheEnabled) {
+            Cache cache = cacheManager.getCache(CachingCatalogFacade.NEGATIVE_CACHE_NAME);
+            negativeCache = cache == null ? null : new NegativeLookupCache(cache);
+        }
     }
 
     public @Override boolean evict(CatalogInfo info) {
         if (info == null || idCache == null) return false;
 
+        evictDerived(info);
+        CatalogInfoKey key = new CatalogInfoKey(info);
+        boolean evicted = idCache.evictIfPresent(key);
+        return evicted;
+    }
+
+    /** Evicts the entries derived from {@code info}, like the layers of a resource */
+    private void evictDerived(CatalogInfo info) {
         if (info instanceof ResourceInfo) {
             CatalogInfoKey layersByResourceKey = generateLayersByResourceKey((ResourceInfo) info);
             idCache.evict(layersByResourceKey);
@@ -61,58 +160,337 @@ class CachingCatalogFacadeImpl extends ForwardingExtendedCatalogFacade
                 idCache.evict(layersByResourceKey);
             }
         }
-        CatalogInfoKey key = new CatalogInfoKey(info);
-        boolean evicted = idCache.evictIfPresent(key);
-        return evicted;
     }
 
+    /**
+     * @implNote uses the cache's own refresh if it's a loading cache (i.e. {@code
+     *     refresh-after-write} is set), or reloads through {@link CatalogInfoCacheLoader} on the
+     *     {@link #setReloadExecutor reload executor} otherwise. Reloads of the same object run one
+     *     after the other, each replacing the copy cached when it started, or evicting the entry
+     *     if it was replaced meanwhile. Evicts instead if the cache is not a Caffeine cache or
+     *     there's no reload executor.
+     */
+    @SuppressWarnings("unchecked")
+    public @Override boolean refresh(@NonNull CatalogInfo info) {
+        if (idCache == null) return false;
+
+        final Object nativeCache = idCache.getNativeCache();
+        if (!(nativeCache instanceof com.github.benmanes.caffeine.cache.Cache)
+                || (reloadExecutor == null && !(nativeCache instanceof LoadingCache))) {
+            return evict(info);
+        }
+        final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache;
+        final CatalogInfoKey key = new CatalogInfoKey(info);
+        final Object stale = cache.asMap().get(key);
+        if (stale == null) {
+            return false;
+        }
+        evictDerived(info);
+        if (cache instanceof LoadingCache) {
+            ((LoadingCache<Object, Object>) cache).refresh(key);
+            return true;
+        }
+        final CompletableFuture<Void> reload =
+                reloads.compute(key, (k, previous) -> after(previous, () -> reload(cache, key)));
+        reload.whenComplete((r, e) -> reloads.remove(key, reload));
+        return true;
+    }
+
+    /** @return {@code reload} run on the reload executor once {@code previous} is done, if any */
+    private CompletableFuture<Void> after(
+            @Nullable CompletableFuture<Void> previous, Runnable reload) {
+        CompletableFuture<Void> done =
+                previous == null
+                        ? CompletableFuture.completedFuture(null)
+                        : previous.exceptionally(e -> null);
+        return done.thenRunAsync(reload, reloadExecutor);
+    }
+
+    /**
+     * Replaces the cached copy of the object with the one reloaded from the decorated facade,
+     * removes it if no longer found, and evicts it on error or if it was replaced while reloading,
+     * since which copy is the most recent can't be told
+     */
+    private void reload(
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, CatalogInfoKey key) {
+        final Map<Object, Object> map = cache.asMap();
+        final Object stale = map.get(key);
+        if (stale == null) {
+            return;
+        }
+        final Object fresh;
+        try {
+            fresh = reloader.reload(key, stale);
+        } catch (RuntimeException e) {
+            log.warn("Error reloading {}, evicting it", key, e);
+            map.remove(key);
+            return;
+        }
+        if (fresh == null) {
+            map.remove(key, stale);
+        } else if (!map.replace(key, stale, fresh)) {
+            log.debug("{} replaced while reloading, evicting it", key);
+            map.remove(key);
+        }
+    }
+
+    /**
+     * @implNote also evicts the query results scoped to the default workspace when evicting the
+     *     {@link #DEFAULT_WORKSPACE_CACHE_KEY}, as upon a remote default workspace change
+     */
     public @Override boolean evict(@NonNull Object key) {
+        if (DEFAULT_WORKSPACE_CACHE_KEY.equals(key) && queryCache != null) {
+            queryCache.evictDefaultWorkspaceScoped();
+        }
         return idCache.evictIfPresent(key);
     }
 
+    /**
+     * @implNote keeps the cached copy if it was modified after {@code info}, as an older state may
+     *     be received after a newer one was cached (e.g. by a local lookup). The comparison is
+     *     atomic with the replacement on Caffeine caches only.
+     */
+    @SuppressWarnings("unchecked")
+    public @Override <C extends CatalogInfo> void put(@NonNull C info) {
+        if (idCache == null) return;
+        evictDerived(info);
+        final CatalogInfoKey key = new CatalogInfoKey(info);
+        final Object nativeCache = idCache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache)
+                    .asMap()
+                    .compute(key, (k, cached) -> isModifiedAfter(cached, info) ? cached : info);
+            return;
+        }
+        ValueWrapper cached = idCache.get(key);
+        if (cached == null || !isModifiedAfter(cached.get(), info)) {
+            idCache.put(key, info);
+        }
+    }
+
+    /**
+     * @return whether {@code cached} is a {@link CatalogInfo} modified after {@code info}, {@code
+     *     false} if either modification date is unknown
+     */
+    private static boolean isModifiedAfter(@Nullable Object cached, CatalogInfo info) {
+        if (!(cached instanceof CatalogInfo)) {
+            return false;
+        }
+        Date cachedDate = ((CatalogInfo) cached).getDateModified();
+        Date date = info.getDateModified();
+        return cachedDate != null && date != null && cachedDate.after(date);
+    }
+
+    public @Override void evictAll() {
+        if (idCache != null) {
+            idCache.clear();
+        }
+        if (queryCache != null) {
+            queryCache.clear();
+        }
+        if (negativeCache != null) {
+            negativeCache.clear();
+        }
+    }
+
+    /**
+     * @implNote resolves the workspace scopes of the object from both its cached copy and the
+     *     object itself, unless it's an unresolved proxy; hence shall be called before evicting
+     *     the object from the {@link #idCache}
+     */
+    public @Override void evictQueries(@NonNull CatalogInfo info, @Nullable Patch patch) {
+        if (queryCache == null) return;
+
+        @SuppressWarnings("unchecked")
+        Class<? extends CatalogInfo> type =
+                (Class<? extends CatalogInfo>) new CatalogInfoKey(info).getType().getInterface();
+        if (patch == null) {
+            queryCache.evictMembership(type, scopesOf(info));
+        } else {
+            boolean moved = patch.get("workspace").isPresent();
+            queryCache.evictModified(type, moved);
+        }
+    }
+
+    /** Legacy save() calls don't tell what changed, assume the object may have been moved */
+    private void evictQueriesOnSave(CatalogInfo info) {
+        evictQueries(info, new Patch().with("workspace", null));
+        evictMisses(info, null);
+    }
+
+    /**
+     * @implNote resolves the names of an unresolved proxy from its cached copy, if any; hence
+     *     shall be called before evicting the object from the {@link #idCache}
+     */
+    public @Override void evictMisses(@NonNull CatalogInfo info, @Nullable Patch patch) {
+        if (negativeCache == null) return;
+
+        @SuppressWarnings("unchecked")
+        Class<? extends CatalogInfo> type =
+                (Class<? extends CatalogInfo>) new CatalogInfoKey(info).getType().getInterface();
+        if (patch == null) {
+            negativeCache.evict(type, Set.of(info.getId()), knownNamesOf(info));
+            return;
+        }
+        Set<String> names = new HashSet<>();
+        boolean moved = false;
+        for (Patch.Property property : patch.getPatches()) {
+            String name = property.getName();
+            if (NAME_PROPERTIES.contains(name) && property.getValue() instanceof String) {
+                names.add((String) property.getValue());
+            } else if (SCOPE_PROPERTIES.contains(name)) {
+                moved = true;
+            }
+        }
+        if (moved) {
+            Set<String> current = knownNamesOf(info);
+            names = current == null ? null : union(names, current);
+        }
+        if (names == null || !names.isEmpty()) {
+            negativeCache.evict(type, Set.of(), names);
+        }
+    }
+
+    private static Set<String> union(Set<String> s1, Set<String> s2) {
+        Set<String> union = new HashSet<>(s1);
+        union.addAll(s2);
+        return union;
+    }
+
+    /**
+     * @return the names {@code info} can be looked up by, from its cached copy if it's an
+     *     unresolved proxy, or {@code null} if unknown
+     */
+    private @Nullable Set<String> knownNamesOf(CatalogInfo info) {
+        if (ProxyUtils.handler(info, ResolvingProxy.class) == null) {
+            return namesOf(info);
+        }
+        ValueWrapper cached = idCache.get(new CatalogInfoKey(info));
+        if (cached != null && cached.get() instanceof CatalogInfo) {
+            return namesOf((CatalogInfo) cached.get());
+        }
+        return null;
+    }
+
+    private static Set<String> namesOf(CatalogInfo info) {
+        Set<String> names = new HashSet<>(2);
+        if (info instanceof NamespaceInfo) {
+            names.add(((NamespaceInfo) info).getPrefix());
+            names.add(((NamespaceInfo) info).getURI());
+        } else if (info instanceof WorkspaceInfo) {
+            names.add(((WorkspaceInfo) info).getName());
+        } else if (info instanceof StoreInfo) {
+            names.add(((StoreInfo) info).getName());
+        } else if (info instanceof ResourceInfo) {
+            names.add(((ResourceInfo) info).getName());
+        } else if (info instanceof PublishedInfo) {
+            names.add(((PublishedInfo) info).getName());
+        } else if (info instanceof StyleInfo) {
+            names.add(((StyleInfo) info).getName());
+        } else if (info instanceof MapInfo) {
+            names.add(((MapInfo) info).getName());
+        }
+        names.remove(null);
+        return names;
+    }
+
+    /** @return the workspace scopes of {@code info}, or {@code null} if unknown */
+    private @Nullable Set<String> scopesOf(CatalogInfo info) {
+        if (!(info instanceof StoreInfo
+                || info instanceof StyleInfo
+                || info instanceof LayerGroupInfo)) {
+            return null;
+        }
+        Set<String> scopes = new HashSet<>(2);
+        ValueWrapper cached = idCache.get(new CatalogInfoKey(info));
+        if (cached != null && cached.get() instanceof CatalogInfo) {
+            scopes.add(scopeOf((CatalogInfo) cached.get()));
+        }
+        if (ProxyUtils.handler(info, ResolvingProxy.class) == null) {
+            scopes.add(scopeOf(info));
+        }
+        return scopes.isEmpty() ? null : scopes;
+    }
+
+    private static String scopeOf(CatalogInfo info) {
+        WorkspaceInfo workspace = null;
+        if (info instanceof StoreInfo) {
+            workspace = ((StoreInfo) info).getWorkspace();
+        } else if (info instanceof StyleInfo) {
+            workspace = ((StyleInfo) info).getWorkspace();
+        } else if (info instanceof LayerGroupInfo) {
+            workspace = ((LayerGroupInfo) info).getWorkspace();
+        }
+        return CatalogQueryCache.scopeOf(workspace);
+    }
+
     @CachePut(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override StoreInfo add(StoreInfo store) {
-        return super.add(store);
+        StoreInfo added = super.add(store);
+        evictQueries(added, null);
+        evictMisses(added, null);
+        return added;
     }
 
     @CachePut(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override ResourceInfo add(ResourceInfo resource) {
-        return super.add(resource);
+        ResourceInfo added = super.add(resource);
+        evictQueries(added, null);
+        evictMisses(added, null);
+        return added;
     }
 
     @CachePut(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override LayerInfo add(LayerInfo layer) {
-        return super.add(layer);
+        LayerInfo added = super.add(layer);
+        evictQueries(added, null);
+        evictMisses(added, null);
+        return added;
     }
 
     @CachePut(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override LayerGroupInfo add(LayerGroupInfo layerGroup) {
-        return super.add(layerGroup);
+        LayerGroupInfo added = super.add(layerGroup);
+        evictQueries(added, null);
+        evictMisses(added, null);
+        return added;
     }
 
     @CachePut(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override NamespaceInfo add(NamespaceInfo namespace) {
-        return super.add(namespace);
+        NamespaceInfo added = super.add(namespace);
+        evictQueries(added, null);
+        evictMisses(added, null);
+        return added;
     }
 
     @CachePut(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override WorkspaceInfo add(WorkspaceInfo workspace) {
-        return super.add(workspace);
+        WorkspaceInfo added = super.add(workspace);
+        evictQueries(added, null);
+        evictMisses(added, null);
+        return added;
     }
 
     @CachePut(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override StyleInfo add(StyleInfo style) {
-        return super.add(style);
+        StyleInfo added = super.add(style);
+        evictQueries(added, null);
+        evictMisses(added, null);
+        return added;
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void remove(StoreInfo store) {
         super.remove(store);
+        evictQueries(store, null);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void remove(ResourceInfo resource) {
         super.remove(resource);
+        evictQueries(resource, null);
     }
 
     @Caching(
@@ -126,81 +504,143 @@ class CachingCatalogFacadeImpl extends ForwardingExtendedCatalogFacade
             })
     public @Override void remove(LayerInfo layer) {
         super.remove(layer);
+        evictQueries(layer, null);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void remove(LayerGroupInfo layerGroup) {
         super.remove(layerGroup);
+        evictQueries(layerGroup, null);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void remove(NamespaceInfo namespace) {
         super.remove(namespace);
+        evictQueries(namespace, null);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void remove(WorkspaceInfo workspace) {
         super.remove(workspace);
+        evictQueries(workspace, null);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void remove(StyleInfo style) {
         super.remove(style);
+        evictQueries(style, null);
+    }
+
+    public @Override MapInfo add(MapInfo map) {
+        MapInfo added = super.add(map);
+        evictQueries(added, null);
+        evictMisses(added, null);
+        return added;
+    }
+
+    public @Override void remove(MapInfo map) {
+        super.remove(map);
+        evictQueries(map, null);
+    }
+
+    public @Override void save(MapInfo map) {
+        super.save(map);
+        evictQueriesOnSave(map);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void save(StoreInfo store) {
         super.remove(store);
+        evictQueriesOnSave(store);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void save(ResourceInfo resource) {
         super.remove(resource);
+        evictQueriesOnSave(resource);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void save(StyleInfo style) {
         super.save(style);
+        evictQueriesOnSave(style);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void save(LayerInfo layer) {
         super.save(layer);
+        evictQueriesOnSave(layer);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void save(LayerGroupInfo layerGroup) {
         super.save(layerGroup);
+        evictQueriesOnSave(layerGroup);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void save(NamespaceInfo namespace) {
         super.save(namespace);
+        evictQueriesOnSave(namespace);
     }
 
     @CacheEvict(key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#p0)")
     public @Override void save(WorkspaceInfo workspace) {
         super.save(workspace);
+        evictQueriesOnSave(workspace);
     }
 
     @CachePut(
             key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#info)",
             unless = "#result == null")
     public @Override <I extends CatalogInfo> I update(final I info, final Patch patch) {
-        return super.update(info, patch);
+        I updated = super.update(info, patch);
+        evictQueries(info, patch);
+        evictMisses(info, patch);
+        return updated;
     }
 
     @Cacheable(
             key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#id, 'WORKSPACE')",
             unless = "#result == null")
     public @Override WorkspaceInfo getWorkspace(String id) {
-        return super.getWorkspace(id);
+        return lookupById(WorkspaceInfo.class, id, () -> super.getWorkspace(id));
     }
 
     @Cacheable(
             key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#id, 'NAMESPACE')",
             unless = "#result == null")
     public @Override NamespaceInfo getNamespace(String id) {
+        return lookupById(NamespaceInfo.class, id, () -> super.getNamespace(id));
+    }
+
+    /**
+     * @implNote manual caching; caches the namespace id by URI, and resolves it as {@link
+     *     #getNamespace(String)} does. Since remote events only carry the object id, a cached
+     *     namespace whose URI no longer matches (e.g. it was modified or removed and re-fetched) is
+     *     treated as a cache miss.
+     */
+    public @Override NamespaceInfo getNamespaceByURI(String uri) {
+        final CatalogInfoKey uriKey = generateNamespaceByURIKey(uri);
+        ValueWrapper value = idCache.get(uriKey);
+        if (value != null) {
+            String id = (String) value.get();
+            NamespaceInfo ns = getOrCache(id, NamespaceInfo.class, this::getNamespaceById);
+            if (ns != null && uri.equals(ns.getURI())) {
+                return ns;
+            }
+            idCache.evict(uriKey);
+        }
+        NamespaceInfo ns =
+                lookupByName(NamespaceInfo.class, null, uri, () -> super.getNamespaceByURI(uri));
+        if (ns != null) {
+            idCache.put(uriKey, ns.getId());
+            idCache.putIfAbsent(new CatalogInfoKey(ns), ns);
+        }
+        return ns;
+    }
+
+    private NamespaceInfo getNamespaceById(String id, Class<NamespaceInfo> type) {
         return super.getNamespace(id);
     }
 
@@ -236,7 +676,7 @@ class CachingCatalogFacadeImpl extends ForwardingExtendedCatalogFacade
             return requestType.isInstance(info) ? requestType.cast(info) : null;
         }
         // on cache miss, put it with a key using the concrete type
-        T result = queryMethod.apply(id, requestType);
+        T result = lookupById(requestType, id, () -> queryMethod.apply(id, requestType));
         if (result != null) {
             idCache.putIfAbsent(new CatalogInfoKey(result), result);
         }
@@ -247,14 +687,14 @@ class CachingCatalogFacadeImpl extends ForwardingExtendedCatalogFacade
             key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#id, 'STYLE')",
             unless = "#result == null")
     public @Override StyleInfo getStyle(String id) {
-        return super.getStyle(id);
+        return lookupById(StyleInfo.class, id, () -> super.getStyle(id));
     }
 
     @Cacheable(
             key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#id, 'LAYER')",
             unless = "#result == null")
     public @Override LayerInfo getLayer(String id) {
-        return super.getLayer(id);
+        return lookupById(LayerInfo.class, id, () -> super.getLayer(id));
     }
 
     @Cacheable(
@@ -269,7 +709,7 @@ class CachingCatalogFacadeImpl extends ForwardingExtendedCatalogFacade
             key = "new org.geoserver.cloud.catalog.cache.CatalogInfoKey(#id, 'LAYERGROUP')",
             unless = "#result == null")
     public @Override LayerGroupInfo getLayerGroup(String id) {
-        return super.getLayerGroup(id);
+        return lookupById(LayerGroupInfo.class, id, () -> super.getLayerGroup(id));
     }
 
     @Cacheable(key = "'" + DEFAULT_WORKSPACE_CACHE_KEY + "'", unless = "#result == null")
@@ -280,6 +720,9 @@ class CachingCatalogFacadeImpl extends ForwardingExtendedCatalogFacade
     @CacheEvict(key = "'" + DEFAULT_WORKSPACE_CACHE_KEY + "'")
     public @Override void setDefaultWorkspace(WorkspaceInfo workspace) {
         super.setDefaultWorkspace(workspace);
+        if (queryCache != null) {
+            queryCache.evictDefaultWorkspaceScoped();
+        }
     }
 
     @Cacheable(key = "'" + DEFAULT_NAMESPACE_CACHE_KEY + "'", unless = "#result == null")
@@ -304,15 +747,227 @@ class CachingCatalogFacadeImpl extends ForwardingExtendedCatalogFacade
         super.setDefaultDataStore(workspace, store);
     }
 
-    // public @Override <T extends StoreInfo> T getStoreByName(WorkspaceInfo workspace, String
-    // name, Class<T> clazz){}
-    // public @Override LayerInfo getLayerByName(String name){}
-    // public @Override LayerGroupInfo getLayerGroupByName(String name){}
-    // public @Override LayerGroupInfo getLayerGroupByName(WorkspaceInfo workspace, String
-    // name){}
-    // public @Override NamespaceInfo getNamespaceByPrefix(String prefix){}
-    // public @Override NamespaceInfo getNamespaceByURI(String uri){}
-    // public @Override WorkspaceInfo getWorkspaceByName(String name){}
-    // public @Override StyleInfo getStyleByName(String name){}
-    // public @Override StyleInfo getStyleByName(WorkspaceInfo workspace, String name){}
+    public @Override <T extends StoreInfo> List<T> getStoresByWorkspace(
+            WorkspaceInfo workspace, Class<T> clazz) {
+        return getOrCacheList(
+                QueryKey.scoped("getStoresByWorkspace", clazz, workspace),
+                clazz,
+                () -> super.getStoresByWorkspace(workspace, clazz));
+    }
+
+    public @Override <T extends StoreInfo> List<T> getStores(Class<T> clazz) {
+        return getOrCacheList(
+                QueryKey.of("getStores", clazz), clazz, () -> super.getStores(clazz));
+    }
+
+    public @Override List<LayerInfo> getLayers() {
+        return getOrCacheList(
+                QueryKey.of("getLayers", LayerInfo.class), LayerInfo.class, super::getLayers);
+    }
+
+    public @Override List<LayerGroupInfo> getLayerGroups() {
+        return getOrCacheList(
+                QueryKey.of("getLayerGroups", LayerGroupInfo.class),
+                LayerGroupInfo.class,
+                super::getLayerGroups);
+    }
+
+    public @Override List<LayerGroupInfo> getLayerGroupsByWorkspace(WorkspaceInfo workspace) {
+        return getOrCacheList(
+                QueryKey.scoped("getLayerGroupsByWorkspace", LayerGroupInfo.class, workspace),
+                LayerGroupInfo.class,
+                () -> super.getLayerGroupsByWorkspace(workspace));
+    }
+
+    public @Override List<NamespaceInfo> getNamespaces() {
+        return getOrCacheList(
+                QueryKey.of("getNamespaces", NamespaceInfo.class),
+                NamespaceInfo.class,
+                super::getNamespaces);
+    }
+
+    public @Override List<WorkspaceInfo> getWorkspaces() {
+        return getOrCacheList(
+                QueryKey.of("getWorkspaces", WorkspaceInfo.class),
+                WorkspaceInfo.class,
+                super::getWorkspaces);
+    }
+
+    public @Override List<StyleInfo> getStyles() {
+        return getOrCacheList(
+                QueryKey.of("getStyles", StyleInfo.class), StyleInfo.class, super::getStyles);
+    }
+
+    public @Override List<StyleInfo> getStylesByWorkspace(WorkspaceInfo workspace) {
+        return getOrCacheList(
+                QueryKey.scoped("getStylesByWorkspace", StyleInfo.class, workspace),
+                StyleInfo.class,
+                () -> super.getStylesByWorkspace(workspace));
+    }
+
+    /**
+     * @implNote caches the result if it has up to {@link CatalogQueryCache#getMaxResultSize()}
+     *     objects; larger results are streamed from the decorated facade past that size.
+     */
+    public @Override <T extends CatalogInfo> Stream<T> query(Query<T> query) {
+        if (queryCache == null) {
+            return super.query(query);
+        }
+        final QueryKey key = QueryKey.of(query);
+        final List<T> cached = resolve(queryCache.get(key), query.getType());
+        if (cached != null) {
+            return cached.stream();
+        }
+        final long generation = queryCache.generation();
+        final int limit = queryCache.getMaxResultSize();
+        final Stream<T> stream = super.query(query);
+        final List<T> head = new ArrayList<>();
+        final Iterator<T> it;
+        try {
+            it = stream.iterator();
+            while (head.size() <= limit && it.hasNext()) {
+                head.add(it.next());
+            }
+        } catch (RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+        if (head.size() > limit) {
+            Spliterator<T> rest = Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED);
+            return Stream.concat(head.stream(), StreamSupport.stream(rest, false))
+                    .onClose(stream::close);
+        }
+        stream.close();
+        cacheResult(key, head, generation);
+        return head.stream();
+    }
+
+    /**
+     * Caching query for list results; stores the result objects in the {@link #idCache} and their
+     * keys in the {@link #queryCache}. A cached result is a miss if any of its objects is no
+     * longer in the {@link #idCache}.
+     */
+    private <T extends CatalogInfo> List<T> getOrCacheList(
+            QueryKey key, Class<T> type, Supplier<List<T>> query) {
+        if (queryCache == null) {
+            return query.get();
+        }
+        List<T> cached = resolve(queryCache.get(key), type);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = queryCache.generation();
+        List<T> result = query.get();
+        cacheResult(key, result, generation);
+        return result;
+    }
+
+    private <T extends CatalogInfo> List<T> resolve(
+            @Nullable List<CatalogInfoKey> keys, Class<T> type) {
+        if (keys == null) {
+            return null;
+        }
+        List<T> result = new ArrayList<>(keys.size());
+        for (CatalogInfoKey key : keys) {
+            ValueWrapper value = idCache.get(key);
+            Object info = value == null ? null : value.get();
+            if (!type.isInstance(info)) {
+                return null;
+            }
+            result.add(type.cast(info));
+        }
+        return result;
+    }
+
+    /**
+     * Caches the result objects and keys, unless an entry was evicted since {@code generation}, as
+     * the objects may be stale already
+     */
+    private void cacheResult(QueryKey key, List<? extends CatalogInfo> result, long generation) {
+        if (result.size() > queryCache.getMaxResultSize()
+                || generation != queryCache.generation()) {
+            return;
+        }
+        List<CatalogInfoKey> keys = new ArrayList<>(result.size());
+        List<CatalogInfoKey> added = new ArrayList<>();
+        for (CatalogInfo info : result) {
+            CatalogInfoKey infoKey = new CatalogInfoKey(info);
+            if (idCache.putIfAbsent(infoKey, info) == null) {
+                added.add(infoKey);
+            }
+            keys.add(infoKey);
+        }
+        // an eviction could have happened while adding them
+        if (generation != queryCache.generation()) {
+            added.forEach(idCache::evict);
+            return;
+        }
+        queryCache.put(key, keys, generation);
+    }
+
+    public @Override <T extends StoreInfo> T getStoreByName(
+            WorkspaceInfo workspace, String name, Class<T> clazz) {
+        return lookupByName(
+                clazz, workspace, name, () -> super.getStoreByName(workspace, name, clazz));
+    }
+
+    public @Override <T extends ResourceInfo> T getResourceByName(
+            NamespaceInfo namespace, String name, Class<T> clazz) {
+        return lookupByName(
+                clazz, namespace, name, () -> super.getResourceByName(namespace, name, clazz));
+    }
+
+    public @Override LayerInfo getLayerByName(String name) {
+        return lookupByName(LayerInfo.class, null, name, () -> super.getLayerByName(name));
+    }
+
+    public @Override LayerGroupInfo getLayerGroupByName(String name) {
+        return lookupByName(
+                LayerGroupInfo.class, null, name, () -> super.getLayerGroupByName(name));
+    }
+
+    public @Override LayerGroupInfo getLayerGroupByName(WorkspaceInfo workspace, String name) {
+        return lookupByName(
+                LayerGroupInfo.class,
+                workspace,
+                name,
+                () -> super.getLayerGroupByName(workspace, name));
+    }
+
+    public @Override NamespaceInfo getNamespaceByPrefix(String prefix) {
+        return lookupByName(
+                NamespaceInfo.class, null, prefix, () -> super.getNamespaceByPrefix(prefix));
+    }
+
+    public @Override WorkspaceInfo getWorkspaceByName(String name) {
+        return lookupByName(
+                WorkspaceInfo.class, null, name, () -> super.getWorkspaceByName(name));
+    }
+
+    public @Override StyleInfo getStyleByName(String name) {
+        return lookupByName(StyleInfo.class, null, name, () -> super.getStyleByName(name));
+    }
+
+    public @Override StyleInfo getStyleByName(WorkspaceInfo workspace, String name) {
+        return lookupByName(
+                StyleInfo.class, workspace, name, () -> super.getStyleByName(workspace, name));
+    }
+
+    private <T> T lookupById(Class<? extends CatalogInfo> type, String id, Supplier<T> lookup) {
+        if (negativeCache == null || id == null) {
+            return lookup.get();
+        }
+        return negativeCache.lookup(MissKey.byId(type, id), lookup);
+    }
+
+    private <T> T lookupByName(
+            Class<? extends CatalogInfo> type,
+            @Nullable Info scope,
+            String name,
+            Supplier<T> lookup) {
+        if (negativeCache == null || name == null) {
+            return lookup.get();
+        }
+        return negativeCache.lookup(MissKey.byName(type, scope, name), lookup);
+    }
 }
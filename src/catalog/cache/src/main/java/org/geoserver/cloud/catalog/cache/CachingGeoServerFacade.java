@@ -74,4 +74,7 @@ public interface CachingGeoServerFacade extends GeoServerFacade {
      * @return the cached value or empty
      */
     Optional<GeoServerInfo> evictGlobal();
+
+    /** Evicts all cached entries */
+    void evictAll();
 }
@@ -44,6 +44,11 @@ class CachingGeoServerFacadeImpl extends ForwardingGeoServerFacade
         return ret;
     }
 
+    @Override
+    public void evictAll() {
+        cache.clear();
+    }
+
     @Override
     public boolean evict(Info info) {
         log.debug("Evict cache entry for {}", info.getId());
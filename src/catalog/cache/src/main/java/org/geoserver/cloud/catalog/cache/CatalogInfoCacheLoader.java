@@ -0,0 +1,95 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.impl.ClassMappings;
+
+import java.util.function.Supplier;
+
+/**
+ * Reloads the catalog objects cached by id from the decorated {@link CatalogFacade}, for
+ * refresh-after-write.
+ *
+ * <p>Never loads on a cache miss, since {@link CachingCatalogFacadeImpl} does it itself; only
+ * {@link #reload reloads} cached entries. Entries it doesn't know how to reload keep their value,
+ * and are still bounded by the expiry settings.
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.caching")
+class CatalogInfoCacheLoader implements CacheLoader<Object, Object> {
+
+    private static final String LAYERS_PREFIX = "layers@";
+
+    private static final String URI_PREFIX = "uri@";
+
+    private final Supplier<CatalogFacade> facade;
+
+    CatalogInfoCacheLoader(@NonNull Supplier<CatalogFacade> facade) {
+        this.facade = facade;
+    }
+
+    public @Override Object load(Object key) {
+        return null;
+    }
+
+    /** @return the reloaded value, or {@code null} to remove the entry if no longer found */
+    public @Override Object reload(Object key, Object oldValue) {
+        if (!(key instanceof CatalogInfoKey)) {
+            return oldValue;
+        }
+        CatalogInfoKey infoKey = (CatalogInfoKey) key;
+        Object reloaded = reload(infoKey.getId(), infoKey.getType(), oldValue);
+        log.trace("Reloaded {}", key);
+        return reloaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object reload(String id, ClassMappings type, Object oldValue) {
+        final CatalogFacade catalog = facade.get();
+        final Class<?> infoType = type.getInterface();
+        switch (type) {
+            case WORKSPACE:
+                return catalog.getWorkspace(id);
+            case NAMESPACE:
+                if (id.startsWith(URI_PREFIX)) {
+                    // namespace id by URI, see CachingCatalogFacade.generateNamespaceByURIKey
+                    String uri = id.substring(URI_PREFIX.length());
+                    NamespaceInfo ns = catalog.getNamespaceByURI(uri);
+                    return ns == null ? null : ns.getId();
+                }
+                return catalog.getNamespace(id);
+            case STYLE:
+                return catalog.getStyle(id);
+            case LAYERGROUP:
+                return catalog.getLayerGroup(id);
+            case MAP:
+                return catalog.getMap(id);
+            case LAYER:
+                if (id.startsWith(LAYERS_PREFIX)) {
+                    // layers by resource, see CachingCatalogFacade.generateLayersByResourceKey
+                    String resourceId = id.substring(LAYERS_PREFIX.length());
+                    ResourceInfo resource = catalog.getResource(resourceId, ResourceInfo.class);
+                    return resource == null ? null : catalog.getLayers(resource);
+                }
+                return catalog.getLayer(id);
+            default:
+                if (StoreInfo.class.isAssignableFrom(infoType)) {
+                    return catalog.getStore(id, (Class<? extends StoreInfo>) infoType);
+                }
+                if (ResourceInfo.class.isAssignableFrom(infoType)) {
+                    return catalog.getResource(id, (Class<? extends ResourceInfo>) infoType);
+                }
+                return oldValue;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import static org.geoserver.catalog.impl.ClassMappings.STORE;
 
 import static java.util.Objects.requireNonNull;
 
+import lombok.Getter;
 import lombok.ToString;
 
 import org.geoserver.catalog.Info;
@@ -31,8 +32,8 @@ import java.util.Objects;
 public class CatalogInfoKey implements Serializable {
     private static final long serialVersionUID = 8016140044040386038L;
 
-    private String id;
-    private ClassMappings type;
+    private @Getter String id;
+    private @Getter ClassMappings type;
 
     /**
      * Caching constructor, resolves {@code info}'s type to its concrete {@link
@@ -0,0 +1,149 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.Info;
+import org.springframework.lang.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the catalog lookups by id and by name performed while dispatching a request, for the
+ * many lookups of the same objects a single request may perform (e.g. the workspaces, stores, and
+ * styles of the layers in a large layer group) to hit the {@link CachingCatalogFacade} only once.
+ *
+ * <p>The lookups are remembered per thread, only during {@link #dispatch}, and discarded at the end
+ * of it. Local catalog changes clear them. Remote changes don't, so a request may see the objects
+ * as they were when first looked up during it.
+ *
+ * <p>The memo sits below the {@code ModificationProxy} decoration and the isolated workspaces
+ * handling of the catalog, so each caller still gets its own proxy and sees only the objects it
+ * shall see; what's saved is the trip to the cache and, for the by-name lookups, to the backend.
+ *
+ * @see MemoizingCatalogFacade
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.caching")
+public class CatalogLookupMemo {
+
+    /** A request dispatch, as in {@code Dispatcher.handleRequest(request, response)} */
+    @FunctionalInterface
+    public static interface Dispatch {
+        void run() throws Exception;
+    }
+
+    private final ThreadLocal<Map<LookupKey, Object>> memo = new ThreadLocal<>();
+
+    private final LongAdder lookups = new LongAdder();
+
+    private final LongAdder saved = new LongAdder();
+
+    /**
+     * Runs {@code dispatch} remembering the catalog lookups it performs, or just runs it if already
+     * remembering them for an enclosing dispatch
+     */
+    public void dispatch(@NonNull Dispatch dispatch) throws Exception {
+        if (memo.get() != null) {
+            dispatch.run();
+            return;
+        }
+        final Map<LookupKey, Object> requestMemo = new HashMap<>();
+        memo.set(requestMemo);
+        try {
+            dispatch.run();
+        } finally {
+            memo.remove();
+            log.trace("Discarded {} remembered catalog lookups", requestMemo.size());
+        }
+    }
+
+    /** @return whether the lookups of the calling thread are being remembered */
+    public boolean isActive() {
+        return memo.get() != null;
+    }
+
+    /** @return the number of lookups performed while dispatching requests */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /** @return the number of lookups served from the memo instead of the catalog facade */
+    public long getSavedCount() {
+        return saved.sum();
+    }
+
+    /**
+     * Performs the lookup unless it was already performed during the current dispatch, remembering
+     * its result, including {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    <T> T lookup(@NonNull LookupKey key, @NonNull Supplier<T> lookup) {
+        final Map<LookupKey, Object> requestMemo = memo.get();
+        if (requestMemo == null) {
+            return lookup.get();
+        }
+        lookups.increment();
+        if (requestMemo.containsKey(key)) {
+            saved.increment();
+            return (T) requestMemo.get(key);
+        }
+        T found = lookup.get();
+        requestMemo.put(key, found);
+        return found;
+    }
+
+    /** Forgets the lookups of the current dispatch, if any */
+    void clear() {
+        final Map<LookupKey, Object> requestMemo = memo.get();
+        if (requestMemo != null) {
+            requestMemo.clear();
+        }
+    }
+
+    /** Key for a lookup call, its requested type, scope, and looked up id or name */
+    @Value
+    static class LookupKey {
+        String call;
+
+        Class<?> type;
+
+        /** Id of the workspace, namespace, or store the lookup is scoped to, if any */
+        String scope;
+
+        String value;
+
+        static LookupKey of(@NonNull String call, @NonNull Class<?> type, @Nullable String value) {
+            return new LookupKey(call, type, null, value);
+        }
+
+        static LookupKey of(
+                @NonNull String call,
+                @NonNull Class<?> type,
+                @Nullable Info scope,
+                @Nullable String value) {
+            return new LookupKey(call, type, scopeOf(scope), value);
+        }
+
+        private static String scopeOf(@Nullable Info scope) {
+            if (scope == null) {
+                return null;
+            }
+            if (scope == CatalogFacade.ANY_WORKSPACE || scope == CatalogFacade.ANY_NAMESPACE) {
+                return NegativeLookupCache.ANY;
+            }
+            if (scope == CatalogFacade.NO_WORKSPACE) {
+                return NegativeLookupCache.NONE;
+            }
+            return scope.getId();
+        }
+    }
+}
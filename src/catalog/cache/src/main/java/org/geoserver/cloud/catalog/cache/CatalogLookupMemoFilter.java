@@ -0,0 +1,61 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import lombok.NonNull;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Servlet filter that dispatches OWS requests through the {@link CatalogLookupMemo}, so the
+ * catalog lookups they perform are remembered for the duration of the request.
+ *
+ * <p>OWS requests are told apart by the last segment of their path, as mapped by the service
+ * controllers (e.g. {@code /wms}, {@code /{virtualService}/ows}, {@code
+ * /{virtualService}/{layer}/wfs}); other requests, like those to the web UI or the REST API, go
+ * through unchanged.
+ */
+public class CatalogLookupMemoFilter extends OncePerRequestFilter {
+
+    static final Set<String> OWS_PATHS = Set.of("ows", "wms", "wfs", "wcs", "wps", "wmts");
+
+    private final CatalogLookupMemo memo;
+
+    public CatalogLookupMemoFilter(@NonNull CatalogLookupMemo memo) {
+        this.memo = memo;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        String last = path.substring(path.lastIndexOf('/') + 1);
+        return !OWS_PATHS.contains(last.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            memo.dispatch(() -> chain.doFilter(request, response));
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+}
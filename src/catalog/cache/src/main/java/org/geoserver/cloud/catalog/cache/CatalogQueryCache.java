@@ -0,0 +1,234 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.plugin.Query;
+import org.geotools.filter.FilterAttributeExtractor;
+import org.opengis.filter.Filter;
+import org.opengis.filter.sort.SortBy;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.lang.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Caches the results of list-returning {@link CatalogFacade} calls and {@link
+ * CatalogFacade#query queries} as lists of {@link CatalogInfoKey} object keys, for {@link
+ * CachingCatalogFacadeImpl} to resolve them against its object cache.
+ *
+ * <p>Entries are evicted precisely by the type, and workspace when known, of the objects added,
+ * modified, or removed:
+ *
+ * <ul>
+ *   <li>Adding or removing an object evicts the entries of a compatible type, either unscoped or
+ *       scoped to the object's workspace.
+ *   <li>Modifying an object evicts the entries of a compatible type whose result depends on the
+ *       objects' properties (filtered or sorted queries), and the workspace scoped ones if it's
+ *       moved to another workspace. Unfiltered results only hold keys, so they're not affected.
+ *   <li>Any change evicts the queries on nested properties (e.g. {@code
+ *       resource.store.workspace.name}), since they depend on objects of other types.
+ * </ul>
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.caching")
+class CatalogQueryCache {
+
+    /** Scope of the objects in no workspace */
+    static final String NO_WORKSPACE = "@no-workspace";
+
+    /** Scope of the objects in the default workspace, as requested with a {@code null} workspace */
+    static final String DEFAULT_WORKSPACE = "@default-workspace";
+
+    private final Cache cache;
+    private final int maxResultSize;
+
+    /** Incremented on every eviction, for results computed meanwhile not to be cached */
+    private final AtomicLong generation = new AtomicLong();
+
+    CatalogQueryCache(@NonNull Cache cache, int maxResultSize) {
+        this.cache = cache;
+        this.maxResultSize = maxResultSize;
+    }
+
+    public int getMaxResultSize() {
+        return maxResultSize;
+    }
+
+    /** @return the current generation, to be passed to {@link #put} */
+    public long generation() {
+        return generation.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable List<CatalogInfoKey> get(@NonNull QueryKey key) {
+        ValueWrapper value = cache.get(key);
+        return value == null ? null : (List<CatalogInfoKey>) value.get();
+    }
+
+    /**
+     * Caches the result keys, unless an entry was evicted since {@code generation}, as the result
+     * may be stale already
+     */
+    public void put(@NonNull QueryKey key, @NonNull List<CatalogInfoKey> keys, long generation) {
+        if (keys.size() > maxResultSize || generation != this.generation.get()) {
+            return;
+        }
+        cache.put(key, List.copyOf(keys));
+        // an eviction could have happened right before putting
+        if (generation != this.generation.get()) {
+            cache.evict(key);
+        }
+    }
+
+    public void evict(@NonNull QueryKey key) {
+        generation.incrementAndGet();
+        cache.evict(key);
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    /**
+     * Evicts the entries an added or removed object may be part of
+     *
+     * @param scopes the workspace scopes of the object, {@code null} if unknown. The default
+     *     workspace scoped entries are evicted regardless, its id not being known here.
+     */
+    public void evictMembership(
+            @NonNull Class<? extends CatalogInfo> type, @Nullable Set<String> scopes) {
+        evictIf(
+                key ->
+                        key.isNested()
+                                || (key.isCompatible(type)
+                                        && (key.getScope() == null
+                                                || DEFAULT_WORKSPACE.equals(key.getScope())
+                                                || scopes == null
+                                                || scopes.contains(key.getScope()))));
+    }
+
+    /** Evicts the entries scoped to the default workspace, upon changing it */
+    public void evictDefaultWorkspaceScoped() {
+        evictIf(key -> DEFAULT_WORKSPACE.equals(key.getScope()));
+    }
+
+    /**
+     * Evicts the entries a modified object may have entered or left
+     *
+     * @param moved whether the object was moved to another workspace
+     */
+    public void evictModified(@NonNull Class<? extends CatalogInfo> type, boolean moved) {
+        evictIf(
+                key ->
+                        key.isNested()
+                                || (key.isCompatible(type)
+                                        && (key.isPropertyDependent()
+                                                || (moved && key.getScope() != null))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictIf(Predicate<QueryKey> predicate) {
+        generation.incrementAndGet();
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            Map<Object, Object> map =
+                    ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache)
+                            .asMap();
+            map.keySet().removeIf(k -> k instanceof QueryKey && predicate.test((QueryKey) k));
+        } else {
+            log.debug("Can't evict query results selectively from {}, clearing", nativeCache);
+            cache.clear();
+        }
+    }
+
+    /** Scope of the objects in {@code workspace} */
+    static String scopeOf(@Nullable WorkspaceInfo workspace) {
+        if (workspace == null || workspace == CatalogFacade.NO_WORKSPACE) {
+            return NO_WORKSPACE;
+        }
+        return workspace.getId();
+    }
+
+    /**
+     * Key for a list-returning call or a {@link Query}. Equal queries (same type, filter, sort
+     * order, offset and count) have equal keys.
+     */
+    @Value
+    static class QueryKey {
+        /** Call the result comes from */
+        String call;
+
+        Class<? extends CatalogInfo> type;
+
+        /** Workspace scope, {@code null} if not scoped to a workspace */
+        String scope;
+
+        Query<?> query;
+
+        /** Whether the result depends on the objects' properties */
+        boolean propertyDependent;
+
+        /** Whether the result depends on the properties of other objects */
+        boolean nested;
+
+        boolean isCompatible(Class<? extends CatalogInfo> changed) {
+            return type.isAssignableFrom(changed) || changed.isAssignableFrom(type);
+        }
+
+        static QueryKey of(@NonNull String call, @NonNull Class<? extends CatalogInfo> type) {
+            return new QueryKey(call, type, null, null, false, false);
+        }
+
+        /**
+         * @return a key scoped to the workspace, unscoped for {@link CatalogFacade#ANY_WORKSPACE},
+         *     or scoped to the {@link #DEFAULT_WORKSPACE} for {@code null}, as the by-workspace
+         *     calls take it
+         */
+        static QueryKey scoped(
+                @NonNull String call,
+                @NonNull Class<? extends CatalogInfo> type,
+                @Nullable WorkspaceInfo workspace) {
+            final String scope;
+            if (workspace == CatalogFacade.ANY_WORKSPACE) {
+                scope = null;
+            } else if (workspace == null) {
+                scope = DEFAULT_WORKSPACE;
+            } else {
+                scope = scopeOf(workspace);
+            }
+            return new QueryKey(call, type, scope, null, false, false);
+        }
+
+        static QueryKey of(@NonNull Query<? extends CatalogInfo> query) {
+            Query<? extends CatalogInfo> copy = new Query<>(query);
+            Filter filter = copy.getFilter();
+            boolean propertyDependent = !Filter.INCLUDE.equals(filter) || copy.isSorting();
+            boolean nested = false;
+            if (propertyDependent) {
+                FilterAttributeExtractor extractor = new FilterAttributeExtractor();
+                filter.accept(extractor, null);
+                Set<String> properties = new HashSet<>(extractor.getAttributeNameSet());
+                for (SortBy sortBy : copy.getSortBy()) {
+                    properties.add(sortBy.getPropertyName().getPropertyName());
+                }
+                nested = properties.stream().anyMatch(p -> p.contains("."));
+            }
+            return new QueryKey("query", copy.getType(), null, copy, propertyDependent, nested);
+        }
+    }
+}
@@ -4,17 +4,27 @@
  */
 package org.geoserver.cloud.catalog.cache;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
 import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.CatalogFacade;
 import org.geoserver.catalog.plugin.CatalogFacadeExtensionAdapter;
 import org.geoserver.catalog.plugin.ExtendedCatalogFacade;
 import org.geoserver.config.GeoServer;
 import org.geoserver.config.GeoServerFacade;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
 
 /**
  * Enables caching at the {@link CatalogFacade} and {@link GeoServerFacade} level instead of at the
@@ -28,6 +38,8 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration(proxyBeanMethods = true)
 @EnableCaching(proxyTargetClass = true)
+@EnableConfigurationProperties(BackendCacheConfigProperties.class)
+@Slf4j(topic = "org.geoserver.cloud.catalog.caching")
 public class GeoServerBackendCacheConfiguration implements BeanPostProcessor {
 
     @Bean
@@ -35,8 +47,83 @@ public class GeoServerBackendCacheConfiguration implements BeanPostProcessor {
         return new CacheConfigurationPostProcessor();
     }
 
+    /** Thread pool for the background reloads of the catalog cache entries */
+    @Bean
+    CacheReloadExecutor catalogCacheReloadExecutor(BackendCacheConfigProperties config) {
+        int maxThreads =
+                config.getReloadThreads() > 0
+                        ? config.getReloadThreads()
+                        : CacheReloadExecutor.DEFAULT_MAX_THREADS;
+        return new CacheReloadExecutor(maxThreads);
+    }
+
+    /**
+     * Registers the catalog, config, query results, and negative lookups caches with the weight
+     * bound, expiry, and refresh settings from {@link BackendCacheConfigProperties}, when caching
+     * with Caffeine
+     */
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> backendCacheManagerCustomizer(
+            BackendCacheConfigProperties config,
+            @Qualifier("catalogFacade") ObjectProvider<CatalogFacade> rawCatalogFacade,
+            CacheReloadExecutor reloadExecutor) {
+        return cacheManager -> {
+            CatalogInfoCacheLoader loader = new CatalogInfoCacheLoader(rawCatalogFacade::getObject);
+            String catalogCache = CachingCatalogFacade.CACHE_NAME;
+            String configCache = CachingGeoServerFacade.CACHE_NAME;
+            cacheManager.registerCustomCache(
+                    catalogCache,
+                    buildCache(catalogCache, config.getCatalog(), loader, reloadExecutor));
+            cacheManager.registerCustomCache(
+                    configCache, buildCache(configCache, config.getConfig(), null, null));
+            if (config.getQueries().isEnabled()) {
+                String queryCache = CachingCatalogFacade.QUERY_CACHE_NAME;
+                cacheManager.registerCustomCache(
+                        queryCache, buildCache(queryCache, config.getQueries(), null, null));
+            }
+            if (config.getMisses().isEnabled()) {
+                String negativeCache = CachingCatalogFacade.NEGATIVE_CACHE_NAME;
+                cacheManager.registerCustomCache(
+                        negativeCache, buildCache(negativeCache, config.getMisses(), null, null));
+            }
+        };
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> buildCache(
+            String name,
+            BackendCacheConfigProperties.CacheSpec spec,
+            @Nullable CatalogInfoCacheLoader loader,
+            @Nullable CacheReloadExecutor reloadExecutor) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (spec.getMaximumWeight() > 0) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(new CacheEntryWeigher());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.isRecordStats()) {
+            builder.recordStats();
+        }
+        log.info("Configured {} cache: {}", name, spec);
+        if (spec.getRefreshAfterWrite() != null) {
+            if (loader != null && reloadExecutor != null) {
+                return builder
+                        .refreshAfterWrite(spec.getRefreshAfterWrite())
+                        .executor(reloadExecutor.executor())
+                        .build(loader);
+            }
+            log.warn("refresh-after-write is not supported by the {} cache, ignoring", name);
+        }
+        return builder.build();
+    }
+
     public @Bean CachingCatalogFacade cachingCatalogFacade(
-            @Qualifier("catalogFacade") CatalogFacade rawCatalogFacade) {
+            @Qualifier("catalogFacade") CatalogFacade rawCatalogFacade,
+            BackendCacheConfigProperties config,
+            CacheReloadExecutor reloadExecutor) {
         CatalogFacade raw = rawCatalogFacade;
         ExtendedCatalogFacade facade;
         if (raw instanceof ExtendedCatalogFacade) {
@@ -44,7 +131,26 @@ public class GeoServerBackendCacheConfiguration implements BeanPostProcessor {
         } else {
             facade = new CatalogFacadeExtensionAdapter(raw);
         }
-        return new CachingCatalogFacadeImpl(facade);
+        CachingCatalogFacadeImpl caching = new CachingCatalogFacadeImpl(facade);
+        if (config.getQueries().isEnabled()) {
+            caching.setQueryResultLimit(config.getQueries().getMaxResultSize());
+        }
+        caching.setNegativeCacheEnabled(config.getMisses().isEnabled());
+        caching.setReloadExecutor(reloadExecutor.executor());
+        return caching;
+    }
+
+    /**
+     * Remembers the catalog lookups performed while dispatching each OWS request, if enabled
+     * through {@code geoserver.catalog.caching.request-memo.enabled}
+     */
+    @Bean
+    @ConditionalOnProperty(
+            name = "geoserver.catalog.caching.request-memo.enabled",
+            havingValue = "true",
+            matchIfMissing = false)
+    public CatalogLookupMemo catalogLookupMemo() {
+        return new CatalogLookupMemo();
     }
 
     public @Bean CachingGeoServerFacade cachingGeoServerFacade(
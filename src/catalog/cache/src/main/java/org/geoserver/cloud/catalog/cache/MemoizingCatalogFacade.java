@@ -0,0 +1,292 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import lombok.NonNull;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.MapInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.plugin.ExtendedCatalogFacade;
+import org.geoserver.catalog.plugin.Patch;
+import org.geoserver.catalog.plugin.forwarding.ForwardingExtendedCatalogFacade;
+import org.geoserver.cloud.catalog.cache.CatalogLookupMemo.LookupKey;
+
+import java.util.function.Supplier;
+
+/**
+ * Serves the by-id and by-name lookups of the decorated {@link CachingCatalogFacade} through a
+ * {@link CatalogLookupMemo}, for the lookups repeated while dispatching a request to be performed
+ * only once. Any change made through this facade clears the memo of the calling thread.
+ */
+class MemoizingCatalogFacade extends ForwardingExtendedCatalogFacade {
+
+    private final CatalogLookupMemo memo;
+
+    public MemoizingCatalogFacade(
+            @NonNull ExtendedCatalogFacade facade, @NonNull CatalogLookupMemo memo) {
+        super(facade);
+        this.memo = memo;
+    }
+
+    private <T> T byId(Class<?> type, String id, Supplier<T> lookup) {
+        return memo.lookup(LookupKey.of("id", type, id), lookup);
+    }
+
+    private <T> T byName(Class<?> type, String name, Supplier<T> lookup) {
+        return memo.lookup(LookupKey.of("name", type, name), lookup);
+    }
+
+    private <T> T byName(Class<?> type, CatalogInfo scope, String name, Supplier<T> lookup) {
+        return memo.lookup(LookupKey.of("name", type, scope, name), lookup);
+    }
+
+    public @Override <T extends StoreInfo> T getStore(String id, Class<T> clazz) {
+        return byId(clazz, id, () -> super.getStore(id, clazz));
+    }
+
+    public @Override <T extends StoreInfo> T getStoreByName(
+            WorkspaceInfo workspace, String name, Class<T> clazz) {
+        return byName(clazz, workspace, name, () -> super.getStoreByName(workspace, name, clazz));
+    }
+
+    public @Override DataStoreInfo getDefaultDataStore(WorkspaceInfo workspace) {
+        return memo.lookup(
+                LookupKey.of("defaultDataStore", DataStoreInfo.class, workspace, null),
+                () -> super.getDefaultDataStore(workspace));
+    }
+
+    public @Override <T extends ResourceInfo> T getResource(String id, Class<T> clazz) {
+        return byId(clazz, id, () -> super.getResource(id, clazz));
+    }
+
+    public @Override <T extends ResourceInfo> T getResourceByName(
+            NamespaceInfo namespace, String name, Class<T> clazz) {
+        return byName(
+                clazz, namespace, name, () -> super.getResourceByName(namespace, name, clazz));
+    }
+
+    public @Override <T extends ResourceInfo> T getResourceByStore(
+            StoreInfo store, String name, Class<T> clazz) {
+        return byName(clazz, store, name, () -> super.getResourceByStore(store, name, clazz));
+    }
+
+    public @Override LayerInfo getLayer(String id) {
+        return byId(LayerInfo.class, id, () -> super.getLayer(id));
+    }
+
+    public @Override LayerInfo getLayerByName(String name) {
+        return byName(LayerInfo.class, name, () -> super.getLayerByName(name));
+    }
+
+    public @Override LayerGroupInfo getLayerGroup(String id) {
+        return byId(LayerGroupInfo.class, id, () -> super.getLayerGroup(id));
+    }
+
+    public @Override LayerGroupInfo getLayerGroupByName(String name) {
+        return byName(LayerGroupInfo.class, name, () -> super.getLayerGroupByName(name));
+    }
+
+    public @Override LayerGroupInfo getLayerGroupByName(WorkspaceInfo workspace, String name) {
+        return byName(
+                LayerGroupInfo.class,
+                workspace,
+                name,
+                () -> super.getLayerGroupByName(workspace, name));
+    }
+
+    public @Override NamespaceInfo getDefaultNamespace() {
+        return memo.lookup(
+                LookupKey.of("defaultNamespace", NamespaceInfo.class, null),
+                super::getDefaultNamespace);
+    }
+
+    public @Override NamespaceInfo getNamespace(String id) {
+        return byId(NamespaceInfo.class, id, () -> super.getNamespace(id));
+    }
+
+    public @Override NamespaceInfo getNamespaceByPrefix(String prefix) {
+        return byName(NamespaceInfo.class, prefix, () -> super.getNamespaceByPrefix(prefix));
+    }
+
+    public @Override NamespaceInfo getNamespaceByURI(String uri) {
+        return memo.lookup(
+                LookupKey.of("uri", NamespaceInfo.class, uri), () -> super.getNamespaceByURI(uri));
+    }
+
+    public @Override WorkspaceInfo getDefaultWorkspace() {
+        return memo.lookup(
+                LookupKey.of("defaultWorkspace", WorkspaceInfo.class, null),
+                super::getDefaultWorkspace);
+    }
+
+    public @Override WorkspaceInfo getWorkspace(String id) {
+        return byId(WorkspaceInfo.class, id, () -> super.getWorkspace(id));
+    }
+
+    public @Override WorkspaceInfo getWorkspaceByName(String name) {
+        return byName(WorkspaceInfo.class, name, () -> super.getWorkspaceByName(name));
+    }
+
+    public @Override StyleInfo getStyle(String id) {
+        return byId(StyleInfo.class, id, () -> super.getStyle(id));
+    }
+
+    public @Override StyleInfo getStyleByName(String name) {
+        return byName(StyleInfo.class, name, () -> super.getStyleByName(name));
+    }
+
+    public @Override StyleInfo getStyleByName(WorkspaceInfo workspace, String name) {
+        return byName(
+                StyleInfo.class, workspace, name, () -> super.getStyleByName(workspace, name));
+    }
+
+    public @Override StoreInfo add(StoreInfo store) {
+        memo.clear();
+        return super.add(store);
+    }
+
+    public @Override ResourceInfo add(ResourceInfo resource) {
+        memo.clear();
+        return super.add(resource);
+    }
+
+    public @Override LayerInfo add(LayerInfo layer) {
+        memo.clear();
+        return super.add(layer);
+    }
+
+    public @Override MapInfo add(MapInfo map) {
+        memo.clear();
+        return super.add(map);
+    }
+
+    public @Override LayerGroupInfo add(LayerGroupInfo layerGroup) {
+        memo.clear();
+        return super.add(layerGroup);
+    }
+
+    public @Override NamespaceInfo add(NamespaceInfo namespace) {
+        memo.clear();
+        return super.add(namespace);
+    }
+
+    public @Override WorkspaceInfo add(WorkspaceInfo workspace) {
+        memo.clear();
+        return super.add(workspace);
+    }
+
+    public @Override StyleInfo add(StyleInfo style) {
+        memo.clear();
+        return super.add(style);
+    }
+
+    public @Override void remove(StoreInfo store) {
+        memo.clear();
+        super.remove(store);
+    }
+
+    public @Override void remove(ResourceInfo resource) {
+        memo.clear();
+        super.remove(resource);
+    }
+
+    public @Override void remove(LayerInfo layer) {
+        memo.clear();
+        super.remove(layer);
+    }
+
+    public @Override void remove(MapInfo map) {
+        memo.clear();
+        super.remove(map);
+    }
+
+    public @Override void remove(LayerGroupInfo layerGroup) {
+        memo.clear();
+        super.remove(layerGroup);
+    }
+
+    public @Override void remove(NamespaceInfo namespace) {
+        memo.clear();
+        super.remove(namespace);
+    }
+
+    public @Override void remove(WorkspaceInfo workspace) {
+        memo.clear();
+        super.remove(workspace);
+    }
+
+    public @Override void remove(StyleInfo style) {
+        memo.clear();
+        super.remove(style);
+    }
+
+    public @Override void save(StoreInfo store) {
+        memo.clear();
+        super.save(store);
+    }
+
+    public @Override void save(ResourceInfo resource) {
+        memo.clear();
+        super.save(resource);
+    }
+
+    public @Override void save(LayerInfo layer) {
+        memo.clear();
+        super.save(layer);
+    }
+
+    public @Override void save(MapInfo map) {
+        memo.clear();
+        super.save(map);
+    }
+
+    public @Override void save(LayerGroupInfo layerGroup) {
+        memo.clear();
+        super.save(layerGroup);
+    }
+
+    public @Override void save(NamespaceInfo namespace) {
+        memo.clear();
+        super.save(namespace);
+    }
+
+    public @Override void save(WorkspaceInfo workspace) {
+        memo.clear();
+        super.save(workspace);
+    }
+
+    public @Override void save(StyleInfo style) {
+        memo.clear();
+        super.save(style);
+    }
+
+    public @Override <I extends CatalogInfo> I update(I info, Patch patch) {
+        memo.clear();
+        return super.update(info, patch);
+    }
+
+    public @Override void setDefaultDataStore(WorkspaceInfo workspace, DataStoreInfo store) {
+        memo.clear();
+        super.setDefaultDataStore(workspace, store);
+    }
+
+    public @Override void setDefaultNamespace(NamespaceInfo defaultNamespace) {
+        memo.clear();
+        super.setDefaultNamespace(defaultNamespace);
+    }
+
+    public @Override void setDefaultWorkspace(WorkspaceInfo workspace) {
+        memo.clear();
+        super.setDefaultWorkspace(workspace);
+    }
+}
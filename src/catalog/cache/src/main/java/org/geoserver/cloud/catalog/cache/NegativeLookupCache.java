@@ -0,0 +1,179 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.Info;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the by-id and by-name lookups that found nothing, for {@link CachingCatalogFacadeImpl}
+ * not to hit the backend again for names that don't exist, like the ones in a broken or malicious
+ * GetMap request.
+ *
+ * <p>Entries are evicted when an object is added or modified such that a remembered lookup could
+ * now find it:
+ *
+ * <ul>
+ *   <li>Adding an object evicts the misses of a compatible type for its id and names.
+ *   <li>Renaming an object evicts the misses of a compatible type for its new name.
+ *   <li>Moving an object to another workspace or namespace evicts the misses of a compatible type
+ *       for its name, or all of them if the name is unknown.
+ * </ul>
+ *
+ * Since a layer is named after its resource, resource changes also evict the layer misses. The
+ * cache shall be bounded and expire its entries, in case a change is missed.
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.caching")
+class NegativeLookupCache {
+
+    /** Scope of the lookups on any workspace or namespace */
+    static final String ANY = "@any";
+
+    /** Scope of the lookups on no workspace */
+    static final String NONE = "@none";
+
+    private final Cache cache;
+
+    /** Incremented on every eviction, for misses found meanwhile not to be cached */
+    private final AtomicLong generation = new AtomicLong();
+
+    NegativeLookupCache(@NonNull Cache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Performs the lookup unless it's known to find nothing, remembering it if it does
+     *
+     * @return the lookup result, or {@code null} without performing it if it's a known miss
+     */
+    public <T> T lookup(@NonNull MissKey key, @NonNull Supplier<T> lookup) {
+        if (cache.get(key) != null) {
+            log.trace("Negative cache hit: {}", key);
+            return null;
+        }
+        final long generation = this.generation.get();
+        T found = lookup.get();
+        if (found == null && generation == this.generation.get()) {
+            cache.put(key, Boolean.TRUE);
+            // an eviction could have happened right before putting
+            if (generation != this.generation.get()) {
+                cache.evict(key);
+            }
+        }
+        return found;
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    /**
+     * Evicts the misses of a compatible type for the given ids and names
+     *
+     * @param names the names the object may be found by, {@code null} to evict all by-name misses
+     *     of a compatible type
+     */
+    public void evict(
+            @NonNull Class<? extends CatalogInfo> type,
+            @NonNull Set<String> ids,
+            @Nullable Set<String> names) {
+        evictIf(
+                key -> {
+                    if (!key.isAffectedBy(type)) {
+                        return false;
+                    }
+                    if (key.isById()) {
+                        return ids.contains(key.getValue());
+                    }
+                    return names == null || names.stream().anyMatch(key::matchesName);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictIf(Predicate<MissKey> predicate) {
+        generation.incrementAndGet();
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            Map<Object, Object> map =
+                    ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache)
+                            .asMap();
+            map.keySet().removeIf(k -> k instanceof MissKey && predicate.test((MissKey) k));
+        } else {
+            log.debug("Can't evict lookup misses selectively from {}, clearing", nativeCache);
+            cache.clear();
+        }
+    }
+
+    /** Key for a lookup by id or by name, the latter possibly scoped to a workspace or namespace */
+    @Value
+    static class MissKey {
+        Class<? extends CatalogInfo> type;
+
+        /** Workspace or namespace scope of a by-name lookup */
+        String scope;
+
+        /** The looked up id or name */
+        String value;
+
+        boolean byId;
+
+        boolean isAffectedBy(Class<? extends CatalogInfo> changed) {
+            if (type.isAssignableFrom(changed) || changed.isAssignableFrom(type)) {
+                return true;
+            }
+            // layers are named after their resources
+            return LayerInfo.class.equals(type) && ResourceInfo.class.isAssignableFrom(changed);
+        }
+
+        /** Also matches prefixed names (e.g. {@code topp:states} for {@code states}) */
+        boolean matchesName(String name) {
+            return value.equals(name) || value.endsWith(":" + name);
+        }
+
+        static MissKey byId(@NonNull Class<? extends CatalogInfo> type, @NonNull String id) {
+            return new MissKey(type, null, id, true);
+        }
+
+        static MissKey byName(@NonNull Class<? extends CatalogInfo> type, @NonNull String name) {
+            return new MissKey(type, null, name, false);
+        }
+
+        static MissKey byName(
+                @NonNull Class<? extends CatalogInfo> type,
+                @Nullable Info scope,
+                @NonNull String name) {
+            return new MissKey(type, scopeOf(scope), name, false);
+        }
+
+        private static String scopeOf(@Nullable Info scope) {
+            if (scope == null) {
+                return null;
+            }
+            if (scope == CatalogFacade.ANY_WORKSPACE || scope == CatalogFacade.ANY_NAMESPACE) {
+                return ANY;
+            }
+            if (scope == CatalogFacade.NO_WORKSPACE) {
+                return NONE;
+            }
+            return scope.getId();
+        }
+    }
+}
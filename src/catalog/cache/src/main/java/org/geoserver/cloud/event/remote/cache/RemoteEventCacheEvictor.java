@@ -7,16 +7,22 @@ package org.geoserver.cloud.event.remote.cache;
 import static org.geoserver.cloud.catalog.cache.CachingCatalogFacade.DEFAULT_NAMESPACE_CACHE_KEY;
 import static org.geoserver.cloud.catalog.cache.CachingCatalogFacade.DEFAULT_WORKSPACE_CACHE_KEY;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.geoserver.catalog.CatalogInfo;
 import org.geoserver.catalog.Info;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.impl.ResolvingProxy;
+import org.geoserver.catalog.plugin.Patch;
 import org.geoserver.cloud.catalog.cache.CachingCatalogFacade;
 import org.geoserver.cloud.catalog.cache.CachingGeoServerFacade;
 import org.geoserver.cloud.event.UpdateSequenceEvent;
+import org.geoserver.cloud.event.catalog.CatalogInfoAdded;
 import org.geoserver.cloud.event.catalog.CatalogInfoModified;
 import org.geoserver.cloud.event.catalog.CatalogInfoRemoved;
 import org.geoserver.cloud.event.catalog.DefaultDataStoreSet;
@@ -31,9 +37,13 @@ import org.geoserver.cloud.event.config.ServiceRemoved;
 import org.geoserver.cloud.event.config.SettingsModified;
 import org.geoserver.cloud.event.config.SettingsRemoved;
 import org.geoserver.cloud.event.info.ConfigInfoType;
+import org.geoserver.cloud.event.info.InfoAdded;
+import org.geoserver.cloud.event.info.InfoChange;
 import org.geoserver.cloud.event.info.InfoEvent;
+import org.geoserver.cloud.event.info.InfoModified;
 import org.geoserver.config.GeoServerInfo;
 import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import java.util.function.BooleanSupplier;
@@ -50,6 +60,20 @@ public @Service class RemoteEventCacheEvictor {
     private final CachingCatalogFacade catalog;
     private final CachingGeoServerFacade config;
 
+    /**
+     * Whether to refresh cached catalog objects in the background upon remote modify events,
+     * instead of evicting them
+     */
+    private @Setter boolean refreshOnModify;
+
+    /**
+     * Update sequence of the last modification applied from the change stream by object id, for
+     * the bus event of the same change not to evict the object the stream has just cached. Bounded,
+     * since the bus event may never arrive, or arrive before the stream change.
+     */
+    private final Cache<String, Long> streamedModifications =
+            Caffeine.newBuilder().maximumSize(10_000).build();
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     @EventListener(classes = {UpdateSequenceEvent.class})
     public void onUpdateSequenceEvent(UpdateSequenceEvent updateSequenceEvent) {
@@ -80,6 +104,17 @@ public @Service class RemoteEventCacheEvictor {
                 });
     }
 
+    @EventListener(classes = {CatalogInfoAdded.class})
+    public void onCatalogInfoAddEvent(CatalogInfoAdded event) {
+        evictEntry(
+                event,
+                () -> {
+                    catalog.evictQueries(event.getObject(), null);
+                    catalog.evictMisses(event.getObject(), null);
+                    return false;
+                });
+    }
+
     @EventListener(classes = {CatalogInfoRemoved.class})
     public void onCatalogInfoRemoveEvent(CatalogInfoRemoved event) {
         evictCatalogInfo(event);
@@ -88,10 +123,23 @@ public @Service class RemoteEventCacheEvictor {
     @EventListener(classes = {CatalogInfoModified.class})
     public void onCatalogInfoModifyEvent(CatalogInfoModified event) {
         if (CatalogInfoModified.class.equals(event.getClass())) {
-            evictCatalogInfo(event);
+            if (isStreamed(event)) {
+                log.trace("Change already applied from the change stream: {}", event);
+            } else {
+                evictCatalogInfo(event);
+            }
         }
     }
 
+    /**
+     * @return whether the change stream has already cached the object as of {@code event}'s update
+     *     sequence or a later one
+     */
+    private boolean isStreamed(CatalogInfoModified event) {
+        Long applied = streamedModifications.getIfPresent(event.getObjectId());
+        return applied != null && applied.longValue() >= event.getUpdateSequence().longValue();
+    }
+
     @EventListener(classes = {GeoServerInfoModified.class})
     public void onGeoServerInfoModifyEvent(GeoServerInfoModified event) {
         if (GeoServerInfoModified.class.equals(event.getClass())) {
@@ -134,6 +182,50 @@ public @Service class RemoteEventCacheEvictor {
         evictConfigEntry(event);
     }
 
+    /**
+     * Applies a change received from the catalog change stream, caching the changed object right
+     * away when the change carries it, or evicting as for the equivalent remote event otherwise. A
+     * stream reset evicts all cached entries. The bus event of a modification applied this way
+     * doesn't evict the cached object.
+     */
+    @EventListener(classes = {InfoChange.class})
+    public void onInfoChange(InfoChange change) {
+        if (change.isReset()) {
+            log.debug("Evicting all cache entries upon change stream reset: {}", change);
+            catalog.evictAll();
+            config.evictAll();
+            return;
+        }
+        final InfoEvent<?, ?> event = change.getEvent();
+        final CatalogInfo object = change.getObject();
+        if (object != null) {
+            catalog.evictQueries(object, patchOf(event));
+            if (event instanceof InfoAdded || event instanceof InfoModified) {
+                catalog.evictMisses(object, patchOf(event));
+            }
+            catalog.put(object);
+            if (event instanceof InfoModified) {
+                streamedModifications
+                        .asMap()
+                        .merge(object.getId(), change.getUpdateSequence(), Math::max);
+            }
+            log.debug("Cached {} upon change {}", object.getId(), change);
+        } else if (event instanceof DefaultWorkspaceSet) {
+            onSetDefaultWorkspaceEvent((DefaultWorkspaceSet) event);
+        } else if (event instanceof DefaultNamespaceSet) {
+            onSetDefaultNamespaceEvent((DefaultNamespaceSet) event);
+        } else if (event instanceof DefaultDataStoreSet) {
+            onSetDefaultDataStoreEvent((DefaultDataStoreSet) event);
+        } else if (event.getObjectType() == ConfigInfoType.Catalog) {
+            log.trace("Change stream event resulted in no cache eviction: {}", event);
+        } else if (event.getObjectType().isA(CatalogInfo.class)) {
+            evictCatalogInfo(event);
+        } else {
+            evictConfigEntry(event);
+        }
+        applyUpdateSequence(change.getUpdateSequence());
+    }
+
     /**
      * Called when the only change to {@link GeoServerInfo} is its update sequence number, in order
      * to avoid evicting the locally cached object and apply the new update sequence to it instead.
@@ -160,10 +252,23 @@ public @Service class RemoteEventCacheEvictor {
                     ConfigInfoType infoType = event.getObjectType();
                     CatalogInfo info =
                             (CatalogInfo) ResolvingProxy.create(objectId, infoType.getType());
+                    Patch patch = patchOf(event);
+                    catalog.evictQueries(info, patch);
+                    if (patch != null) {
+                        catalog.evictMisses(info, patch);
+                        if (refreshOnModify && catalog.refresh(info)) {
+                            return true;
+                        }
+                    }
                     return catalog.evict(info);
                 });
     }
 
+    /** @return the changes of a modify event, {@code null} for add and remove events */
+    private @Nullable Patch patchOf(InfoEvent<?, ?> event) {
+        return event instanceof InfoModified ? ((InfoModified<?, ?>) event).getPatch() : null;
+    }
+
     public void evictConfigEntry(InfoEvent<?, ?> event) {
         evictEntry(
                 event,
@@ -0,0 +1,45 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.geoserver.catalog.AttributeTypeInfo;
+import org.geoserver.catalog.impl.AttributeTypeInfoImpl;
+import org.geoserver.catalog.impl.FeatureTypeInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class CacheEntryWeigherTest {
+
+    private final CacheEntryWeigher weigher = new CacheEntryWeigher();
+
+    public @Test void testWeighsByConfigurationSize() {
+        WorkspaceInfoImpl workspace = new WorkspaceInfoImpl();
+        FeatureTypeInfoImpl featureType = new FeatureTypeInfoImpl(null);
+        for (int i = 0; i < 500; i++) {
+            AttributeTypeInfo att = new AttributeTypeInfoImpl();
+            att.setName("att" + i);
+            featureType.getAttributes().add(att);
+        }
+
+        int workspaceWeight = weigher.weigh("key", workspace);
+        int featureTypeWeight = weigher.weigh("key", featureType);
+        assertEquals(CacheEntryWeigher.KEY + CacheEntryWeigher.INFO, workspaceWeight);
+        assertTrue(featureTypeWeight > 100 * workspaceWeight);
+    }
+
+    public @Test void testWeighsCollections() {
+        List<WorkspaceInfoImpl> list = List.of(new WorkspaceInfoImpl(), new WorkspaceInfoImpl());
+        int expected =
+                CacheEntryWeigher.KEY
+                        + 2 * (CacheEntryWeigher.REFERENCE + CacheEntryWeigher.INFO);
+        assertEquals(expected, weigher.weigh("key", list));
+        assertEquals(CacheEntryWeigher.KEY, weigher.weigh("key", null));
+    }
+}
@@ -5,6 +5,7 @@
 package org.geoserver.cloud.catalog.cache;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -51,7 +52,11 @@ import org.springframework.cache.Cache.ValueWrapper;
 import org.springframework.cache.CacheManager;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -367,6 +372,31 @@ public class CachingCatalogFacadeTest {
         testEvicts(ns, caching::save);
     }
 
+    public @Test void testGetNamespaceByURI() {
+        final String uri = "http://test.com/ns1";
+        when(ns.getURI()).thenReturn(uri);
+        when(mock.getNamespaceByURI(eq(uri))).thenReturn(ns);
+
+        assertSameTimesN(ns, id -> caching.getNamespaceByURI(uri), 3);
+        verify(mock, times(1)).getNamespaceByURI(eq(uri));
+        assertEquals(
+                ns.getId(), cache.get(CachingCatalogFacade.generateNamespaceByURIKey(uri)).get());
+
+        // remote eviction by id, the uri entry resolves the namespace again by id
+        caching.evict(ns);
+        assertSame(ns, caching.getNamespaceByURI(uri));
+        verify(mock, times(1)).getNamespaceByURI(eq(uri));
+        verify(mock, times(1)).getNamespace(eq(ns.getId()));
+
+        // URI changed, the stale uri entry is a cache miss
+        caching.evict(ns);
+        when(ns.getURI()).thenReturn("http://test.com/changed");
+        when(mock.getNamespaceByURI(eq(uri))).thenReturn(null);
+        assertNull(caching.getNamespaceByURI(uri));
+        verify(mock, times(2)).getNamespaceByURI(eq(uri));
+        assertNull(cache.get(CachingCatalogFacade.generateNamespaceByURIKey(uri)));
+    }
+
     public @Test void testGetDefaultNamespace() {
         final String key = CachingCatalogFacade.DEFAULT_NAMESPACE_CACHE_KEY;
         assertNull(caching.getDefaultNamespace());
@@ -407,6 +437,89 @@ public class CachingCatalogFacadeTest {
         verify(mock, times(1)).getWorkspace(eq(ws.getId()));
     }
 
+    public @Test void testRefresh() throws InterruptedException {
+        assertSame(ws, caching.getWorkspace(ws.getId()));
+        WorkspaceInfo reloaded = stub(WorkspaceInfo.class, 1); // same id than ws
+        when(mock.getWorkspace(eq(ws.getId()))).thenReturn(reloaded);
+
+        assertTrue(caching.refresh(ws));
+
+        CatalogInfoKey key = new CatalogInfoKey(ws);
+        for (int i = 0; i < 100 && cache.get(key).get() != reloaded; i++) {
+            Thread.sleep(10);
+        }
+        assertSame(reloaded, cache.get(key).get(), "expected cached copy replaced");
+        assertSame(reloaded, caching.getWorkspace(ws.getId()));
+        verify(mock, times(2)).getWorkspace(eq(ws.getId()));
+    }
+
+    public @Test void testRefreshesOfAnObjectRunInOrder() throws Exception {
+        assertSame(ws, caching.getWorkspace(ws.getId()));
+        WorkspaceInfo first = stub(WorkspaceInfo.class, 1);
+        WorkspaceInfo second = stub(WorkspaceInfo.class, 1);
+        CountDownLatch firstReloadBlocked = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger calls = new AtomicInteger();
+        when(mock.getWorkspace(eq(ws.getId())))
+                .thenAnswer(
+                        invocation -> {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            try {
+                                if (calls.incrementAndGet() == 1) {
+                                    firstReloadBlocked.await(5, TimeUnit.SECONDS);
+                                    return first;
+                                }
+                                return second;
+                            } finally {
+                                running.decrementAndGet();
+                            }
+                        });
+
+        assertTrue(caching.refresh(ws));
+        assertTrue(caching.refresh(ws));
+        firstReloadBlocked.countDown();
+
+        CatalogInfoKey key = new CatalogInfoKey(ws);
+        for (int i = 0; i < 100 && cache.get(key).get() != second; i++) {
+            Thread.sleep(10);
+        }
+        assertSame(second, cache.get(key).get(), "expected the last reload to win");
+        assertEquals(2, calls.get());
+        assertEquals(1, maxRunning.get(), "reloads of the same object shall not overlap");
+    }
+
+    public @Test void testRefreshEvictsIfReplacedWhileReloading() throws Exception {
+        assertSame(ws, caching.getWorkspace(ws.getId()));
+        WorkspaceInfo reloaded = stub(WorkspaceInfo.class, 1);
+        WorkspaceInfo replacement = stub(WorkspaceInfo.class, 1);
+        CountDownLatch reloadStarted = new CountDownLatch(1);
+        CountDownLatch replaced = new CountDownLatch(1);
+        when(mock.getWorkspace(eq(ws.getId())))
+                .thenAnswer(
+                        invocation -> {
+                            reloadStarted.countDown();
+                            replaced.await(5, TimeUnit.SECONDS);
+                            return reloaded;
+                        });
+
+        assertTrue(caching.refresh(ws));
+        assertTrue(reloadStarted.await(5, TimeUnit.SECONDS));
+        caching.put(replacement);
+        replaced.countDown();
+
+        CatalogInfoKey key = new CatalogInfoKey(ws);
+        for (int i = 0; i < 100 && cache.get(key) != null; i++) {
+            Thread.sleep(10);
+        }
+        assertNull(cache.get(key), "expected evicted on conflicting replacement");
+    }
+
+    public @Test void testRefreshNotCached() {
+        assertFalse(caching.refresh(ws));
+        verify(mock, times(0)).getWorkspace(any());
+    }
+
     public @Test void testAddWorkspaceInfo() {
         WorkspaceInfo info = this.ws;
         WorkspaceInfo added = stub(WorkspaceInfo.class, 1); // same id than ws
@@ -481,6 +594,27 @@ public class CachingCatalogFacadeTest {
         assertSame(updated, cache.get(new CatalogInfoKey(info)).get(), "expected cache put");
     }
 
+    public @Test void testPutKeepsNewerCachedCopy() {
+        DataStoreInfo cached = stub(DataStoreInfo.class, 1);
+        DataStoreInfo older = stub(DataStoreInfo.class, 1);
+        DataStoreInfo newer = stub(DataStoreInfo.class, 1);
+        when(cached.getDateModified()).thenReturn(new Date(2000));
+        when(older.getDateModified()).thenReturn(new Date(1000));
+        when(newer.getDateModified()).thenReturn(new Date(3000));
+
+        CatalogInfoKey key = new CatalogInfoKey(cached);
+        cache.put(key, cached);
+        caching.put(older);
+        assertSame(cached, cache.get(key).get(), "older copy shall not replace the cached one");
+        caching.put(newer);
+        assertSame(newer, cache.get(key).get(), "newer copy shall replace the cached one");
+
+        // unknown modification date, replaced
+        DataStoreInfo undated = stub(DataStoreInfo.class, 1);
+        caching.put(undated);
+        assertSame(undated, cache.get(key).get());
+    }
+
     private <T extends CatalogInfo> void testEvicts(T info, Consumer<T> op) {
         CatalogInfoKey key = new CatalogInfoKey(info);
         cache.put(key, info);
@@ -0,0 +1,67 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.impl.NamespaceInfoImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CatalogInfoCacheLoaderTest {
+
+    private CatalogFacade facade;
+    private CatalogInfoCacheLoader loader;
+
+    public @BeforeEach void setup() {
+        facade = mock(CatalogFacade.class);
+        loader = new CatalogInfoCacheLoader(() -> facade);
+    }
+
+    public @Test void testReloadNamespaceById() {
+        NamespaceInfo ns = namespace("ns1", "http://ns1");
+        when(facade.getNamespace("ns1")).thenReturn(ns);
+        CatalogInfoKey key = new CatalogInfoKey(ns);
+        assertSame(ns, loader.reload(key, ns));
+    }
+
+    public @Test void testReloadNamespaceIdByURI() {
+        final String uri = "http://ns1";
+        NamespaceInfo ns = namespace("ns1", uri);
+        when(facade.getNamespaceByURI(uri)).thenReturn(ns);
+        CatalogInfoKey key = CachingCatalogFacade.generateNamespaceByURIKey(uri);
+
+        assertEquals("ns1", loader.reload(key, "ns1"));
+        verify(facade, never()).getNamespace(anyString());
+
+        // the URI is now bound to another namespace
+        when(facade.getNamespaceByURI(uri)).thenReturn(namespace("ns2", uri));
+        assertEquals("ns2", loader.reload(key, "ns1"));
+
+        when(facade.getNamespaceByURI(uri)).thenReturn(null);
+        assertNull(loader.reload(key, "ns2"), "expected entry removal if no longer found");
+    }
+
+    public @Test void testReloadUnknownKeyKeepsValue() {
+        assertSame("value", loader.reload("key", "value"));
+    }
+
+    private NamespaceInfo namespace(String id, String uri) {
+        NamespaceInfoImpl ns = new NamespaceInfoImpl();
+        ns.setId(id);
+        ns.setPrefix(id);
+        ns.setURI(uri);
+        return ns;
+    }
+}
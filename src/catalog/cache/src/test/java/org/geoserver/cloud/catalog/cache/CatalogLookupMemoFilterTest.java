@@ -0,0 +1,54 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.FilterChain;
+
+public class CatalogLookupMemoFilterTest {
+
+    private CatalogLookupMemo memo;
+    private CatalogLookupMemoFilter filter;
+
+    public @BeforeEach void setup() {
+        memo = new CatalogLookupMemo();
+        filter = new CatalogLookupMemoFilter(memo);
+    }
+
+    public @Test void testOwsRequestsAreMemoized() throws Exception {
+        assertEquals(Boolean.TRUE, memoActive("/wms"));
+        assertEquals(Boolean.TRUE, memoActive("/ows"));
+        assertEquals(Boolean.TRUE, memoActive("/topp/wfs"));
+        assertEquals(Boolean.TRUE, memoActive("/topp/states/WMS"));
+        assertEquals(Boolean.TRUE, memoActive("/wcs/"));
+        assertFalse(memo.isActive(), "the memo shall be discarded after the request");
+    }
+
+    public @Test void testOtherRequestsAreNotMemoized() throws Exception {
+        assertEquals(Boolean.FALSE, memoActive("/"));
+        assertEquals(Boolean.FALSE, memoActive("/web/wicket/page"));
+        assertEquals(Boolean.FALSE, memoActive("/rest/workspaces"));
+        assertEquals(Boolean.FALSE, memoActive("/schemas/wms/1.3.0/capabilities_1_3_0.xsd"));
+    }
+
+    /** @return whether the memo was active while the request went down the filter chain */
+    private Boolean memoActive(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/geoserver" + path);
+        request.setContextPath("/geoserver");
+        AtomicBoolean active = new AtomicBoolean();
+        FilterChain chain = (req, resp) -> active.set(memo.isActive());
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return active.get();
+    }
+}
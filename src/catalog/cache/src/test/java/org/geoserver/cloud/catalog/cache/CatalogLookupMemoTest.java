@@ -0,0 +1,113 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.catalog.plugin.ExtendedCatalogFacade;
+import org.geoserver.catalog.plugin.Patch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CatalogLookupMemoTest {
+
+    private ExtendedCatalogFacade mock;
+    private CatalogLookupMemo memo;
+    private MemoizingCatalogFacade facade;
+
+    private WorkspaceInfo ws1;
+
+    public @BeforeEach void setup() {
+        mock = mock(ExtendedCatalogFacade.class);
+        memo = new CatalogLookupMemo();
+        facade = new MemoizingCatalogFacade(mock, memo);
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId("ws1-id");
+        ws.setName("ws1");
+        ws1 = ws;
+        when(mock.getWorkspace("ws1-id")).thenReturn(ws1);
+        when(mock.getWorkspaceByName("ws1")).thenReturn(ws1);
+    }
+
+    public @Test void testRemembersLookupsDuringDispatch() throws Exception {
+        memo.dispatch(
+                () -> {
+                    assertTrue(memo.isActive());
+                    assertSame(ws1, facade.getWorkspace("ws1-id"));
+                    assertSame(ws1, facade.getWorkspace("ws1-id"));
+                    assertSame(ws1, facade.getWorkspaceByName("ws1"));
+                    assertSame(ws1, facade.getWorkspaceByName("ws1"));
+                    assertNull(facade.getStoreByName(ws1, "ds", DataStoreInfo.class));
+                    assertNull(facade.getStoreByName(ws1, "ds", DataStoreInfo.class));
+                    // a lookup for another type is a different lookup
+                    facade.getStoreByName(ws1, "ds", StoreInfo.class);
+                });
+        verify(mock, times(1)).getWorkspace("ws1-id");
+        verify(mock, times(1)).getWorkspaceByName("ws1");
+        verify(mock, times(1)).getStoreByName(ws1, "ds", DataStoreInfo.class);
+        verify(mock, times(1)).getStoreByName(ws1, "ds", StoreInfo.class);
+        assertEquals(7, memo.getLookupCount());
+        assertEquals(3, memo.getSavedCount());
+    }
+
+    public @Test void testDiscardedAfterDispatch() throws Exception {
+        memo.dispatch(() -> facade.getWorkspace("ws1-id"));
+        assertFalse(memo.isActive());
+        memo.dispatch(() -> facade.getWorkspace("ws1-id"));
+        verify(mock, times(2)).getWorkspace("ws1-id");
+
+        assertThrows(
+                IllegalStateException.class,
+                () ->
+                        memo.dispatch(
+                                () -> {
+                                    throw new IllegalStateException();
+                                }));
+        assertFalse(memo.isActive());
+    }
+
+    public @Test void testNotRememberedOutsideDispatch() {
+        facade.getWorkspace("ws1-id");
+        facade.getWorkspace("ws1-id");
+        verify(mock, times(2)).getWorkspace("ws1-id");
+        assertEquals(0, memo.getLookupCount());
+    }
+
+    public @Test void testNestedDispatch() throws Exception {
+        memo.dispatch(
+                () -> {
+                    facade.getWorkspace("ws1-id");
+                    memo.dispatch(() -> facade.getWorkspace("ws1-id"));
+                    assertTrue(memo.isActive());
+                    facade.getWorkspace("ws1-id");
+                });
+        verify(mock, times(1)).getWorkspace("ws1-id");
+    }
+
+    public @Test void testChangesClearTheMemo() throws Exception {
+        memo.dispatch(
+                () -> {
+                    facade.getWorkspaceByName("ws1");
+                    facade.update(ws1, new Patch().with("name", "renamed"));
+                    facade.getWorkspaceByName("ws1");
+                    facade.remove(ws1);
+                    facade.getWorkspaceByName("ws1");
+                });
+        verify(mock, times(3)).getWorkspaceByName("ws1");
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.DataStoreInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.catalog.plugin.ExtendedCatalogFacade;
+import org.geoserver.catalog.plugin.Patch;
+import org.geoserver.catalog.plugin.Query;
+import org.geoserver.cloud.catalog.cache.CatalogQueryCache.QueryKey;
+import org.geotools.factory.CommonFactoryFinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class CatalogQueryCacheTest {
+
+    private static final FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+
+    private CaffeineCacheManager cacheManager;
+    private CatalogQueryCache cache;
+
+    private WorkspaceInfo ws1 = workspace("ws1");
+    private WorkspaceInfo ws2 = workspace("ws2");
+
+    public @BeforeEach void setup() {
+        cacheManager = new CaffeineCacheManager();
+        cache =
+                new CatalogQueryCache(
+                        cacheManager.getCache(CachingCatalogFacade.QUERY_CACHE_NAME), 2);
+    }
+
+    private WorkspaceInfo workspace(String name) {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId(name + "-id");
+        ws.setName(name);
+        return ws;
+    }
+
+    private DataStoreInfo store(String name, WorkspaceInfo workspace) {
+        DataStoreInfoImpl ds = new DataStoreInfoImpl(null);
+        ds.setId(name + "-id");
+        ds.setName(name);
+        ds.setWorkspace(workspace);
+        return ds;
+    }
+
+    private QueryKey put(QueryKey key) {
+        cache.put(key, List.of(), cache.generation());
+        assertNotNull(cache.get(key));
+        return key;
+    }
+
+    public @Test void testEqualQueriesHaveEqualKeys() {
+        Filter filter = ff.equals(ff.property("name"), ff.literal("ws1"));
+        QueryKey key1 = QueryKey.of(Query.valueOf(WorkspaceInfo.class, filter));
+        QueryKey key2 = QueryKey.of(Query.valueOf(WorkspaceInfo.class, filter));
+        assertEquals(key1, key2);
+        assertTrue(key1.isPropertyDependent());
+        assertFalse(key1.isNested());
+
+        QueryKey all = QueryKey.of(Query.all(WorkspaceInfo.class));
+        assertFalse(all.isPropertyDependent());
+
+        Filter nested = ff.equals(ff.property("resource.store.name"), ff.literal("ds"));
+        assertTrue(QueryKey.of(Query.valueOf(LayerInfo.class, nested)).isNested());
+    }
+
+    public @Test void testEvictMembershipByTypeAndScope() {
+        QueryKey ws1Stores = put(QueryKey.scoped("stores", StoreInfo.class, ws1));
+        QueryKey ws2Stores = put(QueryKey.scoped("stores", DataStoreInfo.class, ws2));
+        QueryKey allStores = put(QueryKey.of("stores", StoreInfo.class));
+        QueryKey styles = put(QueryKey.of("styles", StyleInfo.class));
+
+        cache.evictMembership(DataStoreInfo.class, Set.of(ws1.getId()));
+
+        assertNull(cache.get(ws1Stores));
+        assertNotNull(cache.get(ws2Stores));
+        assertNull(cache.get(allStores));
+        assertNotNull(cache.get(styles));
+
+        cache.evictMembership(DataStoreInfo.class, null);
+        assertNull(cache.get(ws2Stores));
+        assertNotNull(cache.get(styles));
+    }
+
+    public @Test void testEvictModified() {
+        Filter filter = ff.equals(ff.property("name"), ff.literal("ds"));
+        QueryKey filtered = put(QueryKey.of(Query.valueOf(DataStoreInfo.class, filter)));
+        QueryKey all = put(QueryKey.of(Query.all(DataStoreInfo.class)));
+        QueryKey scoped = put(QueryKey.scoped("stores", StoreInfo.class, ws1));
+        Filter nestedFilter = ff.equals(ff.property("resource.store.name"), ff.literal("ds"));
+        QueryKey nested = put(QueryKey.of(Query.valueOf(LayerInfo.class, nestedFilter)));
+
+        cache.evictModified(DataStoreInfo.class, false);
+        assertNull(cache.get(filtered));
+        assertNull(cache.get(nested));
+        assertNotNull(cache.get(all));
+        assertNotNull(cache.get(scoped));
+
+        cache.evictModified(DataStoreInfo.class, true);
+        assertNull(cache.get(scoped));
+        assertNotNull(cache.get(all));
+    }
+
+    public @Test void testStaleResultNotCached() {
+        QueryKey key = QueryKey.of("styles", StyleInfo.class);
+        long generation = cache.generation();
+        cache.evictMembership(StyleInfo.class, null);
+        cache.put(key, List.of(), generation);
+        assertNull(cache.get(key));
+    }
+
+    public @Test void testFacadeResolvesCachedResults() {
+        DataStoreInfo ds1 = store("ds1", ws1);
+        DataStoreInfo ds2 = store("ds2", ws2);
+        ExtendedCatalogFacade mock = mock(ExtendedCatalogFacade.class);
+        when(mock.getStoresByWorkspace(any(), any())).thenReturn(List.of(ds1));
+        when(mock.query(any())).thenAnswer(i -> List.of(ds1, ds2).stream());
+
+        CachingCatalogFacadeImpl facade = new CachingCatalogFacadeImpl(mock);
+        facade.setQueryResultLimit(2);
+        facade.setCacheManager(cacheManager);
+
+        assertEquals(List.of(ds1), facade.getStoresByWorkspace(ws1, DataStoreInfo.class));
+        assertEquals(List.of(ds1), facade.getStoresByWorkspace(ws1, DataStoreInfo.class));
+        verify(mock, times(1)).getStoresByWorkspace(ws1, DataStoreInfo.class);
+
+        Query<DataStoreInfo> query = Query.all(DataStoreInfo.class);
+        assertEquals(2, facade.query(query).count());
+        assertEquals(2, facade.query(query).count());
+        verify(mock, times(1)).query(any());
+
+        // adding a store to another workspace keeps ws1's stores, but evicts the unscoped query
+        facade.evictQueries(store("ds3", ws2), null);
+        facade.getStoresByWorkspace(ws1, DataStoreInfo.class);
+        verify(mock, times(1)).getStoresByWorkspace(ws1, DataStoreInfo.class);
+        facade.query(query).count();
+        verify(mock, times(2)).query(any());
+
+        // moving a store evicts the workspace scoped results
+        facade.evictQueries(ds1, new Patch().with("workspace", ws2));
+        facade.getStoresByWorkspace(ws1, DataStoreInfo.class);
+        verify(mock, times(2)).getStoresByWorkspace(ws1, DataStoreInfo.class);
+
+        // a result is a miss if any of its objects was evicted from the id cache
+        facade.evict(ds2);
+        facade.query(query).count();
+        verify(mock, times(3)).query(any());
+    }
+
+    public @Test void testFacadeStreamsLargeResults() {
+        List<DataStoreInfo> stores =
+                List.of(store("ds1", ws1), store("ds2", ws1), store("ds3", ws1));
+        ExtendedCatalogFacade mock = mock(ExtendedCatalogFacade.class);
+        when(mock.query(any())).thenAnswer(i -> stores.stream());
+
+        CachingCatalogFacadeImpl facade = new CachingCatalogFacadeImpl(mock);
+        facade.setQueryResultLimit(2);
+        facade.setCacheManager(cacheManager);
+
+        Query<DataStoreInfo> query = Query.all(DataStoreInfo.class);
+        assertEquals(stores, facade.query(query).collect(Collectors.toList()));
+        assertEquals(stores, facade.query(query).collect(Collectors.toList()));
+        verify(mock, times(2)).query(any());
+    }
+
+    public @Test void testNoWorkspaceScope() {
+        assertEquals(CatalogQueryCache.NO_WORKSPACE, CatalogQueryCache.scopeOf(null));
+        assertEquals(
+                CatalogQueryCache.NO_WORKSPACE,
+                CatalogQueryCache.scopeOf(CatalogFacade.NO_WORKSPACE));
+        QueryKey any = QueryKey.scoped("styles", StyleInfo.class, CatalogFacade.ANY_WORKSPACE);
+        assertNull(any.getScope());
+    }
+
+    public @Test void testDefaultWorkspaceScope() {
+        QueryKey defaultWs = QueryKey.scoped("styles", StyleInfo.class, null);
+        QueryKey any = QueryKey.scoped("styles", StyleInfo.class, CatalogFacade.ANY_WORKSPACE);
+        assertEquals(CatalogQueryCache.DEFAULT_WORKSPACE, defaultWs.getScope());
+        assertFalse(defaultWs.equals(any));
+
+        // the default workspace id is unknown, so any membership change evicts its entries
+        put(defaultWs);
+        cache.evictMembership(StyleInfo.class, Set.of(ws1.getId()));
+        assertNull(cache.get(defaultWs));
+
+        put(defaultWs);
+        put(any);
+        cache.evictDefaultWorkspaceScoped();
+        assertNull(cache.get(defaultWs));
+        assertNotNull(cache.get(any));
+    }
+
+    public @Test void testFacadeEvictsDefaultWorkspaceResults() {
+        ExtendedCatalogFacade mock = mock(ExtendedCatalogFacade.class);
+        when(mock.getStylesByWorkspace(any())).thenReturn(List.of());
+
+        CachingCatalogFacadeImpl facade = new CachingCatalogFacadeImpl(mock);
+        facade.setQueryResultLimit(2);
+        facade.setCacheManager(cacheManager);
+
+        facade.getStylesByWorkspace(null);
+        facade.getStylesByWorkspace(null);
+        verify(mock, times(1)).getStylesByWorkspace(null);
+
+        facade.setDefaultWorkspace(ws2);
+        facade.getStylesByWorkspace(null);
+        verify(mock, times(2)).getStylesByWorkspace(null);
+
+        // as upon a remote default workspace change
+        facade.evict(CachingCatalogFacade.DEFAULT_WORKSPACE_CACHE_KEY);
+        facade.getStylesByWorkspace(null);
+        verify(mock, times(3)).getStylesByWorkspace(null);
+    }
+
+    public @Test void testFacadeDoesNotCacheStaleObjects() {
+        DataStoreInfo ds1 = store("ds1", ws1);
+        ExtendedCatalogFacade mock = mock(ExtendedCatalogFacade.class);
+        CachingCatalogFacadeImpl facade = new CachingCatalogFacadeImpl(mock);
+        facade.setQueryResultLimit(2);
+        facade.setCacheManager(cacheManager);
+        // the store is modified while the query runs
+        when(mock.getStoresByWorkspace(any(), any()))
+                .thenAnswer(
+                        i -> {
+                            facade.evictQueries(ds1, new Patch().with("name", "modified"));
+                            return List.of(ds1);
+                        });
+
+        assertEquals(List.of(ds1), facade.getStoresByWorkspace(ws1, DataStoreInfo.class));
+        org.springframework.cache.Cache idCache =
+                cacheManager.getCache(CachingCatalogFacade.CACHE_NAME);
+        assertNull(idCache.get(new CatalogInfoKey(ds1)));
+    }
+}
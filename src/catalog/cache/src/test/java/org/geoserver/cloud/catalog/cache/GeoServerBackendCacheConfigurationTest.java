@@ -4,10 +4,22 @@
  */
 package org.geoserver.cloud.catalog.cache;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.geoserver.catalog.plugin.CatalogPlugin;
 import org.geoserver.catalog.plugin.ExtendedCatalogFacade;
+import org.geoserver.cloud.autoconfigure.catalog.cache.CatalogLookupMemoMetricsAutoConfiguration;
 import org.geoserver.config.GeoServerFacade;
 import org.geoserver.config.plugin.GeoServerImpl;
 import org.junit.jupiter.api.Test;
@@ -15,6 +27,8 @@ import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
 import org.springframework.boot.context.annotation.UserConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 
 /** */
 public class GeoServerBackendCacheConfigurationTest {
@@ -47,4 +61,89 @@ public class GeoServerBackendCacheConfigurationTest {
                         context.isTypeMatch(
                                 "cachingGeoServerFacade", CachingGeoServerFacade.class));
     }
+
+    public @Test void testCacheSpec() {
+        contextRunner
+                .withPropertyValues(
+                        "geoserver.catalog.caching.catalog.maximum-weight=1000000",
+                        "geoserver.catalog.caching.catalog.expire-after-access=10m",
+                        "geoserver.catalog.caching.catalog.refresh-after-write=1m",
+                        "geoserver.catalog.caching.config.record-stats=false")
+                .run(
+                        context -> {
+                            CacheManager cacheManager = context.getBean(CacheManager.class);
+                            Cache<Object, Object> catalogCache =
+                                    nativeCache(cacheManager, CachingCatalogFacade.CACHE_NAME);
+                            Cache<Object, Object> configCache =
+                                    nativeCache(cacheManager, CachingGeoServerFacade.CACHE_NAME);
+
+                            assertTrue(catalogCache instanceof LoadingCache);
+                            assertNotNull(context.getBean(CacheReloadExecutor.class));
+                            assertTrue(catalogCache.policy().isRecordingStats());
+                            assertEquals(
+                                    1_000_000,
+                                    catalogCache.policy().eviction().get().getMaximum());
+                            assertTrue(catalogCache.policy().expireAfterAccess().isPresent());
+
+                            assertFalse(configCache instanceof LoadingCache);
+                            assertFalse(configCache.policy().isRecordingStats());
+                            assertFalse(configCache.policy().eviction().isPresent());
+                        });
+    }
+
+    public @Test void testQueryCache() {
+        contextRunner
+                .withPropertyValues(
+                        "geoserver.catalog.caching.queries.enabled=true",
+                        "geoserver.catalog.caching.queries.maximum-weight=1000000")
+                .run(
+                        context -> {
+                            CacheManager cacheManager = context.getBean(CacheManager.class);
+                            String name = CachingCatalogFacade.QUERY_CACHE_NAME;
+                            Cache<Object, Object> queryCache = nativeCache(cacheManager, name);
+                            assertEquals(
+                                    1_000_000, queryCache.policy().eviction().get().getMaximum());
+                        });
+    }
+
+    public @Test void testRequestMemo() {
+        contextRunner.run(
+                context -> {
+                    assertTrue(context.getBeansOfType(CatalogLookupMemo.class).isEmpty());
+                    CatalogPlugin catalog = context.getBean("rawCatalog", CatalogPlugin.class);
+                    assertTrue(catalog.getRawFacade() instanceof CachingCatalogFacade);
+                });
+        contextRunner
+                .withPropertyValues("geoserver.catalog.caching.request-memo.enabled=true")
+                .run(
+                        context -> {
+                            assertNotNull(context.getBean(CatalogLookupMemo.class));
+                            CatalogPlugin catalog =
+                                    context.getBean("rawCatalog", CatalogPlugin.class);
+                            assertTrue(catalog.getRawFacade() instanceof MemoizingCatalogFacade);
+                        });
+    }
+
+    public @Test void testRequestMemoMetrics() {
+        ApplicationContextRunner runner =
+                contextRunner.withConfiguration(
+                        AutoConfigurations.of(CatalogLookupMemoMetricsAutoConfiguration.class));
+        runner.run(context -> assertTrue(context.getBeansOfType(MeterBinder.class).isEmpty()));
+        runner.withPropertyValues("geoserver.catalog.caching.request-memo.enabled=true")
+                .run(
+                        context -> {
+                            MeterRegistry registry = new SimpleMeterRegistry();
+                            context.getBean("catalogLookupMemoMetrics", MeterBinder.class)
+                                    .bindTo(registry);
+                            String prefix = "geoserver.catalog.caching.request.memo";
+                            assertEquals(
+                                    0, registry.get(prefix + ".lookups").functionCounter().count());
+                            assertEquals(
+                                    0, registry.get(prefix + ".saved").functionCounter().count());
+                        });
+    }
+
+    private Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
 }
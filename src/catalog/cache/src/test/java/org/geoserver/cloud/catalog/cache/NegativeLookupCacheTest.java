@@ -0,0 +1,158 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.FeatureTypeInfoImpl;
+import org.geoserver.catalog.impl.ResolvingProxy;
+import org.geoserver.catalog.impl.StyleInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.catalog.plugin.ExtendedCatalogFacade;
+import org.geoserver.catalog.plugin.Patch;
+import org.geoserver.cloud.catalog.cache.NegativeLookupCache.MissKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+public class NegativeLookupCacheTest {
+
+    private ExtendedCatalogFacade mock;
+    private CachingCatalogFacadeImpl facade;
+
+    public @BeforeEach void setup() {
+        mock = mock(ExtendedCatalogFacade.class);
+        facade = new CachingCatalogFacadeImpl(mock);
+        facade.setNegativeCacheEnabled(true);
+        facade.setCacheManager(new CaffeineCacheManager());
+    }
+
+    private WorkspaceInfo workspace(String name) {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId(name + "-id");
+        ws.setName(name);
+        return ws;
+    }
+
+    public @Test void testRemembersMissByName() {
+        assertNull(facade.getWorkspaceByName("ws1"));
+        assertNull(facade.getWorkspaceByName("ws1"));
+        verify(mock, times(1)).getWorkspaceByName("ws1");
+
+        assertNull(facade.getWorkspaceByName("ws2"));
+        verify(mock, times(1)).getWorkspaceByName("ws2");
+    }
+
+    public @Test void testRemembersMissById() {
+        assertNull(facade.getWorkspace("ws1-id"));
+        assertNull(facade.getWorkspace("ws1-id"));
+        verify(mock, times(1)).getWorkspace("ws1-id");
+
+        assertNull(facade.getResource("ft1-id", FeatureTypeInfo.class));
+        assertNull(facade.getResource("ft1-id", FeatureTypeInfo.class));
+        verify(mock, times(1)).getResource("ft1-id", FeatureTypeInfo.class);
+    }
+
+    public @Test void testAddEvictsMissesForIdAndName() {
+        WorkspaceInfo ws1 = workspace("ws1");
+        assertNull(facade.getWorkspaceByName("ws1"));
+        assertNull(facade.getWorkspaceByName("ws2"));
+        assertNull(facade.getWorkspace("ws1-id"));
+
+        when(mock.add(any(WorkspaceInfo.class))).thenReturn(ws1);
+        when(mock.getWorkspaceByName("ws1")).thenReturn(ws1);
+        when(mock.getWorkspace("ws1-id")).thenReturn(ws1);
+        facade.add(ws1);
+
+        assertSame(ws1, facade.getWorkspaceByName("ws1"));
+        assertSame(ws1, facade.getWorkspace("ws1-id"));
+        // unrelated misses are kept
+        assertNull(facade.getWorkspaceByName("ws2"));
+        verify(mock, times(1)).getWorkspaceByName("ws2");
+    }
+
+    public @Test void testRenameEvictsMissForNewName() {
+        WorkspaceInfo ws1 = workspace("ws1");
+        assertNull(facade.getWorkspaceByName("renamed"));
+        assertNull(facade.getStyleByName("renamed"));
+
+        WorkspaceInfo proxy = ResolvingProxy.create(ws1.getId(), WorkspaceInfo.class);
+        facade.evictMisses(proxy, new Patch().with("name", "renamed"));
+
+        facade.getWorkspaceByName("renamed");
+        verify(mock, times(2)).getWorkspaceByName("renamed");
+        // only misses of a compatible type are evicted
+        facade.getStyleByName("renamed");
+        verify(mock, times(1)).getStyleByName("renamed");
+    }
+
+    public @Test void testMoveEvictsMissesForCurrentName() {
+        StyleInfoImpl style = new StyleInfoImpl(null);
+        style.setId("style-id");
+        style.setName("style");
+        WorkspaceInfo ws1 = workspace("ws1");
+        assertNull(facade.getStyleByName(ws1, "style"));
+        assertNull(facade.getStyleByName(ws1, "other"));
+
+        facade.evictMisses(style, new Patch().with("workspace", ws1));
+
+        facade.getStyleByName(ws1, "style");
+        verify(mock, times(2)).getStyleByName(ws1, "style");
+        facade.getStyleByName(ws1, "other");
+        verify(mock, times(1)).getStyleByName(ws1, "other");
+
+        // the name of an unresolved proxy is unknown, all style misses are evicted
+        StyleInfo proxy = ResolvingProxy.create("unknown-id", StyleInfo.class);
+        facade.evictMisses(proxy, new Patch().with("workspace", ws1));
+        facade.getStyleByName(ws1, "other");
+        verify(mock, times(2)).getStyleByName(ws1, "other");
+    }
+
+    public @Test void testAddingResourceEvictsLayerMisses() {
+        assertNull(facade.getLayerByName("topp:states"));
+        assertNull(facade.getLayerByName("roads"));
+
+        FeatureTypeInfoImpl ft = new FeatureTypeInfoImpl(null);
+        ft.setId("states-id");
+        ft.setName("states");
+        facade.evictMisses(ft, null);
+
+        facade.getLayerByName("topp:states");
+        verify(mock, times(2)).getLayerByName("topp:states");
+        facade.getLayerByName("roads");
+        verify(mock, times(1)).getLayerByName("roads");
+    }
+
+    public @Test void testDisabled() {
+        facade = new CachingCatalogFacadeImpl(mock);
+        facade.setCacheManager(new CaffeineCacheManager());
+        facade.getResourceByName(null, "states", ResourceInfo.class);
+        facade.getResourceByName(null, "states", ResourceInfo.class);
+        verify(mock, times(2)).getResourceByName(null, "states", ResourceInfo.class);
+        facade.getLayer("layer-id");
+        facade.getLayer("layer-id");
+        verify(mock, times(2)).getLayer("layer-id");
+        assertNull(facade.getLayerByName("states"));
+    }
+
+    public @Test void testLayerKeyMatchesPrefixedNames() {
+        MissKey key = MissKey.byName(LayerInfo.class, "ws:a");
+        assertTrue(key.matchesName("a"));
+        assertFalse(key.matchesName("ws"));
+    }
+}
@@ -9,6 +9,7 @@ import static org.geoserver.cloud.catalog.cache.CachingCatalogFacade.DEFAULT_WOR
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.times;
@@ -42,6 +43,7 @@ import org.geoserver.cloud.event.config.ServiceModified;
 import org.geoserver.cloud.event.config.ServiceRemoved;
 import org.geoserver.cloud.event.config.SettingsModified;
 import org.geoserver.cloud.event.config.SettingsRemoved;
+import org.geoserver.cloud.event.info.InfoChange;
 import org.geoserver.cloud.event.info.InfoEvent;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.LoggingInfo;
@@ -234,6 +236,58 @@ public class RemoteEventCacheEvictorTest {
         assertNull(catalogCache.get(key));
     }
 
+    public @Test void testChangeStreamCachesChangedObject() {
+        CatalogInfoKey key = new CatalogInfoKey(data.workspaceA);
+        assertNull(catalogCache.get(key));
+
+        CatalogInfoModified event =
+                CatalogInfoModified.createLocal(
+                        123L, data.workspaceA, patch("dateModified", new Date()));
+        event.setRemote(true);
+        publisher.publishEvent(InfoChange.valueOf(event, data.workspaceA));
+
+        assertNotNull(catalogCache.get(key));
+        assertSame(data.workspaceA, catalogCache.get(key).get());
+    }
+
+    public @Test void testBusEventDoesNotEvictObjectCachedByChangeStream() {
+        CatalogInfoKey key = new CatalogInfoKey(data.workspaceA);
+        CatalogInfoModified event =
+                CatalogInfoModified.createLocal(
+                        123L, data.workspaceA, patch("dateModified", new Date()));
+        event.setRemote(true);
+
+        publisher.publishEvent(InfoChange.valueOf(event, data.workspaceA));
+        assertSame(data.workspaceA, catalogCache.get(key).get());
+
+        publisher.publishEvent(event);
+        assertNotNull(catalogCache.get(key), "bus event evicted the change stream object");
+        assertSame(data.workspaceA, catalogCache.get(key).get());
+    }
+
+    public @Test void testChangeStreamEvictsRemovedObject() {
+        CatalogInfoKey key = new CatalogInfoKey(data.style1);
+        catalog.getStyle(data.style1.getId());
+        assertNotNull(catalogCache.get(key));
+
+        CatalogInfoRemoved event = CatalogInfoRemoved.createLocal(123L, data.style1);
+        event.setRemote(true);
+        publisher.publishEvent(InfoChange.valueOf(event, null));
+
+        assertNull(catalogCache.get(key));
+    }
+
+    public @Test void testChangeStreamResetEvictsAll() {
+        catalog.getDefaultWorkspace();
+        catalog.getStyle(data.style1.getId());
+        assertNotNull(catalogCache.get(DEFAULT_WORKSPACE_CACHE_KEY));
+
+        publisher.publishEvent(InfoChange.reset(123L));
+
+        assertNull(catalogCache.get(DEFAULT_WORKSPACE_CACHE_KEY));
+        assertNull(catalogCache.get(new CatalogInfoKey(data.style1)));
+    }
+
     public @Test void testRemoteServiceInfoModifyEvent_global_service() {
         WMSInfoImpl globalService = new WMSInfoImpl();
         globalService.setId("wms-global");
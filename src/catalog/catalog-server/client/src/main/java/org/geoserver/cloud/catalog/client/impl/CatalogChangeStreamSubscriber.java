@@ -0,0 +1,156 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.client.impl;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveCatalogClient;
+import org.geoserver.cloud.catalog.client.repository.CatalogClientRepository;
+import org.geoserver.cloud.event.info.InfoChange;
+import org.geoserver.cloud.event.info.InfoEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.ServerSentEvent;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Subscribes to the catalog-service change stream and publishes the received {@link InfoChange}s
+ * as application events, with their objects resolved as if they were fetched from the catalog
+ * service, for the local cache to apply them without further calls.
+ *
+ * <p>Keeps track of the id of the last event received, to resume the stream from it when
+ * reconnecting, with exponential backoff, after an interruption. Event ids are assigned by the
+ * catalog-service in stream order, unlike the update sequence of the changes, that may arrive out
+ * of order and hence can't be used to resume the stream without missing changes.
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.client.impl")
+public class CatalogChangeStreamSubscriber implements SmartLifecycle {
+
+    /** {@link InfoEvent#getOrigin() origin} of the events received from the change stream */
+    public static final String ORIGIN = "catalog-service";
+
+    private final ReactiveCatalogClient client;
+    private final List<CatalogClientRepository<?>> repositories;
+    private final ApplicationEventPublisher publisher;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+
+    /** Id of the last change stream event applied, {@code null} if none */
+    private final AtomicReference<String> lastEventId = new AtomicReference<>();
+
+    private volatile Disposable subscription;
+
+    public CatalogChangeStreamSubscriber(
+            @NonNull ReactiveCatalogClient client,
+            @NonNull List<CatalogClientRepository<?>> repositories,
+            @NonNull ApplicationEventPublisher publisher,
+            @NonNull Duration minBackoff,
+            @NonNull Duration maxBackoff) {
+        this.client = client;
+        this.repositories = repositories;
+        this.publisher = publisher;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public String getLastEventId() {
+        return lastEventId.get();
+    }
+
+    public @Override void start() {
+        log.info("Subscribing to the catalog-service change stream");
+        subscription =
+                Flux.defer(this::connect)
+                        // resolving objects may block
+                        .publishOn(Schedulers.boundedElastic())
+                        .doOnNext(this::onEvent)
+                        .repeatWhen(completed -> completed.delayElements(minBackoff))
+                        .retryWhen(
+                                Retry.backoff(Long.MAX_VALUE, minBackoff)
+                                        .maxBackoff(maxBackoff)
+                                        .transientErrors(true)
+                                        .doBeforeRetry(this::logRetry))
+                        .subscribe();
+    }
+
+    public @Override void stop() {
+        Disposable current = subscription;
+        subscription = null;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    public @Override boolean isRunning() {
+        return subscription != null;
+    }
+
+    private void logRetry(Retry.RetrySignal signal) {
+        log.info(
+                "catalog-service change stream interrupted, reconnecting: {}",
+                signal.failure().getMessage());
+    }
+
+    private Flux<ServerSentEvent<InfoChange>> connect() {
+        String last = lastEventId.get();
+        log.debug("Connecting to the catalog-service change stream after {}", last);
+        // data-less events are heartbeats
+        return client.changes(last).filter(event -> event.data() != null);
+    }
+
+    void onEvent(ServerSentEvent<InfoChange> event) {
+        apply(event.data());
+        if (event.id() != null) {
+            lastEventId.set(event.id());
+        }
+    }
+
+    void apply(InfoChange change) {
+        if (!change.isReset()) {
+            InfoEvent<?, ?> event = change.getEvent();
+            event.setRemote(true);
+            event.setOrigin(ORIGIN);
+            if (change.getObject() != null) {
+                change.setObject(resolve(change.getObject()));
+            }
+        }
+        log.debug("Applying {}", change);
+        try {
+            publisher.publishEvent(change);
+        } catch (RuntimeException e) {
+            log.warn("Error applying {}", change, e);
+        }
+    }
+
+    /**
+     * @return the resolved object, or {@code null} if it can't be resolved, so that it's evicted
+     *     instead
+     */
+    @SuppressWarnings("unchecked")
+    private CatalogInfo resolve(CatalogInfo received) {
+        try {
+            for (CatalogClientRepository<?> repository : repositories) {
+                if (repository.getContentType().isInstance(received)) {
+                    return ((CatalogClientRepository<CatalogInfo>) repository)
+                            .resolveReceived(received);
+                }
+            }
+            log.debug("No repository for {}", received);
+        } catch (RuntimeException e) {
+            log.warn("Error resolving {} from the change stream", received.getId(), e);
+        }
+        return null;
+    }
+}
@@ -6,6 +6,7 @@ package org.geoserver.cloud.catalog.client.impl;
 
 import org.geoserver.catalog.plugin.RepositoryCatalogFacade;
 import org.geoserver.catalog.plugin.RepositoryCatalogFacadeImpl;
+import org.geoserver.cloud.catalog.client.reactivefeign.BlockingBridge;
 import org.geoserver.cloud.catalog.client.reactivefeign.BlockingResourceStoreClient;
 import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveConfigClient;
 import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveResourceStoreClient;
@@ -39,6 +40,7 @@ public class CatalogClientConfiguration {
 
     private @Autowired ReactiveConfigClient configClient;
     private @Autowired ReactiveResourceStoreClient resourceStoreClient;
+    private @Autowired BlockingBridge blockingBridge;
 
     public @Bean CatalogClientCatalogFacade rawCatalogServiceFacade() {
         RepositoryCatalogFacade rawFacade = new RepositoryCatalogFacadeImpl();
@@ -56,7 +58,9 @@ public class CatalogClientConfiguration {
     }
 
     public @Bean CatalogClientConfigRepository catalogServiceConfigRepository() {
-        return new CatalogClientConfigRepository(configClient);
+        CatalogClientConfigRepository repository = new CatalogClientConfigRepository(configClient);
+        repository.setBlockingBridge(blockingBridge);
+        return repository;
     }
 
     public @Bean CatalogClientGeoServerFacade catalogServiceGeoServerFacade() {
@@ -65,7 +69,7 @@ public class CatalogClientConfiguration {
 
     public @Bean CatalogClientResourceStore catalogServiceResourceStore() {
         BlockingResourceStoreClient blockingClient =
-                new BlockingResourceStoreClient(resourceStoreClient);
+                new BlockingResourceStoreClient(resourceStoreClient, blockingBridge);
         return new CatalogClientResourceStore(blockingClient);
     }
 
@@ -0,0 +1,435 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.client.impl;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.MapInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.ClassMappings;
+import org.geoserver.catalog.impl.ModificationProxy;
+import org.geoserver.catalog.plugin.CatalogInfoRepository;
+import org.geoserver.catalog.plugin.DefaultMemoryCatalogFacade;
+import org.geoserver.catalog.plugin.Patch;
+import org.geoserver.catalog.plugin.PropertyDiff;
+import org.geoserver.catalog.plugin.Query;
+import org.geoserver.catalog.plugin.forwarding.ForwardingExtendedCatalogFacade;
+import org.geoserver.cloud.catalog.client.repository.CatalogClientStoreRepository;
+import org.geoserver.ows.util.OwsUtils;
+import org.springframework.lang.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link CatalogFacade} keeping a full replica of the catalog-service catalog in a local {@link
+ * DefaultMemoryCatalogFacade}, serving all reads from it, including queries with filters the
+ * catalog-service can't evaluate, and sending writes to the catalog-service before applying them
+ * to the replica.
+ *
+ * <p>The replica is loaded by {@link #replicate()}, and kept current by {@link
+ * CatalogClientReplicaUpdater} applying the remote catalog events. Changed objects are patched in
+ * place, so that other objects referring to them keep doing so.
+ *
+ * <p>Lookups by id missing the replica read through to the catalog-service, adding the object
+ * found, if any, to the replica. This resolves the references to objects not yet replicated, like
+ * nested layer groups while loading, or objects whose add event hasn't been received yet. Ids not
+ * found in the catalog-service are remembered until the next change is applied to the replica, so
+ * that repeated lookups of missing objects don't make a request each.
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.client.impl")
+public class CatalogClientReplicaFacade extends ForwardingExtendedCatalogFacade {
+
+    private final CatalogClientCatalogFacade remote;
+    private final CatalogClientStoreRepository remoteStores;
+    private final DefaultMemoryCatalogFacade replica;
+
+    /** Upper bound of {@link #misses}, cleared as a whole when reached */
+    private static final int MAX_MISSES = 10_000;
+
+    /** Guards adding, patching, and removing replicated objects */
+    private final Object lock = new Object();
+
+    /** Ids not found in the catalog-service since the last change applied to the replica */
+    private final Set<String> misses = ConcurrentHashMap.newKeySet();
+
+    public CatalogClientReplicaFacade(
+            @NonNull CatalogClientCatalogFacade remote,
+            @NonNull CatalogClientStoreRepository remoteStores) {
+        this(remote, remoteStores, new DefaultMemoryCatalogFacade());
+    }
+
+    private CatalogClientReplicaFacade(
+            CatalogClientCatalogFacade remote,
+            CatalogClientStoreRepository remoteStores,
+            DefaultMemoryCatalogFacade replica) {
+        super(replica);
+        this.remote = remote;
+        this.remoteStores = remoteStores;
+        this.replica = replica;
+    }
+
+    public @Override void setCatalog(Catalog catalog) {
+        super.setCatalog(catalog);
+        // resolves the references of the objects fetched from the catalog-service through the
+        // catalog, hence against the replica
+        remote.setCatalog(catalog);
+    }
+
+    /**
+     * Loads the whole catalog from the catalog-service, or re-synchronizes the replica with it,
+     * patching the objects that changed and removing the ones that no longer exist.
+     */
+    public void replicate() {
+        log.info("Replicating the catalog-service catalog...");
+        final long start = System.nanoTime();
+        // in dependency order
+        int count = replicate(WorkspaceInfo.class);
+        count += replicate(NamespaceInfo.class);
+        count += replicate(StyleInfo.class);
+        count += replicate(StoreInfo.class);
+        count += replicate(ResourceInfo.class);
+        count += replicate(LayerInfo.class);
+        count += replicate(LayerGroupInfo.class);
+        count += replicate(MapInfo.class);
+        replicateDefaults();
+        log.info(
+                "Replicated {} catalog-service objects in {}ms",
+                count,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private <T extends CatalogInfo> int replicate(Class<T> type) {
+        final Set<String> ids = new HashSet<>();
+        try (Stream<T> all = remote.query(Query.all(type))) {
+            all.forEach(
+                    info -> {
+                        ids.add(info.getId());
+                        apply(info);
+                    });
+        }
+        List<T> missing;
+        try (Stream<T> local = replica.query(Query.all(type))) {
+            missing = local.filter(i -> !ids.contains(i.getId())).collect(Collectors.toList());
+        }
+        // may have been added since the remote stream started
+        missing.stream().filter(i -> fetch(i.getId(), type) == null).forEach(this::removeLocal);
+        log.debug("Replicated {} {}s", ids.size(), type.getSimpleName());
+        return ids.size();
+    }
+
+    private void replicateDefaults() {
+        replicateDefaultWorkspace(idOf(remote.getDefaultWorkspace()));
+        replicateDefaultNamespace(idOf(remote.getDefaultNamespace()));
+        try (Stream<DataStoreInfo> defaults = remoteStores.getDefaultDataStores()) {
+            defaults.forEach(
+                    store ->
+                            replicateDefaultDataStore(
+                                    store.getWorkspace().getId(), store.getId()));
+        }
+    }
+
+    /**
+     * Adds the object to the replica, or patches the replicated object to match it
+     *
+     * @param fresh the current state of the object, resolved as if fetched from the
+     *     catalog-service
+     */
+    public void apply(@NonNull CatalogInfo fresh) {
+        synchronized (lock) {
+            misses.clear();
+            CatalogInfo current = addIfAbsent(fresh);
+            if (current != fresh) {
+                Patch patch = diff(current, fresh);
+                if (!patch.isEmpty()) {
+                    log.debug("Patching replicated {}: {}", current.getId(), patch);
+                    replica.update(current, patch);
+                }
+            }
+        }
+    }
+
+    /** Fetches the object from the catalog-service and applies it, or removes it if not found */
+    public <T extends CatalogInfo> void refresh(@NonNull String id, @NonNull Class<T> type) {
+        CatalogInfo fresh = fetch(id, type);
+        if (fresh == null) {
+            evict(id, type);
+        } else {
+            apply(fresh);
+        }
+    }
+
+    /** Removes the object from the replica, if present */
+    public <T extends CatalogInfo> void evict(@NonNull String id, @NonNull Class<T> type) {
+        findLocal(id, type).ifPresent(this::removeLocal);
+    }
+
+    public void replicateDefaultWorkspace(@Nullable String workspaceId) {
+        replica.setDefaultWorkspace(workspaceId == null ? null : getWorkspace(workspaceId));
+    }
+
+    public void replicateDefaultNamespace(@Nullable String namespaceId) {
+        replica.setDefaultNamespace(namespaceId == null ? null : getNamespace(namespaceId));
+    }
+
+    public void replicateDefaultDataStore(
+            @NonNull String workspaceId, @Nullable String dataStoreId) {
+        WorkspaceInfo workspace = getWorkspace(workspaceId);
+        if (workspace != null) {
+            DataStoreInfo store =
+                    dataStoreId == null ? null : getStore(dataStoreId, DataStoreInfo.class);
+            replica.setDefaultDataStore(workspace, store);
+        }
+    }
+
+    private static String idOf(@Nullable CatalogInfo info) {
+        return info == null ? null : info.getId();
+    }
+
+    private <T extends CatalogInfo> Optional<T> findLocal(String id, Class<T> type) {
+        CatalogInfoRepository<T> repository = replica.repository(type);
+        return repository.findById(id, type);
+    }
+
+    private <T extends CatalogInfo> T addIfAbsent(T info) {
+        CatalogInfoRepository<T> repository = replica.repositoryFor(info);
+        synchronized (lock) {
+            misses.clear();
+            return repository
+                    .findById(info.getId(), repository.getContentType())
+                    .orElseGet(
+                            () -> {
+                                repository.add(info);
+                                return info;
+                            });
+        }
+    }
+
+    private <T extends CatalogInfo> void removeLocal(T info) {
+        CatalogInfoRepository<T> repository = replica.repositoryFor(info);
+        synchronized (lock) {
+            repository.remove(info);
+        }
+    }
+
+    /** @return a patch for the properties of {@code fresh} that differ from {@code current} */
+    @SuppressWarnings("unchecked")
+    private static <T extends CatalogInfo> Patch diff(T current, T fresh) {
+        Class<T> type = (Class<T>) ClassMappings.fromImpl(current.getClass()).getInterface();
+        T proxy = ModificationProxy.create(current, type);
+        OwsUtils.copy(fresh, proxy, type);
+        return PropertyDiff.valueOf(ModificationProxy.handler(proxy)).clean().toPatch();
+    }
+
+    /**
+     * @return the object from the catalog-service, looked up by the base type of {@code type}, or
+     *     {@code null} if not found
+     */
+    private @Nullable CatalogInfo fetch(String id, Class<? extends CatalogInfo> type) {
+        CatalogInfo info = null;
+        if (WorkspaceInfo.class.isAssignableFrom(type)) {
+            info = remote.getWorkspace(id);
+        } else if (NamespaceInfo.class.isAssignableFrom(type)) {
+            info = remote.getNamespace(id);
+        } else if (StoreInfo.class.isAssignableFrom(type)) {
+            info = remote.getStore(id, StoreInfo.class);
+        } else if (ResourceInfo.class.isAssignableFrom(type)) {
+            info = remote.getResource(id, ResourceInfo.class);
+        } else if (LayerInfo.class.isAssignableFrom(type)) {
+            info = remote.getLayer(id);
+        } else if (LayerGroupInfo.class.isAssignableFrom(type)) {
+            info = remote.getLayerGroup(id);
+        } else if (StyleInfo.class.isAssignableFrom(type)) {
+            info = remote.getStyle(id);
+        } else if (MapInfo.class.isAssignableFrom(type)) {
+            info = remote.getMap(id);
+        }
+        return info;
+    }
+
+    /**
+     * Resolves a replica miss through the catalog-service, replicating the object found even if
+     * it's not of the requested type, for the next lookup of its id not to miss again.
+     */
+    private <T extends CatalogInfo> T readThrough(T local, String id, Class<T> type) {
+        if (local != null || id == null || misses.contains(id)) {
+            return local;
+        }
+        CatalogInfo fetched = fetch(id, type);
+        if (fetched == null) {
+            if (misses.size() >= MAX_MISSES) {
+                misses.clear();
+            }
+            misses.add(id);
+            return null;
+        }
+        log.debug("Replicating {} {} upon lookup", type.getSimpleName(), id);
+        CatalogInfo replicated = addIfAbsent(fetched);
+        return type.isInstance(replicated) ? type.cast(replicated) : null;
+    }
+
+    public @Override WorkspaceInfo getWorkspace(String id) {
+        return readThrough(super.getWorkspace(id), id, WorkspaceInfo.class);
+    }
+
+    public @Override NamespaceInfo getNamespace(String id) {
+        return readThrough(super.getNamespace(id), id, NamespaceInfo.class);
+    }
+
+    public @Override <T extends StoreInfo> T getStore(String id, Class<T> clazz) {
+        return readThrough(super.getStore(id, clazz), id, clazz);
+    }
+
+    public @Override <T extends ResourceInfo> T getResource(String id, Class<T> clazz) {
+        return readThrough(super.getResource(id, clazz), id, clazz);
+    }
+
+    public @Override LayerInfo getLayer(String id) {
+        return readThrough(super.getLayer(id), id, LayerInfo.class);
+    }
+
+    public @Override LayerGroupInfo getLayerGroup(String id) {
+        return readThrough(super.getLayerGroup(id), id, LayerGroupInfo.class);
+    }
+
+    public @Override StyleInfo getStyle(String id) {
+        return readThrough(super.getStyle(id), id, StyleInfo.class);
+    }
+
+    public @Override MapInfo getMap(String id) {
+        return readThrough(super.getMap(id), id, MapInfo.class);
+    }
+
+    public @Override WorkspaceInfo add(WorkspaceInfo workspace) {
+        return addIfAbsent(remote.add(workspace));
+    }
+
+    public @Override NamespaceInfo add(NamespaceInfo namespace) {
+        return addIfAbsent(remote.add(namespace));
+    }
+
+    public @Override StoreInfo add(StoreInfo store) {
+        return addIfAbsent(remote.add(store));
+    }
+
+    public @Override ResourceInfo add(ResourceInfo resource) {
+        return addIfAbsent(remote.add(resource));
+    }
+
+    public @Override LayerInfo add(LayerInfo layer) {
+        return addIfAbsent(remote.add(layer));
+    }
+
+    public @Override LayerGroupInfo add(LayerGroupInfo layerGroup) {
+        return addIfAbsent(remote.add(layerGroup));
+    }
+
+    public @Override StyleInfo add(StyleInfo style) {
+        return addIfAbsent(remote.add(style));
+    }
+
+    public @Override MapInfo add(MapInfo map) {
+        return addIfAbsent(remote.add(map));
+    }
+
+    public @Override void remove(WorkspaceInfo workspace) {
+        remote.remove(workspace);
+        synchronized (lock) {
+            super.remove(workspace);
+        }
+    }
+
+    public @Override void remove(NamespaceInfo namespace) {
+        remote.remove(namespace);
+        synchronized (lock) {
+            super.remove(namespace);
+        }
+    }
+
+    public @Override void remove(StoreInfo store) {
+        remote.remove(store);
+        synchronized (lock) {
+            super.remove(store);
+        }
+    }
+
+    public @Override void remove(ResourceInfo resource) {
+        remote.remove(resource);
+        synchronized (lock) {
+            super.remove(resource);
+        }
+    }
+
+    public @Override void remove(LayerInfo layer) {
+        remote.remove(layer);
+        synchronized (lock) {
+            super.remove(layer);
+        }
+    }
+
+    public @Override void remove(LayerGroupInfo layerGroup) {
+        remote.remove(layerGroup);
+        synchronized (lock) {
+            super.remove(layerGroup);
+        }
+    }
+
+    public @Override void remove(StyleInfo style) {
+        remote.remove(style);
+        synchronized (lock) {
+            super.remove(style);
+        }
+    }
+
+    public @Override void remove(MapInfo map) {
+        remote.remove(map);
+        synchronized (lock) {
+            super.remove(map);
+        }
+    }
+
+    public @Override <I extends CatalogInfo> I update(I info, Patch patch) {
+        I updated = remote.update(info, patch);
+        synchronized (lock) {
+            CatalogInfoRepository<I> repository = replica.repositoryFor(info);
+            if (repository.findById(info.getId(), repository.getContentType()).isPresent()) {
+                return super.update(info, patch);
+            }
+            return addIfAbsent(updated);
+        }
+    }
+
+    public @Override void setDefaultWorkspace(WorkspaceInfo workspace) {
+        remote.setDefaultWorkspace(workspace);
+        super.setDefaultWorkspace(workspace);
+    }
+
+    public @Override void setDefaultNamespace(NamespaceInfo defaultNamespace) {
+        remote.setDefaultNamespace(defaultNamespace);
+        super.setDefaultNamespace(defaultNamespace);
+    }
+
+    public @Override void setDefaultDataStore(WorkspaceInfo workspace, DataStoreInfo store) {
+        remote.setDefaultDataStore(workspace, store);
+        super.setDefaultDataStore(workspace, store);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.client.impl;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.cloud.event.catalog.CatalogInfoAdded;
+import org.geoserver.cloud.event.catalog.CatalogInfoModified;
+import org.geoserver.cloud.event.catalog.CatalogInfoRemoved;
+import org.geoserver.cloud.event.catalog.DefaultDataStoreSet;
+import org.geoserver.cloud.event.catalog.DefaultNamespaceSet;
+import org.geoserver.cloud.event.catalog.DefaultWorkspaceSet;
+import org.geoserver.cloud.event.info.ConfigInfoType;
+import org.geoserver.cloud.event.info.InfoChange;
+import org.geoserver.cloud.event.info.InfoEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Keeps the {@link CatalogClientReplicaFacade replica} current by applying the remote catalog
+ * events and the changes received from the catalog-service change stream.
+ *
+ * <p>Listeners run before the cache evicting ones, so that the evicted entries can't be reloaded
+ * from the replica before it's updated.
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.client.impl")
+public class CatalogClientReplicaUpdater {
+
+    private final CatalogClientReplicaFacade replica;
+
+    public CatalogClientReplicaUpdater(@NonNull CatalogClientReplicaFacade replica) {
+        this.replica = replica;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(CatalogInfoAdded.class)
+    public void onCatalogInfoAdded(CatalogInfoAdded event) {
+        if (event.isRemote()) {
+            replica.refresh(event.getObjectId(), catalogInfoType(event));
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(CatalogInfoModified.class)
+    public void onCatalogInfoModified(CatalogInfoModified event) {
+        if (event.isRemote()) {
+            apply(event);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(CatalogInfoRemoved.class)
+    public void onCatalogInfoRemoved(CatalogInfoRemoved event) {
+        if (event.isRemote()) {
+            replica.evict(event.getObjectId(), catalogInfoType(event));
+        }
+    }
+
+    /**
+     * Applies the object carried by the change without fetching it, re-synchronizes the whole
+     * replica upon a stream reset
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(InfoChange.class)
+    public void onInfoChange(InfoChange change) {
+        if (change.isReset()) {
+            log.info("Catalog change stream reset, re-synchronizing the replica");
+            replica.replicate();
+            return;
+        }
+        InfoEvent<?, ?> event = change.getEvent();
+        if (!event.getObjectType().isA(CatalogInfo.class)
+                && event.getObjectType() != ConfigInfoType.Catalog) {
+            return;
+        }
+        if (change.getObject() != null) {
+            replica.apply(change.getObject());
+        } else if (event instanceof CatalogInfoRemoved) {
+            replica.evict(event.getObjectId(), catalogInfoType(event));
+        } else if (event instanceof CatalogInfoModified) {
+            apply((CatalogInfoModified) event);
+        } else if (event instanceof CatalogInfoAdded) {
+            replica.refresh(event.getObjectId(), catalogInfoType(event));
+        }
+    }
+
+    private void apply(CatalogInfoModified event) {
+        if (event instanceof DefaultWorkspaceSet) {
+            replica.replicateDefaultWorkspace(((DefaultWorkspaceSet) event).getNewWorkspaceId());
+        } else if (event instanceof DefaultNamespaceSet) {
+            replica.replicateDefaultNamespace(((DefaultNamespaceSet) event).getNewNamespaceId());
+        } else if (event instanceof DefaultDataStoreSet) {
+            DefaultDataStoreSet dataStoreSet = (DefaultDataStoreSet) event;
+            replica.replicateDefaultDataStore(
+                    dataStoreSet.getWorkspaceId(), dataStoreSet.getDefaultDataStoreId());
+        } else if (event.getObjectType() != ConfigInfoType.Catalog) {
+            replica.refresh(event.getObjectId(), catalogInfoType(event));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<? extends CatalogInfo> catalogInfoType(InfoEvent<?, ?> event) {
+        return (Class<? extends CatalogInfo>) event.getObjectType().getType();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.client.reactivefeign;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.plugin.ThreadFactories;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Blocks on reactive catalog-service client calls on behalf of the blocking catalog and resource
+ * store APIs.
+ *
+ * <p>Blocking is not allowed on Reactor's non-blocking threads (e.g. when a catalog call is made
+ * while processing a response on a Netty event loop thread), so in that case the call is
+ * subscribed to and waited for on a dedicated thread pool, shared by all the catalog-service
+ * clients, instead of the common {@code ForkJoinPool}. In any case, each call is subscribed to
+ * exactly once.
+ *
+ * <p>Exposes the number of queued and active tasks, and the accumulated time tasks waited in the
+ * queue, to be bound to a metrics registry.
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.client.reactivefeign")
+public class BlockingBridge implements DisposableBean {
+
+    public static final int DEFAULT_MAX_THREADS =
+            Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
+    private static final String THREAD_NAME_PREFIX = "catalog-client-blocking-bridge-";
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder bridgedCalls = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    /** Creates a blocking bridge with {@link #DEFAULT_MAX_THREADS} platform threads */
+    public BlockingBridge() {
+        this(DEFAULT_MAX_THREADS, false);
+    }
+
+    /**
+     * @param maxThreads maximum number of concurrent bridged calls, additional ones wait in a queue
+     * @param virtualThreads whether to use virtual threads, if supported by the runtime (Java 21+)
+     */
+    public BlockingBridge(int maxThreads, boolean virtualThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads shall be > 0: " + maxThreads);
+        }
+        ThreadFactory threadFactory = null;
+        if (virtualThreads) {
+            threadFactory = ThreadFactories.virtualThreadFactory(THREAD_NAME_PREFIX).orElse(null);
+            if (threadFactory == null) {
+                log.warn("Virtual threads not supported by the runtime, using platform threads");
+            }
+        }
+        if (threadFactory == null) {
+            threadFactory = ThreadFactories.platformThreadFactory(THREAD_NAME_PREFIX);
+        }
+        this.executor =
+                new ThreadPoolExecutor(
+                        maxThreads,
+                        maxThreads,
+                        60,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** @return a shared instance, for clients not configured with a bridge of their own */
+    public static BlockingBridge getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static class DefaultHolder {
+        static final BlockingBridge INSTANCE = new BlockingBridge();
+    }
+
+    public <T> Optional<T> blockOptional(@NonNull Mono<T> call) {
+        return blockOptional(call, null);
+    }
+
+    /**
+     * Subscribes to {@code call} and waits for its result, on the calling thread if it's allowed
+     * to block, or on a thread of this bridge otherwise
+     *
+     * @param timeout maximum time to wait for the call to complete, or {@code null} to wait
+     *     indefinitely
+     */
+    public <T> Optional<T> blockOptional(@NonNull Mono<T> call, @Nullable Duration timeout) {
+        Callable<Optional<T>> blockingCall =
+                () -> timeout == null ? call.blockOptional() : call.blockOptional(timeout);
+        if (!Schedulers.isInNonBlockingThread()) {
+            return callUnchecked(blockingCall);
+        }
+        bridgedCalls.increment();
+        final long submitted = System.nanoTime();
+        Future<Optional<T>> future =
+                executor.submit(
+                        () -> {
+                            waitNanos.add(System.nanoTime() - submitted);
+                            return blockingCall.call();
+                        });
+        return join(future);
+    }
+
+    public void block(@NonNull Mono<?> call) {
+        blockOptional(call);
+    }
+
+    /** @return number of calls waiting for a thread of this bridge */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /** @return number of calls currently running on a thread of this bridge */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /** @return total number of calls run on a thread of this bridge */
+    public long getBridgedCallCount() {
+        return bridgedCalls.sum();
+    }
+
+    /** @return accumulated time bridged calls waited in the queue */
+    public Duration getTotalWaitTime() {
+        return Duration.ofNanos(waitNanos.sum());
+    }
+
+    public @Override void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static <T> T callUnchecked(Callable<T> callable) {
+        try {
+            return callable.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for catalog-service call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
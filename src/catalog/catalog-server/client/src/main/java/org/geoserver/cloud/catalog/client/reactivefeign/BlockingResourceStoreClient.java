@@ -16,7 +16,6 @@ import reactor.core.scheduler.Schedulers;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 @RequiredArgsConstructor
@@ -24,15 +23,18 @@ public class BlockingResourceStoreClient {
 
     private final @NonNull ReactiveResourceStoreClient client;
 
+    private final @NonNull BlockingBridge blockingBridge;
+
+    public BlockingResourceStoreClient(@NonNull ReactiveResourceStoreClient client) {
+        this(client, BlockingBridge.getDefault());
+    }
+
     public <T> T block(Mono<T> command) {
         return blockOptional(command).orElse(null);
     }
 
     public <T> Optional<T> blockOptional(Mono<T> command) {
-        if (Schedulers.isInNonBlockingThread()) {
-            return CompletableFuture.supplyAsync(command::blockOptional).join();
-        }
-        return command.blockOptional(Duration.ofMillis(5000));
+        return blockingBridge.blockOptional(command, Duration.ofMillis(5000));
     }
 
     public <T> Stream<T> async(Flux<T> command) {
@@ -4,6 +4,9 @@
  */
 package org.geoserver.cloud.catalog.client.reactivefeign;
 
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
+
 import org.geoserver.catalog.CatalogInfo;
 import org.geoserver.catalog.DataStoreInfo;
 import org.geoserver.catalog.LayerGroupInfo;
@@ -14,9 +17,13 @@ import org.geoserver.catalog.StoreInfo;
 import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.impl.ClassMappings;
+import org.geoserver.catalog.plugin.CatalogOperation;
+import org.geoserver.catalog.plugin.CatalogOperationResult;
 import org.geoserver.catalog.plugin.Patch;
 import org.geoserver.catalog.plugin.Query;
+import org.geoserver.cloud.event.info.InfoChange;
 import org.opengis.filter.capability.FunctionName;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -24,13 +31,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import reactivefeign.client.ReactiveHttpResponse;
 import reactivefeign.spring.config.ReactiveFeignClient;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @ReactiveFeignClient( //
         name = "catalog-service", //
         url = "${geoserver.backend.catalog-service.uri:}", //
@@ -51,6 +62,14 @@ public interface ReactiveCatalogClient {
     public <C extends CatalogInfo> Mono<C> deleteById(
             @PathVariable("endpoint") String endpoint, @PathVariable("id") String id);
 
+    @PostMapping(
+            path = "/{endpoint}/batch",
+            consumes = APPLICATION_NDJSON_VALUE,
+            produces = APPLICATION_NDJSON_VALUE)
+    Flux<CatalogOperationResult> batch(
+            @PathVariable("endpoint") String endpoint,
+            @RequestBody Flux<CatalogOperation> operations);
+
     @GetMapping(path = "/{endpoint}")
     public <C extends CatalogInfo> Flux<C> findAll(
             @PathVariable("endpoint") String endpoint,
@@ -62,6 +81,26 @@ public interface ReactiveCatalogClient {
             @PathVariable("id") String id,
             @RequestParam(name = "type", required = false) ClassMappings subType);
 
+    /**
+     * {@link #findById} returning the whole response, to access its {@code ETag} header.
+     *
+     * <p>If {@code ifNoneMatch} is not {@code null}, the request is conditional: the response body
+     * is empty if the object's entity tag matches it ({@code 304 Not Modified}), and the call
+     * fails with a {@code 404} status error if the object does not exist
+     */
+    @GetMapping(path = {"/{endpoint}/{id}"})
+    <C extends CatalogInfo> Mono<ReactiveHttpResponse<Mono<C>>> findByIdIfNoneMatch( //
+            @PathVariable("endpoint") String endpoint,
+            @PathVariable("id") String id,
+            @RequestParam(name = "type", required = false) ClassMappings subType,
+            @RequestHeader(name = "If-None-Match", required = false) String ifNoneMatch);
+
+    @PostMapping(path = "/{endpoint}/ids")
+    <C extends CatalogInfo> Flux<C> findAllById( //
+            @PathVariable("endpoint") String endpoint,
+            @RequestBody List<String> ids,
+            @RequestParam(name = "type", required = false) ClassMappings subType);
+
     @GetMapping(path = "/{endpoint}/name/{name}/first")
     <C extends CatalogInfo> Mono<C> findFirstByName( //
             @PathVariable("endpoint") String endpoint,
@@ -77,10 +116,28 @@ public interface ReactiveCatalogClient {
     <C extends CatalogInfo> Flux<C> query( //
             @PathVariable("endpoint") String endpoint, @RequestBody Query<C> query);
 
+    /**
+     * Keyset paged query, {@code after} is the id of the last object of the previous page, or
+     * {@code null} for the first page
+     */
+    @PostMapping(path = "/{endpoint}/query/page")
+    <C extends CatalogInfo> Flux<C> queryPage( //
+            @PathVariable("endpoint") String endpoint,
+            @RequestBody Query<C> query,
+            @RequestParam(name = "after", required = false) String after);
+
     @PostMapping(path = "/{endpoint}/query/count")
     <C extends CatalogInfo> Mono<Long> count(
             @PathVariable("endpoint") String endpoint, @RequestBody Query<C> query);
 
+    /**
+     * Server-Sent Events stream of catalog and config changes, resumed after the {@code
+     * lastEventId} event id if provided. Events with no data are heartbeats.
+     */
+    @GetMapping(path = "/changes", produces = TEXT_EVENT_STREAM_VALUE)
+    Flux<ServerSentEvent<InfoChange>> changes(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId);
+
     @GetMapping(path = "/query/capabilities/functions")
     public Flux<FunctionName> getSupportedFilterFunctionNames();
 
@@ -10,19 +10,79 @@ import feign.MethodMetadata;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.openfeign.support.SpringMvcContract;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+
+import reactivefeign.client.ReactiveHttpRequest;
+import reactivefeign.client.ReactiveHttpRequestInterceptor;
+import reactivefeign.webclient.WebClientFeignCustomizer;
+
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class ReactiveFeignConfigurationOverrides {
 
+    /**
+     * Name of the optional {@link ClientHttpConnector} bean shared by all the catalog-service
+     * clients, so they share its connection pool. If not present, the clients use the default
+     * {@code WebClient} connector.
+     */
+    public static final String CLIENT_HTTP_CONNECTOR = "catalogServiceClientHttpConnector";
+
     public @Bean Contract reactiveFeignClientContract() {
         return new FallbackContract(new SpringMvcContract(), new Contract.Default());
     }
 
+    /** Sets the {@link #CLIENT_HTTP_CONNECTOR} connector to the client's {@code WebClient} */
+    public @Bean WebClientFeignCustomizer catalogServiceClientHttpConnectorCustomizer(
+            @Qualifier(CLIENT_HTTP_CONNECTOR) ObjectProvider<ClientHttpConnector> connector) {
+        return webClientBuilder -> connector.ifAvailable(webClientBuilder::clientConnector);
+    }
+
+    /**
+     * Negotiates the Jackson Smile binary encoding for catalog-service responses when {@code
+     * geoserver.backend.catalog-service.wire-format=smile}. The server falls back to JSON if it
+     * does not support it.
+     */
+    @ConditionalOnProperty(
+            name = "geoserver.backend.catalog-service.wire-format",
+            havingValue = "smile")
+    public @Bean ReactiveHttpRequestInterceptor smileAcceptHeaderInterceptor() {
+        return new SmileAcceptHeaderInterceptor();
+    }
+
+    /**
+     * Sets a Smile-first {@code Accept} request header to requests that do not set it explicitly
+     * through the client method mapping's {@code produces} attribute
+     */
+    static class SmileAcceptHeaderInterceptor implements ReactiveHttpRequestInterceptor {
+
+        static final List<String> ACCEPT =
+                List.of(
+                        "application/x-jackson-smile",
+                        "application/stream+x-jackson-smile",
+                        "*/*;q=0.5");
+
+        @Override
+        public Mono<ReactiveHttpRequest> apply(ReactiveHttpRequest request) {
+            Map<String, List<String>> headers = request.headers();
+            List<String> accept = headers.get(HttpHeaders.ACCEPT);
+            if (accept == null || accept.isEmpty()) {
+                headers.put(HttpHeaders.ACCEPT, ACCEPT);
+            }
+            return Mono.just(request);
+        }
+    }
+
     @RequiredArgsConstructor
     private static class FallbackContract implements Contract {
 
@@ -5,11 +5,13 @@
 package org.geoserver.cloud.catalog.client.repository;
 
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.Setter;
 
 import org.geoserver.catalog.Info;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.plugin.Patch;
+import org.geoserver.cloud.catalog.client.reactivefeign.BlockingBridge;
 import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveConfigClient;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.LoggingInfo;
@@ -18,11 +20,9 @@ import org.geoserver.config.SettingsInfo;
 import org.geoserver.config.plugin.ConfigRepository;
 
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.lang.reflect.Proxy;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 /** */
@@ -30,6 +30,8 @@ public class CatalogClientConfigRepository implements ConfigRepository {
 
     private @Getter @Setter ReactiveConfigClient client;
 
+    private @Setter @NonNull BlockingBridge blockingBridge = BlockingBridge.getDefault();
+
     public CatalogClientConfigRepository() {}
 
     public CatalogClientConfigRepository(ReactiveConfigClient configClient) {
@@ -37,17 +39,11 @@ public class CatalogClientConfigRepository implements ConfigRepository {
     }
 
     protected void block(Mono<Void> call) {
-        if (Schedulers.isInNonBlockingThread()) {
-            CompletableFuture.supplyAsync(call::block).join();
-        }
-        call.block();
+        blockingBridge.block(call);
     }
 
     protected <U> Optional<U> blockAndReturn(Mono<U> call) {
-        if (Schedulers.isInNonBlockingThread()) {
-            return CompletableFuture.supplyAsync(call::blockOptional).join();
-        }
-        return call.blockOptional();
+        return blockingBridge.blockOptional(call);
     }
 
     public @Override Optional<GeoServerInfo> getGlobal() {
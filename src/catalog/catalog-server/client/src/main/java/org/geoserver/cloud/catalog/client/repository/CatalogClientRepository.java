@@ -6,8 +6,16 @@ package org.geoserver.cloud.catalog.client.repository;
 
 import static org.geotools.filter.visitor.SimplifyingFilterVisitor.simplify;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import feign.FeignException;
+
 import lombok.NonNull;
 import lombok.Setter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import org.geoserver.catalog.CatalogInfo;
@@ -15,25 +23,39 @@ import org.geoserver.catalog.Info;
 import org.geoserver.catalog.impl.ClassMappings;
 import org.geoserver.catalog.impl.ResolvingProxy;
 import org.geoserver.catalog.plugin.CatalogInfoRepository;
+import org.geoserver.catalog.plugin.CatalogOperation;
+import org.geoserver.catalog.plugin.CatalogOperationResult;
 import org.geoserver.catalog.plugin.Patch;
 import org.geoserver.catalog.plugin.Query;
+import org.geoserver.cloud.catalog.client.reactivefeign.BlockingBridge;
 import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveCatalogClient;
 import org.geoserver.cloud.catalog.client.repository.CatalogClientFilterSupport.PrePostFilterTuple;
+import org.geotools.jackson.databind.util.ObjectMapperUtil;
 import org.opengis.filter.Filter;
 import org.opengis.filter.capability.FunctionName;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
 
+import reactivefeign.client.ReactiveHttpResponse;
+
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -44,12 +66,23 @@ import java.util.stream.Stream;
 public abstract class CatalogClientRepository<CI extends CatalogInfo>
         implements CatalogInfoRepository<CI> {
 
+    /** Maximum number of operations sent to the catalog service per {@link #batch} call */
+    public static final int BATCH_SIZE = 1_000;
+
     private ReactiveCatalogClient client;
 
+    private BlockingBridge blockingBridge = BlockingBridge.getDefault();
+
     private @Setter Function<CI, CI> objectResolver = Function.identity();
     private @Setter Supplier<Function<CatalogInfo, CatalogInfo>> streamResolver =
             () -> Function.identity();
 
+    /** Number of objects requested ahead from the catalog service while consuming a stream */
+    private int prefetch = Queues.SMALL_BUFFER_SIZE;
+
+    /** Page size for keyset paged queries, {@code 0} to stream all results in a single call */
+    private int queryPageSize;
+
     /** Don't use but through {@link #endpoint()} */
     private String _endpoint;
 
@@ -95,30 +128,59 @@ public abstract class CatalogClientRepository<CI extends CatalogInfo>
     /**
      * Converts the Flux to a stream and applies {@link #proxyResolver()} function to each element
      * using a {@link MemoizingResolver} so the same reference is not requested multiple times to
-     * the backend service while the stream is consumed
+     * the backend service while the stream is consumed.
+     *
+     * <p>At most {@link #setPrefetch(int) prefetch} objects are requested ahead of the consumer,
+     * and closing the stream before consuming it cancels the call to the catalog service.
      */
     protected <I extends CI> Stream<I> toStream(Flux<I> flux) {
         @SuppressWarnings("unchecked")
         Function<I, I> resolver = (Function<I, I>) this.streamResolver.get();
-        Stream<I> resolvingStream = flux.toStream().map(resolver::apply);
+        Stream<I> resolvingStream = flux.toStream(prefetch).map(resolver::apply);
         return resolvingStream;
     }
 
-    protected void block(Mono<Void> call) {
-        if (Schedulers.isInNonBlockingThread()) {
-            CompletableFuture.supplyAsync(call::block).join();
+    /**
+     * @param prefetch number of objects requested ahead from the catalog service while consuming
+     *     query results
+     */
+    public void setPrefetch(int prefetch) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("prefetch shall be > 0: " + prefetch);
         }
-        call.block();
+        this.prefetch = prefetch;
     }
 
-    protected <U> Optional<U> blockOptional(Mono<U> call) {
-        Optional<U> object;
-        if (Schedulers.isInNonBlockingThread()) {
-            object = CompletableFuture.supplyAsync(call::blockOptional).join();
-        } else {
-            object = call.blockOptional();
+    /**
+     * Enables keyset paging of unsorted, non offset queries, fetching the results in successive
+     * calls of up to {@code pageSize} objects each, in id order, using the id of the last object of
+     * each page as the continuation token for the next one. Large result sets are then never
+     * sorted nor held whole in memory by the catalog service.
+     *
+     * @param pageSize maximum number of objects per call, {@code 0} to disable paging
+     */
+    public void setQueryPageSize(int pageSize) {
+        if (pageSize < 0) {
+            throw new IllegalArgumentException("pageSize shall be >= 0: " + pageSize);
         }
-        return object;
+        this.queryPageSize = pageSize;
+    }
+
+    /**
+     * Shared by all the catalog-service client repositories, to block on calls made from
+     * non-blocking threads
+     */
+    @Autowired(required = false)
+    public void setBlockingBridge(@NonNull BlockingBridge blockingBridge) {
+        this.blockingBridge = blockingBridge;
+    }
+
+    protected void block(Mono<Void> call) {
+        blockingBridge.block(call);
+    }
+
+    protected <U> Optional<U> blockOptional(Mono<U> call) {
+        return blockingBridge.blockOptional(call);
     }
 
     protected <U extends CI> Optional<U> blockAndReturn(Mono<U> call) {
@@ -126,6 +188,17 @@ public abstract class CatalogClientRepository<CI extends CatalogInfo>
         return object.map(this::resolve);
     }
 
+    /**
+     * Encoded copies of fetched objects and their entity tags, to revalidate with conditional
+     * requests, {@code null} if off
+     */
+    private Cache<String, KeptCopy> revalidationCache;
+
+    private Duration coalescingWindow;
+    private int coalescingMaxBatchSize;
+    private final ConcurrentMap<ClassMappings, FindByIdCoalescer> coalescers =
+            new ConcurrentHashMap<>();
+
     private final ConcurrentMap<String, Boolean> positiveCanSortByCache = new ConcurrentHashMap<>();
 
     public @Override boolean canSortBy(@NonNull String propertyName) {
@@ -145,11 +218,49 @@ public abstract class CatalogClientRepository<CI extends CatalogInfo>
 
     public @Override void remove(@NonNull CI value) {
         blockAndReturn(client.deleteById(endpoint(), value.getId()));
+        forgetKeptCopy(value.getId());
+    }
+
+    /**
+     * Applies all {@code operations} in as few round trips as possible, sending them to the
+     * catalog service in chunks of {@link #BATCH_SIZE} operations. Operations are applied in
+     * order, and a failed operation does not abort the rest.
+     *
+     * @return one result per operation, in the same order as {@code operations}
+     */
+    public List<CatalogOperationResult> batch(@NonNull List<CatalogOperation> operations) {
+        List<CatalogOperationResult> results = new ArrayList<>(operations.size());
+        for (int offset = 0; offset < operations.size(); offset += BATCH_SIZE) {
+            final int chunkOffset = offset;
+            List<CatalogOperation> chunk =
+                    operations.subList(offset, Math.min(operations.size(), offset + BATCH_SIZE));
+            Mono<List<CatalogOperationResult>> call =
+                    client.batch(endpoint(), Flux.fromIterable(chunk))
+                            .doOnNext(r -> r.setIndex(r.getIndex() + chunkOffset))
+                            .collectList();
+            results.addAll(blockOptional(call).orElseGet(Collections::emptyList));
+        }
+        return results;
+    }
+
+    /**
+     * Adds all {@code values} through {@link #batch(List)}
+     *
+     * @return the results of the operations that did not succeed
+     */
+    public List<CatalogOperationResult> addAll(@NonNull Collection<? extends CI> values) {
+        List<CatalogOperation> ops =
+                values.stream().map(CatalogOperation::add).collect(Collectors.toList());
+        return batch(ops).stream()
+                .filter(r -> r.getStatus() != CatalogOperationResult.Status.OK)
+                .collect(Collectors.toList());
     }
 
     public @Override <T extends CI> T update(@NonNull T value, @NonNull Patch patch) {
         Mono<T> updated = client.update(endpoint(), value.getId(), patch);
-        return blockAndReturn(updated).get();
+        T result = blockAndReturn(updated).get();
+        forgetKeptCopy(result.getId());
+        return result;
     }
 
     public @Override <U extends CI> Optional<U> findFirstByName(
@@ -184,7 +295,14 @@ public abstract class CatalogClientRepository<CI extends CatalogInfo>
     }
 
     protected <U extends CI> Stream<U> query(Query<U> query, Filter unsupportedFilter) {
-        Stream<U> stream = toStream(client.query(endpoint(), query));
+        Flux<U> results;
+        if (isKeysetPageable(query)) {
+            long limit = query.count().isPresent() ? query.count().getAsInt() : Long.MAX_VALUE;
+            results = queryPages(query, null, limit);
+        } else {
+            results = client.query(endpoint(), query);
+        }
+        Stream<U> stream = toStream(results);
         if (!Filter.INCLUDE.equals(unsupportedFilter)) {
             log.debug("Post-filtering with {}", unsupportedFilter);
             Predicate<? super U> predicate = info -> unsupportedFilter.evaluate(info);
@@ -193,6 +311,44 @@ public abstract class CatalogClientRepository<CI extends CatalogInfo>
         return stream;
     }
 
+    private boolean isKeysetPageable(Query<?> query) {
+        return queryPageSize > 0
+                && !query.isSorting()
+                && query.offset().isEmpty()
+                && canSortBy("id");
+    }
+
+    /**
+     * Fetches up to {@code remaining} results of {@code query} in pages of {@link #queryPageSize}
+     * objects, each page requested only after the previous one was consumed
+     *
+     * @param after continuation token, the id of the last object of the previous page
+     */
+    private <U extends CI> Flux<U> queryPages(
+            Query<U> query, @Nullable String after, long remaining) {
+        final int pageSize = (int) Math.min(queryPageSize, remaining);
+        final Query<U> page = new Query<>(query).setCount(pageSize);
+        final AtomicInteger received = new AtomicInteger();
+        final AtomicReference<String> last = new AtomicReference<>();
+        Flux<U> results =
+                client.queryPage(endpoint(), page, after)
+                        .doOnNext(
+                                info -> {
+                                    received.incrementAndGet();
+                                    last.set(info.getId());
+                                });
+        Flux<U> next =
+                Flux.defer(
+                        () -> {
+                            int count = received.get();
+                            if (count < pageSize || count == remaining) {
+                                return Flux.empty();
+                            }
+                            return queryPages(query, last.get(), remaining - count);
+                        });
+        return results.concatWith(next);
+    }
+
     public @Override <U extends CI> long count(@NonNull Class<U> of, @NonNull Filter rawFilter) {
         if (Filter.EXCLUDE.equals(rawFilter)) {
             return 0L;
@@ -232,9 +388,192 @@ public abstract class CatalogClientRepository<CI extends CatalogInfo>
     public @Override <U extends CI> Optional<U> findById(
             @NonNull String id, @NonNull Class<U> clazz) {
         ClassMappings typeArg = typeEnum(clazz);
+        if (revalidationCache != null) {
+            return findByIdRevalidating(id, clazz, typeArg);
+        }
+        if (coalescingWindow != null) {
+            return findByIdCoalescing(id, typeArg);
+        }
+        return blockAndReturn(client.findById(endpoint(), id, typeArg));
+    }
+
+    /**
+     * Enables keeping a copy of the objects fetched by {@link #findById}, along with the entity
+     * tag the catalog service sent in the response's {@code ETag} header, to revalidate them with
+     * a conditional ({@code If-None-Match}) request on subsequent calls. Only objects that changed
+     * are transferred again.
+     *
+     * <p>Copies are kept encoded, with their references to other objects by id, and decoded and
+     * {@link #resolve resolved} anew each time they're found not modified, so that they reference
+     * the current version of the objects they refer to.
+     *
+     * <p>Takes precedence over {@link #setCoalescing coalescing}, since multi-get responses carry
+     * no entity tags.
+     *
+     * @param maxSize maximum number of copies to keep, {@code 0} to disable
+     */
+    public void setRevalidationCacheSize(int maxSize) {
+        if (maxSize <= 0) {
+            this.revalidationCache = null;
+        } else {
+            this.revalidationCache =
+                    CacheBuilder.newBuilder().maximumSize(maxSize).softValues().build();
+        }
+    }
+
+    /**
+     * Resolves an object received out of band (e.g. from the catalog change stream) as {@link
+     * #findById} does, dropping the copy kept for revalidation, if any, since it's outdated
+     */
+    public <C extends CI> C resolveReceived(@NonNull C received) {
+        forgetKeptCopy(received.getId());
+        return resolve(received);
+    }
 
-        Optional<U> ret = blockAndReturn(client.findById(endpoint(), id, typeArg));
-        return ret;
+    private void forgetKeptCopy(String id) {
+        if (revalidationCache != null) {
+            revalidationCache.invalidate(id);
+        }
+    }
+
+    private <U extends CI> Optional<U> findByIdRevalidating(
+            String id, Class<U> clazz, ClassMappings typeArg) {
+        KeptCopy copy = revalidationCache.getIfPresent(id);
+        if (copy != null && !clazz.isAssignableFrom(copy.getType())) {
+            copy = null;
+        }
+        final String ifNoneMatch = copy == null ? null : copy.getEtag();
+        final AtomicReference<String> etag = new AtomicReference<>();
+        Optional<U> received;
+        try {
+            Mono<U> call =
+                    client.<U>findByIdIfNoneMatch(endpoint(), id, typeArg, ifNoneMatch)
+                            .flatMap(
+                                    response -> {
+                                        etag.set(etag(response));
+                                        return response.body();
+                                    });
+            received = blockOptional(call);
+        } catch (RuntimeException e) {
+            if (hasStatus(e, HttpStatus.NOT_FOUND)) {
+                revalidationCache.invalidate(id);
+                return Optional.empty();
+            }
+            if (copy == null || !hasStatus(e, HttpStatus.NOT_MODIFIED)) {
+                throw e;
+            }
+            received = Optional.empty();
+        }
+        if (received.isPresent()) {
+            U modified = received.get();
+            if (etag.get() == null) {
+                revalidationCache.invalidate(id);
+            } else {
+                revalidationCache.put(id, KeptCopy.of(modified, etag.get()));
+            }
+            return Optional.of(resolve(modified));
+        }
+        if (copy == null) {
+            return Optional.empty();
+        }
+        log.trace("{} {} not modified", typeArg.getInterface().getSimpleName(), id);
+        return Optional.of(resolve(copy.decode(clazz)));
+    }
+
+    private static @Nullable String etag(ReactiveHttpResponse<?> response) {
+        return response.headers().entrySet().stream()
+                .filter(header -> HttpHeaders.ETAG.equalsIgnoreCase(header.getKey()))
+                .flatMap(header -> header.getValue().stream())
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * A fetched object encoded as received, with its references to other objects by id, and the
+     * entity tag the catalog service sent for it
+     */
+    @Value
+    private static class KeptCopy {
+        private static final ObjectMapper MAPPER =
+                ObjectMapperUtil.newObjectMapper(new SmileFactory());
+
+        String id;
+        Class<? extends CatalogInfo> type;
+        String etag;
+        byte[] encoded;
+
+        static KeptCopy of(CatalogInfo info, String etag) {
+            try {
+                byte[] encoded = MAPPER.writeValueAsBytes(info);
+                return new KeptCopy(info.getId(), info.getClass(), etag, encoded);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        <U> U decode(Class<U> clazz) {
+            try {
+                return clazz.cast(MAPPER.readValue(encoded, CatalogInfo.class));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static boolean hasStatus(Throwable error, HttpStatus status) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof FeignException && ((FeignException) e).status() == status.value()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Multi-get, returns the objects found for the given ids, in no particular order, in a single
+     * call to the catalog service
+     */
+    public <U extends CI> Stream<U> findAllById(
+            @NonNull List<String> ids, @NonNull Class<U> clazz) {
+        if (ids.isEmpty()) {
+            return Stream.empty();
+        }
+        Flux<U> flux = client.findAllById(endpoint(), ids, typeEnum(clazz));
+        return toStream(flux);
+    }
+
+    /**
+     * Enables coalescing concurrent {@link #findById} calls into {@link #findAllById multi-get}
+     * calls.
+     *
+     * <p>Each call blocks until its batch window closes, so this only pays off with many threads
+     * looking up objects concurrently; sequential lookups from a single thread are not batched, and
+     * are delayed by {@code window} each. Callers that know the ids beforehand shall use {@link
+     * #findAllById} instead.
+     *
+     * @param window how long to wait for more requests after the first one of a batch, or {@code
+     *     null} to disable coalescing
+     * @param maxBatchSize maximum number of ids per multi-get call
+     */
+    public void setCoalescing(@Nullable Duration window, int maxBatchSize) {
+        this.coalescingWindow = window;
+        this.coalescingMaxBatchSize = maxBatchSize;
+        this.coalescers.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <U extends CI> Optional<U> findByIdCoalescing(String id, ClassMappings typeArg) {
+        FindByIdCoalescer coalescer =
+                coalescers.computeIfAbsent(
+                        typeArg,
+                        type ->
+                                new FindByIdCoalescer(
+                                        ids -> client.findAllById(endpoint(), ids, type),
+                                        coalescingWindow,
+                                        coalescingMaxBatchSize));
+
+        Mono<U> call = Mono.fromFuture(coalescer.findById(id)).map(info -> (U) info);
+        return blockAndReturn(call);
     }
 
     public @Override void dispose() {
@@ -4,7 +4,9 @@
  */
 package org.geoserver.cloud.catalog.client.repository;
 
+import org.geoserver.cloud.catalog.client.reactivefeign.BlockingBridge;
 import org.geoserver.cloud.catalog.client.reactivefeign.ReactiveCatalogApiClientConfiguration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -13,6 +15,21 @@ import org.springframework.context.annotation.Import;
 @Import(ReactiveCatalogApiClientConfiguration.class)
 public class CatalogClientRepositoryConfiguration {
 
+    /**
+     * Blocking bridge shared by all the catalog-service clients, see {@code
+     * geoserver.backend.catalog-service.blocking-bridge.*}
+     */
+    public @Bean BlockingBridge catalogClientBlockingBridge(
+            @Value("${geoserver.backend.catalog-service.blocking-bridge.max-threads:0}")
+                    int maxThreads,
+            @Value("${geoserver.backend.catalog-service.blocking-bridge.virtual-threads:false}")
+                    boolean virtualThreads) {
+        if (maxThreads <= 0) {
+            maxThreads = BlockingBridge.DEFAULT_MAX_THREADS;
+        }
+        return new BlockingBridge(maxThreads, virtualThreads);
+    }
+
     public @Bean CatalogClientWorkspaceRepository cloudWorkspaceRepository() {
         return new CatalogClientWorkspaceRepository();
     }
@@ -0,0 +1,132 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.client.repository;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogInfo;
+
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent find-by-id requests into multi-get requests: ids requested within {@link
+ * #getWindow() window} of the first pending one are sent together as a single call to the {@code
+ * loader} function, or as soon as {@link #getMaxBatchSize() maxBatchSize} ids are pending.
+ *
+ * <p>Requests for the same id in the same batch share the same result.
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.client.repository")
+class FindByIdCoalescer {
+
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(
+                    r -> {
+                        Thread t = new Thread(r, "catalog-client-coalescer");
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    private final Function<List<String>, Flux<? extends CatalogInfo>> loader;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private Batch current;
+
+    /**
+     * @param loader multi-get function, returns the objects found for the requested ids, in any
+     *     order
+     */
+    FindByIdCoalescer(
+            @NonNull Function<List<String>, Flux<? extends CatalogInfo>> loader,
+            @NonNull Duration window,
+            int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize shall be > 0: " + maxBatchSize);
+        }
+        this.loader = loader;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /** @return a future completed with the object found, or {@code null} if not found */
+    public CompletableFuture<CatalogInfo> findById(@NonNull String id) {
+        final CompletableFuture<CatalogInfo> result;
+        Batch full = null;
+        synchronized (this) {
+            if (current == null) {
+                final Batch batch = new Batch();
+                current = batch;
+                SCHEDULER.schedule(() -> dispatch(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            result = current.pending.computeIfAbsent(id, k -> new CompletableFuture<>());
+            if (current.pending.size() >= maxBatchSize) {
+                full = current;
+                current = null;
+            }
+        }
+        if (full != null) {
+            full.dispatch();
+        }
+        return result;
+    }
+
+    private void dispatch(Batch batch) {
+        synchronized (this) {
+            if (current == batch) {
+                current = null;
+            }
+        }
+        batch.dispatch();
+    }
+
+    private class Batch {
+        private final Map<String, CompletableFuture<CatalogInfo>> pending = new LinkedHashMap<>();
+        private final AtomicBoolean dispatched = new AtomicBoolean();
+
+        void dispatch() {
+            if (!dispatched.compareAndSet(false, true)) {
+                return;
+            }
+            List<String> ids = new ArrayList<>(pending.keySet());
+            log.debug("Requesting {} ids in a single call", ids.size());
+            try {
+                loader.apply(ids)
+                        .collectMap(CatalogInfo::getId, Function.identity())
+                        .subscribe(this::complete, this::fail);
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void complete(Map<String, ? extends CatalogInfo> found) {
+            pending.forEach((id, future) -> future.complete(found.get(id)));
+        }
+
+        private void fail(Throwable error) {
+            pending.values().forEach(future -> future.completeExceptionally(error));
+        }
+    }
+}
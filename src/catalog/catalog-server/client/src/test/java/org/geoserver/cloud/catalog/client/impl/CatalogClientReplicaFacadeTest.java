@@ -0,0 +1,126 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.client.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.cloud.catalog.client.repository.CatalogClientStoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CatalogClientReplicaFacadeTest {
+
+    private CatalogClientCatalogFacade remote;
+    private CatalogClientReplicaFacade facade;
+
+    private List<WorkspaceInfo> remoteWorkspaces;
+
+    public @BeforeEach void setup() {
+        remote = mock(CatalogClientCatalogFacade.class);
+        remoteWorkspaces = new ArrayList<>(List.of(workspace("ws1"), workspace("ws2")));
+        when(remote.query(argThat(q -> q != null && WorkspaceInfo.class.equals(q.getType()))))
+                .thenAnswer(invocation -> List.copyOf(remoteWorkspaces).stream());
+        when(remote.getWorkspace(any()))
+                .thenAnswer(
+                        invocation ->
+                                remoteWorkspaces.stream()
+                                        .filter(w -> w.getId().equals(invocation.getArgument(0)))
+                                        .findFirst()
+                                        .orElse(null));
+
+        facade =
+                new CatalogClientReplicaFacade(remote, mock(CatalogClientStoreRepository.class));
+    }
+
+    private WorkspaceInfo workspace(String name) {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId(name + "-id");
+        ws.setName(name);
+        return ws;
+    }
+
+    public @Test void testReplicateServesReadsLocally() {
+        facade.replicate();
+
+        assertEquals(2, facade.getWorkspaces().size());
+        assertEquals("ws1-id", facade.getWorkspaceByName("ws1").getId());
+        assertEquals(2, facade.count(WorkspaceInfo.class, Filter.INCLUDE));
+        verify(remote, times(0)).getWorkspaceByName(any());
+    }
+
+    public @Test void testApplyPatchesReplicatedObjectInPlace() {
+        facade.replicate();
+        WorkspaceInfo replicated = facade.getWorkspace("ws1-id");
+
+        WorkspaceInfo renamed = workspace("ws1");
+        renamed.setName("renamed");
+        facade.apply(renamed);
+
+        assertSame(replicated, facade.getWorkspace("ws1-id"));
+        assertEquals("renamed", replicated.getName());
+        assertSame(replicated, facade.getWorkspaceByName("renamed"));
+        assertNull(facade.getWorkspaceByName("ws1"));
+    }
+
+    public @Test void testReplicateRemovesObjectsNoLongerInTheService() {
+        facade.replicate();
+        remoteWorkspaces.remove(1);
+
+        facade.replicate();
+
+        assertEquals(1, facade.getWorkspaces().size());
+        assertNull(facade.getWorkspaceByName("ws2"));
+    }
+
+    public @Test void testLookupByIdReadsThrough() {
+        facade.replicate();
+        remoteWorkspaces.add(workspace("ws3"));
+        assertNull(facade.getWorkspaceByName("ws3"));
+
+        WorkspaceInfo ws3 = facade.getWorkspace("ws3-id");
+
+        assertEquals("ws3", ws3.getName());
+        assertSame(ws3, facade.getWorkspaceByName("ws3"));
+    }
+
+    public @Test void testMissesAreRememberedUntilTheNextChange() {
+        facade.replicate();
+
+        assertNull(facade.getWorkspace("ws3-id"));
+        assertNull(facade.getWorkspace("ws3-id"));
+        verify(remote, times(1)).getWorkspace("ws3-id");
+
+        WorkspaceInfo ws3 = workspace("ws3");
+        remoteWorkspaces.add(ws3);
+        assertNull(facade.getWorkspace("ws3-id"), "expected the miss to be remembered");
+
+        facade.apply(workspace("ws1"));
+        assertSame(ws3, facade.getWorkspace("ws3-id"));
+        verify(remote, times(2)).getWorkspace("ws3-id");
+    }
+
+    public @Test void testEvict() {
+        facade.replicate();
+
+        facade.evict("ws1-id", WorkspaceInfo.class);
+
+        assertNull(facade.getWorkspaceByName("ws1"));
+        assertEquals(1, facade.getWorkspaces().size());
+    }
+}
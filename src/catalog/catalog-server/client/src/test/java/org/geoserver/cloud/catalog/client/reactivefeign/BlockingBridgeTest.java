@@ -0,0 +1,86 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.client.reactivefeign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class BlockingBridgeTest {
+
+    private BlockingBridge bridge;
+    private AtomicInteger subscriptions;
+
+    public @BeforeEach void setup() {
+        bridge = new BlockingBridge(2, false);
+        subscriptions = new AtomicInteger();
+    }
+
+    public @AfterEach void dispose() {
+        bridge.destroy();
+    }
+
+    private Mono<String> call(String value) {
+        return Mono.fromCallable(
+                () -> {
+                    subscriptions.incrementAndGet();
+                    return value;
+                });
+    }
+
+    /** Runs {@code supplier} on a Reactor non-blocking thread */
+    private <T> T onNonBlockingThread(Supplier<T> supplier) {
+        return Mono.fromSupplier(
+                        () -> {
+                            assertTrue(Schedulers.isInNonBlockingThread());
+                            return supplier.get();
+                        })
+                .subscribeOn(Schedulers.parallel())
+                .block();
+    }
+
+    public @Test void testBlockingThreadCallsOnce() {
+        assertEquals(Optional.of("value"), bridge.blockOptional(call("value")));
+        assertEquals(1, subscriptions.get());
+        bridge.block(call("value"));
+        assertEquals(2, subscriptions.get());
+        assertEquals(0, bridge.getBridgedCallCount());
+    }
+
+    public @Test void testNonBlockingThreadCallsOnce() {
+        Optional<String> result = onNonBlockingThread(() -> bridge.blockOptional(call("value")));
+        assertEquals(Optional.of("value"), result);
+        assertEquals(1, subscriptions.get());
+        assertEquals(1, bridge.getBridgedCallCount());
+
+        onNonBlockingThread(
+                () -> {
+                    bridge.block(call("value"));
+                    return null;
+                });
+        assertEquals(2, subscriptions.get());
+        assertEquals(2, bridge.getBridgedCallCount());
+    }
+
+    public @Test void testNonBlockingThreadPropagatesError() {
+        Mono<String> failing = Mono.error(new IllegalStateException("expected"));
+        IllegalStateException error =
+                assertThrows(
+                        IllegalStateException.class,
+                        () -> onNonBlockingThread(() -> bridge.blockOptional(failing)));
+        assertEquals("expected", error.getMessage());
+    }
+}
@@ -8,14 +8,18 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.atMostOnce;
 import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -27,6 +31,7 @@ import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.CatalogInfo;
 import org.geoserver.catalog.CatalogTestData;
 import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.Predicates;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.impl.ClassMappings;
 import org.geoserver.catalog.plugin.CatalogInfoRepository;
@@ -58,12 +63,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
 
+import reactivefeign.client.ReactiveHttpResponse;
+
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @SpringBootTest(classes = CatalogClientRepositoryConfiguration.class)
 @ActiveProfiles("test")
@@ -118,10 +132,156 @@ public class CatalogClientRepositoryTest {
                 NullPointerException.class, () -> workspaceRepository.setDefaultWorkspace(null));
     }
 
+    public @Test void workspaceRepository_Revalidation() {
+        CatalogClientWorkspaceRepository repo =
+                (CatalogClientWorkspaceRepository) workspaceRepository;
+        final WorkspaceInfo ws = testData.workspaceA;
+        final String id = ws.getId();
+        final String etag = "W/\"1\"";
+        final ClassMappings type = ClassMappings.WORKSPACE;
+        repo.setRevalidationCacheSize(10);
+        try {
+            when(mockClient.findByIdIfNoneMatch(any(String.class), eq(id), eq(type), isNull()))
+                    .thenReturn(response(ws, etag));
+            when(mockClient.findByIdIfNoneMatch(any(String.class), eq(id), eq(type), eq(etag)))
+                    .thenReturn(response(null, etag));
+
+            assertSame(ws, repo.findById(id, WorkspaceInfo.class).get());
+            verify(mockClient, times(1))
+                    .findByIdIfNoneMatch(any(String.class), eq(id), eq(type), isNull());
+
+            // not modified, sends back the server's entity tag and returns the local copy
+            // resolved anew
+            AtomicInteger resolved = new AtomicInteger();
+            Function<WorkspaceInfo, WorkspaceInfo> resolver = repo.proxyResolver();
+            repo.setObjectResolver(
+                    info -> {
+                        resolved.incrementAndGet();
+                        return resolver.apply(info);
+                    });
+            WorkspaceInfo notModified = repo.findById(id, WorkspaceInfo.class).get();
+            repo.setObjectResolver(resolver);
+            assertNotSame(ws, notModified);
+            assertEquals(id, notModified.getId());
+            assertEquals(ws.getName(), notModified.getName());
+            assertEquals(1, resolved.get());
+            verify(mockClient, times(1))
+                    .findByIdIfNoneMatch(any(String.class), eq(id), eq(type), eq(etag));
+
+            // modified, returns and keeps the new version and its entity tag
+            WorkspaceInfo modified = testData.faker().workspaceInfo(id, "modified");
+            final String modifiedETag = "W/\"2\"";
+            when(mockClient.findByIdIfNoneMatch(any(String.class), eq(id), eq(type), eq(etag)))
+                    .thenReturn(response(modified, modifiedETag));
+            assertSame(modified, repo.findById(id, WorkspaceInfo.class).get());
+
+            when(mockClient.findByIdIfNoneMatch(
+                            any(String.class), eq(id), eq(type), eq(modifiedETag)))
+                    .thenReturn(response(null, modifiedETag));
+            assertEquals("modified", repo.findById(id, WorkspaceInfo.class).get().getName());
+            verify(mockClient, times(1))
+                    .findByIdIfNoneMatch(any(String.class), eq(id), eq(type), isNull());
+            verify(mockClient, never()).findById(any(String.class), eq(id), eq(type));
+        } finally {
+            repo.setRevalidationCacheSize(0);
+        }
+    }
+
+    /** A mocked catalog service response with the given body and {@code ETag} header */
+    @SuppressWarnings("unchecked")
+    private static <C extends CatalogInfo> Mono<ReactiveHttpResponse<Mono<C>>> response(
+            C body, String etag) {
+        ReactiveHttpResponse<Mono<C>> response = mock(ReactiveHttpResponse.class);
+        when(response.headers()).thenReturn(Map.of("ETag", List.of(etag)));
+        when(response.body()).thenReturn(Mono.justOrEmpty(body));
+        return Mono.just(response);
+    }
+
+    public @Test void workspaceRepository_KeysetPagedQuery() {
+        CatalogClientWorkspaceRepository repo =
+                (CatalogClientWorkspaceRepository) workspaceRepository;
+        List<WorkspaceInfo> all = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            all.add(testData.faker().workspaceInfo("ws" + i, "workspace" + i));
+        }
+        when(mockClient.canSortBy(any(String.class), eq("id"))).thenReturn(Mono.just(true));
+        when(mockClient.queryPage(any(String.class), any(), isNull()))
+                .thenReturn(Flux.fromIterable(all.subList(0, 2)));
+        when(mockClient.queryPage(any(String.class), any(), eq("ws1")))
+                .thenReturn(Flux.fromIterable(all.subList(2, 4)));
+        when(mockClient.queryPage(any(String.class), any(), eq("ws3")))
+                .thenReturn(Flux.fromIterable(all.subList(4, 5)));
+        repo.setQueryPageSize(2);
+        try {
+            Query<WorkspaceInfo> query = Query.all(WorkspaceInfo.class);
+            List<WorkspaceInfo> result;
+            try (Stream<WorkspaceInfo> stream = repo.findAll(query)) {
+                result = stream.collect(Collectors.toList());
+            }
+            assertEquals(all, result);
+            verify(mockClient, times(1)).queryPage(any(String.class), any(), isNull());
+            verify(mockClient, times(1)).queryPage(any(String.class), any(), eq("ws1"));
+            verify(mockClient, times(1)).queryPage(any(String.class), any(), eq("ws3"));
+
+            // requests no more pages than needed for the query count
+            clearInvocations(mockClient);
+            try (Stream<WorkspaceInfo> stream = repo.findAll(query.setCount(2))) {
+                assertEquals(2, stream.count());
+            }
+            verify(mockClient, times(1)).queryPage(any(String.class), any(), isNull());
+            verify(mockClient, times(0)).queryPage(any(String.class), any(), eq("ws1"));
+
+            // sorted queries are not paged
+            clearInvocations(mockClient);
+            Query<WorkspaceInfo> sorted =
+                    Query.valueOf(
+                            WorkspaceInfo.class,
+                            Filter.INCLUDE,
+                            null,
+                            null,
+                            Predicates.sortBy("name", true));
+            when(mockClient.query(any(String.class), same(sorted))).thenReturn(Flux.empty());
+            try (Stream<WorkspaceInfo> stream = repo.findAll(sorted)) {
+                assertEquals(0, stream.count());
+            }
+            verify(mockClient, times(1)).query(any(String.class), same(sorted));
+        } finally {
+            repo.setQueryPageSize(0);
+        }
+    }
+
     public @Test void namespaceRepository_CRUD() {
         crudTest(namespaceRepository, testData.namespaceA);
     }
 
+    public @Test void callsFromNonBlockingThreadRunOnce() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<Void> unset = Mono.fromRunnable(subscriptions::incrementAndGet);
+        when(mockClient.unsetDefaultNamespace()).thenReturn(unset);
+        Mono<WorkspaceInfo> created =
+                Mono.fromCallable(
+                        () -> {
+                            subscriptions.incrementAndGet();
+                            return testData.workspaceA;
+                        });
+        when(mockClient.create(any(String.class), same(testData.workspaceA)))
+                .thenReturn(created);
+
+        Mono.fromRunnable(
+                        () -> {
+                            assertTrue(Schedulers.isInNonBlockingThread());
+                            namespaceRepository.unsetDefaultNamespace();
+                        })
+                .subscribeOn(Schedulers.parallel())
+                .block();
+        assertEquals(1, subscriptions.get());
+
+        Mono.fromRunnable(() -> workspaceRepository.add(testData.workspaceA))
+                .subscribeOn(Schedulers.parallel())
+                .block();
+        assertEquals(2, subscriptions.get());
+    }
+
     public @Test void namespaceRepository_DefaultNamespace() {
         when(mockClient.getDefaultNamespace()).thenReturn(Mono.just(testData.namespaceB));
         assertSame(testData.namespaceB, namespaceRepository.getDefaultNamespace().get());
@@ -0,0 +1,108 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.client.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class FindByIdCoalescerTest {
+
+    private Map<String, WorkspaceInfo> workspaces;
+    private List<List<String>> calls;
+
+    public @BeforeEach void setup() {
+        workspaces =
+                IntStream.range(0, 10)
+                        .mapToObj(i -> workspace("ws" + i))
+                        .collect(Collectors.toMap(WorkspaceInfo::getId, Function.identity()));
+        calls = new CopyOnWriteArrayList<>();
+    }
+
+    private Flux<? extends CatalogInfo> load(List<String> ids) {
+        calls.add(ids);
+        return Flux.fromIterable(ids).filter(workspaces::containsKey).map(workspaces::get);
+    }
+
+    public @Test void testConcurrentRequestsAreCoalesced() {
+        FindByIdCoalescer coalescer =
+                new FindByIdCoalescer(this::load, Duration.ofMillis(200), 100);
+
+        List<CompletableFuture<CatalogInfo>> results =
+                IntStream.range(0, 10)
+                        .parallel()
+                        .mapToObj(i -> coalescer.findById("ws" + i))
+                        .collect(Collectors.toList());
+        CompletableFuture<CatalogInfo> missing = coalescer.findById("missing");
+        CompletableFuture<CatalogInfo> duplicate = coalescer.findById("ws1");
+
+        for (int i = 0; i < 10; i++) {
+            assertSame(workspaces.get("ws" + i), results.get(i).join());
+        }
+        assertNull(missing.join());
+        assertSame(workspaces.get("ws1"), duplicate.join());
+        assertEquals(1, calls.size());
+        assertEquals(11, calls.get(0).size());
+    }
+
+    public @Test void testMaxBatchSize() {
+        FindByIdCoalescer coalescer = new FindByIdCoalescer(this::load, Duration.ofSeconds(10), 4);
+
+        List<CompletableFuture<CatalogInfo>> results =
+                IntStream.range(0, 8)
+                        .mapToObj(i -> coalescer.findById("ws" + i))
+                        .collect(Collectors.toList());
+        // both batches are full, dispatched without waiting for the window to elapse
+        results.forEach(CompletableFuture::join);
+        assertEquals(2, calls.size());
+        assertEquals(List.of("ws0", "ws1", "ws2", "ws3"), calls.get(0));
+        assertEquals(List.of("ws4", "ws5", "ws6", "ws7"), calls.get(1));
+    }
+
+    public @Test void testWindowElapsed() {
+        FindByIdCoalescer coalescer = new FindByIdCoalescer(this::load, Duration.ofMillis(1), 100);
+        assertSame(workspaces.get("ws1"), coalescer.findById("ws1").join());
+        assertSame(workspaces.get("ws2"), coalescer.findById("ws2").join());
+        assertEquals(2, calls.size());
+    }
+
+    public @Test void testErrorPropagatesToAllRequests() {
+        FindByIdCoalescer coalescer =
+                new FindByIdCoalescer(
+                        ids -> Flux.error(new IllegalStateException("expected")),
+                        Duration.ofMillis(50),
+                        100);
+        CompletableFuture<CatalogInfo> r1 = coalescer.findById("ws1");
+        CompletableFuture<CatalogInfo> r2 = coalescer.findById("ws2");
+        assertThrows(CompletionException.class, r1::join);
+        assertThrows(CompletionException.class, r2::join);
+    }
+
+    private WorkspaceInfo workspace(String id) {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId(id);
+        ws.setName(id);
+        return ws;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class ApiExceptionHandler {
@@ -24,4 +25,10 @@ public class ApiExceptionHandler {
     public ResponseEntity<String> noSuchElementException(NoSuchElementException e) {
         throw new ResponseStatusException(HttpStatus.NO_CONTENT, e.getMessage(), e);
     }
+
+    /** The catalog scheduler queue is full, shed load */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> rejectedExecutionException(RejectedExecutionException e) {
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy", e);
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.server.api.v1;
+
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
+
+import org.geoserver.cloud.catalog.server.service.CatalogChangeStream;
+import org.geoserver.cloud.catalog.server.service.CatalogChangeStream.StreamedChange;
+import org.geoserver.cloud.event.info.InfoChange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Server-Sent Events stream of catalog and config changes, see {@link CatalogChangeStream}.
+ *
+ * <p>Each event's {@code id} is the change's {@link StreamedChange#getId() stream id}, to resume the
+ * stream from, and its {@code data} the {@link InfoChange} itself, carrying its update sequence. A
+ * {@code reset} event signals the changes since the requested stream id are no longer available.
+ * Comment-only heartbeat events are sent every {@link #HEARTBEAT} to keep idle connections open.
+ */
+@RestController
+@RequestMapping(path = ReactiveCatalogController.BASE_URI)
+public class CatalogChangeStreamController {
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESET_EVENT = "reset";
+
+    static final Duration HEARTBEAT = Duration.ofSeconds(30);
+
+    private CatalogChangeStream changeStream;
+
+    public CatalogChangeStreamController(CatalogChangeStream changeStream) {
+        this.changeStream = changeStream;
+    }
+
+    /**
+     * @param lastEventId the {@code Last-Event-ID} header sent by SSE clients when reconnecting,
+     *     takes precedence over {@code since}
+     * @param since stream id to resume the stream after, changes happening from now on are
+     *     streamed if neither is provided
+     */
+    @GetMapping(path = "/changes", produces = TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<InfoChange>> changes(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(name = "since", required = false) String since) {
+
+        if (!changeStream.isEnabled()) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND, "catalog change stream is disabled");
+        }
+        String resumeAfter = lastEventId == null ? since : lastEventId;
+        Flux<ServerSentEvent<InfoChange>> heartbeat =
+                Flux.interval(HEARTBEAT)
+                        .map(i -> ServerSentEvent.<InfoChange>builder().comment("").build());
+        // a single subscription to the change stream, the heartbeat stops when it completes
+        return changeStream
+                .changes(resumeAfter)
+                .map(this::toServerSentEvent)
+                .publish(
+                        changes ->
+                                Flux.merge(
+                                        changes,
+                                        heartbeat.takeUntilOther(changes.then(Mono.just(true)))));
+    }
+
+    private ServerSentEvent<InfoChange> toServerSentEvent(StreamedChange streamed) {
+        InfoChange change = streamed.getChange();
+        return ServerSentEvent.builder(change)
+                .id(streamed.getId())
+                .event(change.isReset() ? RESET_EVENT : CHANGE_EVENT)
+                .build();
+    }
+}
@@ -6,6 +6,7 @@ package org.geoserver.cloud.catalog.server.api.v1;
 
 import static org.geoserver.catalog.impl.ClassMappings.RESOURCE;
 import static org.geoserver.catalog.impl.ClassMappings.STORE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON_VALUE;
 
 import lombok.NonNull;
@@ -21,12 +22,17 @@ import org.geoserver.catalog.StoreInfo;
 import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.impl.ClassMappings;
+import org.geoserver.catalog.plugin.CatalogOperation;
+import org.geoserver.catalog.plugin.CatalogOperationResult;
 import org.geoserver.catalog.plugin.Patch;
 import org.geoserver.catalog.plugin.Query;
 import org.geoserver.cloud.catalog.server.service.ProxyResolver;
 import org.geoserver.cloud.catalog.server.service.ReactiveCatalog;
+import org.geoserver.jackson.databind.catalog.CatalogInfoETag;
 import org.opengis.filter.capability.FunctionName;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -34,6 +40,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -43,6 +50,8 @@ import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /** */
 @RestController
 @RequestMapping(path = ReactiveCatalogController.BASE_URI)
@@ -50,6 +59,13 @@ public class ReactiveCatalogController {
 
     public static final String BASE_URI = "/api/v1/catalog";
 
+    /** Jackson Smile binary JSON media type, negotiable as an alternative to JSON */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /** Streaming variant of {@link #APPLICATION_SMILE_VALUE} */
+    public static final String APPLICATION_STREAM_SMILE_VALUE =
+            "application/stream+x-jackson-smile";
+
     private ReactiveCatalog catalog;
 
     private ProxyResolver proxyResolver;
@@ -114,7 +130,63 @@ public class ReactiveCatalogController {
                         noContent("%s with id '%s' does not exist", type.getSimpleName(), id));
     }
 
-    @GetMapping(path = "/{endpoint}", produces = APPLICATION_STREAM_JSON_VALUE)
+    /**
+     * Applies a stream of {@link CatalogOperation}s on objects of the endpoint's type, sequentially
+     * and in order, returning one {@link CatalogOperationResult} per operation. A failed operation
+     * does not abort the batch.
+     */
+    @PostMapping(
+            path = "/{endpoint}/batch",
+            consumes = {APPLICATION_NDJSON_VALUE, APPLICATION_STREAM_JSON_VALUE},
+            produces = APPLICATION_NDJSON_VALUE)
+    public Flux<CatalogOperationResult> batch(
+            @PathVariable("endpoint") String endpoint,
+            @RequestBody Flux<CatalogOperation> operations) {
+
+        Class<? extends CatalogInfo> type = endpointToClass(endpoint);
+        return operations
+                .index()
+                .concatMap(t -> apply(type, t.getT1().intValue(), t.getT2()));
+    }
+
+    private Mono<CatalogOperationResult> apply(
+            Class<? extends CatalogInfo> type, int index, CatalogOperation op) {
+
+        return Mono.defer(() -> execute(type, op))
+                .map(info -> CatalogOperationResult.ok(index, op, info))
+                .defaultIfEmpty(CatalogOperationResult.notFound(index, op))
+                .onErrorResume(e -> Mono.just(CatalogOperationResult.error(index, op, e)));
+    }
+
+    private Mono<? extends CatalogInfo> execute(
+            Class<? extends CatalogInfo> type, @NonNull CatalogOperation op) {
+        if (op.getType() == null) {
+            throw new IllegalArgumentException("Operation type not provided");
+        }
+        switch (op.getType()) {
+            case ADD:
+                return batchAdd(type, op.getValue());
+            case UPDATE:
+                Mono<Patch> patch = proxyResolver.resolve(op.getPatch());
+                return catalog.getById(op.getId(), type).flatMap(c -> catalog.update(c, patch));
+            case REMOVE:
+                return catalog.getById(op.getId(), type).flatMap(catalog::delete);
+            default:
+                throw new IllegalArgumentException("Unknown operation type " + op.getType());
+        }
+    }
+
+    private Mono<CatalogInfo> batchAdd(Class<? extends CatalogInfo> type, CatalogInfo value) {
+        if (!type.isInstance(value)) {
+            throw new IllegalArgumentException(
+                    String.format("Expected a %s: %s", type.getSimpleName(), value));
+        }
+        return catalog.create(proxyResolver.resolve(value));
+    }
+
+    @GetMapping(
+            path = "/{endpoint}",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<? extends CatalogInfo> findAll(
             @PathVariable("endpoint") String endpoint,
             @RequestParam(name = "type", required = false) ClassMappings subType) {
@@ -123,35 +195,74 @@ public class ReactiveCatalogController {
         return catalog.getAll(type);
     }
 
+    /**
+     * Responses carry a weak {@link CatalogInfoETag entity tag}. If it matches the {@code
+     * If-None-Match} request header, the response is {@code 304 Not Modified} with no body. When
+     * {@code If-None-Match} is provided, a missing object results in {@code 404 Not Found} instead
+     * of {@code 204 No Content}, for clients to tell it apart from a {@code 304}.
+     */
     @GetMapping(path = {"/{endpoint}/{id}"})
-    public Mono<? extends CatalogInfo> findById( //
+    public Mono<ResponseEntity<CatalogInfo>> findById( //
             @PathVariable("endpoint") String endpoint,
             @PathVariable("id") String id,
-            @RequestParam(name = "type", required = false) ClassMappings subType) {
+            @RequestParam(name = "type", required = false) ClassMappings subType,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+                    String ifNoneMatch) {
 
         final @NonNull ClassMappings type = endpointToType(endpoint, subType);
         @SuppressWarnings("unchecked")
         Class<? extends CatalogInfo> targetType =
                 (Class<? extends CatalogInfo>) type.getInterface();
+        final String message = "%s with id '%s' does not exist";
+        final String typeName = type.getInterface().getSimpleName();
         return catalog.getById(id, targetType)
+                .map(info -> conditional(info, ifNoneMatch))
                 .switchIfEmpty(
-                        noContent(
-                                "%s with id '%s' does not exist",
-                                type.getInterface().getSimpleName(), id));
+                        ifNoneMatch == null
+                                ? noContent(message, typeName, id)
+                                : error(HttpStatus.NOT_FOUND, message, typeName, id));
+    }
+
+    /**
+     * Multi-get: returns the objects of the requested type with the given ids, in no particular
+     * order. Ids that are not found are skipped, so the result may contain fewer objects than
+     * requested ids.
+     */
+    @PostMapping(
+            path = "/{endpoint}/ids",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
+    public Flux<? extends CatalogInfo> findAllById( //
+            @PathVariable("endpoint") String endpoint,
+            @RequestBody List<String> ids,
+            @RequestParam(name = "type", required = false) ClassMappings subType) {
+
+        Class<? extends CatalogInfo> type = endpointToClass(endpoint, subType);
+        return Flux.fromIterable(ids).distinct().flatMap(id -> catalog.getById(id, type));
     }
 
     @GetMapping(path = "/{endpoint}/name/{name}/first")
-    public Mono<? extends CatalogInfo> findFirstByName( //
+    public Mono<ResponseEntity<CatalogInfo>> findFirstByName( //
             @PathVariable("endpoint") String endpoint,
             @PathVariable(name = "name") String name,
-            @RequestParam(name = "type", required = false) ClassMappings subType) {
+            @RequestParam(name = "type", required = false) ClassMappings subType,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+                    String ifNoneMatch) {
 
         Class<? extends CatalogInfo> type = endpointToClass(endpoint, subType);
         return catalog.getFirstByName(name, type)
+                .map(info -> conditional(info, ifNoneMatch))
                 .switchIfEmpty(
                         noContent("%s with name '%s' does not exist", type.getSimpleName(), name));
     }
 
+    private ResponseEntity<CatalogInfo> conditional(CatalogInfo info, String ifNoneMatch) {
+        final String etag = CatalogInfoETag.of(info);
+        if (CatalogInfoETag.matches(etag, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(info);
+    }
+
     @GetMapping(path = "/{endpoint}/query/cansortby/{propertyName}")
     public Mono<Boolean> canSortBy(
             @PathVariable("endpoint") String endpoint,
@@ -161,18 +272,44 @@ public class ReactiveCatalogController {
         return catalog.canSortBy(type, propertyName);
     }
 
-    @GetMapping(path = "/query/capabilities/functions", produces = APPLICATION_STREAM_JSON_VALUE)
+    @GetMapping(
+            path = "/query/capabilities/functions",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<FunctionName> getSupportedFilterFunctionNames() {
         return catalog.getSupportedFunctionNames();
     }
 
-    @PostMapping(path = "/{endpoint}/query", produces = APPLICATION_STREAM_JSON_VALUE)
+    /**
+     * Streams the query results as the catalog produces them. With the in-memory catalog backends,
+     * unsorted queries and queries sorted by ascending id only are evaluated lazily, other sorted
+     * queries hold all the matches, or the first {@code offset + count} if paged, in memory before
+     * the first one is sent. Use {@link #queryPage keyset paging} for large result sets.
+     */
+    @PostMapping(
+            path = "/{endpoint}/query",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public <C extends CatalogInfo> Flux<C> query( //
             @PathVariable("endpoint") String endpoint, @RequestBody Query<C> query) {
 
         return catalog.query(query);
     }
 
+    /**
+     * Keyset paged query, returns up to {@link Query#getCount() count} objects in id order, right
+     * after the one with id {@code after}. The id of the last object returned is the continuation
+     * token for the next page, and a page with less than {@code count} objects is the last one.
+     */
+    @PostMapping(
+            path = "/{endpoint}/query/page",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
+    public <C extends CatalogInfo> Flux<C> queryPage( //
+            @PathVariable("endpoint") String endpoint,
+            @RequestBody Query<C> query,
+            @RequestParam(name = "after", required = false) String after) {
+
+        return catalog.query(query, after);
+    }
+
     @PostMapping(path = "/{endpoint}/query/count")
     public <C extends CatalogInfo> Mono<Long> count(
             @PathVariable("endpoint") String endpoint, @RequestBody Query<C> query) {
@@ -223,12 +360,16 @@ public class ReactiveCatalogController {
                 .switchIfEmpty(noContent("No NamespaceInfo found for uri %s", uri));
     }
 
-    @GetMapping(path = "namespaces/uri/all", produces = APPLICATION_STREAM_JSON_VALUE)
+    @GetMapping(
+            path = "namespaces/uri/all",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<NamespaceInfo> findAllNamespacesByURI(@RequestParam("uri") String uri) {
         return catalog.getAllNamespacesByURI(uri);
     }
 
-    @GetMapping(path = "/stores/defaults", produces = APPLICATION_STREAM_JSON_VALUE)
+    @GetMapping(
+            path = "/stores/defaults",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<DataStoreInfo> getDefaultDataStores() {
         return catalog.getDefaultDataStores();
     }
@@ -267,7 +408,9 @@ public class ReactiveCatalogController {
                 .switchIfEmpty(noContent("Workspace not found: %s", workspaceId));
     }
 
-    @GetMapping(path = "/workspaces/{workspaceId}/stores", produces = APPLICATION_STREAM_JSON_VALUE)
+    @GetMapping(
+            path = "/workspaces/{workspaceId}/stores",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<? extends StoreInfo> findStoresByWorkspaceId( //
             @PathVariable("workspaceId") String workspaceId,
             @RequestParam(name = "type", required = false) ClassMappings subType) {
@@ -310,14 +453,18 @@ public class ReactiveCatalogController {
                 .switchIfEmpty(noContent("Namesapce does not exist: %s", namespaceId));
     }
 
-    @GetMapping(path = "/layers/style/{styleId}", produces = APPLICATION_STREAM_JSON_VALUE)
+    @GetMapping(
+            path = "/layers/style/{styleId}",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<LayerInfo> findLayersWithStyle(@PathVariable("styleId") String styleId) {
         return catalog.getById(styleId, StyleInfo.class)
                 .switchIfEmpty(noContent("Style does not exist: %s", styleId))
                 .flatMapMany(s -> catalog.getLayersWithStyle(s));
     }
 
-    @GetMapping(path = "/layers/resource/{resourceId}", produces = APPLICATION_STREAM_JSON_VALUE)
+    @GetMapping(
+            path = "/layers/resource/{resourceId}",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<LayerInfo> findLayersByResourceId(@PathVariable("resourceId") String resourceId) {
 
         return catalog.getById(resourceId, ResourceInfo.class)
@@ -325,14 +472,16 @@ public class ReactiveCatalogController {
                 .flatMapMany(r -> catalog.getLayersByResource(r));
     }
 
-    @GetMapping(path = "/layergroups/noworkspace", produces = APPLICATION_STREAM_JSON_VALUE)
+    @GetMapping(
+            path = "/layergroups/noworkspace",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<LayerGroupInfo> findLayerGroupsByNullWoskspace() {
         return catalog.getLayerGroupsWithNoWoskspace();
     }
 
     @GetMapping(
             path = "/workspaces/{workspaceId}/layergroups",
-            produces = APPLICATION_STREAM_JSON_VALUE)
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<LayerGroupInfo> findLayerGroupsByWoskspaceId(
             @PathVariable("workspaceId") String workspaceId) {
 
@@ -361,12 +510,16 @@ public class ReactiveCatalogController {
                 .switchIfEmpty(noContent("Workspace does not exist: %s", workspaceId));
     }
 
-    @GetMapping(path = "/styles/noworkspace", produces = APPLICATION_STREAM_JSON_VALUE)
+    @GetMapping(
+            path = "/styles/noworkspace",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<StyleInfo> findStylesByNullWorkspace() {
         return catalog.getStylesWithNoWorkspace();
     }
 
-    @GetMapping(path = "/workspaces/{workspaceId}/styles", produces = APPLICATION_STREAM_JSON_VALUE)
+    @GetMapping(
+            path = "/workspaces/{workspaceId}/styles",
+            produces = {APPLICATION_STREAM_JSON_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<StyleInfo> findStylesByWorkspaceId(
             @PathVariable(name = "workspaceId") String workspaceId) {
 
@@ -0,0 +1,114 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.plugin.ThreadFactories;
+import org.springframework.lang.Nullable;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Creates the {@link Scheduler} on which the catalog-service performs the blocking catalog calls,
+ * according to {@link CatalogServerConfigProperties.SchedulerConfig#getMode()}.
+ *
+ * <p>In both modes, tasks submitted once {@code maxQueued} tasks are already waiting are rejected
+ * with a {@link java.util.concurrent.RejectedExecutionException}, which the API translates to a
+ * {@code 503 Service Unavailable} response.
+ */
+@Slf4j(topic = "org.geoserver.cloud.catalog.server.config")
+class CatalogSchedulerFactory {
+
+    static final String NAME = "catalogScheduler";
+
+    private CatalogSchedulerFactory() {
+        // private constructor, utility class
+    }
+
+    /**
+     * Reactor's bounded elastic scheduler.
+     *
+     * <p>If {@code registry} is not null, registers the Micrometer {@link ExecutorServiceMetrics}
+     * of each of the scheduler's executors, tagged with {@code name=catalogScheduler} and an
+     * {@code executorId}. The executors are instrumented through an {@link
+     * Schedulers#setExecutorServiceDecorator executor service decorator} that only applies to this
+     * scheduler, unlike {@link Schedulers#enableMetrics()}, which applies to all the Reactor
+     * schedulers.
+     */
+    static Scheduler boundedElastic(
+            int maxThreads, int maxQueued, @Nullable MeterRegistry registry) {
+        if (registry == null) {
+            return Schedulers.newBoundedElastic(maxThreads, maxQueued, NAME);
+        }
+        // the bounded elastic scheduler creates its executors on demand, after it's been created
+        final AtomicReference<Scheduler> instrumented = new AtomicReference<>();
+        final AtomicInteger executorId = new AtomicInteger();
+        Schedulers.setExecutorServiceDecorator(
+                NAME,
+                (scheduler, executor) -> {
+                    if (scheduler != instrumented.get()) {
+                        return executor;
+                    }
+                    String id = String.valueOf(executorId.incrementAndGet());
+                    return ExecutorServiceMetrics.monitor(
+                            registry, executor, NAME, Tags.of("executorId", id));
+                });
+        Scheduler scheduler = Schedulers.newBoundedElastic(maxThreads, maxQueued, NAME);
+        instrumented.set(scheduler);
+        return scheduler;
+    }
+
+    /**
+     * Scheduler running up to {@code maxConcurrency} tasks at a time on virtual threads if the
+     * runtime supports them (Java 21+), or on platform threads otherwise, queuing up to {@code
+     * maxQueued} more.
+     *
+     * <p>If {@code registry} is not null, registers the Micrometer {@link ExecutorServiceMetrics}
+     * tagged with {@code name=catalogScheduler}, including the {@code executor.queued} queue depth
+     * gauge and the {@code executor.idle} timer of the time tasks wait in the queue.
+     */
+    static Scheduler virtualThreads(
+            int maxConcurrency, int maxQueued, @Nullable MeterRegistry registry) {
+        ThreadFactory threadFactory =
+                ThreadFactories.virtualThreadFactory(NAME + "-")
+                        .orElseGet(
+                                () -> {
+                                    log.warn(
+                                            "Virtual threads not supported by the runtime, "
+                                                    + "using platform threads for {}",
+                                            NAME);
+                                    return ThreadFactories.platformThreadFactory(NAME + "-");
+                                });
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        maxConcurrency,
+                        maxConcurrency,
+                        60,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(maxQueued),
+                        threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+
+        ExecutorService service = executor;
+        if (registry != null) {
+            service = ExecutorServiceMetrics.monitor(registry, executor, NAME);
+        }
+        return Schedulers.fromExecutorService(service, NAME);
+    }
+}
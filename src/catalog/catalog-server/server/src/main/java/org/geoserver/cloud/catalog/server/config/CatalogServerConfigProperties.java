@@ -14,6 +14,36 @@ public @Data class CatalogServerConfigProperties {
 
     private SchedulerConfig ioThreads = new SchedulerConfig();
 
+    private QueryConfig query = new QueryConfig();
+
+    private ChangeStreamConfig changeStream = new ChangeStreamConfig();
+
+    /**
+     * Server-Sent Events stream of catalog changes, {@code geoserver.catalog-service.change-stream}
+     */
+    public static @Data class ChangeStreamConfig {
+        public static final int DEFAULT_BUFFER_SIZE = 1_000;
+
+        boolean enabled = false;
+
+        /**
+         * Number of most recent changes kept to replay to subscribers resuming the stream, and
+         * maximum number of changes pending delivery to a slow subscriber before disconnecting it
+         */
+        int bufferSize = DEFAULT_BUFFER_SIZE;
+    }
+
+    /** Streaming of query results, {@code geoserver.catalog-service.query} */
+    public static @Data class QueryConfig {
+        public static final int DEFAULT_BATCH_SIZE = 256;
+
+        /**
+         * Number of objects requested at a time from the catalog backend iterator while streaming
+         * query results, bounds the number of objects fetched ahead of the response writer
+         */
+        int batchSize = DEFAULT_BATCH_SIZE;
+    }
+
     public static @Data class SchedulerConfig {
         public static final int DEFAULT_MAX_SIZE =
                 Math.max(4, 4 * Runtime.getRuntime().availableProcessors());
@@ -22,6 +52,18 @@ public @Data class CatalogServerConfigProperties {
         Integer maxSize = DEFAULT_MAX_SIZE;
         Integer maxQueued = DEFAULT_MAX_QUEUED;
 
+        /**
+         * {@code BOUNDED_ELASTIC} (default) uses Reactor's bounded elastic scheduler with {@code
+         * max-size} threads. {@code VIRTUAL} runs up to {@code max-size} concurrent calls on
+         * virtual threads (platform threads if the runtime does not support them).
+         */
+        Mode mode = Mode.BOUNDED_ELASTIC;
+
+        public static enum Mode {
+            BOUNDED_ELASTIC,
+            VIRTUAL
+        }
+
         public Integer getMaxSize() {
             return maxSize == null ? DEFAULT_MAX_SIZE : maxSize;
         }
@@ -30,6 +72,10 @@ public @Data class CatalogServerConfigProperties {
             return maxQueued == null ? DEFAULT_MAX_QUEUED : maxQueued;
         }
 
+        public Mode getMode() {
+            return mode == null ? Mode.BOUNDED_ELASTIC : mode;
+        }
+
         public static String buildInvalidMaxSizeMessage(int providedMaxThreadsValue) {
             return String.format(
                     "Ivalid value for geoserver.catalog-service.io-threads.max-size=%d, using default value of 4*cores (%d)",
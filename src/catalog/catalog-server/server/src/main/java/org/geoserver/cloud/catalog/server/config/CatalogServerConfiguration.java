@@ -7,14 +7,15 @@ package org.geoserver.cloud.catalog.server.config;
 import org.geoserver.cloud.catalog.server.api.v1.ReactiveCatalogController;
 import org.geoserver.cloud.catalog.server.config.CatalogServerConfigProperties.SchedulerConfig;
 import org.geoserver.cloud.catalog.server.service.ReactiveCatalog;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.scheduler.Scheduler;
-import reactor.core.scheduler.Schedulers;
 
 @Configuration
 @ComponentScan(basePackageClasses = {ReactiveCatalog.class, ReactiveCatalogController.class})
@@ -31,9 +32,10 @@ public class CatalogServerConfiguration implements WebFluxConfigurer {
 
     /**
      * Configures the reactive Scheduler thread pool on which {@link ReactiveCatalogService}
-     * performs the blocking catalog calls
+     * performs the blocking catalog calls. Calls exceeding {@code max-queued} pending ones are
+     * rejected with a {@code 503 Service Unavailable} status.
      */
-    public @Bean Scheduler catalogScheduler() {
+    public @Bean Scheduler catalogScheduler(ObjectProvider<MeterRegistry> meterRegistry) {
         CatalogServerConfigProperties config = applicationConfig();
         SchedulerConfig schedulerConfig = config.getIoThreads();
         int maxThreads = schedulerConfig.getMaxSize();
@@ -46,8 +48,17 @@ public class CatalogServerConfiguration implements WebFluxConfigurer {
             log.warn(SchedulerConfig.buildInvalidMaxQueuedMessage(maxQueued));
             maxQueued = SchedulerConfig.DEFAULT_MAX_QUEUED;
         }
-        log.info("configured catalogScheduler: maxThreads={}, maxQueued={}", maxThreads, maxQueued);
-        return Schedulers.newBoundedElastic(maxThreads, maxQueued, "catalogScheduler");
+        SchedulerConfig.Mode mode = schedulerConfig.getMode();
+        log.info(
+                "configured catalogScheduler: mode={}, maxThreads={}, maxQueued={}",
+                mode,
+                maxThreads,
+                maxQueued);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (mode == SchedulerConfig.Mode.VIRTUAL) {
+            return CatalogSchedulerFactory.virtualThreads(maxThreads, maxQueued, registry);
+        }
+        return CatalogSchedulerFactory.boundedElastic(maxThreads, maxQueued, registry);
     }
 
     /**
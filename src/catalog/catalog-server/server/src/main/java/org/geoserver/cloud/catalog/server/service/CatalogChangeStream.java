@@ -0,0 +1,241 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.cloud.catalog.server.config.CatalogServerConfigProperties;
+import org.geoserver.cloud.catalog.server.config.CatalogServerConfigProperties.ChangeStreamConfig;
+import org.geoserver.cloud.event.catalog.CatalogInfoAdded;
+import org.geoserver.cloud.event.catalog.CatalogInfoModified;
+import org.geoserver.cloud.event.info.ConfigInfoType;
+import org.geoserver.cloud.event.info.InfoChange;
+import org.geoserver.cloud.event.info.InfoEvent;
+import org.geoserver.platform.config.UpdateSequence;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the most recent catalog and config changes performed through this service, and streams
+ * them to subscribers in the order they're published, with the full state of the changed objects.
+ *
+ * <p>The update sequence is assigned before the change is published, so concurrent changes may
+ * get here out of update sequence order. Each change is hence given a {@link StreamedChange#getId()
+ * stream id} as it's published, that subscribers shall use as the resume token instead of the
+ * update sequence, which is still carried by the {@link InfoChange} itself.
+ *
+ * <p>Subscribers resuming the stream get the changes after the last stream id they've seen
+ * replayed from a buffer of the most recent {@link ChangeStreamConfig#getBufferSize() buffer-size}
+ * changes, or a {@link InfoChange#isReset() reset} signal if those are no longer available, or the
+ * stream id comes from another service instance or a previous run of this one. A subscriber falling
+ * {@code buffer-size} changes behind is disconnected, and expected to resume.
+ *
+ * <p>Changes received from other service instances through the event bus are streamed too, so
+ * that subscribers get all the changes regardless of the instance they're connected to. Those
+ * don't carry the changed object though, as this instance's view of it may not be up to date yet
+ * when the event gets here, and hence make subscribers evict instead of caching it.
+ */
+@Service
+@Slf4j(topic = "org.geoserver.cloud.catalog.server.service")
+public class CatalogChangeStream {
+
+    private final BlockingCatalog catalog;
+
+    private final boolean enabled;
+    private final int bufferSize;
+
+    /** Prefix of the stream ids of this instance, tells them apart from those of other runs */
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    /** Most recent changes in stream position order, guarded by itself */
+    private final Deque<StreamedChange> buffer = new ArrayDeque<>();
+
+    /** Position of the last published change, guarded by {@link #buffer} */
+    private long position;
+
+    /** Position of the most recent change no longer in {@link #buffer} */
+    private long evictedPosition;
+
+    /**
+     * Update sequence of the most recent change no longer in {@link #buffer}, initially the one at
+     * startup, since earlier changes were not recorded
+     */
+    private long evictedSequence;
+
+    private final List<Sinks.Many<StreamedChange>> subscribers = new CopyOnWriteArrayList<>();
+
+    public CatalogChangeStream(
+            BlockingCatalog catalog,
+            CatalogServerConfigProperties config,
+            ObjectProvider<UpdateSequence> updateSequence) {
+        this.catalog = catalog;
+        ChangeStreamConfig changeStream = config.getChangeStream();
+        this.enabled = changeStream.isEnabled();
+        this.bufferSize =
+                changeStream.getBufferSize() > 0
+                        ? changeStream.getBufferSize()
+                        : ChangeStreamConfig.DEFAULT_BUFFER_SIZE;
+        UpdateSequence sequence = enabled ? updateSequence.getIfAvailable() : null;
+        this.evictedSequence = sequence == null ? -1L : sequence.currValue();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(InfoEvent.class)
+    public void onInfoEvent(InfoEvent<?, ?> event) {
+        if (enabled) {
+            CatalogInfo object = event.isLocal() ? resolveObject(event) : null;
+            publish(InfoChange.valueOf(event, object));
+        }
+    }
+
+    /**
+     * @param after the last {@link StreamedChange#getId() stream id} the subscriber has seen, or
+     *     {@code null} to receive only the changes happening from now on
+     * @return the changes after {@code after}, preceded by a {@link InfoChange#reset(long) reset}
+     *     signal if some of them are no longer available
+     */
+    public Flux<StreamedChange> changes(@Nullable String after) {
+        return Flux.defer(
+                () -> {
+                    // room for the whole buffer plus the reset signal
+                    Queue<StreamedChange> queue = Queues.<StreamedChange>get(bufferSize + 1).get();
+                    Sinks.Many<StreamedChange> sink =
+                            Sinks.many().unicast().onBackpressureBuffer(queue);
+                    synchronized (buffer) {
+                        if (after != null) {
+                            final long since = positionOf(after);
+                            if (since < evictedPosition) {
+                                InfoChange reset = InfoChange.reset(evictedSequence);
+                                sink.tryEmitNext(new StreamedChange(id(evictedPosition), reset));
+                            }
+                            buffer.stream()
+                                    .filter(c -> c.getPosition() > since)
+                                    .forEach(sink::tryEmitNext);
+                        }
+                        subscribers.add(sink);
+                    }
+                    return sink.asFlux().doFinally(signal -> subscribers.remove(sink));
+                });
+    }
+
+    /**
+     * Assigns the change the next stream position, buffers it, and emits it to the current
+     * subscribers, all while holding the buffer lock, so that subscribers get the changes in
+     * stream position order.
+     *
+     * @return the published change, along with its stream id
+     */
+    StreamedChange publish(InfoChange change) {
+        synchronized (buffer) {
+            StreamedChange streamed = new StreamedChange(++position, id(position), change);
+            buffer.addLast(streamed);
+            if (buffer.size() > bufferSize) {
+                StreamedChange evicted = buffer.removeFirst();
+                evictedPosition = evicted.getPosition();
+                evictedSequence =
+                        Math.max(evictedSequence, evicted.getChange().getUpdateSequence());
+            }
+            for (Sinks.Many<StreamedChange> subscriber : subscribers) {
+                Sinks.EmitResult result = subscriber.tryEmitNext(streamed);
+                if (result.isFailure()) {
+                    log.info("Disconnecting change stream subscriber: {}", result);
+                    subscribers.remove(subscriber);
+                    subscriber.tryEmitComplete();
+                }
+            }
+            return streamed;
+        }
+    }
+
+    private String id(long position) {
+        return epoch + "-" + position;
+    }
+
+    /**
+     * @return the stream position of {@code id}, or {@code -1} if it's not a stream id of this
+     *     instance, for the subscriber to get a reset signal
+     */
+    private long positionOf(String id) {
+        final String prefix = epoch + "-";
+        if (id.startsWith(prefix)) {
+            try {
+                return Long.parseLong(id.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                log.debug("Invalid change stream id: {}", id);
+            }
+        }
+        return -1L;
+    }
+
+    /** A published {@link InfoChange} along with its stream position and id */
+    public static final class StreamedChange {
+        private final long position;
+        private final String id;
+        private final InfoChange change;
+
+        StreamedChange(String id, InfoChange reset) {
+            this(-1L, id, reset);
+        }
+
+        StreamedChange(long position, String id, InfoChange change) {
+            this.position = position;
+            this.id = id;
+            this.change = change;
+        }
+
+        long getPosition() {
+            return position;
+        }
+
+        /** @return the resume token for subscribers to get the changes after this one */
+        public String getId() {
+            return id;
+        }
+
+        public InfoChange getChange() {
+            return change;
+        }
+
+        public @Override String toString() {
+            return String.format("StreamedChange[%s, %s]", id, change);
+        }
+    }
+
+    /**
+     * @return the object state after the change for catalog add and modify events, {@code null}
+     *     otherwise
+     */
+    private @Nullable CatalogInfo resolveObject(InfoEvent<?, ?> event) {
+        if (event instanceof CatalogInfoAdded) {
+            return ((CatalogInfoAdded) event).getObject();
+        }
+        ConfigInfoType objectType = event.getObjectType();
+        if (CatalogInfoModified.class.equals(event.getClass())
+                && objectType != ConfigInfoType.Catalog) {
+            @SuppressWarnings("unchecked")
+            Class<? extends CatalogInfo> type =
+                    (Class<? extends CatalogInfo>) objectType.getType();
+            return catalog.get(event.getObjectId(), type);
+        }
+        return null;
+    }
+}
@@ -41,6 +41,15 @@ public interface ReactiveCatalog {
 
     <C extends CatalogInfo> Flux<C> query(@NonNull Query<C> query);
 
+    /**
+     * Keyset paging variant of {@link #query(Query)}, returns the objects matching {@code query}
+     * in id order, starting right after the object with id {@code after} (the continuation token,
+     * the id of the last object of the previous page), or from the first one if {@code null}.
+     *
+     * @throws IllegalArgumentException if {@code query} is sorted by any other property than id
+     */
+    <C extends CatalogInfo> Flux<C> query(@NonNull Query<C> query, String after);
+
     <C extends CatalogInfo> Mono<Long> count(@NonNull Class<C> type, @NonNull Filter filter);
 
     Mono<WorkspaceInfo> setDefaultWorkspace(@NonNull WorkspaceInfo workspace);
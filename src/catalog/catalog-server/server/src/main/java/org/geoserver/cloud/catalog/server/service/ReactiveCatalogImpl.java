@@ -19,15 +19,22 @@ import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.plugin.Patch;
 import org.geoserver.catalog.plugin.Query;
+import org.geoserver.cloud.catalog.server.config.CatalogServerConfigProperties;
+import org.geoserver.cloud.catalog.server.config.CatalogServerConfigProperties.QueryConfig;
 import org.geoserver.function.IsInstanceOf;
+import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.filter.FunctionFinder;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.locationtech.jts.geom.Geometry;
 import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory;
 import org.opengis.filter.capability.FunctionName;
+import org.opengis.filter.sort.SortBy;
+import org.opengis.filter.sort.SortOrder;
 import org.opengis.parameter.Parameter;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import reactor.core.publisher.Flux;
@@ -47,8 +54,12 @@ import java.util.stream.Stream;
 @Slf4j
 public class ReactiveCatalogImpl implements ReactiveCatalog {
 
+    private static final FilterFactory FF = CommonFactoryFinder.getFilterFactory(null);
+
     private Scheduler catalogScheduler;
 
+    private int queryBatchSize = QueryConfig.DEFAULT_BATCH_SIZE;
+
     private BlockingCatalog blockingCatalog;
 
     /**
@@ -58,9 +69,19 @@ public class ReactiveCatalogImpl implements ReactiveCatalog {
 
     public ReactiveCatalogImpl(
             BlockingCatalog blockingCatalog,
-            @Qualifier("catalogScheduler") Scheduler catalogScheduler) {
+            @Qualifier("catalogScheduler") Scheduler catalogScheduler,
+            CatalogServerConfigProperties config) {
         this.blockingCatalog = blockingCatalog;
         this.catalogScheduler = catalogScheduler;
+        int batchSize = config.getQuery().getBatchSize();
+        if (batchSize > 0) {
+            this.queryBatchSize = batchSize;
+        } else {
+            log.warn(
+                    "Invalid value for geoserver.catalog-service.query.batch-size={}, using {}",
+                    batchSize,
+                    this.queryBatchSize);
+        }
     }
 
     private <T> Mono<T> async(Callable<T> callable) {
@@ -105,11 +126,38 @@ public class ReactiveCatalogImpl implements ReactiveCatalog {
     }
 
     public @Override <C extends CatalogInfo> Flux<C> query(@NonNull Query<C> query) {
-        log.debug(
-                "Processing request query of {} with filter {}",
-                query.getType().getSimpleName(),
-                query.getFilter());
-        return Flux.fromStream(() -> blockingCatalog.query(query)).subscribeOn(catalogScheduler);
+        final String typeName = query.getType().getSimpleName();
+        log.debug("Processing request query of {} with filter {}", typeName, query.getFilter());
+        // Flux.fromStream pulls from the backend iterator only as objects are requested
+        // downstream, and closes the stream (hence the iterator) on completion or cancellation,
+        // as when the client closes the connection before consuming all the results
+        return Flux.fromStream(() -> blockingCatalog.query(query))
+                .subscribeOn(catalogScheduler)
+                .limitRate(queryBatchSize)
+                .doOnCancel(() -> log.debug("Query of {} cancelled", typeName));
+    }
+
+    public @Override <C extends CatalogInfo> Flux<C> query(
+            @NonNull Query<C> query, @Nullable String after) {
+        return Flux.defer(() -> query(keysetPage(query, after)));
+    }
+
+    private <C extends CatalogInfo> Query<C> keysetPage(Query<C> query, @Nullable String after) {
+        for (SortBy sortBy : query.getSortBy()) {
+            if (!"id".equals(sortBy.getPropertyName().getPropertyName())
+                    || !SortOrder.ASCENDING.equals(sortBy.getSortOrder())) {
+                throw new IllegalArgumentException(
+                        "Continuation tokens require queries sorted by ascending id only");
+            }
+        }
+        Filter filter = query.getFilter();
+        if (after != null) {
+            // the in-memory catalog seeks to the first id after the token, see QueryPlanner
+            Filter cursor = FF.greater(FF.property("id"), FF.literal(after));
+            filter = Filter.INCLUDE.equals(filter) ? cursor : FF.and(filter, cursor);
+        }
+        SortBy idOrder = FF.sort("id", SortOrder.ASCENDING);
+        return new Query<>(query).setFilter(filter).setOffset(null).setSortBy(List.of(idOrder));
     }
 
     public @Override <C extends CatalogInfo> Mono<Long> count(
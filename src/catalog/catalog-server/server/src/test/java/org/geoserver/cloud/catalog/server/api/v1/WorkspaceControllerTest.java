@@ -9,11 +9,25 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.geoserver.catalog.Predicates;
 import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.plugin.CatalogOperation;
+import org.geoserver.catalog.plugin.CatalogOperationResult;
+import org.geoserver.catalog.plugin.CatalogOperationResult.Status;
+import org.geoserver.catalog.plugin.Patch;
+import org.geoserver.catalog.plugin.Query;
+import org.geoserver.jackson.databind.catalog.CatalogInfoETag;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 @AutoConfigureWebTestClient(timeout = "360000")
 public class WorkspaceControllerTest extends AbstractReactiveCatalogControllerTest<WorkspaceInfo> {
 
@@ -120,4 +134,175 @@ public class WorkspaceControllerTest extends AbstractReactiveCatalogControllerTe
                         .getResponseBody();
         assertEquals(expected, actual);
     }
+
+    public @Test void testQueryPage() {
+        List<String> expected =
+                Stream.of(testData.workspaceA, testData.workspaceB, testData.workspaceC)
+                        .map(WorkspaceInfo::getId)
+                        .sorted()
+                        .collect(Collectors.toList());
+        Query<WorkspaceInfo> query = Query.<WorkspaceInfo>all(WorkspaceInfo.class).setCount(2);
+
+        List<String> page1 = queryPage(query, "/workspaces/query/page");
+        assertEquals(expected.subList(0, 2), page1);
+
+        List<String> page2 = queryPage(query, "/workspaces/query/page?after=" + page1.get(1));
+        assertEquals(expected.subList(2, 3), page2);
+
+        // continuation tokens require id order
+        query.setSortBy(List.of(Predicates.sortBy("name", true)));
+        client().doPost(query, "/workspaces/query/page").expectStatus().isBadRequest();
+    }
+
+    private List<String> queryPage(Query<WorkspaceInfo> query, String uri) {
+        return client().doPost(query, uri)
+                .expectStatus()
+                .isOk()
+                .expectBodyList(WorkspaceInfo.class)
+                .returnResult()
+                .getResponseBody()
+                .stream()
+                .map(WorkspaceInfo::getId)
+                .collect(Collectors.toList());
+    }
+
+    public @Test void testBatch() {
+        WorkspaceInfo ws1 = testData.faker().workspaceInfo("batch1");
+        WorkspaceInfo ws2 = testData.faker().workspaceInfo("batch2");
+        Flux<CatalogOperation> operations =
+                Flux.just(
+                        CatalogOperation.add(ws1),
+                        CatalogOperation.remove("non-existent-ws-id"),
+                        CatalogOperation.add(ws2),
+                        CatalogOperation.update(ws1.getId(), new Patch().with("isolated", true)),
+                        // duplicate name fails, but does not abort the batch
+                        CatalogOperation.add(testData.faker().workspaceInfo(ws2.getName())),
+                        CatalogOperation.remove(ws2.getId()));
+
+        List<CatalogOperationResult> results =
+                webtTestClient()
+                        .post()
+                        .uri(ReactiveCatalogController.BASE_URI + "/workspaces/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .body(operations, CatalogOperation.class)
+                        .exchange()
+                        .expectStatus()
+                        .isOk()
+                        .expectBodyList(CatalogOperationResult.class)
+                        .returnResult()
+                        .getResponseBody();
+
+        assertEquals(6, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals(Status.OK, results.get(0).getStatus());
+        assertEquals(Status.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(Status.OK, results.get(2).getStatus());
+        assertEquals(Status.OK, results.get(3).getStatus());
+        assertEquals(Status.ERROR, results.get(4).getStatus());
+        assertNotNull(results.get(4).getError());
+        assertEquals(Status.OK, results.get(5).getStatus());
+
+        assertTrue(catalog.getWorkspace(ws1.getId()).isIsolated());
+        assertNull(catalog.getWorkspace(ws2.getId()));
+    }
+
+    public @Test void testFindByIdSmile() {
+        MediaType smile = MediaType.valueOf(ReactiveCatalogController.APPLICATION_SMILE_VALUE);
+        WorkspaceInfo expected = testData.workspaceA;
+        String uri = ReactiveCatalogController.BASE_URI + "/workspaces/{id}";
+        WorkspaceInfo actual =
+                webtTestClient()
+                        .get()
+                        .uri(uri, expected.getId())
+                        .accept(smile, MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .expectStatus()
+                        .isOk()
+                        .expectHeader()
+                        .contentTypeCompatibleWith(smile)
+                        .expectBody(WorkspaceInfo.class)
+                        .returnResult()
+                        .getResponseBody();
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+    }
+
+    public @Test void testFindAllSmileStream() {
+        MediaType smileStream =
+                MediaType.valueOf(ReactiveCatalogController.APPLICATION_STREAM_SMILE_VALUE);
+        List<WorkspaceInfo> actual =
+                webtTestClient()
+                        .get()
+                        .uri(ReactiveCatalogController.BASE_URI + "/workspaces")
+                        .accept(smileStream, MediaType.APPLICATION_STREAM_JSON)
+                        .exchange()
+                        .expectStatus()
+                        .isOk()
+                        .expectHeader()
+                        .contentTypeCompatibleWith(smileStream)
+                        .expectBodyList(WorkspaceInfo.class)
+                        .returnResult()
+                        .getResponseBody();
+        assertEquals(3, actual.size());
+    }
+
+    public @Test void testFindAllDefaultsToJson() {
+        webtTestClient()
+                .get()
+                .uri(ReactiveCatalogController.BASE_URI + "/workspaces")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_STREAM_JSON);
+    }
+
+    public @Test void testFindByIdIfNoneMatch() {
+        WorkspaceInfo ws = catalog.getWorkspace(testData.workspaceA.getId());
+        String uri = ReactiveCatalogController.BASE_URI + "/workspaces/{id}";
+        String etag =
+                webtTestClient()
+                        .get()
+                        .uri(uri, ws.getId())
+                        .exchange()
+                        .expectStatus()
+                        .isOk()
+                        .returnResult(WorkspaceInfo.class)
+                        .getResponseHeaders()
+                        .getETag();
+        assertEquals(CatalogInfoETag.of(ws), etag);
+
+        webtTestClient()
+                .get()
+                .uri(uri, ws.getId())
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectBody()
+                .isEmpty();
+
+        ws.setIsolated(!ws.isIsolated());
+        catalog.save(ws);
+        webtTestClient()
+                .get()
+                .uri(uri, ws.getId())
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, CatalogInfoETag.of(ws));
+
+        webtTestClient()
+                .get()
+                .uri(uri, "non-existent-ws-id")
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.server.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+public class CatalogSchedulerFactoryTest {
+
+    private Scheduler scheduler;
+
+    public @AfterEach void dispose() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    public @Test void testVirtualThreadsShedsLoadWhenQueueIsFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scheduler = CatalogSchedulerFactory.virtualThreads(1, 1, registry);
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mono<String> busy =
+                Mono.fromCallable(
+                                () -> {
+                                    running.countDown();
+                                    release.await();
+                                    return "busy";
+                                })
+                        .subscribeOn(scheduler);
+        Mono<String> queued = Mono.fromCallable(() -> "queued").subscribeOn(scheduler);
+        Mono<String> rejected = Mono.fromCallable(() -> "rejected").subscribeOn(scheduler);
+
+        CompletableFuture<String> busyResult = busy.toFuture();
+        running.await();
+        CompletableFuture<String> queuedResult = queued.toFuture();
+        assertEquals(
+                1.0,
+                registry.get("executor.queued").tag("name", "catalogScheduler").gauge().value());
+
+        assertThrows(RejectedExecutionException.class, rejected::block);
+
+        release.countDown();
+        assertEquals("busy", busyResult.get());
+        assertEquals("queued", queuedResult.get());
+    }
+
+    public @Test void testBoundedElasticMetricsOnlyInstrumentItsExecutors() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scheduler = CatalogSchedulerFactory.boundedElastic(2, 10, registry);
+        Scheduler other = Schedulers.newBoundedElastic(2, 10, "other");
+        try {
+            assertEquals("done", Mono.just("done").subscribeOn(scheduler).block());
+            assertEquals("done", Mono.just("done").subscribeOn(other).block());
+        } finally {
+            other.dispose();
+        }
+
+        assertFalse(registry.getMeters().isEmpty());
+        registry.getMeters()
+                .forEach(
+                        meter ->
+                                assertEquals(
+                                        CatalogSchedulerFactory.NAME,
+                                        meter.getId().getTag("name"),
+                                        meter.getId().toString()));
+        assertNotNull(
+                registry.find("executor.completed")
+                        .tag("name", CatalogSchedulerFactory.NAME)
+                        .functionCounter());
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.catalog.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.event.impl.CatalogAddEventImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.cloud.catalog.server.config.CatalogServerConfigProperties;
+import org.geoserver.cloud.catalog.server.service.CatalogChangeStream.StreamedChange;
+import org.geoserver.cloud.event.catalog.CatalogInfoAdded;
+import org.geoserver.cloud.event.catalog.CatalogInfoRemoved;
+import org.geoserver.cloud.event.info.InfoChange;
+import org.geoserver.platform.config.UpdateSequence;
+import org.geotools.jackson.databind.util.ObjectMapperUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class CatalogChangeStreamTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private CatalogChangeStream changeStream;
+
+    /** Stream ids of the published changes by update sequence */
+    private Map<Long, String> ids = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public @BeforeEach void setup() {
+        CatalogServerConfigProperties config = new CatalogServerConfigProperties();
+        config.getChangeStream().setEnabled(true);
+        config.getChangeStream().setBufferSize(3);
+
+        UpdateSequence updateSequence = mock(UpdateSequence.class);
+        when(updateSequence.currValue()).thenReturn(10L);
+        ObjectProvider<UpdateSequence> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(updateSequence);
+
+        changeStream = new CatalogChangeStream(mock(BlockingCatalog.class), config, provider);
+    }
+
+    private void publish(long... updateSequences) {
+        for (long updateSequence : updateSequences) {
+            WorkspaceInfoImpl workspace = new WorkspaceInfoImpl();
+            workspace.setId("ws-" + updateSequence);
+            CatalogInfoRemoved event = CatalogInfoRemoved.createLocal(updateSequence, workspace);
+            StreamedChange published = changeStream.publish(InfoChange.valueOf(event, null));
+            ids.put(updateSequence, published.getId());
+        }
+    }
+
+    private List<Long> sequences(List<StreamedChange> changes) {
+        return changes.stream()
+                .map(StreamedChange::getChange)
+                .map(InfoChange::getUpdateSequence)
+                .collect(Collectors.toList());
+    }
+
+    public @Test void testResumeReplaysThenStreamsLiveChanges() throws Exception {
+        publish(11, 12, 13);
+
+        CompletableFuture<List<StreamedChange>> received =
+                changeStream.changes(ids.get(11L)).take(4).collectList().toFuture();
+        publish(14, 15);
+
+        List<StreamedChange> changes = received.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertEquals(List.of(12L, 13L, 14L, 15L), sequences(changes));
+        assertFalse(changes.get(0).getChange().isReset());
+        assertEquals("ws-12", changes.get(0).getChange().getEvent().getObjectId());
+        assertEquals(ids.get(12L), changes.get(0).getId());
+    }
+
+    public @Test void testNewSubscriberOnlyGetsLiveChanges() throws Exception {
+        publish(11, 12);
+
+        CompletableFuture<List<StreamedChange>> received =
+                changeStream.changes(null).take(1).collectList().toFuture();
+        publish(13);
+
+        assertEquals(
+                List.of(13L),
+                sequences(received.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)));
+    }
+
+    public @Test void testResetWhenResumingBeforeBufferedChanges() {
+        // buffer size is 3, changes 11 and 12 get evicted
+        publish(11, 12, 13, 14, 15);
+
+        List<StreamedChange> changes =
+                changeStream.changes(ids.get(11L)).take(4).collectList().block(TIMEOUT);
+        assertTrue(changes.get(0).getChange().isReset());
+        assertEquals(ids.get(12L), changes.get(0).getId(), "expected to resume after the reset");
+        assertEquals(List.of(12L, 13L, 14L, 15L), sequences(changes));
+
+        changes = changeStream.changes(ids.get(12L)).take(3).collectList().block(TIMEOUT);
+        assertFalse(changes.get(0).getChange().isReset());
+        assertEquals(List.of(13L, 14L, 15L), sequences(changes));
+    }
+
+    public @Test void testResetWhenResumingFromAnotherRun() {
+        publish(11);
+        List<StreamedChange> changes =
+                changeStream.changes("unknown-1").take(2).collectList().block(TIMEOUT);
+        assertTrue(changes.get(0).getChange().isReset());
+        assertEquals(List.of(10L, 11L), sequences(changes));
+    }
+
+    public @Test void testStreamsChangesInPublishOrder() {
+        publish(11, 13, 12, 14);
+
+        List<StreamedChange> changes =
+                changeStream.changes(ids.get(11L)).take(3).collectList().block(TIMEOUT);
+        assertFalse(changes.get(0).getChange().isReset());
+        assertEquals(List.of(13L, 12L, 14L), sequences(changes));
+    }
+
+    public @Test void testResumeAfterOutOfOrderChange() throws Exception {
+        publish(11);
+        // a live subscriber gets 13, and disconnects before the late change 12 is published
+        CompletableFuture<List<StreamedChange>> received =
+                changeStream.changes(ids.get(11L)).take(1).collectList().toFuture();
+        publish(13);
+        List<StreamedChange> live = received.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertEquals(List.of(13L), sequences(live));
+        publish(12);
+
+        String resumeAfter = live.get(0).getId();
+        List<StreamedChange> changes =
+                changeStream.changes(resumeAfter).take(1).collectList().block(TIMEOUT);
+        assertEquals(List.of(12L), sequences(changes), "the late change shall not be missed");
+    }
+
+    public @Test void testStreamsRemoteChangesWithoutObject() throws Exception {
+        WorkspaceInfoImpl workspace = new WorkspaceInfoImpl();
+        workspace.setId("ws-id");
+        CatalogAddEventImpl addEvent = new CatalogAddEventImpl();
+        addEvent.setSource(workspace);
+
+        CompletableFuture<List<StreamedChange>> received =
+                changeStream.changes(null).take(2).collectList().toFuture();
+
+        changeStream.onInfoEvent(CatalogInfoAdded.createLocal(11L, addEvent));
+        CatalogInfoAdded remote = CatalogInfoAdded.createLocal(12L, addEvent);
+        remote.setRemote(true);
+        changeStream.onInfoEvent(remote);
+
+        List<StreamedChange> changes = received.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertEquals(List.of(11L, 12L), sequences(changes));
+        assertSame(workspace, changes.get(0).getChange().getObject());
+        assertSame(remote, changes.get(1).getChange().getEvent());
+        assertNull(changes.get(1).getChange().getObject());
+    }
+
+    public @Test void testInfoChangeJsonRoundTrip() throws Exception {
+        ObjectMapper mapper = ObjectMapperUtil.newObjectMapper();
+
+        WorkspaceInfoImpl workspace = new WorkspaceInfoImpl();
+        workspace.setId("ws-id");
+        workspace.setName("ws");
+        CatalogAddEventImpl addEvent = new CatalogAddEventImpl();
+        addEvent.setSource(workspace);
+        InfoChange added =
+                InfoChange.valueOf(CatalogInfoAdded.createLocal(11L, addEvent), workspace);
+
+        InfoChange decoded = mapper.readValue(mapper.writeValueAsString(added), InfoChange.class);
+        assertEquals(11L, decoded.getUpdateSequence());
+        assertTrue(decoded.getEvent() instanceof CatalogInfoAdded);
+        assertTrue(decoded.getObject() instanceof WorkspaceInfo);
+        assertEquals("ws-id", decoded.getObject().getId());
+        assertEquals("ws", ((WorkspaceInfo) decoded.getObject()).getName());
+
+        InfoChange removed =
+                InfoChange.valueOf(CatalogInfoRemoved.createLocal(12L, workspace), null);
+        decoded = mapper.readValue(mapper.writeValueAsString(removed), InfoChange.class);
+        assertTrue(decoded.getEvent() instanceof CatalogInfoRemoved);
+        assertEquals("ws-id", decoded.getEvent().getObjectId());
+        assertNull(decoded.getObject());
+
+        decoded =
+                mapper.readValue(
+                        mapper.writeValueAsString(InfoChange.reset(13L)), InfoChange.class);
+        assertTrue(decoded.isReset());
+        assertEquals(13L, decoded.getUpdateSequence());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.event.info;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.lang.Nullable;
+
+/**
+ * Element of the catalog change stream: an {@link InfoEvent} along with the state of the object it
+ * refers to right after the change, so that subscribers can apply it without fetching the object.
+ *
+ * <p>An {@code InfoChange} with no {@link #getEvent() event} is a <em>reset</em> signal, meaning
+ * the stream can't be resumed from the requested update sequence and any state derived from it
+ * shall be discarded.
+ */
+public class InfoChange {
+
+    private @Getter @Setter long updateSequence;
+
+    private @Getter @Setter InfoEvent<?, ?> event;
+
+    /**
+     * The object after the change, {@code null} for removals, and for events that don't refer to a
+     * single object (e.g. setting the default workspace). Typed as {@link CatalogInfo} for it to be
+     * deserialized through its type bound, as {@code InfoAdded} does
+     */
+    private @Getter @Setter CatalogInfo object;
+
+    protected InfoChange() {}
+
+    protected InfoChange(long updateSequence, InfoEvent<?, ?> event, CatalogInfo object) {
+        this.updateSequence = updateSequence;
+        this.event = event;
+        this.object = object;
+    }
+
+    public static InfoChange valueOf(@NonNull InfoEvent<?, ?> event, @Nullable CatalogInfo object) {
+        return new InfoChange(event.getUpdateSequence(), event, object);
+    }
+
+    public static InfoChange reset(long updateSequence) {
+        return new InfoChange(updateSequence, null, null);
+    }
+
+    @JsonIgnore
+    public boolean isReset() {
+        return event == null;
+    }
+
+    public @Override String toString() {
+        return new ToStringCreator(this)
+                .append("updateSequence", updateSequence)
+                .append("event", event)
+                .toString();
+    }
+}
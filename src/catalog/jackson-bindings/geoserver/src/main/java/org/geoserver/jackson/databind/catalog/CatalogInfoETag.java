@@ -0,0 +1,83 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.jackson.databind.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import lombok.NonNull;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geotools.jackson.databind.util.ObjectMapperUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes weak HTTP entity tags for {@link CatalogInfo} objects, as a digest of their {@link
+ * GeoServerCatalogModule} encoded representation.
+ *
+ * <p>Since references to other catalog objects are encoded by id, an object's entity tag only
+ * changes when the object itself does, and not when the objects it refers to are modified.
+ */
+public class CatalogInfoETag {
+
+    private static final ObjectMapper MAPPER =
+            ObjectMapperUtil.newObjectMapper(new SmileFactory())
+                    .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private CatalogInfoETag() {
+        // private constructor, utility class
+    }
+
+    /** @return the weak entity tag for {@code info}, like in {@code W/"<hex digest>"} */
+    public static String of(@NonNull CatalogInfo info) {
+        MessageDigest digest = newDigest();
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            MAPPER.writeValue(out, info);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return "W/\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+    }
+
+    /**
+     * Weak comparison of {@code etag} against the values of an {@code If-None-Match} request
+     * header
+     *
+     * @return {@code true} if {@code ifNoneMatch} is {@code *} or contains {@code etag}
+     */
+    public static boolean matches(@NonNull String etag, String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        final String opaqueTag = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if ("*".equals(candidate) || opaqueTag.equals(opaque(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.jackson.databind.snapshot;
+
+import lombok.Data;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.MapInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.plugin.CatalogPlugin;
+import org.geoserver.catalog.plugin.DefaultMemoryCatalogFacade;
+import org.geoserver.catalog.plugin.resolving.CatalogPropertyResolver;
+import org.geoserver.catalog.plugin.resolving.CollectionPropertiesInitializer;
+import org.geoserver.catalog.plugin.resolving.ResolvingProxyResolver;
+import org.geoserver.platform.config.UpdateSequence;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory representation of a {@link CatalogSnapshotCodec catalog snapshot}: the full catalog
+ * contents, tagged with the {@link UpdateSequence} value they were taken at.
+ *
+ * <p>{@link #getCatalog() Catalog objects} are held in dependency order, and their references to
+ * other catalog objects are unresolved {@code ResolvingProxy} instances until {@link
+ * #restore(CatalogPlugin) restored} to a catalog.
+ *
+ * @since 1.0
+ */
+@Data
+@Slf4j(topic = "org.geoserver.jackson.databind.snapshot")
+public class CatalogSnapshot {
+
+    public static @Data class Header {
+        private int version;
+        private long updateSequence;
+        /** Creation time, in milliseconds since the epoch */
+        private long timestamp;
+
+        /**
+         * Opaque fingerprint of the source the catalog was loaded from, for the snapshot not to be
+         * used if the source changed without the update sequence changing, {@code null} if unknown
+         */
+        private String fingerprint;
+
+        private String defaultWorkspace;
+        private String defaultNamespace;
+
+        /** Default data store id by workspace id */
+        private Map<String, String> defaultDataStores = new LinkedHashMap<>();
+    }
+
+    private Header header = new Header();
+
+    private List<CatalogInfo> catalog = new ArrayList<>();
+
+    /**
+     * Replaces the contents of the {@code target} catalog by this snapshot's catalog objects. Like
+     * when loading the catalog from the data directory, no catalog events are published.
+     */
+    public void restore(@NonNull CatalogPlugin target) {
+        final DefaultMemoryCatalogFacade facade = new DefaultMemoryCatalogFacade();
+        final CatalogPlugin temp = new CatalogPlugin(facade);
+
+        final ResolvingProxyResolver<CatalogInfo> proxyResolver =
+                ResolvingProxyResolver.<CatalogInfo>of(temp).memoizing();
+        final Function<CatalogInfo, CatalogInfo> resolver =
+                CollectionPropertiesInitializer.<CatalogInfo>instance()
+                        .andThen(CatalogPropertyResolver.of(target))
+                        .andThen(proxyResolver);
+
+        for (CatalogInfo info : catalog) {
+            try {
+                add(facade, resolver.apply(info));
+            } catch (RuntimeException e) {
+                String type = info.getClass().getSimpleName();
+                log.error("Error restoring {} {}", type, info.getId(), e);
+            }
+        }
+        if (header.getDefaultWorkspace() != null) {
+            facade.setDefaultWorkspace(facade.getWorkspace(header.getDefaultWorkspace()));
+        }
+        if (header.getDefaultNamespace() != null) {
+            facade.setDefaultNamespace(facade.getNamespace(header.getDefaultNamespace()));
+        }
+        header.getDefaultDataStores()
+                .forEach(
+                        (workspaceId, storeId) -> {
+                            WorkspaceInfo ws = facade.getWorkspace(workspaceId);
+                            DataStoreInfo ds = facade.getStore(storeId, DataStoreInfo.class);
+                            if (ws != null && ds != null) facade.setDefaultDataStore(ws, ds);
+                        });
+        facade.syncTo(target.getRawFacade());
+        // syncTo sets the source catalog on the target facade, restore it
+        target.getFacade().setCatalog(target);
+    }
+
+    private void add(DefaultMemoryCatalogFacade facade, CatalogInfo info) {
+        if (info instanceof WorkspaceInfo) facade.add((WorkspaceInfo) info);
+        else if (info instanceof NamespaceInfo) facade.add((NamespaceInfo) info);
+        else if (info instanceof StoreInfo) facade.add((StoreInfo) info);
+        else if (info instanceof ResourceInfo) facade.add((ResourceInfo) info);
+        else if (info instanceof LayerInfo) facade.add((LayerInfo) info);
+        else if (info instanceof LayerGroupInfo) facade.add((LayerGroupInfo) info);
+        else if (info instanceof StyleInfo) facade.add((StyleInfo) info);
+        else if (info instanceof MapInfo) facade.add((MapInfo) info);
+        else throw new IllegalArgumentException("Unknown CatalogInfo type: " + info);
+    }
+}
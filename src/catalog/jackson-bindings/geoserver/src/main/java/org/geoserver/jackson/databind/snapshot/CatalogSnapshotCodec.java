@@ -0,0 +1,300 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.jackson.databind.snapshot;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.Info;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.ModificationProxy;
+import org.geoserver.catalog.util.CloseableIterator;
+import org.geotools.jackson.databind.util.ObjectMapperUtil;
+import org.opengis.filter.Filter;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Encodes and decodes {@link CatalogSnapshot catalog snapshots} using Jackson's binary <a
+ * href="https://github.com/FasterXML/smile-format-specification">Smile</a> format and the {@link
+ * org.geoserver.jackson.databind.catalog.GeoServerCatalogModule catalog} jackson bindings.
+ *
+ * <p>A snapshot is a single object with the following fields, in this order, so that the {@link
+ * #readHeader(Path) header} can be read without decoding the whole snapshot, and the contents can
+ * be written and read in a streaming fashion:
+ *
+ * <ul>
+ *   <li>{@literal header}: the {@link CatalogSnapshot.Header}, including the {@link
+ *       org.geoserver.platform.config.UpdateSequence} value the snapshot was taken at, an optional
+ *       fingerprint of the source the catalog was loaded from, and the default workspace,
+ *       namespace, and data stores
+ *   <li>{@literal catalog}: array of all {@link CatalogInfo}s in dependency order
+ * </ul>
+ *
+ * <p>The configuration ({@code GeoServerInfo}, {@code LoggingInfo}, settings, and services) is not
+ * part of the snapshot, it's loaded from the data directory as usual.
+ *
+ * @since 1.0
+ */
+@Slf4j(topic = "org.geoserver.jackson.databind.snapshot")
+public class CatalogSnapshotCodec {
+
+    public static final int VERSION = 2;
+
+    private static final String HEADER = "header";
+    private static final String CATALOG = "catalog";
+
+    private final ObjectMapper mapper;
+
+    public CatalogSnapshotCodec() {
+        this(ObjectMapperUtil.newObjectMapper(new SmileFactory()));
+    }
+
+    /**
+     * @param mapper the object mapper to use, with the GeoServer catalog module registered
+     */
+    public CatalogSnapshotCodec(@NonNull ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Atomically writes a snapshot of the catalog to {@code target}, replacing it if it exists
+     */
+    public void write(@NonNull Catalog catalog, long updateSequence, @NonNull Path target)
+            throws IOException {
+        write(catalog, updateSequence, null, target);
+    }
+
+    /**
+     * Atomically writes a snapshot of the catalog to {@code target}, replacing it if it exists
+     *
+     * @param fingerprint the {@link CatalogSnapshot.Header#getFingerprint() fingerprint} of the
+     *     source the catalog was loaded from, if any
+     */
+    public void write(
+            @NonNull Catalog catalog,
+            long updateSequence,
+            @Nullable String fingerprint,
+            @NonNull Path target)
+            throws IOException {
+
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                write(catalog, updateSequence, fingerprint, out);
+            }
+            Files.move(
+                    tmp,
+                    target,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Writes a snapshot of the catalog to {@code out}, does not close it */
+    public void write(@NonNull Catalog catalog, long updateSequence, @NonNull OutputStream out)
+            throws IOException {
+        write(catalog, updateSequence, null, out);
+    }
+
+    /**
+     * Writes a snapshot of the catalog to {@code out}, does not close it
+     *
+     * @param fingerprint the {@link CatalogSnapshot.Header#getFingerprint() fingerprint} of the
+     *     source the catalog was loaded from, if any
+     */
+    public void write(
+            @NonNull Catalog catalog,
+            long updateSequence,
+            @Nullable String fingerprint,
+            @NonNull OutputStream out)
+            throws IOException {
+
+        CatalogSnapshot.Header header = new CatalogSnapshot.Header();
+        header.setVersion(VERSION);
+        header.setUpdateSequence(updateSequence);
+        header.setFingerprint(fingerprint);
+        header.setTimestamp(System.currentTimeMillis());
+        WorkspaceInfo defaultWorkspace = catalog.getDefaultWorkspace();
+        NamespaceInfo defaultNamespace = catalog.getDefaultNamespace();
+        header.setDefaultWorkspace(defaultWorkspace == null ? null : defaultWorkspace.getId());
+        header.setDefaultNamespace(defaultNamespace == null ? null : defaultNamespace.getId());
+        for (WorkspaceInfo ws : catalog.getWorkspaces()) {
+            DataStoreInfo ds = catalog.getDefaultDataStore(ws);
+            if (ds != null) header.getDefaultDataStores().put(ws.getId(), ds.getId());
+        }
+
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeFieldName(HEADER);
+            mapper.writeValue(generator, header);
+
+            generator.writeArrayFieldStart(CATALOG);
+            int count = 0;
+            count += writeAll(generator, catalog, WorkspaceInfo.class);
+            count += writeAll(generator, catalog, NamespaceInfo.class);
+            count += writeAll(generator, catalog, StyleInfo.class);
+            count += writeAll(generator, catalog, StoreInfo.class);
+            count += writeAll(generator, catalog, ResourceInfo.class);
+            count += writeAll(generator, catalog, LayerInfo.class);
+            for (LayerGroupInfo lg : dependencyOrder(catalog.getLayerGroups())) {
+                write(generator, lg);
+                count++;
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            log.debug("Wrote catalog snapshot of {} objects at {}", count, updateSequence);
+        }
+    }
+
+    private int writeAll(
+            JsonGenerator generator, Catalog catalog, Class<? extends CatalogInfo> type)
+            throws IOException {
+        int count = 0;
+        try (CloseableIterator<? extends CatalogInfo> it = catalog.list(type, Filter.INCLUDE)) {
+            while (it.hasNext()) {
+                write(generator, it.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void write(JsonGenerator generator, Info info) throws IOException {
+        mapper.writeValue(generator, ModificationProxy.unwrap(info));
+    }
+
+    /** Sorts layer groups so that nested layer groups come before the layer groups using them */
+    private List<LayerGroupInfo> dependencyOrder(List<LayerGroupInfo> layerGroups) {
+        Map<String, LayerGroupInfo> byId = new LinkedHashMap<>();
+        layerGroups.forEach(lg -> byId.put(lg.getId(), lg));
+        List<LayerGroupInfo> sorted = new ArrayList<>(byId.size());
+        Set<String> visited = new HashSet<>();
+        byId.values().forEach(lg -> visit(lg, byId, visited, sorted::add));
+        return sorted;
+    }
+
+    private void visit(
+            LayerGroupInfo lg,
+            Map<String, LayerGroupInfo> byId,
+            Set<String> visited,
+            Consumer<LayerGroupInfo> sorted) {
+        // marking before visiting the nested groups also breaks circular references
+        if (!visited.add(lg.getId())) return;
+        List<PublishedInfo> layers = lg.getLayers();
+        if (layers != null) {
+            layers.stream()
+                    .filter(LayerGroupInfo.class::isInstance)
+                    .map(PublishedInfo::getId)
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .forEach(nested -> visit(nested, byId, visited, sorted));
+        }
+        sorted.accept(lg);
+    }
+
+    /** Reads a snapshot from a memory mapped file */
+    public CatalogSnapshot read(@NonNull Path file) throws IOException {
+        return read(file, false);
+    }
+
+    /** Reads only the {@link CatalogSnapshot.Header header} of the snapshot */
+    public CatalogSnapshot.Header readHeader(@NonNull Path file) throws IOException {
+        return read(file, true).getHeader();
+    }
+
+    /** Reads a snapshot from {@code in}, does not close it */
+    public CatalogSnapshot read(@NonNull InputStream in) throws IOException {
+        return read(in, false);
+    }
+
+    private CatalogSnapshot read(Path file, boolean headerOnly) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            return read(new ByteBufferBackedInputStream(buffer), headerOnly);
+        }
+    }
+
+    private CatalogSnapshot read(InputStream in, boolean headerOnly) throws IOException {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Not a catalog snapshot, expected start of object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case HEADER:
+                        CatalogSnapshot.Header header =
+                                mapper.readValue(parser, CatalogSnapshot.Header.class);
+                        if (header.getVersion() != VERSION) {
+                            throw new IOException(
+                                    "Unsupported catalog snapshot version " + header.getVersion());
+                        }
+                        snapshot.setHeader(header);
+                        if (headerOnly) return snapshot;
+                        break;
+                    case CATALOG:
+                        readArray(parser, CatalogInfo.class, snapshot.getCatalog()::add);
+                        break;
+                    default:
+                        log.debug("Ignoring unknown catalog snapshot field {}", field);
+                        parser.skipChildren();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private <T> void readArray(JsonParser parser, Class<T> type, Consumer<T> consumer)
+            throws IOException {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            consumer.accept(mapper.readValue(parser, type));
+        }
+    }
+}
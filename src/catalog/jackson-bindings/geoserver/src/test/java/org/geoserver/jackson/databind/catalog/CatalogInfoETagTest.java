@@ -0,0 +1,75 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.jackson.databind.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogTestData;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.plugin.CatalogPlugin;
+import org.geoserver.config.GeoServer;
+import org.geoserver.config.plugin.GeoServerImpl;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.geotools.jackson.databind.util.ObjectMapperUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Test suite for {@link CatalogInfoETag} */
+public class CatalogInfoETagTest {
+
+    private Catalog catalog;
+    private CatalogTestData data;
+
+    public static @BeforeAll void oneTimeSetup() {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+    }
+
+    public @BeforeEach void before() {
+        catalog = new CatalogPlugin();
+        GeoServer geoserver = new GeoServerImpl();
+        geoserver.setCatalog(catalog);
+        data = CatalogTestData.initialized(() -> catalog, () -> geoserver).initialize();
+    }
+
+    public @Test void testSameContentsSameETag() throws Exception {
+        DataStoreInfo store = catalog.getDataStore(data.dataStoreA.getId());
+        String etag = CatalogInfoETag.of(store);
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals(etag, CatalogInfoETag.of(store));
+
+        // a decoded copy has unresolved references, but the same entity tag
+        ObjectMapper mapper = ObjectMapperUtil.newObjectMapper();
+        String encoded = mapper.writeValueAsString(store);
+        DataStoreInfo copy = mapper.readValue(encoded, DataStoreInfo.class);
+        assertEquals(etag, CatalogInfoETag.of(copy));
+    }
+
+    public @Test void testModifiedContentsDifferentETag() {
+        DataStoreInfo store = catalog.getDataStore(data.dataStoreA.getId());
+        String etag = CatalogInfoETag.of(store);
+        store.setDescription("modified description");
+        assertNotEquals(etag, CatalogInfoETag.of(store));
+        catalog.save(store);
+        assertNotEquals(etag, CatalogInfoETag.of(catalog.getDataStore(store.getId())));
+    }
+
+    public @Test void testMatches() {
+        String etag = "W/\"abc\"";
+        assertTrue(CatalogInfoETag.matches(etag, "W/\"abc\""));
+        assertTrue(CatalogInfoETag.matches(etag, "\"abc\""));
+        assertTrue(CatalogInfoETag.matches(etag, "\"xyz\", W/\"abc\""));
+        assertTrue(CatalogInfoETag.matches(etag, "*"));
+        assertFalse(CatalogInfoETag.matches(etag, "W/\"xyz\""));
+        assertFalse(CatalogInfoETag.matches(etag, null));
+        assertFalse(CatalogInfoETag.matches(etag, ""));
+    }
+}
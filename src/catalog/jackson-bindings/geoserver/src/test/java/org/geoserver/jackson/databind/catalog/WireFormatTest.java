@@ -0,0 +1,107 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.jackson.databind.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.geoserver.catalog.AttributeTypeInfo;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogBuilder;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.CatalogTestData;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.plugin.CatalogPlugin;
+import org.geoserver.config.GeoServer;
+import org.geoserver.config.plugin.GeoServerImpl;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.geotools.data.DataUtilities;
+import org.geotools.jackson.databind.util.ObjectMapperUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengis.feature.simple.SimpleFeatureType;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the payload size of JSON and Smile (binary JSON) encodings of {@link CatalogInfo}
+ * objects, as sent over the wire by the catalog-service, focusing on large {@link
+ * FeatureTypeInfo}s with attribute lists and bounding boxes, and verifies both decode to the
+ * original objects
+ */
+@Slf4j
+public class WireFormatTest {
+
+    private Catalog catalog;
+    private CatalogTestData data;
+    private List<CatalogInfo> payload;
+
+    public static @BeforeAll void oneTimeSetup() {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+    }
+
+    public @BeforeEach void before() throws Exception {
+        catalog = new CatalogPlugin();
+        GeoServer geoserver = new GeoServerImpl();
+        geoserver.setCatalog(catalog);
+        data = CatalogTestData.initialized(() -> catalog, () -> geoserver).initialize();
+
+        FeatureTypeInfo ft = data.featureTypeA;
+        String typeSpec =
+                IntStream.range(0, 50)
+                        .mapToObj(i -> "attribute" + i + ":String")
+                        .collect(Collectors.joining(",", "the_geom:MultiPolygon:srid=4326,", ""));
+        SimpleFeatureType schema = DataUtilities.createType("TestType", typeSpec);
+        List<AttributeTypeInfo> attributes =
+                new CatalogBuilder(new CatalogPlugin()).getAttributes(schema, ft);
+        ft.getAttributes().addAll(attributes);
+
+        payload =
+                List.of(
+                        data.workspaceA,
+                        data.namespaceA,
+                        data.dataStoreA,
+                        ft,
+                        data.coverageA,
+                        data.layerFeatureTypeA,
+                        data.layerGroup1,
+                        data.style1);
+    }
+
+    public @Test void compareJsonAndSmile() throws Exception {
+        long json = encodedSize(ObjectMapperUtil.newObjectMapper(new JsonFactory()));
+        long smile = encodedSize(ObjectMapperUtil.newObjectMapper(new SmileFactory()));
+        log.info("JSON: {} bytes, Smile: {} bytes", json, smile);
+        assertTrue(smile < json, "Smile payload expected to be smaller than JSON");
+    }
+
+    private long encodedSize(ObjectMapper mapper) throws Exception {
+        long size = 0;
+        for (CatalogInfo info : payload) {
+            byte[] encoded = encode(mapper, info);
+            CatalogInfo decoded = mapper.readValue(encoded, CatalogInfo.class);
+            assertEquals(info.getId(), decoded.getId());
+            size += encoded.length;
+        }
+        return size;
+    }
+
+    private byte[] encode(ObjectMapper mapper, CatalogInfo info) {
+        try {
+            return mapper.writeValueAsBytes(info);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.jackson.databind.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.CatalogTestData;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.plugin.CatalogPlugin;
+import org.geoserver.config.GeoServer;
+import org.geoserver.config.impl.GeoServerImpl;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opengis.filter.Filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+/** Test suite for {@link CatalogSnapshotCodec} */
+public class CatalogSnapshotCodecTest {
+
+    private static final List<Class<? extends CatalogInfo>> TYPES =
+            List.of(
+                    WorkspaceInfo.class,
+                    NamespaceInfo.class,
+                    StyleInfo.class,
+                    StoreInfo.class,
+                    ResourceInfo.class,
+                    LayerInfo.class,
+                    LayerGroupInfo.class);
+
+    private @TempDir File tmpDir;
+
+    private CatalogSnapshotCodec codec = new CatalogSnapshotCodec();
+    private Catalog catalog;
+    private GeoServer geoserver;
+
+    public static @BeforeAll void oneTimeSetup() {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+    }
+
+    public @BeforeEach void before() {
+        catalog = new CatalogPlugin();
+        geoserver = new GeoServerImpl();
+        geoserver.setCatalog(catalog);
+        CatalogTestData.initialized(() -> catalog, () -> geoserver).initialize();
+    }
+
+    public @Test void testRoundtrip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(catalog, 42L, out);
+
+        CatalogSnapshot snapshot = codec.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(CatalogSnapshotCodec.VERSION, snapshot.getHeader().getVersion());
+        assertEquals(42L, snapshot.getHeader().getUpdateSequence());
+        assertFalse(snapshot.getHeader().getDefaultDataStores().isEmpty());
+
+        CatalogPlugin target = new CatalogPlugin();
+        snapshot.restore(target);
+
+        for (Class<? extends CatalogInfo> type : TYPES) {
+            assertEquals(
+                    catalog.count(type, Filter.INCLUDE),
+                    target.count(type, Filter.INCLUDE),
+                    type.getSimpleName());
+        }
+        assertEquals(catalog.getDefaultWorkspace().getId(), target.getDefaultWorkspace().getId());
+        assertEquals(catalog.getDefaultNamespace().getId(), target.getDefaultNamespace().getId());
+        for (WorkspaceInfo ws : catalog.getWorkspaces()) {
+            DataStoreInfo expected = catalog.getDefaultDataStore(ws);
+            DataStoreInfo actual = target.getDefaultDataStore(ws);
+            assertEquals(
+                    expected == null ? null : expected.getId(),
+                    actual == null ? null : actual.getId(),
+                    ws.getName());
+        }
+        for (LayerInfo layer : catalog.getLayers()) {
+            LayerInfo restored = target.getLayer(layer.getId());
+            assertEquals(layer.getResource().getId(), restored.getResource().getId());
+            assertEquals(
+                    layer.getResource().getStore().getId(),
+                    restored.getResource().getStore().getId());
+        }
+        for (LayerGroupInfo lg : catalog.getLayerGroups()) {
+            LayerGroupInfo restored = target.getLayerGroup(lg.getId());
+            assertEquals(lg.getLayers().size(), restored.getLayers().size());
+            restored.getLayers().forEach(l -> assertNotNull(l.getName()));
+        }
+    }
+
+    public @Test void testReadHeaderFromFile() throws Exception {
+        Path file = tmpDir.toPath().resolve("catalog.snapshot");
+        codec.write(catalog, 7L, file);
+
+        CatalogSnapshot.Header header = codec.readHeader(file);
+        assertEquals(7L, header.getUpdateSequence());
+        assertNull(header.getFingerprint());
+        assertEquals(catalog.getDefaultWorkspace().getId(), header.getDefaultWorkspace());
+
+        int expected = TYPES.stream().mapToInt(t -> catalog.count(t, Filter.INCLUDE)).sum();
+        CatalogSnapshot snapshot = codec.read(file);
+        assertEquals(expected, snapshot.getCatalog().size());
+    }
+
+    public @Test void testFingerprint() throws Exception {
+        Path file = tmpDir.toPath().resolve("catalog.snapshot");
+        codec.write(catalog, 7L, "3-1024-abc-def", file);
+
+        CatalogSnapshot.Header header = codec.readHeader(file);
+        assertEquals(7L, header.getUpdateSequence());
+        assertEquals("3-1024-abc-def", header.getFingerprint());
+    }
+}
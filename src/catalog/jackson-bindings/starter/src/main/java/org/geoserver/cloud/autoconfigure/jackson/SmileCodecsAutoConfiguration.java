@@ -0,0 +1,53 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.cloud.autoconfigure.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Spring boot {@link EnableAutoConfiguration @EnableAutoConfiguration} to configure the reactive
+ * Jackson Smile (binary JSON) codecs with the same {@link ObjectMapper} configuration and modules
+ * as the JSON ones.
+ *
+ * <p>Spring registers the Smile codecs by default when {@code jackson-dataformat-smile} is in the
+ * classpath, but with a plain {@link ObjectMapper} that can't handle the GeoTools and GeoServer
+ * objects. The {@link CodecCustomizer} contributed here is applied by spring-boot to both the
+ * WebFlux server codecs and the {@code WebClient.Builder}, so that Smile can be negotiated as an
+ * alternative to JSON. JSON remains the default encoding.
+ */
+@Configuration
+@AutoConfigureAfter({
+    JacksonAutoConfiguration.class,
+    GeoToolsJacksonBindingsAutoConfiguration.class,
+    GeoServerJacksonBindingsAutoConfiguration.class
+})
+@ConditionalOnClass({SmileFactory.class, Jackson2SmileEncoder.class, CodecCustomizer.class})
+@ConditionalOnBean(Jackson2ObjectMapperBuilder.class)
+public class SmileCodecsAutoConfiguration {
+
+    public @Bean CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper smileMapper =
+                builder.createXmlMapper(false).factory(new SmileFactory()).build();
+        return configurer -> {
+            CodecConfigurer.DefaultCodecs codecs = configurer.defaultCodecs();
+            codecs.jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+            codecs.jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+        };
+    }
+}
@@ -6,7 +6,11 @@ package org.geoserver.catalog.plugin;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Ordering;
+import com.google.common.collect.Streams;
+import com.google.common.util.concurrent.Striped;
 
 import org.geoserver.catalog.CatalogInfo;
 import org.geoserver.catalog.DataStoreInfo;
@@ -20,32 +24,46 @@ import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.impl.ClassMappings;
 import org.geoserver.catalog.impl.LayerInfoImpl;
+import org.geoserver.catalog.plugin.QueryPlanner.QueryPlan;
+import org.geoserver.ows.util.ClassProperties;
 import org.geoserver.ows.util.OwsUtils;
 import org.geotools.feature.NameImpl;
 import org.geotools.util.logging.Logging;
 import org.opengis.feature.type.Name;
 import org.opengis.filter.Filter;
+import org.opengis.filter.MultiValuedFilter.MatchAction;
+import org.opengis.filter.PropertyIsEqualTo;
 import org.opengis.filter.sort.SortBy;
 import org.opengis.filter.sort.SortOrder;
 import org.springframework.lang.Nullable;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -102,6 +120,22 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
     static final Function<WorkspaceInfo, Name> WORKSPACE_NAME_MAPPER =
             w -> new NameImpl(w.getName());
 
+    /** Secondary index property names, match the equivalent {@link Filter} property names */
+    static final String NAME = "name";
+
+    static final String WORKSPACE_ID = "workspace.id";
+    static final String NAMESPACE_ID = "namespace.id";
+    static final String STORE_ID = "store.id";
+    static final String RESOURCE_ID = "resource.id";
+    static final String URI = "URI";
+
+    /**
+     * Layer styles index name, deliberately not a valid {@link Filter} property name, as it merges
+     * the {@code defaultStyle} and {@code styles} properties, and hence is never used by {@link
+     * QueryPlanner}
+     */
+    static final String LAYER_STYLES_ID = "@styles.id";
+
     static final Function<StyleInfo, Name> STYLE_NAME_MAPPER =
             s ->
                     new NameImpl(
@@ -115,10 +149,75 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
     protected ConcurrentMap<Class<? extends T>, ConcurrentNavigableMap<String, Name>>
             idToMameMultiMap = new ConcurrentHashMap<>();
 
+    /**
+     * Global id lookup across all the concrete types in {@link #idMultiMap}, so that lookups by id
+     * require a single hash probe regardless of the requested type
+     */
+    protected final ConcurrentMap<String, T> idLookup = new ConcurrentHashMap<>();
+
+    /**
+     * Number of objects per concrete type, as {@link ConcurrentSkipListMap#size()} is not a
+     * constant-time operation
+     */
+    private final ConcurrentMap<Class<?>, LongAdder> typeCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Dispatch table from query types to the concrete types in {@link #idMultiMap} they're
+     * assignable from, replaced whenever a new concrete type is registered
+     */
+    private volatile TypeDispatch<T> typeDispatch = new TypeDispatch<>(List.of());
+
+    /**
+     * Secondary indexes by property name (e.g. {@code workspace.id}), registered by subclasses
+     * at construction time through {@link #addIndex(PropertyIndex)} and kept in sync on {@link
+     * #add}, {@link #remove}, and {@link #update}
+     */
+    protected final Map<String, PropertyIndex<T>> indexes = new LinkedHashMap<>();
+
+    /**
+     * Striped write locks keyed by object id, so that concurrent writes to different objects of
+     * the same type don't contend with each other, while the id, name, and secondary index
+     * lookups are kept consistent for each object
+     */
+    private final Striped<Lock> locks = Striped.lock(LOCK_STRIPES);
+
+    /**
+     * Whether {@link #update} installs a new version of the object instead of patching the stored
+     * one in place
+     *
+     * @see #setCopyOnWrite(boolean)
+     */
+    private boolean copyOnWrite;
+
+    /**
+     * Computes the {@link Patch} that switches the references a stored object holds to other
+     * catalog objects to their current versions, if any of them has been superseded by a
+     * copy-on-write update
+     *
+     * @see #setReferenceRelinker(Function)
+     */
+    private Function<? super T, Patch> referenceRelinker;
+
     protected final Function<T, Name> nameMapper;
 
     protected final Class<T> infoType;
 
+    /**
+     * System property to enable {@link #verifyIndexes} at startup, mostly intended for testing
+     * purposes
+     */
+    static final String VERIFY_INDEXES_PROPERTY = "geoserver.catalog.lookup.verifyIndexes";
+
+    /**
+     * When enabled, lookups resolved through a {@link PropertyIndex} are also performed by a full
+     * scan and an {@link IllegalStateException} is thrown if the results don't match. Meant to be
+     * used by tests only, as it defeats the purpose of the indexes.
+     */
+    static volatile boolean verifyIndexes = Boolean.getBoolean(VERIFY_INDEXES_PROPERTY);
+
+    /** Number of write lock stripes per lookup */
+    static final int LOCK_STRIPES = 256;
+
     static final <T> Predicate<T> alwaysTrue() {
         return x -> true;
     }
@@ -127,12 +226,105 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         super();
         this.nameMapper = nameMapper;
         this.infoType = type;
+        addIndex(PropertyIndex.of(NAME, i -> nameMapper.apply(i).getLocalPart()));
     }
 
     public @Override Class<T> getContentType() {
         return infoType;
     }
 
+    /**
+     * Enables or disables copy-on-write updates. When enabled, {@link #update} applies the patch
+     * to a copy of the stored object and atomically replaces it on all the lookups, instead of
+     * mutating the stored object in place. Objects returned by this repository are hence never
+     * modified after being published, and readers holding them (e.g. for the duration of a
+     * request) never see a half applied patch.
+     *
+     * <p>References to the updated object held by other catalog objects are not updated by this
+     * repository, see {@link #setReferenceRelinker(Function)}.
+     */
+    public void setCopyOnWrite(boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    public boolean isCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    /**
+     * Sets the function that tells, for a stored object, which of its references to other catalog
+     * objects point to superseded versions. Objects are checked as they're read, and if the
+     * returned {@link Patch} is not empty, a new version of the object with the patch applied is
+     * published in its place and returned. This way, a copy-on-write update costs the same
+     * regardless of how many objects reference the updated one, and each of them is relinked once,
+     * the first time it's read afterwards.
+     *
+     * @param relinker the function computing the references to switch, or {@code null} to return
+     *     the stored objects as they are
+     */
+    void setReferenceRelinker(@Nullable Function<? super T, Patch> relinker) {
+        this.referenceRelinker = relinker;
+    }
+
+    /**
+     * @return {@code stored}, or a new version of it with its references switched to their current
+     *     versions, if required by the {@link #setReferenceRelinker reference relinker}
+     */
+    protected T current(T stored) {
+        final Function<? super T, Patch> relinker = this.referenceRelinker;
+        if (stored == null || relinker == null) {
+            return stored;
+        }
+        Patch references = relinker.apply(stored);
+        return references == null || references.isEmpty() ? stored : relink(stored, references);
+    }
+
+    /**
+     * Publishes a new version of {@code stored} with the {@code references} patch applied, if
+     * {@code stored} is still the published version, otherwise someone else updated it in the
+     * meantime and the new version is only returned to the caller.
+     *
+     * <p>Switching references to new versions of the same objects doesn't change the object's name
+     * nor its secondary index keys, as they're made of ids, but the indexes are updated anyways in
+     * case a key is derived from a referenced object's property (e.g. a layer's name).
+     */
+    private T relink(final T stored, Patch references) {
+        final T newVersion = newVersion(stored);
+        references.applyTo(newVersion);
+        final String id = stored.getId();
+        Lock lock = lock(id);
+        lock.lock();
+        try {
+            Map<String, T> idMap = getMapForValue(idMultiMap, stored);
+            if (idMap.get(id) == stored) {
+                Name name = getMapForValue(idToMameMultiMap, stored).get(id);
+                if (name != null) {
+                    getMapForValue(nameMultiMap, stored).put(name, newVersion);
+                }
+                indexes.values().forEach(index -> index.update(newVersion));
+                idMap.put(id, newVersion);
+                idLookup.put(id, newVersion);
+                onNewVersion(stored, newVersion);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return newVersion;
+    }
+
+    protected void addIndex(PropertyIndex<T> index) {
+        indexes.put(index.getProperty(), index);
+    }
+
+    protected PropertyIndex<T> index(String property) {
+        PropertyIndex<T> index = indexes.get(property);
+        if (index == null) {
+            throw new IllegalArgumentException(
+                    "No index for " + infoType.getSimpleName() + "." + property);
+        }
+        return index;
+    }
+
     <K, V> ConcurrentMap<K, V> getMapForValue(
             ConcurrentMap<Class<? extends T>, ConcurrentNavigableMap<K, V>> maps, T value) {
         @SuppressWarnings("unchecked")
@@ -143,7 +335,24 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
     protected <K, V> ConcurrentMap<K, V> getMapForType(
             ConcurrentMap<Class<? extends T>, ConcurrentNavigableMap<K, V>> maps,
             Class<? extends T> vc) {
-        return maps.computeIfAbsent(vc, k -> new ConcurrentSkipListMap<K, V>());
+        ConcurrentNavigableMap<K, V> map = maps.get(vc);
+        if (map == null) {
+            map = maps.computeIfAbsent(vc, k -> new ConcurrentSkipListMap<K, V>());
+            registerType(vc);
+        }
+        return map;
+    }
+
+    private synchronized void registerType(Class<? extends T> concreteType) {
+        typeDispatch = typeDispatch.with(concreteType);
+    }
+
+    /**
+     * @return the registered concrete types that are assignable to {@code clazz}, in registration
+     *     order, computed once per query type instead of on each lookup
+     */
+    protected List<Class<? extends T>> concreteTypes(Class<?> clazz) {
+        return typeDispatch.concreteTypes(clazz);
     }
 
     private static void checkNotAProxy(CatalogInfo value) {
@@ -153,41 +362,73 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         }
     }
 
+    /** @return the write lock for the object with the given id */
+    protected Lock lock(String id) {
+        return locks.get(id);
+    }
+
+    /**
+     * Adds the object to the name lookup and secondary indexes before publishing it on the id
+     * lookup, so that any lookup resolved through {@link #findById} (which is the case for
+     * secondary index lookups) never returns an object that's not fully indexed. Adding an object
+     * whose id already exists is a no-op, the existing object is kept.
+     */
     public @Override void add(T value) {
         requireNonNull(value);
         checkNotAProxy(value);
+        final String id = value.getId();
         Map<String, T> idMap = getMapForValue(idMultiMap, value);
         Map<Name, T> nameMap = getMapForValue(nameMultiMap, value);
         Map<String, Name> idToName = getMapForValue(idToMameMultiMap, value);
-        // TODO: improve concurrency with lock sharding instead of blocking the whole ConcurrentMaps
-        synchronized (idMap) {
-            if (null != idMap.putIfAbsent(value.getId(), value)) {
+        Lock lock = lock(id);
+        lock.lock();
+        try {
+            if (idLookup.containsKey(id)) {
                 String msg =
                         String.format(
                                 "%s:%s(%s) already exists",
                                 ClassMappings.fromImpl(value.getClass()),
-                                value.getId(),
+                                id,
                                 nameMapper.apply(value).getLocalPart());
                 LOGGER.warning(msg);
                 // throw new IllegalArgumentException(msg);
+                // keep the existing object, and the name lookup and indexes in sync with it
+                return;
             }
             Name name = nameMapper.apply(value);
             nameMap.put(name, value);
-            idToName.put(value.getId(), name);
+            idToName.put(id, name);
+            indexes.values().forEach(index -> index.add(value));
+            idMap.put(id, value);
+            typeCount(value.getClass()).increment();
+            idLookup.put(id, value);
+        } finally {
+            lock.unlock();
         }
     }
 
+    /**
+     * Un-publishes the object from the id lookup before removing it from the name lookup and
+     * secondary indexes
+     */
     public @Override void remove(T value) {
         requireNonNull(value);
         checkNotAProxy(value);
+        final String id = value.getId();
         Map<String, T> idMap = getMapForValue(idMultiMap, value);
-        // TODO: improve concurrency with lock sharding instead of blocking the whole ConcurrentMaps
-        synchronized (idMap) {
-            T removed = idMap.remove(value.getId());
+        Lock lock = lock(id);
+        lock.lock();
+        try {
+            T removed = idMap.remove(id);
             if (removed != null) {
-                Name name = getMapForValue(idToMameMultiMap, value).remove(value.getId());
+                typeCount(removed.getClass()).decrement();
+                idLookup.remove(id, removed);
+                Name name = getMapForValue(idToMameMultiMap, value).remove(id);
                 getMapForValue(nameMultiMap, value).remove(name);
+                indexes.values().forEach(index -> index.remove(id));
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -196,31 +437,105 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         requireNonNull(value);
         requireNonNull(patch);
         checkNotAProxy(value);
+        final String id = value.getId();
         Map<String, T> idMap = getMapForValue(idMultiMap, value);
-        // for the sake of correctness, get the stored value, contract does not force the supplied
-        // value to be attached
-        T storedValue = idMap.get(value.getId());
-        if (storedValue == null) {
-            throw new NoSuchElementException(
-                    value.getClass().getSimpleName()
-                            + " with id "
-                            + value.getId()
-                            + " does not exist");
-        }
-        // TODO: improve concurrency with lock sharding instead of blocking the whole ConcurrentMaps
-        synchronized (idMap) {
+        Lock lock = lock(id);
+        lock.lock();
+        try {
+            // for the sake of correctness, get the stored value, contract does not force the
+            // supplied value to be attached
+            final T current = idMap.get(id);
+            if (current == null) {
+                throw new NoSuchElementException(
+                        value.getClass().getSimpleName() + " with id " + id + " does not exist");
+            }
+            final T storedValue = copyOnWrite ? newVersion(current) : current;
             patch.applyTo(storedValue);
             ConcurrentMap<String, Name> idToName = getMapForValue(idToMameMultiMap, value);
-            Name oldName = idToName.get(value.getId());
+            Name oldName = idToName.get(id);
             Name newName = nameMapper.apply(storedValue);
+            Map<Name, T> nameMap = getMapForValue(nameMultiMap, value);
             if (!Objects.equals(oldName, newName)) {
-                Map<Name, T> nameMap = getMapForValue(nameMultiMap, value);
-                nameMap.remove(oldName);
-                nameMap.put(newName, value);
-                idToName.put(value.getId(), newName);
+                nameMap.put(newName, storedValue);
+                nameMap.remove(oldName, current);
+                idToName.put(id, newName);
+            } else if (storedValue != current) {
+                nameMap.put(newName, storedValue);
+            }
+            indexes.values().forEach(index -> index.update(storedValue));
+            if (storedValue != current) {
+                idMap.put(id, storedValue);
+                idLookup.put(id, storedValue);
+                onNewVersion(current, storedValue);
+            }
+            return (I) storedValue;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called when {@link #setCopyOnWrite copy-on-write} is enabled and {@code newVersion} has
+     * replaced {@code oldVersion}, while holding the object's write lock, for subclasses to update
+     * any other reference they hold to it
+     */
+    protected void onNewVersion(T oldVersion, T newVersion) {
+        // no-op by default
+    }
+
+    /**
+     * Creates a shallow copy of the given object for {@link #setCopyOnWrite copy-on-write}
+     * updates. Collection and Map properties are copied too, as {@link Patch#applyTo} modifies
+     * them in place.
+     */
+    @SuppressWarnings("unchecked")
+    static <I extends CatalogInfo> I newVersion(I current) {
+        final Class<I> type = (Class<I>) current.getClass();
+        final I copy;
+        try {
+            Constructor<I> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            copy = constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create a copy of " + type.getName(), e);
+        }
+        OwsUtils.copy(current, copy, type);
+        ClassProperties properties = OwsUtils.getClassProperties(type);
+        for (String property : properties.properties()) {
+            Method getter = properties.getter(property, null);
+            if (getter == null || getter.getParameterCount() > 0) continue;
+            Class<?> propertyType = getter.getReturnType();
+            if (Collection.class.isAssignableFrom(propertyType)
+                    || Map.class.isAssignableFrom(propertyType)) {
+                Method setter = properties.setter(property, propertyType);
+                Object value = OwsUtils.get(copy, property);
+                if (setter != null && value != null && value == OwsUtils.get(current, property)) {
+                    Object valueCopy = copyOf(value);
+                    if (propertyType.isInstance(valueCopy)) {
+                        OwsUtils.set(copy, property, valueCopy);
+                    }
+                }
+            }
+        }
+        return copy;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object copyOf(Object collectionOrMap) {
+        try {
+            Object copy = collectionOrMap.getClass().getDeclaredConstructor().newInstance();
+            if (copy instanceof Collection) {
+                ((Collection) copy).addAll((Collection) collectionOrMap);
+            } else {
+                ((Map) copy).putAll((Map) collectionOrMap);
             }
+            return copy;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            if (collectionOrMap instanceof List) return new ArrayList<>((List) collectionOrMap);
+            if (collectionOrMap instanceof Set) return new LinkedHashSet<>((Set) collectionOrMap);
+            if (collectionOrMap instanceof Map) return new LinkedHashMap<>((Map) collectionOrMap);
+            return collectionOrMap;
         }
-        return (I) storedValue;
     }
 
     public @Override void dispose() {
@@ -231,6 +546,25 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         idMultiMap.clear();
         nameMultiMap.clear();
         idToMameMultiMap.clear();
+        idLookup.clear();
+        typeCounts.clear();
+        indexes.values().forEach(PropertyIndex::clear);
+    }
+
+    /** Rebuilds all the secondary indexes and per-type counters from the current contents */
+    protected void reindex() {
+        indexes.values().forEach(PropertyIndex::clear);
+        typeCounts.clear();
+        idMultiMap.forEach((type, map) -> typeCount(type).add(map.size()));
+        idMultiMap.values().forEach(m -> m.values().forEach(this::reindex));
+    }
+
+    protected LongAdder typeCount(Class<?> concreteType) {
+        return typeCounts.computeIfAbsent(concreteType, t -> new LongAdder());
+    }
+
+    private void reindex(T value) {
+        indexes.values().forEach(index -> index.add(value));
     }
 
     /**
@@ -266,12 +600,47 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         throw new IllegalStateException("empty property name");
     }
 
+    /**
+     * Uses a {@link QueryPlanner} to resolve the query filter to direct lookups by id or through
+     * the secondary {@link #indexes} when possible, evaluating only the residual filter against the
+     * candidate objects, and falling back to a full scan otherwise.
+     *
+     * <p>Paged queries (those with a {@link Query#getCount() count}) only keep the first {@code
+     * offset + count} matches, using a bounded heap if the query is sorted, hence requiring {@code
+     * O(N log K)} time and {@code O(K)} memory instead of sorting the whole result set. Sorted
+     * queries break ties by id, so that consecutive pages are consistent.
+     *
+     * <p>Queries sorted by ascending id only, like keyset paged queries, walk the objects in id
+     * order and stop as soon as the page is full, seeking to the first id after the continuation
+     * token, if any, so that each page costs {@code O(log N + K)} when the residual filter matches.
+     *
+     * <p>Unsorted queries and queries sorted by ascending id only are evaluated lazily, as the
+     * returned stream is consumed, and never hold the results in memory. Other sorted queries
+     * collect all the matches, or the first {@code offset + count} if paged, before returning.
+     */
     @Override
     public <U extends T> Stream<U> findAll(Query<U> query) {
         requireNonNull(query);
 
+        final Class<U> type = query.getType();
+        final QueryPlan plan = QueryPlanner.plan(query.getFilter(), indexes.keySet());
+        final Predicate<U> predicate = toPredicate(plan.getResidual());
         Comparator<U> comparator = toComparator(query);
-        Stream<U> stream = list(query.getType(), toPredicate(query.getFilter()), comparator);
+        if (comparator != PROVIDED_ORDER) {
+            comparator = comparator.thenComparing(CatalogInfo::getId);
+        }
+        final int limit = limit(query);
+        Stream<U> stream;
+        if (isIdOrder(query) && (plan.isFullScan() || plan.isIdRange())) {
+            stream = listInIdOrder(type, plan.getIdAfter(), predicate, limit);
+        } else if (plan.isIdRange()) {
+            Predicate<U> range = toPredicate(QueryPlanner.idRangeFilter(plan.getIdAfter()));
+            stream = list(type, range.and(predicate), comparator, limit);
+        } else if (plan.isFullScan()) {
+            stream = list(type, predicate, comparator, limit);
+        } else {
+            stream = list(candidates(plan, type), predicate, comparator, limit);
+        }
 
         if (query.offset().isPresent()) {
             stream = stream.skip(query.offset().getAsInt());
@@ -282,14 +651,69 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         return stream;
     }
 
+    private static boolean isIdOrder(Query<?> query) {
+        List<SortBy> sortBy = query.getSortBy();
+        return sortBy.size() == 1
+                && QueryPlanner.ID.equals(sortBy.get(0).getPropertyName().getPropertyName())
+                && SortOrder.ASCENDING.equals(sortBy.get(0).getSortOrder());
+    }
+
+    /** @return {@code offset + count} if the query is paged, {@link Integer#MAX_VALUE} otherwise */
+    private static int limit(Query<?> query) {
+        if (query.count().isEmpty()) {
+            return Integer.MAX_VALUE;
+        }
+        long limit = (long) query.offset().orElse(0) + query.count().getAsInt();
+        return (int) Math.min(limit, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Counts in constant time for {@link Filter#INCLUDE}, using the per concrete type counters,
+     * and for equality filters on an indexed property (e.g. stores per workspace, resources per
+     * store) when {@code type} is the content type of this repository, using the {@link
+     * PropertyIndex#count(String) index counters}. The index counters are only used for {@link
+     * MatchAction#ANY} equality filters on indexes whose keys are exactly the filter property
+     * values (e.g. {@code name}, {@code workspace.id}, {@code resource.id}, {@code URI}), never for
+     * the {@link QueryPlanner#isInternalIndex internal} ones, like the {@code LayerInfo} styles
+     * index that also holds the default style. Otherwise counts the results of {@link
+     * #findAll(Query)}, which still resolves to an index or id lookup if possible.
+     */
     public @Override <U extends T> long count(Class<U> type, Filter filter) {
-        return Filter.INCLUDE.equals(filter)
-                ? idMultiMap.entrySet().stream()
-                        .filter(k -> type.isAssignableFrom(k.getKey()))
-                        .map(Map.Entry::getValue)
-                        .mapToLong(Map::size)
-                        .sum()
-                : findAll(Query.valueOf(type, filter)).count();
+        if (Filter.INCLUDE.equals(filter)) {
+            long count = 0;
+            for (Class<? extends T> concreteType : concreteTypes(type)) {
+                count += typeCount(concreteType).sum();
+            }
+            return count;
+        }
+        final QueryPlan plan = QueryPlanner.plan(filter, indexes.keySet());
+        if (plan.isIndexLookup()
+                && Filter.INCLUDE.equals(plan.getResidual())
+                && !QueryPlanner.isInternalIndex(plan.getIndexProperty())
+                && isMatchAny(filter)
+                && infoType.equals(type)) {
+            final String property = plan.getIndexProperty();
+            final String key = plan.getIndexKey();
+            final long count = index(property).count(key);
+            if (verifyIndexes) {
+                long expected = list(type, toPredicate(filter)).count();
+                if (expected != count) {
+                    String msg =
+                            "Index %s.%s count out of sync for key '%s'. Expected %,d, got %,d";
+                    throw new IllegalStateException(
+                            String.format(
+                                    msg, infoType.getSimpleName(), property, key, expected, count));
+                }
+            }
+            return count;
+        }
+        return findAll(Query.valueOf(type, filter)).count();
+    }
+
+    /** @return whether the single equality filter of an index lookup plan matches any value */
+    private static boolean isMatchAny(Filter filter) {
+        return filter instanceof PropertyIsEqualTo
+                && ((PropertyIsEqualTo) filter).getMatchAction() == MatchAction.ANY;
     }
 
     public static <U extends CatalogInfo> Comparator<U> toComparator(Query<?> query) {
@@ -309,15 +733,32 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
     }
 
     protected <V> Predicate<V> toPredicate(Filter filter) {
+        if (Filter.INCLUDE.equals(filter)) {
+            return alwaysTrue();
+        }
         return o -> filter.evaluate(o);
     }
 
+    /** @return the objects of type {@code clazz} resolved by a non full-scan query plan */
+    private <U extends T> List<U> candidates(QueryPlan plan, Class<U> clazz) {
+        final Set<String> ids =
+                plan.isIdLookup()
+                        ? plan.getIds()
+                        : index(plan.getIndexProperty()).get(plan.getIndexKey());
+        List<U> candidates = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id, clazz).ifPresent(candidates::add);
+        }
+        return candidates;
+    }
+
     private static <U extends CatalogInfo> Comparator<U> comparator(final SortBy sortOrder) {
+        final String propertyName = sortOrder.getPropertyName().getPropertyName();
         Comparator<U> comparator =
                 new Comparator<>() {
                     public @Override int compare(U o1, U o2) {
-                        Object v1 = OwsUtils.get(o1, sortOrder.getPropertyName().getPropertyName());
-                        Object v2 = OwsUtils.get(o2, sortOrder.getPropertyName().getPropertyName());
+                        Object v1 = PropertyAccessor.get(o1, propertyName);
+                        Object v2 = PropertyAccessor.get(o2, propertyName);
                         if (v1 == null) {
                             if (v2 == null) {
                                 return 0;
@@ -344,6 +785,11 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         return list(clazz, predicate, CatalogInfoLookup.providedOrder());
     }
 
+    <U extends CatalogInfo> Stream<U> list(
+            Class<U> clazz, Predicate<U> predicate, Comparator<U> comparator) {
+        return list(clazz, predicate, comparator, Integer.MAX_VALUE);
+    }
+
     /**
      * Looks up objects by class and matching predicate.
      *
@@ -351,64 +797,184 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
      * on it. Just using this approach instead of the stream makes the overall startup of GeoServer
      * with 20k layers go down from 50s to 44s (which is a lot, considering there is a lot of other
      * things going on)
+     *
+     * <p>In {@link #PROVIDED_ORDER provided order} the matches are produced lazily, as the returned
+     * stream is consumed, otherwise they're collected and sorted, keeping only the first {@code
+     * limit} ones.
      */
     <U extends CatalogInfo> Stream<U> list(
-            Class<U> clazz, Predicate<U> predicate, Comparator<U> comparator) {
+            Class<U> clazz, Predicate<U> predicate, Comparator<U> comparator, int limit) {
         requireNonNull(clazz);
         requireNonNull(predicate);
         requireNonNull(comparator);
-        List<U> result = new ArrayList<U>();
-        for (Class<? extends T> key : nameMultiMap.keySet()) {
-            if (clazz.isAssignableFrom(key)) {
-                Map<Name, T> valueMap = getMapForType(nameMultiMap, key);
-                for (T v : valueMap.values()) {
-                    final U u = clazz.cast(v);
-                    if (predicate.test(u)) {
-                        result.add(u);
+        Iterator<T> values =
+                Iterators.concat(
+                        concreteTypes(clazz).stream()
+                                .map(key -> getMapForType(nameMultiMap, key).values().iterator())
+                                .iterator());
+        if (comparator == PROVIDED_ORDER) {
+            return lazy(values, clazz, predicate, limit);
+        }
+        SortedResult<U> result = new SortedResult<>(comparator, limit);
+        while (values.hasNext()) {
+            final U u = clazz.cast(current(values.next()));
+            if (predicate.test(u)) {
+                result.add(u);
+            }
+        }
+        return result.stream();
+    }
+
+    /**
+     * Lazily walks the objects of type {@code clazz} in id order, merging the sorted id maps of
+     * its concrete types, starting after {@code idAfter} if given, and stopping once {@code limit}
+     * matches are found
+     */
+    <U extends CatalogInfo> Stream<U> listInIdOrder(
+            Class<U> clazz, @Nullable String idAfter, Predicate<U> predicate, int limit) {
+        List<Iterator<T>> iterators = new ArrayList<>();
+        for (Class<? extends T> key : concreteTypes(clazz)) {
+            ConcurrentNavigableMap<String, T> idMap = idMultiMap.get(key);
+            if (idMap != null) {
+                Map<String, T> range = idAfter == null ? idMap : idMap.tailMap(idAfter, false);
+                iterators.add(range.values().iterator());
+            }
+        }
+        Iterator<T> inIdOrder =
+                iterators.size() == 1
+                        ? iterators.get(0)
+                        : Iterators.mergeSorted(iterators, Comparator.comparing(T::getId));
+        return lazy(inIdOrder, clazz, predicate, limit);
+    }
+
+    /** Filters and sorts the given candidates, as obtained from a {@link QueryPlan} */
+    <U extends CatalogInfo> Stream<U> list(
+            List<U> candidates, Predicate<U> predicate, Comparator<U> comparator, int limit) {
+        if (comparator == PROVIDED_ORDER) {
+            Stream<U> stream = candidates.stream().filter(predicate);
+            return limit == Integer.MAX_VALUE ? stream : stream.limit(limit);
+        }
+        SortedResult<U> result = new SortedResult<>(comparator, limit);
+        for (U u : candidates) {
+            if (predicate.test(u)) {
+                result.add(u);
+            }
+        }
+        return result.stream();
+    }
+
+    /**
+     * @return a stream of the {@link #current} versions of {@code values} matching {@code
+     *     predicate}, pulling from {@code values} only as the stream is consumed
+     */
+    private <U extends CatalogInfo> Stream<U> lazy(
+            Iterator<T> values, Class<U> clazz, Predicate<U> predicate, int limit) {
+        Iterator<U> matches =
+                new AbstractIterator<U>() {
+                    protected @Override U computeNext() {
+                        while (values.hasNext()) {
+                            final U u = clazz.cast(current(values.next()));
+                            if (predicate.test(u)) {
+                                return u;
+                            }
+                        }
+                        return endOfData();
                     }
+                };
+        Stream<U> stream = Streams.stream(matches);
+        return limit == Integer.MAX_VALUE ? stream : stream.limit(limit);
+    }
+
+    /**
+     * Collects query results in {@code comparator} order. If the query is paged, uses a bounded
+     * max-heap so that only the top {@code limit} objects are kept.
+     */
+    private static class SortedResult<U> {
+        private final Comparator<U> comparator;
+        private final int limit;
+        private final List<U> list;
+        private final PriorityQueue<U> heap;
+
+        SortedResult(Comparator<U> comparator, int limit) {
+            this.comparator = comparator;
+            this.limit = limit;
+            boolean bounded = limit != Integer.MAX_VALUE;
+            this.heap =
+                    bounded
+                            ? new PriorityQueue<>(Math.min(limit, 1024) + 1, comparator.reversed())
+                            : null;
+            this.list = bounded ? null : new ArrayList<>();
+        }
+
+        void add(U u) {
+            if (heap != null) {
+                heap.offer(u);
+                if (heap.size() > limit) {
+                    heap.poll();
                 }
+            } else {
+                list.add(u);
             }
         }
 
-        if (comparator != CatalogInfoLookup.PROVIDED_ORDER) {
+        Stream<U> stream() {
+            List<U> result = heap == null ? list : new ArrayList<>(heap);
             Collections.sort(result, comparator);
+            return result.stream();
         }
-        return result.stream();
     }
 
-    /** Looks up a CatalogInfo by class and identifier */
+    /** Looks up a CatalogInfo by class and identifier, with a single {@link #idLookup} probe */
     public @Override <U extends T> Optional<U> findById(String id, Class<U> clazz) {
         requireNonNull(id, () -> "id is null, class: " + clazz);
         requireNonNull(clazz);
-        for (Class<? extends T> key : idMultiMap.keySet()) {
-            if (clazz.isAssignableFrom(key)) {
-                Map<String, T> valueMap = getMapForType(idMultiMap, key);
-                T t = valueMap.get(id);
-                if (t != null) {
-                    return Optional.of(clazz.cast(t));
-                }
-            }
-        }
-
-        return Optional.empty();
+        T t = idLookup.get(id);
+        return clazz.isInstance(t) ? Optional.of(clazz.cast(current(t))) : Optional.empty();
     }
 
-    /** Looks up a CatalogInfo by class and name */
+    /**
+     * Looks up a CatalogInfo by class and name. An ambiguous name resolves to the first match in
+     * {@link #nameMultiMap} order, that is, by concrete type and then by prefixed name, as a scan
+     * would.
+     */
     public @Override <U extends T> Optional<U> findFirstByName(
             String name, @Nullable Class<U> clazz) {
         requireNonNull(name);
         requireNonNull(clazz);
-        return findFirst(clazz, i -> name.equals(nameMapper.apply(i).getLocalPart()));
+        final List<Class<? extends T>> types = concreteTypes(clazz);
+        T first = null;
+        int firstType = -1;
+        Name firstName = null;
+        for (String id : index(NAME).get(name)) {
+            T t = idLookup.get(id);
+            if (!clazz.isInstance(t)) {
+                continue;
+            }
+            int type = types.indexOf(t.getClass());
+            Name prefixedName = nameMapper.apply(t);
+            if (first == null
+                    || type < firstType
+                    || (type == firstType && compare(prefixedName, firstName) < 0)) {
+                first = t;
+                firstType = type;
+                firstName = prefixedName;
+            }
+        }
+        return first == null ? Optional.empty() : Optional.of(clazz.cast(current(first)));
+    }
+
+    /** Compares names the way the {@link #nameMultiMap} keys are sorted */
+    @SuppressWarnings("unchecked")
+    private static int compare(Name n1, Name n2) {
+        return ((Comparable<Name>) n1).compareTo(n2);
     }
 
     protected <U extends T> Optional<U> findFirstByName(Name name, @Nullable Class<U> clazz) {
-        for (Class<? extends T> key : nameMultiMap.keySet()) {
-            if (clazz.isAssignableFrom(key)) {
-                Map<Name, T> valueMap = getMapForType(nameMultiMap, key);
-                T t = valueMap.get(name);
-                if (t != null) {
-                    return Optional.of(clazz.cast(t));
-                }
+        for (Class<? extends T> key : concreteTypes(clazz)) {
+            Map<Name, T> valueMap = getMapForType(nameMultiMap, key);
+            T t = valueMap.get(name);
+            if (t != null) {
+                return Optional.of(clazz.cast(current(t)));
             }
         }
 
@@ -424,14 +990,12 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
      * things going on)
      */
     <U extends CatalogInfo> Optional<U> findFirst(Class<U> clazz, Predicate<U> predicate) {
-        for (Class<? extends T> key : nameMultiMap.keySet()) {
-            if (clazz.isAssignableFrom(key)) {
-                Map<Name, T> valueMap = getMapForType(nameMultiMap, key);
-                for (T v : valueMap.values()) {
-                    final U u = clazz.cast(v);
-                    if (predicate.test(u)) {
-                        return Optional.of(u);
-                    }
+        for (Class<? extends T> key : concreteTypes(clazz)) {
+            Map<Name, T> valueMap = getMapForType(nameMultiMap, key);
+            for (T v : valueMap.values()) {
+                final U u = clazz.cast(current(v));
+                if (predicate.test(u)) {
+                    return Optional.of(u);
                 }
             }
         }
@@ -439,6 +1003,44 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         return Optional.empty();
     }
 
+    /**
+     * Looks up objects of the given class through the secondary {@link #addIndex index} for {@code
+     * property}, in {@code O(result size)}.
+     *
+     * @param scanPredicate predicate equivalent to the index lookup, used to {@link #verifyIndexes
+     *     verify} the index results against a full scan
+     */
+    <U extends T> Stream<U> findAllByIndex(
+            String property, String key, Class<U> clazz, Predicate<U> scanPredicate) {
+        final Set<String> ids = index(property).get(key);
+        List<U> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id, clazz).ifPresent(result::add);
+        }
+        if (verifyIndexes) {
+            verifyIndexResult(property, key, clazz, scanPredicate, result);
+        }
+        return result.stream();
+    }
+
+    private <U extends T> void verifyIndexResult(
+            String property, String key, Class<U> clazz, Predicate<U> predicate, List<U> result) {
+        Set<String> expected =
+                list(clazz, predicate).map(CatalogInfo::getId).collect(Collectors.toSet());
+        Set<String> actual = result.stream().map(CatalogInfo::getId).collect(Collectors.toSet());
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException(
+                    String.format(
+                            "Index %s.%s out of sync for key '%s' and type %s. Expected %s, got %s",
+                            infoType.getSimpleName(),
+                            property,
+                            key,
+                            clazz.getSimpleName(),
+                            expected,
+                            actual));
+        }
+    }
+
     public @Override void syncTo(CatalogInfoRepository<T> target) {
         requireNonNull(target);
         if (target instanceof CatalogInfoLookup) {
@@ -447,17 +1049,52 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
             other.idMultiMap.putAll(this.idMultiMap);
             other.nameMultiMap.putAll(this.nameMultiMap);
             other.idToMameMultiMap.putAll(this.idToMameMultiMap);
+            other.idLookup.putAll(this.idLookup);
+            this.idMultiMap.keySet().forEach(other::registerType);
+            other.reindex();
         } else {
             this.idMultiMap.values().forEach(typeMap -> typeMap.values().forEach(target::add));
         }
     }
 
+    /**
+     * Immutable list of registered concrete types, with a lazily computed cache of the ones
+     * assignable to each query type (e.g. {@code ResourceInfo -> [FeatureTypeInfoImpl,
+     * CoverageInfoImpl, ...]}). A new instance is created each time a concrete type is registered,
+     * so cached entries never go stale.
+     */
+    private static final class TypeDispatch<T> {
+        private final List<Class<? extends T>> types;
+        private final ConcurrentMap<Class<?>, List<Class<? extends T>>> cache =
+                new ConcurrentHashMap<>();
+
+        TypeDispatch(List<Class<? extends T>> types) {
+            this.types = List.copyOf(types);
+        }
+
+        List<Class<? extends T>> concreteTypes(Class<?> queryType) {
+            return cache.computeIfAbsent(
+                    queryType,
+                    c -> types.stream().filter(c::isAssignableFrom).collect(Collectors.toList()));
+        }
+
+        TypeDispatch<T> with(Class<? extends T> type) {
+            if (types.contains(type)) {
+                return this;
+            }
+            List<Class<? extends T>> newTypes = new ArrayList<>(types);
+            newTypes.add(type);
+            return new TypeDispatch<>(newTypes);
+        }
+    }
+
     static class NamespaceInfoLookup extends CatalogInfoLookup<NamespaceInfo>
             implements NamespaceRepository {
         private NamespaceInfo defaultNamespace;
 
         public NamespaceInfoLookup() {
             super(NamespaceInfo.class, NAMESPACE_NAME_MAPPER);
+            addIndex(PropertyIndex.of(URI, NamespaceInfo::getURI));
         }
 
         public @Override void setDefaultNamespace(NamespaceInfo namespace) {
@@ -471,19 +1108,29 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
             return Optional.ofNullable(defaultNamespace);
         }
 
+        /**
+         * Looks up the namespace through the {@code URI} index. Should more than one namespace
+         * share the same URI, returns the first one by prefix, as a full scan would.
+         */
         public @Override Optional<NamespaceInfo> findOneByURI(String uri) {
             requireNonNull(uri);
-            return findFirst(NamespaceInfo.class, ns -> uri.equals(ns.getURI()));
+            return findAllByURI(uri).min(Comparator.comparing(NamespaceInfo::getPrefix));
         }
 
         public @Override Stream<NamespaceInfo> findAllByURI(String uri) {
             requireNonNull(uri);
-            return list(NamespaceInfo.class, ns -> ns.getURI().equals(uri));
+            return findAllByIndex(URI, uri, NamespaceInfo.class, ns -> uri.equals(ns.getURI()));
         }
 
         public @Override void unsetDefaultNamespace() {
             defaultNamespace = null;
         }
+
+        protected @Override void onNewVersion(NamespaceInfo oldVersion, NamespaceInfo newVersion) {
+            if (defaultNamespace != null && defaultNamespace.getId().equals(newVersion.getId())) {
+                defaultNamespace = newVersion;
+            }
+        }
     }
 
     static class WorkspaceInfoLookup extends CatalogInfoLookup<WorkspaceInfo>
@@ -508,6 +1155,12 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         public @Override void unsetDefaultWorkspace() {
             defaultWorkspace = null;
         }
+
+        protected @Override void onNewVersion(WorkspaceInfo oldVersion, WorkspaceInfo newVersion) {
+            if (defaultWorkspace != null && defaultWorkspace.getId().equals(newVersion.getId())) {
+                defaultWorkspace = newVersion;
+            }
+        }
     }
 
     static class StoreInfoLookup extends CatalogInfoLookup<StoreInfo> implements StoreRepository {
@@ -516,6 +1169,7 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
 
         public StoreInfoLookup() {
             super(StoreInfo.class, STORE_NAME_MAPPER);
+            addIndex(PropertyIndex.of(WORKSPACE_ID, s -> PropertyIndex.id(s.getWorkspace())));
         }
 
         public @Override void setDefaultDataStore(WorkspaceInfo workspace, DataStoreInfo store) {
@@ -534,11 +1188,12 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         }
 
         public @Override Optional<DataStoreInfo> getDefaultDataStore(WorkspaceInfo workspace) {
-            return Optional.ofNullable(defaultStores.get(workspace.getId()));
+            return Optional.ofNullable(defaultStores.get(workspace.getId()))
+                    .map(ds -> (DataStoreInfo) current(ds));
         }
 
         public @Override Stream<DataStoreInfo> getDefaultDataStores() {
-            return defaultStores.values().stream();
+            return defaultStores.values().stream().map(ds -> (DataStoreInfo) current(ds));
         }
 
         public @Override void dispose() {
@@ -546,11 +1201,21 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
             defaultStores.clear();
         }
 
+        protected @Override void onNewVersion(StoreInfo oldVersion, StoreInfo newVersion) {
+            if (newVersion instanceof DataStoreInfo) {
+                final String id = newVersion.getId();
+                defaultStores.replaceAll(
+                        (wsId, ds) -> id.equals(ds.getId()) ? (DataStoreInfo) newVersion : ds);
+            }
+        }
+
         public @Override <T extends StoreInfo> Stream<T> findAllByWorkspace(
                 WorkspaceInfo workspace, Class<T> clazz) {
             requireNonNull(workspace);
             requireNonNull(clazz);
-            return list(clazz, s -> workspace.getId().equals(s.getWorkspace().getId()));
+            final String wsId = workspace.getId();
+            return findAllByIndex(
+                    WORKSPACE_ID, wsId, clazz, s -> wsId.equals(s.getWorkspace().getId()));
         }
 
         public @Override <T extends StoreInfo> Stream<T> findAllByType(Class<T> clazz) {
@@ -571,19 +1236,25 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
             implements LayerGroupRepository {
         public LayerGroupInfoLookup() {
             super(LayerGroupInfo.class, LAYERGROUP_NAME_MAPPER);
+            addIndex(PropertyIndex.of(WORKSPACE_ID, lg -> PropertyIndex.id(lg.getWorkspace())));
         }
 
         public @Override Stream<LayerGroupInfo> findAllByWorkspaceIsNull() {
-            return list(LayerGroupInfo.class, lg -> lg.getWorkspace() == null);
+            return findAllByIndex(
+                    WORKSPACE_ID,
+                    null,
+                    LayerGroupInfo.class,
+                    lg -> lg.getWorkspace() == null);
         }
 
         public @Override Stream<LayerGroupInfo> findAllByWorkspace(WorkspaceInfo workspace) {
             requireNonNull(workspace);
-            return list(
+            final String wsId = workspace.getId();
+            return findAllByIndex(
+                    WORKSPACE_ID,
+                    wsId,
                     LayerGroupInfo.class,
-                    lg ->
-                            lg.getWorkspace() != null
-                                    && lg.getWorkspace().getId().equals(workspace.getId()));
+                    lg -> lg.getWorkspace() != null && lg.getWorkspace().getId().equals(wsId));
         }
 
         public @Override Optional<LayerGroupInfo> findByNameAndWorkspaceIsNull(String name) {
@@ -617,6 +1288,8 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
         public ResourceInfoLookup(LayerInfoLookup layers) {
             super(ResourceInfo.class, RESOURCE_NAME_MAPPER);
             this.layers = layers;
+            addIndex(PropertyIndex.of(NAMESPACE_ID, r -> PropertyIndex.id(r.getNamespace())));
+            addIndex(PropertyIndex.of(STORE_ID, r -> PropertyIndex.id(r.getStore())));
         }
 
         public @Override <R extends ResourceInfo> R update(R value, Patch patch) {
@@ -624,9 +1297,9 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
             requireNonNull(patch);
             Name oldName = getMapForValue(idToMameMultiMap, value).get(value.getId());
             R updated = super.update(value, patch);
-            Name newName = nameMapper.apply(value);
+            Name newName = nameMapper.apply(updated);
             if (!newName.equals(oldName)) {
-                layers.updateName(oldName, newName);
+                layers.updateName(oldName, newName, updated);
             }
             return updated;
         }
@@ -640,7 +1313,9 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
                 NamespaceInfo ns, Class<T> clazz) {
             requireNonNull(ns);
             requireNonNull(clazz);
-            return list(clazz, r -> ns.equals(r.getNamespace()));
+            final String nsId = ns.getId();
+            return findAllByIndex(
+                    NAMESPACE_ID, nsId, clazz, r -> nsId.equals(r.getNamespace().getId()));
         }
 
         public @Override <T extends ResourceInfo> Optional<T> findByStoreAndName(
@@ -657,7 +1332,9 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
                 StoreInfo store, Class<T> clazz) {
             requireNonNull(store);
             requireNonNull(clazz);
-            return list(clazz, r -> store.equals(r.getStore()));
+            final String storeId = store.getId();
+            return findAllByIndex(
+                    STORE_ID, storeId, clazz, r -> storeId.equals(r.getStore().getId()));
         }
 
         public @Override <T extends ResourceInfo> Optional<T> findByNameAndNamespace(
@@ -674,17 +1351,55 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
 
         public LayerInfoLookup() {
             super(LayerInfo.class, LAYER_NAME_MAPPER);
+            addIndex(PropertyIndex.of(RESOURCE_ID, l -> PropertyIndex.id(l.getResource())));
+            addIndex(PropertyIndex.multiValued(LAYER_STYLES_ID, LayerInfoLookup::styleIds));
+        }
+
+        /** @return the ids of the layer's default style and styles */
+        static Collection<String> styleIds(LayerInfo layer) {
+            List<String> ids = new ArrayList<>();
+            if (layer.getDefaultStyle() != null) {
+                ids.add(layer.getDefaultStyle().getId());
+            }
+            for (StyleInfo style : layer.getStyles()) {
+                if (style != null) ids.add(style.getId());
+            }
+            return ids;
         }
 
-        void updateName(Name oldName, Name newName) {
+        /**
+         * Moves the layer of a renamed resource to its new name. In {@link #setCopyOnWrite
+         * copy-on-write} mode, the layer still references the previous version of the resource, so
+         * a new version of the layer referencing {@code resource} is published, as its name index
+         * key is the resource name.
+         */
+        void updateName(Name oldName, Name newName, ResourceInfo resource) {
             requireNonNull(oldName);
             requireNonNull(newName);
+            requireNonNull(resource);
             ConcurrentMap<Name, LayerInfo> nameLookup =
                     getMapForType(nameMultiMap, LayerInfoImpl.class);
-            LayerInfo layer = nameLookup.remove(oldName);
+            LayerInfo layer = nameLookup.get(oldName);
             if (layer != null) {
-                nameLookup.put(newName, layer);
-                getMapForType(idToMameMultiMap, LayerInfoImpl.class).put(layer.getId(), newName);
+                final String id = layer.getId();
+                Lock lock = lock(id);
+                lock.lock();
+                try {
+                    LayerInfo renamed = layer;
+                    if (isCopyOnWrite() && layer.getResource() != resource) {
+                        renamed = newVersion(layer);
+                        renamed.setResource(resource);
+                        getMapForType(idMultiMap, LayerInfoImpl.class).put(id, renamed);
+                        idLookup.put(id, renamed);
+                    }
+                    nameLookup.put(newName, renamed);
+                    nameLookup.remove(oldName, layer);
+                    getMapForType(idToMameMultiMap, LayerInfoImpl.class).put(id, newName);
+                    final LayerInfo indexed = renamed;
+                    indexes.values().forEach(index -> index.update(indexed));
+                } finally {
+                    lock.unlock();
+                }
             }
         }
 
@@ -693,26 +1408,38 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
             requireNonNull(value);
             checkNotAProxy(value);
             ConcurrentMap<Name, LayerInfo> nameMap = getMapForValue(nameMultiMap, value);
-            synchronized (nameMap) {
+            Lock lock = lock(value.getId());
+            lock.lock();
+            try {
                 Name name = nameMapper.apply(value);
-                LayerInfo removed = nameMap.remove(name);
+                LayerInfo removed = nameMap.get(name);
                 if (removed != null) {
-                    getMapForValue(idMultiMap, value).remove(value.getId());
+                    if (getMapForValue(idMultiMap, value).remove(value.getId()) != null) {
+                        typeCount(value.getClass()).decrement();
+                    }
+                    idLookup.remove(value.getId());
+                    nameMap.remove(name, removed);
                     getMapForValue(idToMameMultiMap, value).remove(value.getId());
+                    indexes.values().forEach(index -> index.remove(value.getId()));
                 }
+            } finally {
+                lock.unlock();
             }
         }
 
         public @Override Optional<LayerInfo> findOneByName(String name) {
             requireNonNull(name);
-            return findFirst(LayerInfo.class, li -> name.equals(li.getName()));
+            return findFirstByName(name, LayerInfo.class);
         }
 
         public @Override Stream<LayerInfo> findAllByDefaultStyleOrStyles(StyleInfo style) {
             requireNonNull(style);
-            return list(
+            final String styleId = style.getId();
+            return findAllByIndex(
+                    LAYER_STYLES_ID,
+                    styleId,
                     LayerInfo.class,
-                    li -> style.equals(li.getDefaultStyle()) || li.getStyles().contains(style));
+                    li -> styleIds(li).contains(styleId));
         }
 
         public @Override Stream<LayerInfo> findAllByResource(ResourceInfo resource) {
@@ -728,17 +1455,25 @@ abstract class CatalogInfoLookup<T extends CatalogInfo> implements CatalogInfoRe
     static class StyleInfoLookup extends CatalogInfoLookup<StyleInfo> implements StyleRepository {
         public StyleInfoLookup() {
             super(StyleInfo.class, STYLE_NAME_MAPPER);
+            addIndex(PropertyIndex.of(WORKSPACE_ID, s -> PropertyIndex.id(s.getWorkspace())));
         }
 
         public @Override Stream<StyleInfo> findAllByNullWorkspace() {
-            return list(StyleInfo.class, s -> s.getWorkspace() == null);
+            return findAllByIndex(
+                    WORKSPACE_ID,
+                    null,
+                    StyleInfo.class,
+                    s -> s.getWorkspace() == null);
         }
 
         public @Override Stream<StyleInfo> findAllByWorkspace(WorkspaceInfo ws) {
             requireNonNull(ws);
-            return list(
+            final String wsId = ws.getId();
+            return findAllByIndex(
+                    WORKSPACE_ID,
+                    wsId,
                     StyleInfo.class,
-                    s -> s.getWorkspace() != null && s.getWorkspace().getId().equals(ws.getId()));
+                    s -> s.getWorkspace() != null && s.getWorkspace().getId().equals(wsId));
         }
 
         public @Override Optional<StyleInfo> findByNameAndWordkspaceNull(String name) {
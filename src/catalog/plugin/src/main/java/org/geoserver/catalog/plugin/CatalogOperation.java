@@ -0,0 +1,52 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+import org.geoserver.catalog.CatalogInfo;
+
+/**
+ * A single catalog mutation, one of a stream of operations applied in order and in a single
+ * request by the catalog service's batch API.
+ *
+ * @see CatalogOperationResult
+ */
+@NoArgsConstructor
+@Accessors(chain = true)
+public @Data class CatalogOperation {
+
+    public static enum Type {
+        ADD,
+        UPDATE,
+        REMOVE
+    }
+
+    private Type type;
+
+    /** Id of the object to {@link Type#UPDATE update} or {@link Type#REMOVE remove} */
+    private String id;
+
+    /** Object to {@link Type#ADD add} */
+    private CatalogInfo value;
+
+    /** Changes to apply on {@link Type#UPDATE update} */
+    private Patch patch;
+
+    public static CatalogOperation add(@NonNull CatalogInfo value) {
+        return new CatalogOperation().setType(Type.ADD).setId(value.getId()).setValue(value);
+    }
+
+    public static CatalogOperation update(@NonNull String id, @NonNull Patch patch) {
+        return new CatalogOperation().setType(Type.UPDATE).setId(id).setPatch(patch);
+    }
+
+    public static CatalogOperation remove(@NonNull String id) {
+        return new CatalogOperation().setType(Type.REMOVE).setId(id);
+    }
+}
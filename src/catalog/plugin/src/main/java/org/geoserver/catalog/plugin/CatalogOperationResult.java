@@ -0,0 +1,65 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import org.geoserver.catalog.CatalogInfo;
+
+/**
+ * Outcome of a single {@link CatalogOperation} in a batch, results are returned in the same order
+ * as the operations were submitted, and a failed operation does not abort the batch.
+ */
+@NoArgsConstructor
+@Accessors(chain = true)
+public @Data class CatalogOperationResult {
+
+    public static enum Status {
+        /** The operation succeeded */
+        OK,
+        /** The object to update or remove does not exist */
+        NOT_FOUND,
+        /** The operation failed, see {@link CatalogOperationResult#getError()} */
+        ERROR
+    }
+
+    /** Zero-based position of the operation in the batch */
+    private int index;
+
+    private CatalogOperation.Type type;
+
+    private String id;
+
+    private Status status;
+
+    /** The added, updated, or removed object, if {@link Status#OK} */
+    private CatalogInfo value;
+
+    /** Error message, if {@link Status#ERROR} */
+    private String error;
+
+    public static CatalogOperationResult ok(int index, CatalogOperation op, CatalogInfo value) {
+        return of(index, op, Status.OK).setId(value.getId()).setValue(value);
+    }
+
+    public static CatalogOperationResult notFound(int index, CatalogOperation op) {
+        return of(index, op, Status.NOT_FOUND);
+    }
+
+    public static CatalogOperationResult error(int index, CatalogOperation op, Throwable error) {
+        String message = error.getMessage();
+        return of(index, op, Status.ERROR).setError(message == null ? error.toString() : message);
+    }
+
+    private static CatalogOperationResult of(int index, CatalogOperation op, Status status) {
+        return new CatalogOperationResult()
+                .setIndex(index)
+                .setType(op.getType())
+                .setId(op.getId())
+                .setStatus(status);
+    }
+}
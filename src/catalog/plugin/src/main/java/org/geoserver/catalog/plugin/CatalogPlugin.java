@@ -82,10 +82,13 @@ import org.opengis.filter.expression.PropertyName;
 import org.opengis.filter.identity.Identifier;
 import org.opengis.filter.sort.SortBy;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -1519,8 +1522,14 @@ public class CatalogPlugin extends CatalogImpl implements Catalog {
             I updated = facade.update(info, patch);
 
             // commit proxy, making effective the change in the provided object. Has no effect in
-            // what's been passed to the facade
-            proxy.commit();
+            // what's been passed to the facade. If the facade installed a new version of the
+            // object instead, the proxied one is a previous version that shall not be modified,
+            // so the proxy is pointed to the new version instead
+            if (isCopyOnWrite()) {
+                rebase(proxy, ModificationProxy.unwrap(updated));
+            } else {
+                proxy.commit();
+            }
             // fire the event before the post-rules are processed, since they may result in other
             // objects removed/modified, and hence avoid a secondary event to be notified before the
             // primary one. For example, a post-rule may result in a call to
@@ -1533,6 +1542,48 @@ public class CatalogPlugin extends CatalogImpl implements Catalog {
         }
     }
 
+    /**
+     * @return whether the raw facade installs a new version of the objects on update instead of
+     *     modifying them in place
+     * @see DefaultMemoryCatalogFacade#setCopyOnWrite(boolean)
+     */
+    private boolean isCopyOnWrite() {
+        return rawFacade instanceof DefaultMemoryCatalogFacade
+                && ((DefaultMemoryCatalogFacade) rawFacade).isCopyOnWrite();
+    }
+
+    /**
+     * Points {@code proxy} to the new version of its object installed by a copy-on-write update,
+     * discarding its pending changes, since they've been applied to the new version already, so
+     * that it's no longer dirty. {@link ModificationProxy} has no API for it, hence its fields are
+     * set reflectively. Falls back to {@link ModificationProxy#commit() committing} the changes to
+     * the previous version if that fails.
+     */
+    private static void rebase(ModificationProxy proxy, Object newVersion) {
+        final Object oldVersion = proxy.getProxyObject();
+        try {
+            for (Field field : ModificationProxy.class.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                field.setAccessible(true);
+                Object value = field.get(proxy);
+                if (value == oldVersion) {
+                    field.set(proxy, newVersion);
+                } else if (value instanceof Map) {
+                    ((Map<?, ?>) value).clear();
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Error rebasing ModificationProxy", e);
+        }
+        if (proxy.getProxyObject() != newVersion || !proxy.getPropertyNames().isEmpty()) {
+            LOGGER.warning(
+                    "Unable to point the ModificationProxy to the new version of "
+                            + proxy.getProxyObject()
+                            + ", committing the changes to the previous version instead");
+            proxy.commit();
+        }
+    }
+
     protected <T extends CatalogInfo> void doRemove(T object, Consumer<T> remover) {
         validationSupport.beforeRemove(object);
         CatalogOpContext<T> context = new CatalogOpContext<>(this, object);
@@ -8,6 +8,13 @@ import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.CatalogFacade;
 import org.geoserver.catalog.CatalogInfo;
 import org.geoserver.catalog.CatalogRepository;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.plugin.CatalogInfoLookup.LayerGroupInfoLookup;
 import org.geoserver.catalog.plugin.CatalogInfoLookup.LayerInfoLookup;
 import org.geoserver.catalog.plugin.CatalogInfoLookup.MapInfoLookup;
@@ -17,15 +24,25 @@ import org.geoserver.catalog.plugin.CatalogInfoLookup.StoreInfoLookup;
 import org.geoserver.catalog.plugin.CatalogInfoLookup.StyleInfoLookup;
 import org.geoserver.catalog.plugin.CatalogInfoLookup.WorkspaceInfoLookup;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Optional;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Default catalog facade implementation using in-memory {@link CatalogRepository repositories} to
  * store the {@link CatalogInfo}
+ *
+ * <p>Supports an optional {@link #setCopyOnWrite copy-on-write} mode, where updates install a new
+ * version of the modified object instead of patching it in place.
  */
 public class DefaultMemoryCatalogFacade extends RepositoryCatalogFacadeImpl
         implements CatalogFacade {
 
+    private boolean copyOnWrite;
+
     public DefaultMemoryCatalogFacade() {
         this(null);
     }
@@ -57,6 +74,127 @@ public class DefaultMemoryCatalogFacade extends RepositoryCatalogFacadeImpl
 
     private <I extends CatalogInfo, R extends CatalogInfoRepository<I>> R resolve(
             R current, Supplier<R> factory) {
-        return current == null ? factory.get() : current;
+        R repository = current == null ? factory.get() : current;
+        if (repository instanceof CatalogInfoLookup) {
+            configure((CatalogInfoLookup<?>) repository);
+        }
+        return repository;
+    }
+
+    /**
+     * Enables or disables the copy-on-write mode (disabled by default).
+     *
+     * <p>When enabled, each update installs a new version of the object (see {@link
+     * CatalogInfoLookup#setCopyOnWrite(boolean)}) instead of patching it in place. Objects obtained
+     * from this facade are hence never modified, so readers holding them for the duration of a
+     * request (e.g. while encoding a large capabilities document) see a consistent version of
+     * each of them without the need of a global configuration read lock.
+     *
+     * <p>Updates don't touch the objects referencing the updated one (e.g. a workspace's stores),
+     * so they cost the same regardless of the size of the catalog. Instead, references are
+     * resolved by id as objects are read: an object holding a reference to a superseded version is
+     * replaced by a new version referencing the current one the first time it's read (see {@link
+     * CatalogInfoLookup#setReferenceRelinker}). Each read hence costs a few id lookups per
+     * reference, and objects looked up separately may belong to different versions while an
+     * update is in progress.
+     *
+     * <p>Only applies to the default {@link CatalogInfoLookup} repositories.
+     */
+    public void setCopyOnWrite(boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+        Stream.of(workspaces, namespaces, stores, resources, layers, layerGroups, styles, maps)
+                .filter(CatalogInfoLookup.class::isInstance)
+                .map(CatalogInfoLookup.class::cast)
+                .forEach(this::configure);
+    }
+
+    public boolean isCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    private void configure(CatalogInfoLookup<?> lookup) {
+        lookup.setCopyOnWrite(copyOnWrite);
+        lookup.setReferenceRelinker(copyOnWrite ? this::staleReferences : null);
+    }
+
+    /**
+     * @return a patch switching the references {@code info} holds to other catalog objects that
+     *     have been superseded by a copy-on-write update to their current versions, empty if they
+     *     are all current
+     */
+    Patch staleReferences(CatalogInfo info) {
+        Patch patch = new Patch();
+        if (info instanceof StoreInfo) {
+            relink(patch, "workspace", ((StoreInfo) info).getWorkspace());
+        } else if (info instanceof ResourceInfo) {
+            ResourceInfo resource = (ResourceInfo) info;
+            relink(patch, "namespace", resource.getNamespace());
+            relink(patch, "store", resource.getStore());
+        } else if (info instanceof LayerInfo) {
+            LayerInfo layer = (LayerInfo) info;
+            relink(patch, "resource", layer.getResource());
+            relink(patch, "defaultStyle", layer.getDefaultStyle());
+            relinkAll(patch, "styles", layer.getStyles(), LinkedHashSet::new);
+        } else if (info instanceof LayerGroupInfo) {
+            LayerGroupInfo lg = (LayerGroupInfo) info;
+            relink(patch, "workspace", lg.getWorkspace());
+            relink(patch, "rootLayer", lg.getRootLayer());
+            relink(patch, "rootLayerStyle", lg.getRootLayerStyle());
+            relinkAll(patch, "layers", lg.getLayers(), ArrayList::new);
+            relinkAll(patch, "styles", lg.getStyles(), ArrayList::new);
+        } else if (info instanceof StyleInfo) {
+            relink(patch, "workspace", ((StyleInfo) info).getWorkspace());
+        }
+        return patch;
+    }
+
+    private void relink(Patch patch, String property, CatalogInfo reference) {
+        CatalogInfo current = current(reference);
+        if (current != reference) {
+            patch.add(property, current);
+        }
+    }
+
+    private <R extends CatalogInfo, C extends Collection<R>> void relinkAll(
+            Patch patch, String property, Collection<R> references, Supplier<C> factory) {
+        boolean stale = false;
+        C current = factory.get();
+        for (R reference : references) {
+            R currentReference = current(reference);
+            stale |= currentReference != reference;
+            current.add(currentReference);
+        }
+        if (stale) {
+            patch.add(property, current);
+        }
+    }
+
+    /**
+     * @return the current version of the referenced object, resolved by id, or {@code reference}
+     *     itself if it's {@code null} or no longer exists
+     */
+    @SuppressWarnings("unchecked")
+    private <R extends CatalogInfo> R current(R reference) {
+        if (reference == null) {
+            return null;
+        }
+        final String id = reference.getId();
+        Optional<? extends CatalogInfo> current = Optional.empty();
+        if (reference instanceof WorkspaceInfo) {
+            current = workspaces.findById(id, WorkspaceInfo.class);
+        } else if (reference instanceof NamespaceInfo) {
+            current = namespaces.findById(id, NamespaceInfo.class);
+        } else if (reference instanceof StoreInfo) {
+            current = stores.findById(id, StoreInfo.class);
+        } else if (reference instanceof ResourceInfo) {
+            current = resources.findById(id, ResourceInfo.class);
+        } else if (reference instanceof LayerInfo) {
+            current = layers.findById(id, LayerInfo.class);
+        } else if (reference instanceof LayerGroupInfo) {
+            current = layerGroups.findById(id, LayerGroupInfo.class);
+        } else if (reference instanceof StyleInfo) {
+            current = styles.findById(id, StyleInfo.class);
+        }
+        return (R) current.orElse(reference);
     }
 }
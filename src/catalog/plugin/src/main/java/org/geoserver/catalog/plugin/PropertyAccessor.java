@@ -0,0 +1,101 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static java.util.Objects.requireNonNull;
+
+import org.geoserver.ows.util.OwsUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Precompiled, cached, getter chain for a possibly nested property (e.g. {@code
+ * resource.store.name}) of a given concrete class, to avoid the per-call property name parsing and
+ * getter lookups of {@link OwsUtils#get(Object, String)} when comparing objects while sorting.
+ *
+ * <p>Falls back to {@link OwsUtils#get(Object, String)} for properties it can't resolve to a
+ * plain getter chain, like map entries (e.g. {@code metadata.key}), or for dynamic proxies.
+ */
+final class PropertyAccessor {
+
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<String, PropertyAccessor>> CACHE =
+            new ConcurrentHashMap<>();
+
+    private final String propertyName;
+
+    /** The getter chain, or {@code null} to fall back to {@link OwsUtils#get} */
+    private final MethodHandle[] getters;
+
+    private PropertyAccessor(String propertyName, MethodHandle[] getters) {
+        this.propertyName = propertyName;
+        this.getters = getters;
+    }
+
+    /** @return the value of {@code propertyName} for {@code object}, may be {@code null} */
+    public static Object get(Object object, String propertyName) {
+        requireNonNull(object);
+        return of(object.getClass(), propertyName).get(object);
+    }
+
+    public static PropertyAccessor of(Class<?> type, String propertyName) {
+        requireNonNull(type);
+        requireNonNull(propertyName);
+        return CACHE.computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(propertyName, p -> compile(type, p));
+    }
+
+    public Object get(Object object) {
+        if (getters == null) {
+            return OwsUtils.get(object, propertyName);
+        }
+        Object value = object;
+        for (int i = 0; value != null && i < getters.length; i++) {
+            try {
+                value = getters[i].invoke(value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return value;
+    }
+
+    /** @return {@code false} if this accessor falls back to {@link OwsUtils#get} */
+    boolean isCompiled() {
+        return getters != null;
+    }
+
+    private static PropertyAccessor compile(Class<?> type, String propertyName) {
+        if (Proxy.isProxyClass(type)) {
+            return new PropertyAccessor(propertyName, null);
+        }
+        final String[] path = propertyName.split("\\.");
+        final MethodHandle[] getters = new MethodHandle[path.length];
+        Class<?> clazz = type;
+        try {
+            for (int i = 0; i < path.length; i++) {
+                if (Map.class.isAssignableFrom(clazz)) {
+                    return new PropertyAccessor(propertyName, null);
+                }
+                Method getter = OwsUtils.getter(clazz, path[i], null);
+                if (getter == null) {
+                    return new PropertyAccessor(propertyName, null);
+                }
+                getters[i] = MethodHandles.publicLookup().unreflect(getter);
+                clazz = getter.getReturnType();
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            return new PropertyAccessor(propertyName, null);
+        }
+        return new PropertyAccessor(propertyName, getters);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static java.util.Objects.requireNonNull;
+
+import org.geoserver.catalog.CatalogInfo;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * A secondary index for {@link CatalogInfoLookup}, maps the values of a property of the indexed
+ * objects (usually the id of a referenced object, like in {@code workspace.id}) to the ids of the
+ * objects holding it.
+ *
+ * <p>The index is maintained by {@link CatalogInfoLookup} on {@link CatalogInfoLookup#add add},
+ * {@link CatalogInfoLookup#remove remove}, and {@link CatalogInfoLookup#update update}, so that
+ * lookups by the indexed property cost {@code O(result size)} instead of a full scan.
+ *
+ * <p>A property can be multi-valued (e.g. {@code LayerInfo}'s default style and styles), in which
+ * case the object is indexed under all its keys. {@code null} property values of single-valued
+ * properties are indexed under a dedicated key that can't collide with any property value (e.g.
+ * the empty string), allowing to look up, for example, all the global (no workspace) styles by
+ * {@code null}.
+ *
+ * <p>The number of objects per key is tracked separately, so that {@link #count(String)} doesn't
+ * need to traverse the (skip list based) set of ids.
+ *
+ * @param <T>
+ */
+final class PropertyIndex<T extends CatalogInfo> {
+
+    /** Key under which objects whose indexed property is {@code null} are indexed */
+    private static final Object NULL_KEY =
+            new Object() {
+                public @Override String toString() {
+                    return "<null>";
+                }
+            };
+
+    private final String property;
+
+    private final Function<T, Set<Object>> keyExtractor;
+
+    private final ConcurrentMap<Object, Set<String>> keyToIds = new ConcurrentHashMap<>();
+
+    /** Number of object ids per key, updated while holding the {@link #keyToIds} entry lock */
+    private final ConcurrentMap<Object, Integer> keyCounts = new ConcurrentHashMap<>();
+
+    /** Reverse mapping, allows to un-index an object after it's been patched in-place */
+    private final ConcurrentMap<String, Set<Object>> idToKeys = new ConcurrentHashMap<>();
+
+    private PropertyIndex(String property, Function<T, Set<Object>> keyExtractor) {
+        this.property = requireNonNull(property);
+        this.keyExtractor = requireNonNull(keyExtractor);
+    }
+
+    /** Creates an index for a single-valued property */
+    static <T extends CatalogInfo> PropertyIndex<T> of(
+            String property, Function<T, String> keyExtractor) {
+        requireNonNull(keyExtractor);
+        return new PropertyIndex<>(
+                property, value -> Collections.singleton(nullToKey(keyExtractor.apply(value))));
+    }
+
+    /** Creates an index for a multi-valued property, {@code null} keys are ignored */
+    static <T extends CatalogInfo> PropertyIndex<T> multiValued(
+            String property, Function<T, Collection<String>> keyExtractor) {
+        requireNonNull(keyExtractor);
+        return new PropertyIndex<>(
+                property,
+                value -> {
+                    Set<Object> keys = new LinkedHashSet<>(keyExtractor.apply(value));
+                    keys.remove(null);
+                    return keys;
+                });
+    }
+
+    /** @return the id of the given object, or {@code null} if it's {@code null} */
+    static String id(CatalogInfo info) {
+        return info == null ? null : info.getId();
+    }
+
+    private static Object nullToKey(String key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    void add(T value) {
+        final String id = value.getId();
+        final Set<Object> keys = keyExtractor.apply(value);
+        idToKeys.put(id, keys);
+        keys.forEach(key -> index(key, id));
+    }
+
+    void remove(String id) {
+        Set<Object> keys = idToKeys.remove(id);
+        if (keys != null) {
+            keys.forEach(key -> unindex(key, id));
+        }
+    }
+
+    /**
+     * Re-indexes an object that may have had its indexed property changed, new keys are indexed
+     * before the stale ones are removed, so that concurrent lookups don't miss it while it's not
+     * changing.
+     */
+    void update(T value) {
+        final String id = value.getId();
+        final Set<Object> newKeys = keyExtractor.apply(value);
+        final Set<Object> oldKeys = idToKeys.put(id, newKeys);
+        newKeys.forEach(key -> index(key, id));
+        if (oldKeys != null) {
+            oldKeys.stream().filter(key -> !newKeys.contains(key)).forEach(key -> unindex(key, id));
+        }
+    }
+
+    /**
+     * @return the (possibly empty) live, unmodifiable, set of object ids indexed under key, or
+     *     under the {@code null} key if {@code key == null}
+     */
+    Set<String> get(String key) {
+        Set<String> ids = keyToIds.get(nullToKey(key));
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    /** @return the number of objects indexed under key, in {@code O(1)} */
+    int count(String key) {
+        return keyCounts.getOrDefault(nullToKey(key), 0);
+    }
+
+    void clear() {
+        keyToIds.clear();
+        keyCounts.clear();
+        idToKeys.clear();
+    }
+
+    private void index(Object key, String id) {
+        keyToIds.compute(
+                key,
+                (k, ids) -> {
+                    if (ids == null) ids = new ConcurrentSkipListSet<>();
+                    if (ids.add(id)) {
+                        keyCounts.merge(k, 1, Integer::sum);
+                    }
+                    return ids;
+                });
+    }
+
+    private void unindex(Object key, String id) {
+        keyToIds.computeIfPresent(
+                key,
+                (k, ids) -> {
+                    if (ids.remove(id)) {
+                        keyCounts.computeIfPresent(k, (kc, count) -> count == 1 ? null : count - 1);
+                    }
+                    return ids.isEmpty() ? null : ids;
+                });
+    }
+
+    public @Override String toString() {
+        return String.format(
+                "%s[%s, keys: %,d]", getClass().getSimpleName(), property, keyToIds.size());
+    }
+}
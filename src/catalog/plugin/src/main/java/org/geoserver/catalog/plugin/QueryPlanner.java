@@ -0,0 +1,274 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static java.util.Objects.requireNonNull;
+
+import org.geotools.factory.CommonFactoryFinder;
+import org.opengis.filter.And;
+import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory;
+import org.opengis.filter.Id;
+import org.opengis.filter.MultiValuedFilter.MatchAction;
+import org.opengis.filter.PropertyIsEqualTo;
+import org.opengis.filter.PropertyIsGreaterThan;
+import org.opengis.filter.expression.Expression;
+import org.opengis.filter.expression.Literal;
+import org.opengis.filter.expression.PropertyName;
+import org.opengis.filter.identity.Identifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Minimal query planner for {@link CatalogInfoLookup#findAll(Query)}, splits a {@link Filter} into
+ * a direct access path (lookup by id or through a secondary {@link PropertyIndex}) and a residual
+ * filter to be evaluated only against the objects returned by it.
+ *
+ * <p>Recognizes {@link Id} filters, and {@link PropertyIsEqualTo} filters on {@code id} or any of
+ * the indexed properties (e.g. {@code name}, {@code workspace.id}, {@code namespace.id}, {@code
+ * store.id}, {@code resource.id}), either top level or as a member of an {@link And} filter.
+ * Lacking those, a {@link PropertyIsGreaterThan} filter on {@code id}, like the continuation
+ * filter of a keyset paged query, results in an id range plan, for the lookup to seek into its
+ * sorted ids. Anything else results in a full scan plan with the original filter as the residual.
+ *
+ * <p>Only {@link MatchAction#ANY} filters are planned, and only on indexes named after a filter
+ * property, whose keys are exactly the property values. Indexes merging several properties are
+ * named with a leading {@link #INTERNAL_INDEX_PREFIX} and never used to answer a filter.
+ */
+final class QueryPlanner {
+
+    static final String ID = "id";
+
+    /**
+     * Prefix of the index names that don't match a filter property, e.g. {@code LayerInfo}'s
+     * {@code @styles.id}, indexing both its default style and styles
+     */
+    static final String INTERNAL_INDEX_PREFIX = "@";
+
+    private static final FilterFactory FF = CommonFactoryFinder.getFilterFactory(null);
+
+    private QueryPlanner() {
+        // private constructor, utility class
+    }
+
+    /**
+     * @param filter the query filter
+     * @param indexedProperties the property names the target {@link CatalogInfoLookup} has a
+     *     {@link PropertyIndex} for
+     */
+    public static QueryPlan plan(Filter filter, Set<String> indexedProperties) {
+        requireNonNull(filter);
+        requireNonNull(indexedProperties);
+        Optional<QueryPlan> plan = access(filter, indexedProperties);
+        if (plan.isPresent()) {
+            return plan.get();
+        }
+        if (filter instanceof And) {
+            return planAnd((And) filter, indexedProperties);
+        }
+        return idRange(filter).orElseGet(() -> QueryPlan.fullScan(filter));
+    }
+
+    private static QueryPlan planAnd(And and, Set<String> indexedProperties) {
+        final List<Filter> children = and.getChildren();
+        QueryPlan best = null;
+        int bestIndex = -1;
+        for (int i = 0; i < children.size(); i++) {
+            Optional<QueryPlan> access = access(children.get(i), indexedProperties);
+            if (access.isPresent() && (best == null || access.get().isIdLookup())) {
+                best = access.get();
+                bestIndex = i;
+                if (best.isIdLookup()) break;
+            }
+        }
+        if (best == null) {
+            for (int i = 0; i < children.size() && best == null; i++) {
+                best = idRange(children.get(i)).orElse(null);
+                bestIndex = i;
+            }
+        }
+        if (best == null) {
+            return QueryPlan.fullScan(and);
+        }
+        List<Filter> residual = new ArrayList<>(children);
+        residual.remove(bestIndex);
+        Filter residualFilter = residual.size() == 1 ? residual.get(0) : FF.and(residual);
+        return best.withResidual(residualFilter);
+    }
+
+    /** @return a direct access plan with no residual filter, if {@code filter} allows it */
+    private static Optional<QueryPlan> access(Filter filter, Set<String> indexedProperties) {
+        if (filter instanceof Id) {
+            Set<String> ids = new LinkedHashSet<>();
+            for (Identifier identifier : ((Id) filter).getIdentifiers()) {
+                ids.add(String.valueOf(identifier.getID()));
+            }
+            return Optional.of(QueryPlan.ids(ids));
+        }
+        if (filter instanceof PropertyIsEqualTo) {
+            PropertyIsEqualTo equals = (PropertyIsEqualTo) filter;
+            if (!equals.isMatchingCase() || equals.getMatchAction() != MatchAction.ANY) {
+                return Optional.empty();
+            }
+            String property = propertyName(equals.getExpression1(), equals.getExpression2());
+            String value = literal(equals.getExpression1(), equals.getExpression2());
+            if (property == null || value == null) {
+                return Optional.empty();
+            }
+            if (ID.equals(property)) {
+                return Optional.of(QueryPlan.ids(Collections.singleton(value)));
+            }
+            if (indexedProperties.contains(property) && !isInternalIndex(property)) {
+                return Optional.of(QueryPlan.index(property, value));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** @return whether {@code indexName} can't be used to answer a filter on a property */
+    static boolean isInternalIndex(String indexName) {
+        return indexName.startsWith(INTERNAL_INDEX_PREFIX);
+    }
+
+    /** @return the {@code id > 'idAfter'} filter of an {@link QueryPlan#isIdRange() id range} */
+    static Filter idRangeFilter(String idAfter) {
+        return FF.greater(FF.property(ID), FF.literal(idAfter));
+    }
+
+    /** @return an id range plan if {@code filter} is {@code id > 'literal'} */
+    private static Optional<QueryPlan> idRange(Filter filter) {
+        if (filter instanceof PropertyIsGreaterThan) {
+            PropertyIsGreaterThan greater = (PropertyIsGreaterThan) filter;
+            if (greater.getMatchAction() != MatchAction.ANY
+                    || !(greater.getExpression1() instanceof PropertyName)
+                    || !ID.equals(((PropertyName) greater.getExpression1()).getPropertyName())) {
+                return Optional.empty();
+            }
+            String after = literal(greater.getExpression1(), greater.getExpression2());
+            if (after != null) {
+                return Optional.of(QueryPlan.idsAfter(after));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String propertyName(Expression e1, Expression e2) {
+        if (e1 instanceof PropertyName && e2 instanceof Literal) {
+            return ((PropertyName) e1).getPropertyName();
+        }
+        if (e2 instanceof PropertyName && e1 instanceof Literal) {
+            return ((PropertyName) e2).getPropertyName();
+        }
+        return null;
+    }
+
+    private static String literal(Expression e1, Expression e2) {
+        Object value = null;
+        if (e1 instanceof Literal) {
+            value = ((Literal) e1).getValue();
+        } else if (e2 instanceof Literal) {
+            value = ((Literal) e2).getValue();
+        }
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * The result of {@link QueryPlanner#plan planning} a {@link Filter}: either a full scan, a set
+     * of ids to look up, a key to look up in a secondary index, or a range of ids to seek into;
+     * plus the residual filter to evaluate on each object obtained from the access path.
+     */
+    static final class QueryPlan {
+        private final Set<String> ids;
+        private final String indexProperty;
+        private final String indexKey;
+        private final String idAfter;
+        private final Filter residual;
+
+        private QueryPlan(
+                Set<String> ids, String property, String key, String idAfter, Filter residual) {
+            this.ids = ids;
+            this.indexProperty = property;
+            this.indexKey = key;
+            this.idAfter = idAfter;
+            this.residual = requireNonNull(residual);
+        }
+
+        static QueryPlan fullScan(Filter filter) {
+            return new QueryPlan(null, null, null, null, filter);
+        }
+
+        static QueryPlan ids(Set<String> ids) {
+            return new QueryPlan(ids, null, null, null, Filter.INCLUDE);
+        }
+
+        static QueryPlan index(String property, String key) {
+            return new QueryPlan(null, property, key, null, Filter.INCLUDE);
+        }
+
+        static QueryPlan idsAfter(String idAfter) {
+            return new QueryPlan(null, null, null, idAfter, Filter.INCLUDE);
+        }
+
+        QueryPlan withResidual(Filter residual) {
+            return new QueryPlan(ids, indexProperty, indexKey, idAfter, residual);
+        }
+
+        public boolean isFullScan() {
+            return ids == null && indexProperty == null && idAfter == null;
+        }
+
+        public boolean isIdRange() {
+            return idAfter != null;
+        }
+
+        /** @return the exclusive lower bound of an {@link #isIdRange() id range} plan */
+        public String getIdAfter() {
+            return idAfter;
+        }
+
+        public boolean isIdLookup() {
+            return ids != null;
+        }
+
+        public boolean isIndexLookup() {
+            return indexProperty != null;
+        }
+
+        public Set<String> getIds() {
+            return ids;
+        }
+
+        public String getIndexProperty() {
+            return indexProperty;
+        }
+
+        public String getIndexKey() {
+            return indexKey;
+        }
+
+        public Filter getResidual() {
+            return residual;
+        }
+
+        public @Override String toString() {
+            if (isIdLookup()) {
+                return String.format("QueryPlan[ids: %s, residual: %s]", ids, residual);
+            }
+            if (isIndexLookup()) {
+                return String.format(
+                        "QueryPlan[%s = '%s', residual: %s]", indexProperty, indexKey, residual);
+            }
+            if (isIdRange()) {
+                return String.format("QueryPlan[id > '%s', residual: %s]", idAfter, residual);
+            }
+            return String.format("QueryPlan[full scan: %s]", residual);
+        }
+    }
+}
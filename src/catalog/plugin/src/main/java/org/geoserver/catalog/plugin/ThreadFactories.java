@@ -0,0 +1,53 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import lombok.NonNull;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ThreadFactory} utilities for the thread pools performing blocking catalog calls, creating
+ * virtual threads if the runtime supports them (Java 21+), or daemon platform threads otherwise.
+ *
+ * @since 1.0
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+        // private constructor, utility class
+    }
+
+    /**
+     * Uses reflection to call {@code Thread.ofVirtual().name(namePrefix, 0).factory()}, since the
+     * code is compiled against a runtime without virtual threads
+     *
+     * @return the virtual thread factory, or empty if not supported by the runtime
+     */
+    public static Optional<ThreadFactory> virtualThreadFactory(@NonNull String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Method name = builderType.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /** @return a factory of daemon platform threads named {@code namePrefix} plus a counter */
+    public static ThreadFactory platformThreadFactory(@NonNull String namePrefix) {
+        final AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
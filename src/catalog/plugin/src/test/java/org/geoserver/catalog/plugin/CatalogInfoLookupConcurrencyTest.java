@@ -0,0 +1,152 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.WorkspaceInfoLookup;
+import org.geotools.util.logging.Logging;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opengis.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Concurrency stress test for {@link CatalogInfoLookup} writes, each thread adds, renames, and
+ * removes its own set of objects of the same type, and the id, name, and secondary index lookups
+ * are verified to agree with each other afterwards. The same workload doubles as an opt-in
+ * benchmark reporting writes per second at 1 to 32 threads.
+ */
+public class CatalogInfoLookupConcurrencyTest {
+
+    private static final Logger LOGGER = Logging.getLogger(CatalogInfoLookupConcurrencyTest.class);
+
+    private static final int OBJECTS_PER_THREAD = 500;
+
+    private static final int BENCHMARK_OBJECTS_PER_THREAD = 2_000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 16})
+    public void testConcurrentWrites(final int threads) throws Exception {
+        WorkspaceInfoLookup lookup = new WorkspaceInfoLookup();
+        runConcurrentWrites(lookup, threads, OBJECTS_PER_THREAD);
+        verify(lookup, threads, OBJECTS_PER_THREAD);
+    }
+
+    /**
+     * Measures the writes per second at 1 to 32 threads. Opt-in, as it takes a while and its
+     * results only make sense on a quiet machine, run with {@code -Dcatalog.benchmark=true}.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 8, 16, 32})
+    @EnabledIfSystemProperty(named = "catalog.benchmark", matches = "true")
+    public void benchmarkConcurrentWrites(final int threads) throws Exception {
+        WorkspaceInfoLookup lookup = new WorkspaceInfoLookup();
+        final long t0 = System.nanoTime();
+        long writes = runConcurrentWrites(lookup, threads, BENCHMARK_OBJECTS_PER_THREAD);
+        final long nanos = System.nanoTime() - t0;
+        LOGGER.info(
+                String.format(
+                        "%,d threads: %,d writes in %,d ms, %,.0f writes/sec",
+                        threads,
+                        writes,
+                        TimeUnit.NANOSECONDS.toMillis(nanos),
+                        writes / (nanos / 1e9)));
+        verify(lookup, threads, BENCHMARK_OBJECTS_PER_THREAD);
+    }
+
+    /** @return the number of writes performed */
+    private long runConcurrentWrites(
+            WorkspaceInfoLookup lookup, final int threads, final int objectsPerThread)
+            throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                results.add(
+                        executor.submit(() -> write(lookup, thread, objectsPerThread, start)));
+            }
+            start.countDown();
+            long writes = 0;
+            for (Future<Integer> f : results) {
+                writes += f.get(2, TimeUnit.MINUTES);
+            }
+            assertEquals(threads * (objectsPerThread * 2 + objectsPerThread / 2), writes);
+            return writes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void verify(WorkspaceInfoLookup lookup, final int threads, final int objectsPerThread) {
+        // every even object was removed, every odd one renamed
+        final long expected = threads * objectsPerThread / 2;
+        assertEquals(expected, lookup.count(WorkspaceInfo.class, Filter.INCLUDE));
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < objectsPerThread; i++) {
+                String id = id(t, i);
+                if (i % 2 == 0) {
+                    assertFalse(lookup.findById(id, WorkspaceInfo.class).isPresent());
+                    assertFalse(
+                            lookup.findFirstByName(id + "-renamed", WorkspaceInfo.class)
+                                    .isPresent());
+                } else {
+                    WorkspaceInfo ws = lookup.findById(id, WorkspaceInfo.class).orElseThrow();
+                    assertEquals(id + "-renamed", ws.getName());
+                    assertSame(
+                            ws,
+                            lookup.findFirstByName(ws.getName(), WorkspaceInfo.class)
+                                    .orElseThrow());
+                    assertTrue(lookup.findFirstByName(id, WorkspaceInfo.class).isEmpty());
+                }
+            }
+        }
+    }
+
+    private int write(
+            WorkspaceInfoLookup lookup, int thread, int objectsPerThread, CountDownLatch start)
+            throws InterruptedException {
+        start.await();
+        int writes = 0;
+        List<WorkspaceInfo> added = new ArrayList<>(objectsPerThread);
+        for (int i = 0; i < objectsPerThread; i++) {
+            WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+            ws.setId(id(thread, i));
+            ws.setName(ws.getId());
+            lookup.add(ws);
+            added.add(ws);
+            writes++;
+        }
+        for (WorkspaceInfo ws : added) {
+            lookup.update(ws, new Patch().with("name", ws.getId() + "-renamed"));
+            writes++;
+        }
+        for (int i = 0; i < objectsPerThread; i += 2) {
+            lookup.remove(added.get(i));
+            writes++;
+        }
+        return writes;
+    }
+
+    private String id(int thread, int i) {
+        return String.format("ws-%d-%d", thread, i);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static org.geoserver.catalog.Predicates.equal;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CoverageStoreInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.CoverageStoreInfoImpl;
+import org.geoserver.catalog.impl.DataStoreInfoImpl;
+import org.geoserver.catalog.impl.FeatureTypeInfoImpl;
+import org.geoserver.catalog.impl.LayerInfoImpl;
+import org.geoserver.catalog.impl.NamespaceInfoImpl;
+import org.geoserver.catalog.impl.StoreInfoImpl;
+import org.geoserver.catalog.impl.StyleInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.LayerInfoLookup;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.StoreInfoLookup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.Filter;
+import org.opengis.filter.MultiValuedFilter.MatchAction;
+
+import java.util.Arrays;
+
+/** Test suite for the constant time {@link CatalogInfoLookup#count} code paths */
+public class CatalogInfoLookupCountTest {
+
+    private StoreInfoLookup lookup;
+    private WorkspaceInfo ws1;
+    private WorkspaceInfo ws2;
+
+    public @BeforeEach void setup() {
+        CatalogInfoLookup.verifyIndexes = true;
+        lookup = new StoreInfoLookup();
+        ws1 = workspace("ws1");
+        ws2 = workspace("ws2");
+    }
+
+    public @AfterEach void tearDown() {
+        CatalogInfoLookup.verifyIndexes =
+                Boolean.getBoolean(CatalogInfoLookup.VERIFY_INDEXES_PROPERTY);
+    }
+
+    public @Test void testCountByType() {
+        add(new DataStoreInfoImpl((Catalog) null), "ds1", ws1);
+        add(new DataStoreInfoImpl((Catalog) null), "ds2", ws1);
+        StoreInfo cs1 = add(new CoverageStoreInfoImpl((Catalog) null), "cs1", ws2);
+
+        assertEquals(3, lookup.count(StoreInfo.class, Filter.INCLUDE));
+        assertEquals(2, lookup.count(DataStoreInfo.class, Filter.INCLUDE));
+        assertEquals(1, lookup.count(CoverageStoreInfo.class, Filter.INCLUDE));
+
+        lookup.remove(cs1);
+        lookup.remove(cs1);
+        assertEquals(2, lookup.count(StoreInfo.class, Filter.INCLUDE));
+        assertEquals(0, lookup.count(CoverageStoreInfo.class, Filter.INCLUDE));
+    }
+
+    public @Test void testCountByIndexedProperty() {
+        StoreInfo ds1 = add(new DataStoreInfoImpl((Catalog) null), "ds1", ws1);
+        add(new DataStoreInfoImpl((Catalog) null), "ds2", ws1);
+        add(new CoverageStoreInfoImpl((Catalog) null), "cs1", ws2);
+
+        assertEquals(2, lookup.count(StoreInfo.class, equal("workspace.id", "ws1")));
+        assertEquals(1, lookup.count(StoreInfo.class, equal("workspace.id", "ws2")));
+        assertEquals(0, lookup.count(StoreInfo.class, equal("workspace.id", "ws3")));
+        assertEquals(1, lookup.count(StoreInfo.class, equal("name", "ds2")));
+        // not the content type, resolved through the index candidates
+        assertEquals(0, lookup.count(DataStoreInfo.class, equal("workspace.id", "ws2")));
+
+        lookup.update(ds1, new Patch().with("workspace", ws2));
+        assertEquals(1, lookup.count(StoreInfo.class, equal("workspace.id", "ws1")));
+        assertEquals(2, lookup.count(StoreInfo.class, equal("workspace.id", "ws2")));
+        assertEquals(1, lookup.count(DataStoreInfo.class, equal("workspace.id", "ws2")));
+
+        lookup.remove(ds1);
+        assertEquals(1, lookup.count(StoreInfo.class, equal("workspace.id", "ws2")));
+    }
+
+    public @Test void testCountByStylesIdExcludesDefaultStyle() {
+        StyleInfo s1 = style("s1");
+        StyleInfo s2 = style("s2");
+        LayerInfoLookup layers = new LayerInfoLookup();
+        layers.add(layer("l1", s1, s2));
+        layers.add(layer("l2", s2));
+
+        // l2 only references s2 as its default style
+        assertEquals(1, layers.count(LayerInfo.class, equal("styles.id", "s2")));
+        assertEquals(0, layers.count(LayerInfo.class, equal("styles.id", "s1")));
+        assertEquals(1, layers.count(LayerInfo.class, equal("styles.id", "s2", MatchAction.ONE)));
+        assertEquals(2, layers.findAllByDefaultStyleOrStyles(s2).count());
+        assertEquals(1, layers.count(LayerInfo.class, equal("resource.id", "ft-l2")));
+    }
+
+    public @Test void testCountAfterSyncTo() {
+        add(new DataStoreInfoImpl((Catalog) null), "ds1", ws1);
+        add(new CoverageStoreInfoImpl((Catalog) null), "cs1", ws2);
+        StoreInfoLookup target = new StoreInfoLookup();
+        lookup.syncTo(target);
+        assertEquals(2, target.count(StoreInfo.class, Filter.INCLUDE));
+        assertEquals(1, target.count(DataStoreInfo.class, Filter.INCLUDE));
+        assertEquals(1, target.count(StoreInfo.class, equal("workspace.id", "ws2")));
+    }
+
+    private StoreInfo add(StoreInfoImpl store, String id, WorkspaceInfo ws) {
+        store.setId(id);
+        store.setName(id);
+        store.setWorkspace(ws);
+        lookup.add(store);
+        return store;
+    }
+
+    private LayerInfo layer(String name, StyleInfo defaultStyle, StyleInfo... styles) {
+        NamespaceInfoImpl ns = new NamespaceInfoImpl();
+        ns.setId("ns1");
+        ns.setPrefix("ns1");
+        FeatureTypeInfoImpl resource = new FeatureTypeInfoImpl();
+        resource.setId("ft-" + name);
+        resource.setName(name);
+        resource.setNamespace(ns);
+        LayerInfoImpl layer = new LayerInfoImpl();
+        layer.setId(name);
+        layer.setResource(resource);
+        layer.setDefaultStyle(defaultStyle);
+        layer.getStyles().addAll(Arrays.asList(styles));
+        return layer;
+    }
+
+    private StyleInfo style(String id) {
+        StyleInfoImpl style = new StyleInfoImpl(null);
+        style.setId(id);
+        style.setName(id);
+        return style;
+    }
+
+    private WorkspaceInfo workspace(String id) {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId(id);
+        ws.setName(id);
+        return ws;
+    }
+}
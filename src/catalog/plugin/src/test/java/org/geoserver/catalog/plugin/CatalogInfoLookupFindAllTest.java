@@ -0,0 +1,203 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.impl.CoverageInfoImpl;
+import org.geoserver.catalog.impl.FeatureTypeInfoImpl;
+import org.geoserver.catalog.impl.NamespaceInfoImpl;
+import org.geoserver.catalog.impl.ResourceInfoImpl;
+import org.geoserver.catalog.impl.StyleInfoImpl;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.LayerInfoLookup;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.ResourceInfoLookup;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.StyleInfoLookup;
+import org.geotools.factory.CommonFactoryFinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory2;
+import org.opengis.filter.sort.SortBy;
+import org.opengis.filter.sort.SortOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Test suite for the paged and sorted {@link CatalogInfoLookup#findAll(Query)} code paths,
+ * including the id range access path of keyset paged queries
+ */
+public class CatalogInfoLookupFindAllTest {
+
+    private static final int SIZE = 25;
+
+    private FilterFactory2 ff = CommonFactoryFinder.getFilterFactory2();
+
+    private StyleInfoLookup lookup;
+
+    /** All the styles, by ascending filename, then id */
+    private List<StyleInfo> sorted;
+
+    /** Adds the styles in random order, with only three distinct filenames */
+    public @BeforeEach void setup() {
+        lookup = new StyleInfoLookup();
+        List<StyleInfo> styles =
+                IntStream.range(0, SIZE)
+                        .mapToObj(i -> style(String.format("s%02d", i), "f" + (i % 3)))
+                        .collect(Collectors.toList());
+        Collections.shuffle(styles, new Random(1));
+        styles.forEach(lookup::add);
+        sorted = new ArrayList<>(styles);
+        sorted.sort(
+                Comparator.comparing(StyleInfo::getFilename).thenComparing(StyleInfo::getId));
+    }
+
+    public @Test void testSortedBreaksTiesById() {
+        assertEquals(ids(sorted), ids(query(null, null, SortOrder.ASCENDING)));
+
+        List<StyleInfo> descending = new ArrayList<>(sorted);
+        descending.sort(
+                Comparator.comparing(StyleInfo::getFilename)
+                        .reversed()
+                        .thenComparing(StyleInfo::getId));
+        assertEquals(ids(descending), ids(query(null, null, SortOrder.DESCENDING)));
+    }
+
+    public @Test void testSortedPagesAreConsistent() {
+        final int pageSize = 4;
+        List<String> paged = new ArrayList<>();
+        for (int offset = 0; offset < SIZE; offset += pageSize) {
+            List<StyleInfo> page = query(offset, pageSize, SortOrder.ASCENDING);
+            assertEquals(Math.min(pageSize, SIZE - offset), page.size());
+            assertEquals(ids(sorted.subList(offset, offset + page.size())), ids(page));
+            paged.addAll(ids(page));
+        }
+        assertEquals(ids(sorted), paged);
+    }
+
+    public @Test void testBoundedSortWithOffsetAndCount() {
+        assertEquals(ids(sorted.subList(0, 1)), ids(query(null, 1, SortOrder.ASCENDING)));
+        assertEquals(ids(sorted.subList(7, 12)), ids(query(7, 5, SortOrder.ASCENDING)));
+        assertEquals(ids(sorted.subList(20, SIZE)), ids(query(20, 10, SortOrder.ASCENDING)));
+        assertTrue(query(SIZE, 10, SortOrder.ASCENDING).isEmpty());
+        assertTrue(query(0, 0, SortOrder.ASCENDING).isEmpty());
+    }
+
+    public @Test void testUnsortedAndIdOrderQueriesAreLazy() {
+        Stream<StyleInfo> unsorted = lookup.findAll(Query.all(StyleInfo.class));
+        Stream<StyleInfo> idOrder =
+                lookup.findAll(
+                        Query.valueOf(
+                                StyleInfo.class,
+                                Filter.INCLUDE,
+                                null,
+                                null,
+                                ff.sort("id", SortOrder.ASCENDING)));
+        Stream<StyleInfo> sortedQuery =
+                lookup.findAll(
+                        Query.valueOf(
+                                StyleInfo.class,
+                                Filter.INCLUDE,
+                                null,
+                                null,
+                                ff.sort("filename", SortOrder.ASCENDING)));
+
+        // added after the queries were run, before their results are consumed
+        lookup.add(style("zz", "f0"));
+
+        assertEquals(SIZE + 1, unsorted.count());
+        assertEquals(SIZE + 1, idOrder.count());
+        assertEquals(SIZE, sortedQuery.count(), "sorted queries are evaluated eagerly");
+    }
+
+    public @Test void testKeysetPagingAcrossConcreteTypes() {
+        NamespaceInfoImpl ns = new NamespaceInfoImpl();
+        ns.setId("ns1");
+        ns.setPrefix("ns1");
+        ResourceInfoLookup resources = new ResourceInfoLookup(new LayerInfoLookup());
+        final int size = 25;
+        for (int i = 0; i < size; i++) {
+            ResourceInfoImpl r =
+                    i % 3 == 0 ? new CoverageInfoImpl((Catalog) null) : new FeatureTypeInfoImpl();
+            String id = String.format("r%02d", i);
+            r.setId(id);
+            r.setName(id);
+            r.setNamespace(ns);
+            resources.add(r);
+        }
+        final int pageSize = 10;
+        List<String> ids = new ArrayList<>();
+        String after = null;
+        List<String> page;
+        do {
+            Filter filter =
+                    after == null
+                            ? Filter.INCLUDE
+                            : ff.greater(ff.property("id"), ff.literal(after));
+            Query<ResourceInfo> query =
+                    Query.valueOf(
+                            ResourceInfo.class,
+                            filter,
+                            null,
+                            pageSize,
+                            ff.sort("id", SortOrder.ASCENDING));
+            page = resources.findAll(query).map(ResourceInfo::getId).collect(Collectors.toList());
+            ids.addAll(page);
+            after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == pageSize);
+
+        List<String> expected =
+                IntStream.range(0, size)
+                        .mapToObj(i -> String.format("r%02d", i))
+                        .collect(Collectors.toList());
+        assertEquals(expected, ids);
+
+        // a residual filter is evaluated on the objects after the continuation token
+        Filter filter =
+                ff.and(
+                        ff.greater(ff.property("id"), ff.literal("r10")),
+                        ff.like(ff.property("name"), "r1*"));
+        assertEquals(
+                List.of("r11", "r12", "r13"),
+                resources.findAll(
+                                Query.valueOf(
+                                        ResourceInfo.class,
+                                        filter,
+                                        null,
+                                        3,
+                                        ff.sort("id", SortOrder.ASCENDING)))
+                        .map(ResourceInfo::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    private List<StyleInfo> query(Integer offset, Integer count, SortOrder order) {
+        SortBy sortBy = ff.sort("filename", order);
+        Query<StyleInfo> query =
+                Query.valueOf(StyleInfo.class, Filter.INCLUDE, offset, count, sortBy);
+        return lookup.findAll(query).collect(Collectors.toList());
+    }
+
+    private List<String> ids(List<StyleInfo> styles) {
+        return styles.stream().map(StyleInfo::getId).collect(Collectors.toList());
+    }
+
+    private StyleInfo style(String id, String filename) {
+        StyleInfoImpl style = new StyleInfoImpl(null);
+        style.setId(id);
+        style.setName(id);
+        style.setFilename(filename);
+        return style;
+    }
+}
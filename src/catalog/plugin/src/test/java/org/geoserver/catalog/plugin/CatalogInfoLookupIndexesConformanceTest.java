@@ -0,0 +1,31 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+
+/**
+ * Runs the {@link CatalogConformanceTest} suite against the default in-memory {@link
+ * CatalogInfoLookup} repositories with {@link CatalogInfoLookup#verifyIndexes} enabled, so that
+ * every lookup resolved through a secondary {@link PropertyIndex} is checked against a full scan.
+ */
+public class CatalogInfoLookupIndexesConformanceTest extends CatalogConformanceTest {
+
+    private static boolean verifyIndexes;
+
+    public static @BeforeAll void enableIndexVerification() {
+        verifyIndexes = CatalogInfoLookup.verifyIndexes;
+        CatalogInfoLookup.verifyIndexes = true;
+    }
+
+    public static @AfterAll void restoreIndexVerification() {
+        CatalogInfoLookup.verifyIndexes = verifyIndexes;
+    }
+
+    protected @Override CatalogPlugin createCatalog() {
+        return new org.geoserver.catalog.plugin.CatalogPlugin();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static java.util.stream.Collectors.toList;
+
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CoverageInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.WMSLayerInfo;
+import org.geoserver.catalog.impl.CoverageInfoImpl;
+import org.geoserver.catalog.impl.FeatureTypeInfoImpl;
+import org.geoserver.catalog.impl.NamespaceInfoImpl;
+import org.geoserver.catalog.impl.ResourceInfoImpl;
+import org.geoserver.catalog.impl.WMSLayerInfoImpl;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.LayerInfoLookup;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.ResourceInfoLookup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.Filter;
+
+import java.util.List;
+
+/**
+ * Verifies the {@link CatalogInfoLookup} type dispatch table and global id lookup, resolving
+ * {@link CatalogInfoLookup#findById} by abstract and concrete type
+ */
+public class CatalogInfoLookupTypeDispatchTest {
+
+    private NamespaceInfoImpl ns;
+    private ResourceInfoLookup lookup;
+
+    public @BeforeEach void setup() {
+        ns = new NamespaceInfoImpl();
+        ns.setId("ns1");
+        ns.setPrefix("ns1");
+        lookup = new ResourceInfoLookup(new LayerInfoLookup());
+    }
+
+    public @Test void testFindByIdAbstractAndConcreteTypes() {
+        FeatureTypeInfo ft = add(new FeatureTypeInfoImpl(), "ft1");
+        CoverageInfo cov = add(new CoverageInfoImpl((Catalog) null), "cov1");
+
+        assertSame(ft, lookup.findById("ft1", ResourceInfo.class).orElseThrow());
+        assertSame(ft, lookup.findById("ft1", FeatureTypeInfo.class).orElseThrow());
+        assertFalse(lookup.findById("ft1", CoverageInfo.class).isPresent());
+
+        assertSame(cov, lookup.findById("cov1", ResourceInfo.class).orElseThrow());
+        assertSame(cov, lookup.findById("cov1", CoverageInfo.class).orElseThrow());
+        assertFalse(lookup.findById("cov1", FeatureTypeInfo.class).isPresent());
+
+        lookup.remove(ft);
+        assertFalse(lookup.findById("ft1", ResourceInfo.class).isPresent());
+        assertFalse(lookup.findById("ft1", FeatureTypeInfo.class).isPresent());
+    }
+
+    public @Test void testTypeRegisteredAfterDispatchIsCached() {
+        add(new FeatureTypeInfoImpl(), "ft1");
+        assertEquals(List.of(FeatureTypeInfoImpl.class), lookup.concreteTypes(ResourceInfo.class));
+        assertEquals(1, lookup.count(ResourceInfo.class, Filter.INCLUDE));
+
+        WMSLayerInfo wmsLayer = add(new WMSLayerInfoImpl((Catalog) null), "wms1");
+        assertEquals(
+                List.of(FeatureTypeInfoImpl.class, WMSLayerInfoImpl.class),
+                lookup.concreteTypes(ResourceInfo.class));
+        assertEquals(2, lookup.count(ResourceInfo.class, Filter.INCLUDE));
+        assertEquals(1, lookup.count(WMSLayerInfo.class, Filter.INCLUDE));
+        assertSame(wmsLayer, lookup.findFirstByName("wms1", ResourceInfo.class).orElseThrow());
+        assertTrue(lookup.concreteTypes(CoverageInfo.class).isEmpty());
+    }
+
+    public @Test void testFindFirstByNameResolvesAmbiguousNamesInNameOrder() {
+        NamespaceInfoImpl ns2 = new NamespaceInfoImpl();
+        ns2.setId("ns2");
+        ns2.setPrefix("ns2");
+
+        FeatureTypeInfo ns2ft = add(new FeatureTypeInfoImpl(), "a1", "same", ns2);
+        FeatureTypeInfo ns1ft = add(new FeatureTypeInfoImpl(), "b1", "same", ns);
+        CoverageInfo ns1cov = add(new CoverageInfoImpl((Catalog) null), "a0", "same", ns);
+
+        // by concrete type first, then by prefixed name, regardless of the ids
+        assertSame(ns1ft, lookup.findFirstByName("same", ResourceInfo.class).orElseThrow());
+        assertSame(ns1ft, lookup.findFirstByName("same", FeatureTypeInfo.class).orElseThrow());
+        assertSame(ns1cov, lookup.findFirstByName("same", CoverageInfo.class).orElseThrow());
+
+        lookup.remove(ns1ft);
+        assertSame(ns2ft, lookup.findFirstByName("same", ResourceInfo.class).orElseThrow());
+    }
+
+    public @Test void testAddDuplicateIdKeepsExistingObject() {
+        FeatureTypeInfo ft = add(new FeatureTypeInfoImpl(), "ft1");
+
+        NamespaceInfoImpl ns2 = new NamespaceInfoImpl();
+        ns2.setId("ns2");
+        add(new FeatureTypeInfoImpl(), "ft1", "other", ns2);
+        add(new CoverageInfoImpl((Catalog) null), "ft1", "cov", ns2);
+
+        assertSame(ft, lookup.findById("ft1", ResourceInfo.class).orElseThrow());
+        assertFalse(lookup.findById("ft1", CoverageInfo.class).isPresent());
+        assertSame(ft, lookup.findFirstByName("ft1", ResourceInfo.class).orElseThrow());
+        assertFalse(lookup.findFirstByName("other", ResourceInfo.class).isPresent());
+        assertFalse(lookup.findFirstByName("cov", ResourceInfo.class).isPresent());
+        assertEquals(1, lookup.count(ResourceInfo.class, Filter.INCLUDE));
+        assertEquals(
+                List.of(ft), lookup.findAllByNamespace(ns, ResourceInfo.class).collect(toList()));
+        assertEquals(0, lookup.findAllByNamespace(ns2, ResourceInfo.class).count());
+    }
+
+    public @Test void testSyncTo() {
+        FeatureTypeInfo ft = add(new FeatureTypeInfoImpl(), "ft1");
+        ResourceInfoLookup target = new ResourceInfoLookup(new LayerInfoLookup());
+        lookup.syncTo(target);
+        assertSame(ft, target.findById("ft1", ResourceInfo.class).orElseThrow());
+        assertEquals(List.of(FeatureTypeInfoImpl.class), target.concreteTypes(ResourceInfo.class));
+        assertEquals(1, target.list(ResourceInfo.class, r -> true).count());
+    }
+
+    public @Test void testFindByIdManyObjects() {
+        final int size = 1_000;
+        for (int i = 0; i < size; i++) {
+            ResourceInfoImpl r =
+                    i % 2 == 0 ? new FeatureTypeInfoImpl() : new CoverageInfoImpl((Catalog) null);
+            add(r, "r" + i);
+        }
+        add(new WMSLayerInfoImpl((Catalog) null), "wms");
+        for (int i = 0; i < size; i++) {
+            String id = "r" + i;
+            Class<? extends ResourceInfo> concrete =
+                    i % 2 == 0 ? FeatureTypeInfo.class : CoverageInfo.class;
+            Class<? extends ResourceInfo> other =
+                    i % 2 == 0 ? CoverageInfo.class : FeatureTypeInfo.class;
+            ResourceInfo found = lookup.findById(id, ResourceInfo.class).orElseThrow();
+            assertSame(found, lookup.findById(id, concrete).orElseThrow());
+            assertFalse(lookup.findById(id, other).isPresent());
+            assertFalse(lookup.findById(id, WMSLayerInfo.class).isPresent());
+        }
+        assertEquals(size / 2, lookup.count(CoverageInfo.class, Filter.INCLUDE));
+        assertEquals(size + 1, lookup.count(ResourceInfo.class, Filter.INCLUDE));
+    }
+
+    private <R extends ResourceInfoImpl> R add(R resource, String id) {
+        return add(resource, id, id, ns);
+    }
+
+    private <R extends ResourceInfoImpl> R add(
+            R resource, String id, String name, NamespaceInfoImpl namespace) {
+        resource.setId(id);
+        resource.setName(name);
+        resource.setNamespace(namespace);
+        lookup.add(resource);
+        return resource;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.CatalogTestData;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.Predicates;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.SLDHandler;
+import org.geoserver.catalog.StyleHandler;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.ModificationProxy;
+import org.geoserver.catalog.impl.ProxyUtils;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.Filter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Test suite for {@link DefaultMemoryCatalogFacade#setCopyOnWrite(boolean) copy-on-write} mode */
+public class DefaultMemoryCatalogFacadeCopyOnWriteTest {
+
+    private DefaultMemoryCatalogFacade facade;
+    private CatalogPlugin catalog;
+    private CatalogTestData data;
+
+    public static @BeforeAll void oneTimeSetup() {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+        if (null == GeoServerExtensions.bean("sldHandler"))
+            GeoServerExtensionsHelper.singleton("sldHandler", new SLDHandler(), StyleHandler.class);
+    }
+
+    public @BeforeEach void setup() {
+        facade = new DefaultMemoryCatalogFacade();
+        facade.setCopyOnWrite(true);
+        catalog = new CatalogPlugin(facade);
+        data =
+                CatalogTestData.empty(() -> catalog, () -> null)
+                        .initConfig(false)
+                        .initCatalog(true)
+                        .initialize();
+    }
+
+    public @Test void testUpdateInstallsNewVersion() {
+        final String id = data.dataStoreA.getId();
+        final DataStoreInfo published = facade.getStore(id, DataStoreInfo.class);
+        final String oldDescription = published.getDescription();
+
+        DataStoreInfo proxy = catalog.getDataStore(id);
+        proxy.setDescription("new description");
+        proxy.getConnectionParameters().put("newParam", "newValue");
+        catalog.save(proxy);
+
+        DataStoreInfo current = facade.getStore(id, DataStoreInfo.class);
+        assertNotSame(published, current);
+        assertEquals("new description", current.getDescription());
+        assertEquals("newValue", current.getConnectionParameters().get("newParam"));
+
+        // the published version is never modified
+        assertEquals(oldDescription, published.getDescription());
+        assertTrue(published.getConnectionParameters().get("newParam") == null);
+
+        // and the proxy still reflects the changes
+        assertEquals("new description", proxy.getDescription());
+        assertEquals("new description", catalog.getDataStore(id).getDescription());
+
+        // by proxying the new version, with no pending changes to be saved again
+        ModificationProxy handler = ProxyUtils.handler(proxy, ModificationProxy.class);
+        assertSame(current, handler.getProxyObject());
+        assertTrue(handler.getPropertyNames().isEmpty());
+    }
+
+    public @Test void testUpdateDoesNotCopyReferencingObjects() {
+        final String storeId = data.dataStoreA.getId();
+        final String layerId = data.layerFeatureTypeA.getId();
+        final StoreInfo storedStore = stored(facade.getStoreRepository(), storeId);
+        final LayerInfo storedLayer = stored(facade.getLayerRepository(), layerId);
+
+        WorkspaceInfo ws = facade.getWorkspace(data.workspaceA.getId());
+        facade.update(ws, new Patch().with("name", "newName"));
+
+        assertSame(storedStore, stored(facade.getStoreRepository(), storeId));
+        assertSame(storedLayer, stored(facade.getLayerRepository(), layerId));
+
+        // referencing objects are relinked the first time they're read
+        DataStoreInfo store = facade.getStore(storeId, DataStoreInfo.class);
+        assertNotSame(storedStore, store);
+        assertEquals("newName", store.getWorkspace().getName());
+        assertSame(store, stored(facade.getStoreRepository(), storeId));
+        assertSame(store, facade.getStore(storeId, DataStoreInfo.class));
+
+        // including the objects referencing them
+        LayerInfo layer = facade.getLayer(layerId);
+        StoreInfo layerStore = layer.getResource().getStore();
+        assertSame(store, layerStore);
+        assertEquals("newName", layerStore.getWorkspace().getName());
+    }
+
+    public @Test void testQueriesEvaluateCurrentReferences() {
+        WorkspaceInfo ws = facade.getWorkspace(data.workspaceA.getId());
+        facade.update(ws, new Patch().with("name", "newName"));
+
+        Filter filter = Predicates.equal("workspace.name", "newName");
+        List<String> ids =
+                facade.query(Query.valueOf(DataStoreInfo.class, filter))
+                        .map(CatalogInfo::getId)
+                        .collect(Collectors.toList());
+        assertTrue(ids.contains(data.dataStoreA.getId()));
+    }
+
+    public @Test void testLayerFoundByNameAfterResourceRename() {
+        FeatureTypeInfo ft = facade.getResource(data.featureTypeA.getId(), FeatureTypeInfo.class);
+        facade.update(ft, new Patch().with("name", "newName"));
+
+        LayerInfo layer = facade.getLayerByName("newName");
+        assertNotNull(layer);
+        assertEquals(data.layerFeatureTypeA.getId(), layer.getId());
+        assertEquals("newName", layer.getName());
+        assertNull(facade.getLayerByName(data.featureTypeA.getName()));
+    }
+
+    public @Test void testReferencesAreSwitchedToNewVersion() {
+        WorkspaceInfo ws = catalog.getWorkspace(data.workspaceA.getId());
+        ws.setName("newName");
+        catalog.save(ws);
+
+        WorkspaceInfo newWorkspace = facade.getWorkspace(ws.getId());
+        DataStoreInfo store = facade.getStore(data.dataStoreA.getId(), DataStoreInfo.class);
+        assertSame(newWorkspace, store.getWorkspace());
+
+        DataStoreInfo ds = catalog.getDataStore(data.dataStoreA.getId());
+        ds.setDescription("changed");
+        catalog.save(ds);
+
+        DataStoreInfo newStore = facade.getStore(ds.getId(), DataStoreInfo.class);
+        FeatureTypeInfo ft = facade.getResource(data.featureTypeA.getId(), FeatureTypeInfo.class);
+        assertSame(newStore, ft.getStore());
+
+        FeatureTypeInfo ftProxy = catalog.getFeatureType(ft.getId());
+        ftProxy.setTitle("new title");
+        catalog.save(ftProxy);
+
+        FeatureTypeInfo newFt = facade.getResource(ft.getId(), FeatureTypeInfo.class);
+        LayerInfo layer = facade.getLayer(data.layerFeatureTypeA.getId());
+        assertSame(newFt, layer.getResource());
+        assertEquals("new title", layer.getResource().getTitle());
+    }
+
+    public @Test void testStyleReferencesAreSwitchedToNewVersion() {
+        StyleInfo style = catalog.getStyle(data.style1.getId());
+        style.setFilename("newfile.sld");
+        catalog.save(style);
+
+        StyleInfo newStyle = facade.getStyle(style.getId());
+        LayerInfo layer = facade.getLayer(data.layerFeatureTypeA.getId());
+        assertSame(newStyle, layer.getDefaultStyle());
+
+        LayerGroupInfo lg = facade.getLayerGroup(data.layerGroup1.getId());
+        assertTrue(lg.getStyles().stream().allMatch(s -> s == null || s == newStyle));
+    }
+
+    public @Test void testPublishedHoldersAreNotModified() {
+        final DataStoreInfo oldStore =
+                facade.getStore(data.dataStoreA.getId(), DataStoreInfo.class);
+        final WorkspaceInfo oldWorkspace = oldStore.getWorkspace();
+        final LayerInfo oldLayer = facade.getLayer(data.layerFeatureTypeA.getId());
+        final StyleInfo oldStyle = oldLayer.getDefaultStyle();
+        final LayerGroupInfo oldGroup = facade.getLayerGroup(data.layerGroup1.getId());
+        final List<PublishedInfo> oldGroupLayers = List.copyOf(oldGroup.getLayers());
+
+        WorkspaceInfo ws = catalog.getWorkspace(oldWorkspace.getId());
+        ws.setName("newName");
+        catalog.save(ws);
+        StyleInfo style = catalog.getStyle(oldStyle.getId());
+        style.setFilename("newfile.sld");
+        catalog.save(style);
+
+        assertSame(oldWorkspace, oldStore.getWorkspace());
+        assertSame(oldStyle, oldLayer.getDefaultStyle());
+        assertSame(oldLayer, oldGroupLayers.get(0));
+        assertSame(oldLayer, oldGroup.getLayers().get(0));
+
+        DataStoreInfo newStore = facade.getStore(oldStore.getId(), DataStoreInfo.class);
+        assertNotSame(oldStore, newStore);
+        assertEquals("newName", newStore.getWorkspace().getName());
+        LayerInfo newLayer = facade.getLayer(oldLayer.getId());
+        assertNotSame(oldLayer, newLayer);
+        assertSame(facade.getStyle(oldStyle.getId()), newLayer.getDefaultStyle());
+        // the layer group is relinked to the new version of the layer
+        LayerGroupInfo newGroup = facade.getLayerGroup(oldGroup.getId());
+        assertTrue(newGroup.getLayers().stream().anyMatch(l -> l == newLayer));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends CatalogInfo> T stored(
+            CatalogInfoRepository<? super T> repository, String id) {
+        return (T) ((CatalogInfoLookup<?>) repository).idLookup.get(id);
+    }
+}
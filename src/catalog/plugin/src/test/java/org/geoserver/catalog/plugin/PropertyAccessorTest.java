@@ -0,0 +1,77 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.DataStoreInfoImpl;
+import org.geoserver.catalog.impl.FeatureTypeInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+public class PropertyAccessorTest {
+
+    public @Test void testSimpleProperty() {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setName("ws1");
+        PropertyAccessor accessor = PropertyAccessor.of(WorkspaceInfoImpl.class, "name");
+        assertTrue(accessor.isCompiled());
+        assertEquals("ws1", accessor.get(ws));
+        assertEquals("ws1", PropertyAccessor.get(ws, "name"));
+        assertSame(accessor, PropertyAccessor.of(WorkspaceInfoImpl.class, "name"));
+    }
+
+    public @Test void testNestedProperty() {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setName("ws1");
+        DataStoreInfoImpl store = new DataStoreInfoImpl((Catalog) null);
+        store.setName("ds1");
+        store.setWorkspace(ws);
+        FeatureTypeInfoImpl ft = new FeatureTypeInfoImpl();
+        ft.setStore(store);
+
+        PropertyAccessor accessor = PropertyAccessor.of(FeatureTypeInfoImpl.class, "store.name");
+        assertTrue(accessor.isCompiled());
+        assertEquals("ds1", accessor.get(ft));
+        assertEquals("ws1", PropertyAccessor.get(ft, "store.workspace.name"));
+    }
+
+    public @Test void testNullIntermediateProperty() {
+        FeatureTypeInfoImpl ft = new FeatureTypeInfoImpl();
+        assertNull(ft.getStore());
+        assertNull(PropertyAccessor.get(ft, "store.name"));
+        assertNull(PropertyAccessor.get(ft, "store.workspace.name"));
+    }
+
+    public @Test void testMapPropertyFallsBackToOwsUtils() {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.getMetadata().put("key", "value");
+        PropertyAccessor accessor = PropertyAccessor.of(WorkspaceInfoImpl.class, "metadata.key");
+        assertFalse(accessor.isCompiled());
+        assertEquals("value", accessor.get(ws));
+    }
+
+    public @Test void testProxyFallsBackToOwsUtils() {
+        WorkspaceInfo proxy =
+                (WorkspaceInfo)
+                        Proxy.newProxyInstance(
+                                getClass().getClassLoader(),
+                                new Class<?>[] {WorkspaceInfo.class},
+                                (p, method, args) ->
+                                        "getName".equals(method.getName()) ? "proxied" : null);
+
+        PropertyAccessor accessor = PropertyAccessor.of(proxy.getClass(), "name");
+        assertFalse(accessor.isCompiled());
+        assertEquals("proxied", accessor.get(proxy));
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.StyleInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class PropertyIndexTest {
+
+    private PropertyIndex<StyleInfo> index =
+            PropertyIndex.of("workspace.id", s -> PropertyIndex.id(s.getWorkspace()));
+
+    private StyleInfo style(String id, WorkspaceInfo workspace) {
+        StyleInfoImpl style = new StyleInfoImpl(null);
+        style.setId(id);
+        style.setName(id);
+        style.setWorkspace(workspace);
+        return style;
+    }
+
+    public @Test void testNullKeyDoesNotMatchEmptyString() {
+        WorkspaceInfoImpl emptyId = new WorkspaceInfoImpl();
+        emptyId.setId("");
+        index.add(style("global", null));
+        index.add(style("scoped", emptyId));
+
+        assertEquals(Set.of("global"), index.get(null));
+        assertEquals(Set.of("scoped"), index.get(""));
+        assertEquals(1, index.count(null));
+        assertEquals(1, index.count(""));
+
+        index.remove("global");
+        assertEquals(Set.of(), index.get(null));
+        assertEquals(Set.of("scoped"), index.get(""));
+    }
+}
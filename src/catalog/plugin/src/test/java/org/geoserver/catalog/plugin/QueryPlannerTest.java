@@ -0,0 +1,167 @@
+/*
+ * (c) 2022 Open Source Geospatial Foundation - all rights reserved This code is licensed under the
+ * GPL 2.0 license, available at the root application directory.
+ */
+package org.geoserver.catalog.plugin;
+
+import static org.geoserver.catalog.Predicates.and;
+import static org.geoserver.catalog.Predicates.equal;
+import static org.geoserver.catalog.Predicates.like;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.StyleInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.LayerInfoLookup;
+import org.geoserver.catalog.plugin.CatalogInfoLookup.StyleInfoLookup;
+import org.geoserver.catalog.plugin.QueryPlanner.QueryPlan;
+import org.geotools.factory.CommonFactoryFinder;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory2;
+import org.opengis.filter.MultiValuedFilter.MatchAction;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class QueryPlannerTest {
+
+    private static final Set<String> INDEXES = Set.of("name", "workspace.id", "store.id");
+
+    private FilterFactory2 ff = CommonFactoryFinder.getFilterFactory2();
+
+    public @Test void testFullScan() {
+        assertTrue(QueryPlanner.plan(Filter.INCLUDE, INDEXES).isFullScan());
+        Filter filter = like("title", "*roads*");
+        QueryPlan plan = QueryPlanner.plan(filter, INDEXES);
+        assertTrue(plan.isFullScan());
+        assertEquals(filter, plan.getResidual());
+
+        filter = equal("namespace.id", "ns1");
+        assertTrue(QueryPlanner.plan(filter, INDEXES).isFullScan(), "not an indexed property");
+    }
+
+    public @Test void testIdEqualTo() {
+        QueryPlan plan = QueryPlanner.plan(equal("id", "ws1"), INDEXES);
+        assertTrue(plan.isIdLookup());
+        assertEquals(Set.of("ws1"), plan.getIds());
+        assertEquals(Filter.INCLUDE, plan.getResidual());
+    }
+
+    public @Test void testIdFilter() {
+        Filter filter = ff.id(ff.featureId("ws1"), ff.featureId("ws2"));
+        QueryPlan plan = QueryPlanner.plan(filter, INDEXES);
+        assertTrue(plan.isIdLookup());
+        assertEquals(Set.of("ws1", "ws2"), plan.getIds());
+        assertEquals(Filter.INCLUDE, plan.getResidual());
+    }
+
+    public @Test void testIndexedProperty() {
+        QueryPlan plan = QueryPlanner.plan(equal("workspace.id", "ws1"), INDEXES);
+        assertTrue(plan.isIndexLookup());
+        assertEquals("workspace.id", plan.getIndexProperty());
+        assertEquals("ws1", plan.getIndexKey());
+        assertEquals(Filter.INCLUDE, plan.getResidual());
+    }
+
+    public @Test void testCaseInsensitiveIsNotIndexed() {
+        Filter filter = ff.equal(ff.property("name"), ff.literal("roads"), false);
+        assertTrue(QueryPlanner.plan(filter, INDEXES).isFullScan());
+    }
+
+    public @Test void testOnlyMatchActionAnyIsIndexed() {
+        Filter one = ff.equal(ff.property("name"), ff.literal("roads"), true, MatchAction.ONE);
+        assertTrue(QueryPlanner.plan(one, INDEXES).isFullScan());
+        Filter all = ff.equal(ff.property("id"), ff.literal("ft1"), true, MatchAction.ALL);
+        assertTrue(QueryPlanner.plan(all, INDEXES).isFullScan());
+        Filter any = ff.equal(ff.property("name"), ff.literal("roads"), true, MatchAction.ANY);
+        assertTrue(QueryPlanner.plan(any, INDEXES).isIndexLookup());
+    }
+
+    public @Test void testInternalIndexIsNotUsed() {
+        Set<String> indexes = Set.of("name", "@styles.id");
+        Filter filter = equal("@styles.id", "s1");
+        QueryPlan plan = QueryPlanner.plan(filter, indexes);
+        assertTrue(plan.isFullScan());
+        assertEquals(filter, plan.getResidual());
+
+        // LayerInfo's style index also holds the default style, can't answer styles.id filters
+        Set<String> layerIndexes = new LayerInfoLookup().indexes.keySet();
+        assertTrue(QueryPlanner.plan(equal("styles.id", "s1"), layerIndexes).isFullScan());
+    }
+
+    public @Test void testAndWithResidual() {
+        Filter title = like("title", "*roads*");
+        Filter filter = and(title, equal("store.id", "ds1"));
+        QueryPlan plan = QueryPlanner.plan(filter, INDEXES);
+        assertTrue(plan.isIndexLookup());
+        assertEquals("store.id", plan.getIndexProperty());
+        assertEquals("ds1", plan.getIndexKey());
+        assertEquals(title, plan.getResidual());
+    }
+
+    public @Test void testAndPrefersIdLookup() {
+        Filter name = equal("name", "roads");
+        Filter title = like("title", "*roads*");
+        Filter filter = and(name, title, equal("id", "ft1"));
+        QueryPlan plan = QueryPlanner.plan(filter, INDEXES);
+        assertTrue(plan.isIdLookup());
+        assertEquals(Set.of("ft1"), plan.getIds());
+        assertEquals(and(name, title), plan.getResidual());
+    }
+
+    public @Test void testIdRange() {
+        Filter after = ff.greater(ff.property("id"), ff.literal("ws1"));
+        QueryPlan plan = QueryPlanner.plan(after, INDEXES);
+        assertTrue(plan.isIdRange());
+        assertEquals("ws1", plan.getIdAfter());
+        assertEquals(Filter.INCLUDE, plan.getResidual());
+
+        Filter title = like("title", "*roads*");
+        plan = QueryPlanner.plan(and(title, after), INDEXES);
+        assertTrue(plan.isIdRange());
+        assertEquals(title, plan.getResidual());
+
+        // an index lookup is preferred, the range becomes part of the residual
+        plan = QueryPlanner.plan(and(after, equal("store.id", "ds1")), INDEXES);
+        assertTrue(plan.isIndexLookup());
+        assertEquals(after, plan.getResidual());
+
+        Filter less = ff.less(ff.property("id"), ff.literal("ws1"));
+        assertTrue(QueryPlanner.plan(less, INDEXES).isFullScan());
+    }
+
+    public @Test void testEmptyStringDoesNotMatchNullReference() {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId("ws1");
+        ws.setName("ws1");
+        StyleInfoLookup lookup = new StyleInfoLookup();
+        lookup.add(style("global", null));
+        lookup.add(style("scoped", ws));
+
+        Filter filter = equal("workspace.id", "");
+        assertTrue(QueryPlanner.plan(filter, lookup.indexes.keySet()).isIndexLookup());
+        List<String> found =
+                lookup.findAll(Query.valueOf(StyleInfo.class, filter))
+                        .map(StyleInfo::getId)
+                        .collect(Collectors.toList());
+        assertTrue(found.isEmpty(), () -> "expected no match, got " + found);
+        assertEquals(0, lookup.count(StyleInfo.class, filter));
+        assertEquals(
+                List.of("global"),
+                lookup.findAllByNullWorkspace()
+                        .map(StyleInfo::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    private StyleInfo style(String id, WorkspaceInfo workspace) {
+        StyleInfoImpl style = new StyleInfoImpl(null);
+        style.setId(id);
+        style.setName(id);
+        style.setWorkspace(workspace);
+        return style;
+    }
+}